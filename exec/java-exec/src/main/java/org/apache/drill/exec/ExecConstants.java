@@ -102,6 +102,15 @@ public final class ExecConstants {
   public static final DoubleValidator OUTPUT_BATCH_SIZE_AVAIL_MEM_FACTOR_VALIDATOR = new RangeDoubleValidator(OUTPUT_BATCH_SIZE_AVAIL_MEM_FACTOR, 0.01, 1.0,
       new OptionDescription("Based on the available system memory, adjusts the output batch size for buffered operators by the factor set."));
 
+  // Lets streaming operators tune their output batch size at run time, between the
+  // minimum below and OUTPUT_BATCH_SIZE, based on how fast downstream consumes rows.
+  public static final String ADAPTIVE_BATCH_SIZE = "drill.exec.memory.operator.adaptive_batch_size";
+  public static final BooleanValidator ADAPTIVE_BATCH_SIZE_VALIDATOR = new BooleanValidator(ADAPTIVE_BATCH_SIZE,
+      new OptionDescription("Enables run-time tuning of the output batch size of the Project, Flatten, Unnest, Merge Join, Lateral Join and Union All operators. The size shrinks while smaller batches are consumed faster per row downstream and is capped by the memory left to the operator. (Since Drill 1.23)"));
+  public static final String ADAPTIVE_BATCH_MIN_SIZE = "drill.exec.memory.operator.adaptive_batch_min_size";
+  public static final LongValidator ADAPTIVE_BATCH_MIN_SIZE_VALIDATOR = new RangeLongValidator(ADAPTIVE_BATCH_MIN_SIZE, 128, 512 * 1024 * 1024,
+      new OptionDescription("Smallest output batch size in bytes the adaptive batch sizing may choose. (Since Drill 1.23)"));
+
   // External Sort Boot configuration
 
   public static final String EXTERNAL_SORT_TARGET_SPILL_BATCH_SIZE = "drill.exec.sort.external.spill.batch.size";
@@ -203,6 +212,10 @@ public final class ExecConstants {
   public static final LongValidator PARTITIONER_MEMORY_REDUCTION_THRESHOLD_VALIDATOR =
       new RangeLongValidator(PARTITIONER_MEMORY_REDUCTION_THRESHOLD_KEY, 0, Integer.MAX_VALUE,
       new OptionDescription("Linearly reduces partition sender buffer row count after this number of receivers. Default is 0 (disabled). (Since Drill 1.18)"));
+  public static final String PARTITIONER_BATCH_SCATTER_KEY = "exec.partition.batch_scatter";
+  public static final BooleanValidator PARTITIONER_BATCH_SCATTER_VALIDATOR = new BooleanValidator(PARTITIONER_BATCH_SCATTER_KEY,
+      new OptionDescription("When true, the partition sender computes destinations for the whole incoming batch first and then copies " +
+          "rows grouped by destination, instead of copying row by row. Default is false. (Since Drill 1.23)"));
 
   public static final String SSL_PROVIDER = "drill.exec.ssl.provider"; // valid values are "JDK", "OPENSSL" // default JDK
   public static final String SSL_PROTOCOL = "drill.exec.ssl.protocol"; // valid values are SSL, SSLV2, SSLV3, TLS, TLSV1, TLSv1.1, TLSv1.2, TLSv1.3(default)
@@ -219,6 +232,17 @@ public final class ExecConstants {
   public static final String TEXT_LINE_READER_BATCH_SIZE = "drill.exec.storage.file.text.batch.size";
   public static final String TEXT_LINE_READER_BUFFER_SIZE = "drill.exec.storage.file.text.buffer.size";
   public static final String FILE_PLUGIN_MOUNT_COMMANDS = "drill.exec.storage.file.enable_mount_commands";
+  // Process-wide cache of Parquet footers, see ParquetFooterCache
+  public static final String PARQUET_FOOTER_CACHE_ENABLED = "drill.exec.storage.file.parquet.footer_cache.enabled";
+  public static final String PARQUET_FOOTER_CACHE_MAX_COLUMN_CHUNKS = "drill.exec.storage.file.parquet.footer_cache.max_column_chunks";
+  public static final String PARQUET_FOOTER_CACHE_DIRECTORY = "drill.exec.storage.file.parquet.footer_cache.directory";
+  public static final String PARQUET_FOOTER_CACHE_DIRECTORY_MAX_SIZE = "drill.exec.storage.file.parquet.footer_cache.directory_max_size";
+  // Process-wide cache of directory listings, see FileListingCache
+  public static final String FILE_LISTING_CACHE_ENABLED = "drill.exec.storage.file.listing_cache.enabled";
+  public static final String FILE_LISTING_CACHE_TTL = "drill.exec.storage.file.listing_cache.ttl";
+  public static final String FILE_LISTING_CACHE_MAX_ENTRIES = "drill.exec.storage.file.listing_cache.max_entries";
+  // Process-wide cache of compiled patterns of string functions, see PatternCache
+  public static final String PATTERN_CACHE_MAX_ENTRIES = "drill.exec.functions.pattern_cache.max_entries";
   public static final String HAZELCAST_SUBNETS = "drill.exec.cache.hazel.subnets";
   public static final String HTTP_ENABLE = "drill.exec.http.enabled";
   public static final String HTTP_MAX_PROFILES = "drill.exec.http.max_profiles";
@@ -292,6 +316,18 @@ public final class ExecConstants {
   public static final String SYS_STORE_PROVIDER_LOCAL_ENABLE_WRITE = "drill.exec.sys.store.provider.local.write";
   public static final String PROFILES_STORE_INMEMORY = "drill.exec.profiles.store.inmemory";
   public static final String PROFILES_STORE_CAPACITY = "drill.exec.profiles.store.capacity";
+  // Format of completed profiles in the persistent store: "json" or "binary" (protobuf wire format)
+  public static final String PROFILES_STORE_FORMAT = "drill.exec.profiles.store.format";
+  // Persist completed profiles on a background thread instead of the Foreman's completion path
+  public static final String PROFILES_STORE_ASYNC_WRITE = "drill.exec.profiles.store.async_write";
+  // Keep a store of profile summaries (without fragment profiles) for listing profiles
+  public static final String PROFILES_STORE_INDEX = "drill.exec.profiles.store.index";
+  // Local directory of the query result cache, see QUERY_RESULT_CACHE_ENABLED
+  public static final String RESULT_CACHE_DIRECTORY = "drill.exec.result_cache.directory";
+  // Bytes of cached query results kept on disk by each Drillbit
+  public static final String RESULT_CACHE_MAX_SIZE = "drill.exec.result_cache.max_size";
+  // Query results larger than this many bytes are not cached
+  public static final String RESULT_CACHE_MAX_ENTRY_SIZE = "drill.exec.result_cache.max_entry_size";
   public static final String IMPERSONATION_ENABLED = "drill.exec.impersonation.enabled";
   public static final String IMPERSONATION_MAX_CHAINED_USER_HOPS = "drill.exec.impersonation.max_chained_user_hops";
   public static final String AUTHENTICATION_MECHANISMS = "drill.exec.security.auth.mechanisms";
@@ -323,6 +359,14 @@ public final class ExecConstants {
   // The size of the thread pool used by a scan to decode the data. Used by Parquet
   public static final String SCAN_DECODE_THREADPOOL_SIZE = "drill.exec.scan.decode_threadpool_size";
 
+  // Cooperative fragment scheduling: run fragments in slices on a fixed-size work-stealing pool
+  // instead of one dedicated thread per fragment. See FragmentScheduler.
+  public static final String FRAGMENT_SCHEDULER_COOPERATIVE = "drill.exec.work.scheduler.cooperative";
+  // Number of scheduler worker threads, 0 means the number of available cores.
+  public static final String FRAGMENT_SCHEDULER_THREADS = "drill.exec.work.scheduler.threads";
+  // Maximum time a fragment runs before yielding its thread to other runnable fragments.
+  public static final String FRAGMENT_SCHEDULER_TIME_SLICE_MS = "drill.exec.work.scheduler.time_slice_ms";
+
   /**
    * Currently if a query is cancelled, but one of the fragments reports the status as FAILED instead of CANCELLED or
    * FINISHED we report the query result as CANCELLED by swallowing the failures occurred in fragments. This BOOT
@@ -832,6 +876,22 @@ public final class ExecConstants {
   public static final LongValidator QUEUE_TIMEOUT = new PositiveLongValidator("exec.queue.timeout_millis", Long.MAX_VALUE,
       new OptionDescription("Indicates how long a query can wait in queue before the query fails. Range: 0-9223372036854775807"));
 
+  // Relative CPU weight of a query when fragments are run by the cooperative
+  // fragment scheduler. Has no effect when each fragment has its own thread.
+  public static final String QUERY_SCHEDULING_WEIGHT_KEY = "exec.query.scheduling_weight";
+  public static final LongValidator QUERY_SCHEDULING_WEIGHT = new RangeLongValidator(QUERY_SCHEDULING_WEIGHT_KEY, 1, 1000,
+      new OptionDescription("Relative share of CPU time given to the fragments of a query when cooperative fragment scheduling is enabled. A query with weight 20 receives twice the CPU time of a concurrent query with weight 10. Range: 1-1000 (Since Drill 1.23)"));
+  public static final String QUEUE_LARGE_SCHEDULING_WEIGHT_KEY = "exec.queue.large_scheduling_weight";
+  public static final LongValidator QUEUE_LARGE_SCHEDULING_WEIGHT = new RangeLongValidator(QUEUE_LARGE_SCHEDULING_WEIGHT_KEY, 0, 1000,
+      new OptionDescription("Scheduling weight assigned to queries admitted to the large query queue. 0 keeps the weight set by exec.query.scheduling_weight. Range: 0-1000 (Since Drill 1.23)"));
+
+  public static final String QUERY_RESULT_CACHE_ENABLED_KEY = "exec.query.result_cache.enabled";
+  public static final BooleanValidator QUERY_RESULT_CACHE_ENABLED = new BooleanValidator(QUERY_RESULT_CACHE_ENABLED_KEY,
+      new OptionDescription("Caches the results of deterministic queries over file-based tables on the local disk of the Drillbit that ran them. Repeated queries with the same text, user, default schema and options return the cached results while the files they read are unchanged. Requires the drill.exec.result_cache.directory boot option. (Since Drill 1.23)"));
+  public static final String QUERY_RESULT_CACHE_TTL_KEY = "exec.query.result_cache.ttl";
+  public static final LongValidator QUERY_RESULT_CACHE_TTL = new RangeLongValidator(QUERY_RESULT_CACHE_TTL_KEY, 1, 86400,
+      new OptionDescription("Time in seconds after which a cached query result is computed again, to pick up changes that the cache cannot detect, such as views changed through other Drillbits. Range: 1-86400 (Since Drill 1.23)"));
+
   // New Smart RM boot time configs
   public static final String RM_QUERY_TAGS_KEY = "exec.rm.queryTags";
   public static final StringValidator RM_QUERY_TAGS_VALIDATOR = new StringValidator(RM_QUERY_TAGS_KEY,
@@ -906,6 +966,41 @@ public final class ExecConstants {
           "When enabled, the query planner will attempt to match queries against materialized views " +
           "and use the pre-computed results instead of executing the original query."));
 
+  public static final String MATERIALIZED_VIEW_CATALOG_TTL_KEY = "planner.materialized_view_catalog_ttl";
+  public static final RangeLongValidator MATERIALIZED_VIEW_CATALOG_TTL = new RangeLongValidator(
+      MATERIALIZED_VIEW_CATALOG_TTL_KEY, 0, 86400,
+      new OptionDescription("Time in seconds after which the Drillbit reloads its cached list of materialized " +
+          "views used for query rewriting, to pick up views created or dropped through other Drillbits. " +
+          "0 disables the cache so that every planned query lists the materialized views. (Since Drill 1.23)"));
+
+  public static final String MATERIALIZED_VIEW_INCREMENTAL_REFRESH_KEY = "planner.materialized_view_incremental_refresh";
+  public static final BooleanValidator MATERIALIZED_VIEW_INCREMENTAL_REFRESH = new BooleanValidator(
+      MATERIALIZED_VIEW_INCREMENTAL_REFRESH_KEY,
+      new OptionDescription("Enables incremental REFRESH MATERIALIZED VIEW. Views over a single file-based table " +
+          "made of filters, projections and SUM, MIN, MAX or COUNT aggregates are refreshed by processing only " +
+          "the source files added since the last refresh. Any other source change triggers a full refresh. " +
+          "(Since Drill 1.23)"));
+
+  public static final String QUERY_PLAN_CACHE_ENABLED_KEY = "planner.query_plan_cache.enabled";
+  public static final BooleanValidator QUERY_PLAN_CACHE_ENABLED = new BooleanValidator(
+      QUERY_PLAN_CACHE_ENABLED_KEY,
+      new OptionDescription("Caches the physical plans of queries on the Drillbit that planned them, so that " +
+          "repeated queries with the same text, user, default schema and options skip planning. Plans reading " +
+          "files are reused only while the files they read are unchanged. Requires the drill.exec.result_cache.directory boot option. (Since Drill 1.23)"));
+
+  public static final String QUERY_PLAN_CACHE_MAX_ENTRIES_KEY = "planner.query_plan_cache.max_entries";
+  public static final RangeLongValidator QUERY_PLAN_CACHE_MAX_ENTRIES = new RangeLongValidator(
+      QUERY_PLAN_CACHE_MAX_ENTRIES_KEY, 1, 100000,
+      new OptionDescription("Maximum number of plans kept in the query plan cache of each Drillbit. " +
+          "The least recently used plans are evicted first. (Since Drill 1.23)"));
+
+  public static final String QUERY_PLAN_CACHE_TTL_KEY = "planner.query_plan_cache.ttl";
+  public static final RangeLongValidator QUERY_PLAN_CACHE_TTL = new RangeLongValidator(
+      QUERY_PLAN_CACHE_TTL_KEY, 1, 86400,
+      new OptionDescription("Time in seconds after which a cached query plan is planned again, to pick up " +
+          "changes that the cache cannot detect, such as views or storage plugins changed through other " +
+          "Drillbits. (Since Drill 1.23)"));
+
   public static final String CTAS_PARTITIONING_HASH_DISTRIBUTE = "store.partition.hash_distribute";
   public static final BooleanValidator CTAS_PARTITIONING_HASH_DISTRIBUTE_VALIDATOR = new BooleanValidator(CTAS_PARTITIONING_HASH_DISTRIBUTE,
       new OptionDescription("Uses a hash algorithm to distribute data on partition keys in a CTAS partitioning operation. An alpha option--for experimental use at this stage. Do not use in production systems."));
@@ -1006,10 +1101,33 @@ public final class ExecConstants {
   public static final LongValidator CODE_GEN_EXP_IN_METHOD_SIZE_VALIDATOR = new LongValidator(CODE_GEN_EXP_IN_METHOD_SIZE,
       new OptionDescription("Introduced in Drill 1.8. For queries with complex or multiple expressions in the query logic, this option limits the number of expressions allowed in each method to prevent Drill from generating code that exceeds the Java limit of 64K bytes. If a method approaches the 64K limit, the Java compiler returns a message stating that the code is too large to compile. If queries return such a message, reduce the value of this option at the session level. The default value for this option is 50. The value is the count of expressions allowed in a method. Expressions are added to a method until they hit the Java 64K limit, when a new inner method is created and called from the existing method. Note: This logic has not been implemented for all operators. If a query uses operators for which the logic is not implemented, reducing the setting for this option may not resolve the error. Setting this option at the system level impacts all queries and can degrade query performance."));
 
+  public static final String PRECOMPILED_KERNELS_KEY = "exec.java.precompiled_kernels";
+  public static final BooleanValidator PRECOMPILED_KERNELS = new BooleanValidator(PRECOMPILED_KERNELS_KEY,
+      new OptionDescription("Runs simple filters, such as comparisons of an INT or BIGINT column with a literal, and projections that only pass columns through with precompiled code instead of generating and compiling a class. (Since Drill 1.23)"));
+
+  public static final String ASYNC_COMPILE_KEY = "exec.java.async_compile";
+  public static final BooleanValidator ASYNC_COMPILE = new BooleanValidator(ASYNC_COMPILE_KEY,
+      new OptionDescription("Compiles the generated code of filters in the background. The first batches are filtered by the expression interpreter until the compiled class is available, which shortens the time to the first rows of queries with large conditions. (Since Drill 1.23)"));
+
+  public static final String NULL_RUN_SPECIALIZATION_KEY = "exec.java.null_run_specialization";
+  public static final BooleanValidator NULL_RUN_SPECIALIZATION = new BooleanValidator(NULL_RUN_SPECIALIZATION_KEY,
+      new OptionDescription("Generates the code of projections for the batches whose nullable columns have either no null or only nulls, which reads them without checking each value for null. Batches with other nulls use the generic code. (Since Drill 1.23)"));
+
+  public static final String SHARED_SUBEXPRESSIONS_KEY = "exec.java.shared_subexpressions";
+  public static final BooleanValidator SHARED_SUBEXPRESSIONS = new BooleanValidator(SHARED_SUBEXPRESSIONS_KEY,
+      new OptionDescription("Lets the generated code of an expression use the values of the subexpressions computed by the previous code blocks of the same class, for expressions split into several blocks (see exec.java.compiler.exp_in_method_size). (Since Drill 1.23)"));
+
   public static final String CREATE_PREPARE_STATEMENT_TIMEOUT_MILLIS = "prepare.statement.create_timeout_ms";
   public static final OptionValidator CREATE_PREPARE_STATEMENT_TIMEOUT_MILLIS_VALIDATOR =
       new PositiveLongValidator(CREATE_PREPARE_STATEMENT_TIMEOUT_MILLIS, Integer.MAX_VALUE, null);
 
+  public static final String PREPARED_STATEMENT_CACHE_PLAN_KEY = "prepare.statement.cache_plan";
+  public static final BooleanValidator PREPARED_STATEMENT_CACHE_PLAN = new BooleanValidator(
+      PREPARED_STATEMENT_CACHE_PLAN_KEY,
+      new OptionDescription("Keeps the physical plan of prepared statements in the query plan cache of the " +
+          "Drillbit executing them, even when " + QUERY_PLAN_CACHE_ENABLED_KEY + " is disabled, so that repeated " +
+          "executions of a prepared statement skip planning. (Since Drill 1.23)"));
+
   public static final String DYNAMIC_UDF_SUPPORT_ENABLED = "exec.udf.enable_dynamic_support";
   public static final BooleanValidator DYNAMIC_UDF_SUPPORT_ENABLED_VALIDATOR = new BooleanValidator(DYNAMIC_UDF_SUPPORT_ENABLED,
       new OptionDescription("Enables users to dynamically upload UDFs. Users must upload their UDF (source and binary) JAR files to a staging directory in the distributed file system before issuing the CREATE FUNCTION USING JAR command to register a UDF. Default is true. (Drill 1.9+)"));
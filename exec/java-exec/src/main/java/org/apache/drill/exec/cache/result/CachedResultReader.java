@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.cache.result;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.drill.common.exceptions.ExecutionSetupException;
+import org.apache.drill.common.exceptions.UserException;
+import org.apache.drill.exec.cache.VectorSerializer;
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.expr.BasicTypeHelper;
+import org.apache.drill.exec.ops.OperatorContext;
+import org.apache.drill.exec.physical.impl.OutputMutator;
+import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.record.VectorWrapper;
+import org.apache.drill.exec.store.AbstractRecordReader;
+import org.apache.drill.exec.vector.ValueVector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+
+/**
+ * Returns the batches of a result stored by the {@link ResultCache}. The
+ * batches are read with {@link VectorSerializer} and their vectors are
+ * transferred to the scan, so the result is not copied once read.
+ * <p>
+ * The reader is only used by the root fragment of the Foreman that found the
+ * cached result and is never deserialized; its JSON form only describes it in
+ * the query profile. The file is opened when the result is looked up, so that
+ * it remains readable if the result is evicted before or while it is read.
+ */
+@JsonTypeName("cached-result")
+public class CachedResultReader extends AbstractRecordReader {
+  private static final Logger logger = LoggerFactory.getLogger(CachedResultReader.class);
+
+  private final String path;
+  private final int batchCount;
+  private final List<ValueVector> vectors = new ArrayList<>();
+
+  private final InputStream stream;
+  private VectorSerializer.Reader reader;
+  private VectorContainer pending;
+  private int batchesRead;
+
+  /**
+   * @param path local file holding the cached result
+   * @param batchCount number of batches in the cached result
+   * @param stream opened stream of the file, closed by the reader
+   */
+  public CachedResultReader(String path, int batchCount, InputStream stream) {
+    this.path = path;
+    this.batchCount = batchCount;
+    this.stream = stream;
+  }
+
+  @JsonProperty
+  public String getPath() {
+    return path;
+  }
+
+  @JsonProperty
+  public int getBatchCount() {
+    return batchCount;
+  }
+
+  @Override
+  public void setup(OperatorContext context, OutputMutator output) throws ExecutionSetupException {
+    reader = VectorSerializer.reader(context.getAllocator(), stream);
+    try {
+      // the first batch gives the schema of the result
+      pending = readBatch();
+      for (VectorWrapper<?> vw : pending) {
+        MaterializedField field = vw.getField();
+        vectors.add(output.addField(field,
+            BasicTypeHelper.getValueVectorClass(field.getType().getMinorType(), field.getDataMode())));
+      }
+    } catch (IOException | SchemaChangeException e) {
+      throw new ExecutionSetupException("Failed to read cached query result " + path, e);
+    }
+  }
+
+  @Override
+  public void allocate(Map<String, ValueVector> vectorMap) {
+    // vectors receive the buffers of the cached batches
+  }
+
+  @Override
+  public int next() {
+    VectorContainer batch = pending;
+    pending = null;
+    if (batch == null) {
+      if (batchesRead == batchCount) {
+        return 0;
+      }
+      try {
+        batch = readBatch();
+      } catch (IOException e) {
+        throw UserException.dataReadError(e)
+            .message("Failed to read cached query result")
+            .addContext("File", path)
+            .build(logger);
+      }
+    }
+    int i = 0;
+    for (VectorWrapper<?> vw : batch) {
+      vw.getValueVector().makeTransferPair(vectors.get(i++)).transfer();
+    }
+    int recordCount = batch.getRecordCount();
+    batch.clear();
+    return recordCount;
+  }
+
+  private VectorContainer readBatch() throws IOException {
+    batchesRead++;
+    return reader.read();
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (pending != null) {
+      pending.clear();
+    }
+    stream.close();
+  }
+
+  @Override
+  public String toString() {
+    return "CachedResultReader[path = " + path + ", batchCount = " + batchCount + "]";
+  }
+}
@@ -0,0 +1,493 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.cache.result;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.commons.io.FileUtils;
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.ops.QueryContext;
+import org.apache.drill.exec.physical.PhysicalPlan;
+import org.apache.drill.exec.planner.sql.DirectPlan;
+import org.apache.drill.exec.planner.sql.QueryPlanCache;
+import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
+import org.apache.drill.exec.proto.UserBitShared.QueryId;
+import org.apache.drill.exec.proto.UserBitShared.RecordBatchDef;
+import org.apache.drill.exec.proto.UserBitShared.SerializedField;
+import org.apache.drill.exec.proto.helper.QueryIdHelper;
+import org.apache.drill.exec.record.BatchSchema;
+import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.record.VectorWrapper;
+import org.apache.drill.exec.util.Pointer;
+import org.apache.drill.exec.vector.ValueVector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.buffer.DrillBuf;
+
+/**
+ * Drillbit-wide cache of query results
+ * ({@link ExecConstants#QUERY_RESULT_CACHE_ENABLED}), so that dashboards
+ * repeating the same queries over unchanged data get their results without
+ * running the queries again.
+ * <p>
+ * Results are keyed like plans of the {@link QueryPlanCache}, and are only
+ * cached for queries that read nothing but file-based tables and only call
+ * deterministic functions. Before a cached result is returned, the listings
+ * of the tables the query read are compared with their listings when the
+ * query was planned, and the Metastore version is part of the key, so that
+ * changed files or table metadata cause the query to run again. Changes the
+ * listings do not reveal are picked up when the result expires
+ * ({@link ExecConstants#QUERY_RESULT_CACHE_TTL}); DDL statements run on this
+ * Drillbit clear the cache right away.
+ * <p>
+ * The batches sent to the client are stored on the local disk of the
+ * Foreman, in the format of {@link org.apache.drill.exec.cache.VectorSerializer},
+ * and committed once the query completed. Results larger than
+ * {@link ExecConstants#RESULT_CACHE_MAX_ENTRY_SIZE} are not cached, and the
+ * least recently used results are removed once the cached results exceed
+ * {@link ExecConstants#RESULT_CACHE_MAX_SIZE}. Cached results are returned
+ * by a plan reading them with a {@link CachedResultReader}.
+ * <p>
+ * Results are only cached in a directory chosen by the operator
+ * ({@link ExecConstants#RESULT_CACHE_DIRECTORY}), owned by the user running
+ * the Drillbit and not writable by other users. The results of each Drillbit
+ * are written in a subdirectory only its user can access.
+ */
+public class ResultCache implements AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(ResultCache.class);
+
+  private static final Set<PosixFilePermission> DIRECTORY_PERMISSIONS = PosixFilePermissions.fromString("rwx------");
+
+  // null if results are not cached
+  private final File directory;
+  private final long maxSize;
+  private final long maxEntrySize;
+
+  // Guarded by this; in access order, so the eldest entry is the least recently used
+  private final Map<QueryPlanCache.Key, CachedResult> results = new LinkedHashMap<>(16, 0.75f, true);
+  private long size;
+  private boolean directoryCreated;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder staleResults = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  public ResultCache(DrillConfig config, DrillbitEndpoint endpoint) {
+    File root = getRootDirectory(config.getString(ExecConstants.RESULT_CACHE_DIRECTORY));
+    // Drillbits running on the same host keep their results apart
+    this.directory = root == null ? null : new File(root, endpoint.getAddress() + "-" + endpoint.getUserPort());
+    this.maxSize = config.getLong(ExecConstants.RESULT_CACHE_MAX_SIZE);
+    this.maxEntrySize = config.getLong(ExecConstants.RESULT_CACHE_MAX_ENTRY_SIZE);
+  }
+
+  /**
+   * Returns the configured directory of the cache, created if needed, or null
+   * if it is not set or may be accessed by other users.
+   */
+  private static File getRootDirectory(String directoryName) {
+    if (directoryName.isEmpty()) {
+      return null;
+    }
+    File directory = new File(directoryName);
+    String user = System.getProperty("user.name");
+    try {
+      if (!directory.exists()) {
+        Files.createDirectories(directory.toPath(), PosixFilePermissions.asFileAttribute(DIRECTORY_PERMISSIONS));
+      }
+      if (!isPrivate(directory, user)) {
+        logger.warn("Unable to use {} to cache query results, it must be a directory owned by {} " +
+            "and not writable by other users", directory, user);
+        return null;
+      }
+      return directory;
+    } catch (IOException | UnsupportedOperationException e) {
+      logger.warn("Unable to use {} to cache query results", directory, e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns whether the given directory is owned by the given user and not
+   * writable by other users.
+   */
+  static boolean isPrivate(File directory, String user) throws IOException {
+    Path path = directory.toPath();
+    if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)
+        || !user.equals(Files.getOwner(path, LinkOption.NOFOLLOW_LINKS).getName())) {
+      return false;
+    }
+    Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(path, LinkOption.NOFOLLOW_LINKS);
+    return !permissions.contains(PosixFilePermission.GROUP_WRITE)
+        && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+  }
+
+  /**
+   * Returns whether the result of the given statement may be cached.
+   */
+  public static boolean isCacheable(QueryContext context, SqlNode sqlNode) {
+    return context.getOptions().getBoolean(ExecConstants.QUERY_RESULT_CACHE_ENABLED_KEY)
+        && context.getResultCache().isEnabled()
+        && sqlNode.getKind().belongsTo(SqlKind.QUERY);
+  }
+
+  /**
+   * @return whether a directory is available to cache results
+   */
+  public boolean isEnabled() {
+    return directory != null;
+  }
+
+  /**
+   * Returns a plan returning the cached result for the given key if it has
+   * not expired and the files the query read are unchanged.
+   *
+   * @param key cache key of the statement
+   * @param context query context
+   * @param textPlan receives the text of the plan of the query that produced
+   *                 the result, may be null
+   * @return plan returning the cached result, or null if the query must run
+   */
+  public PhysicalPlan get(QueryPlanCache.Key key, QueryContext context, Pointer<String> textPlan) {
+    CachedResult cached;
+    synchronized (this) {
+      cached = results.get(key);
+    }
+    if (cached == null) {
+      misses.increment();
+      return null;
+    }
+    long ttlNanos = TimeUnit.SECONDS.toNanos(context.getOptions().getLong(ExecConstants.QUERY_RESULT_CACHE_TTL_KEY));
+    if (System.nanoTime() - cached.createdNanos >= ttlNanos || !cached.inputs.isUnchanged()) {
+      remove(key, cached);
+      staleResults.increment();
+      misses.increment();
+      return null;
+    }
+    InputStream stream = open(key, cached);
+    if (stream == null) {
+      // removed by a concurrent query, the query runs as if it was not cached
+      misses.increment();
+      return null;
+    }
+    if (textPlan != null) {
+      textPlan.value = cached.textPlan;
+    }
+    hits.increment();
+    return DirectPlan.createDirectPlan(context.getCurrentEndpoint(),
+        new CachedResultReader(cached.file.getPath(), cached.batchCount, stream));
+  }
+
+  /**
+   * Opens the file of a cached result if it is still cached. Files are only
+   * deleted once their entry is removed, so the file of a cached entry exists,
+   * and remains readable once opened if the entry is removed later.
+   *
+   * @return stream reading the cached result, or null if it was removed
+   */
+  private synchronized InputStream open(QueryPlanCache.Key key, CachedResult cached) {
+    if (results.get(key) != cached) {
+      return null;
+    }
+    try {
+      return new BufferedInputStream(new FileInputStream(cached.file));
+    } catch (IOException e) {
+      logger.warn("Unable to read cached result {}, the query will run again", cached.file, e);
+      return null;
+    }
+  }
+
+  /**
+   * Creates the writer storing the result of a query as it is sent to the
+   * client.
+   *
+   * @param key cache key of the statement
+   * @param inputs inputs of the query, must be deterministic
+   * @param textPlan text of the plan of the query, may be null
+   * @param queryId id of the query, names the stored result
+   * @return writer to commit once the query completed
+   */
+  public Writer newWriter(QueryPlanCache.Key key, QueryPlanCache.QueryInputs inputs, String textPlan,
+                          QueryId queryId) {
+    return new Writer(key, inputs, textPlan, new File(directory, QueryIdHelper.getQueryId(queryId)));
+  }
+
+  private synchronized void createDirectory() throws IOException {
+    if (!directoryCreated) {
+      // the results left by an earlier run of this Drillbit are not indexed
+      FileUtils.deleteDirectory(directory);
+      FileAttribute<Set<PosixFilePermission>> permissions = PosixFilePermissions.asFileAttribute(DIRECTORY_PERMISSIONS);
+      Files.createDirectory(directory.toPath(), permissions);
+      directoryCreated = true;
+    }
+  }
+
+  private void add(QueryPlanCache.Key key, CachedResult result) {
+    List<CachedResult> removed = new ArrayList<>();
+    synchronized (this) {
+      CachedResult previous = results.put(key, result);
+      if (previous != null) {
+        size -= previous.size;
+        removed.add(previous);
+      }
+      size += result.size;
+      Iterator<CachedResult> eldest = results.values().iterator();
+      while (size > maxSize) {
+        CachedResult evicted = eldest.next();
+        eldest.remove();
+        size -= evicted.size;
+        removed.add(evicted);
+        evictions.increment();
+      }
+    }
+    removed.forEach(CachedResult::delete);
+  }
+
+  private void remove(QueryPlanCache.Key key, CachedResult cached) {
+    synchronized (this) {
+      // another query may have already replaced the entry
+      if (!results.remove(key, cached)) {
+        return;
+      }
+      size -= cached.size;
+    }
+    cached.delete();
+  }
+
+  /**
+   * Removes all cached results, for example after a statement changed the
+   * tables, views or metadata results depend on.
+   */
+  public void invalidate() {
+    List<CachedResult> removed;
+    synchronized (this) {
+      if (results.isEmpty()) {
+        return;
+      }
+      removed = new ArrayList<>(results.values());
+      results.clear();
+      size = 0;
+    }
+    removed.forEach(CachedResult::delete);
+    invalidations.increment();
+  }
+
+  public synchronized int size() {
+    return results.size();
+  }
+
+  public synchronized long getSizeBytes() {
+    return size;
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getStaleResults() {
+    return staleResults.sum();
+  }
+
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  public long getInvalidations() {
+    return invalidations.sum();
+  }
+
+  @Override
+  public void close() {
+    synchronized (this) {
+      results.clear();
+      size = 0;
+    }
+    if (directory != null) {
+      FileUtils.deleteQuietly(directory);
+    }
+  }
+
+  /**
+   * Stores the batches of a query result while the query sends them to the
+   * client. Batches are written without consuming their vectors, so the
+   * client connection is not affected. A writer that fails, sees a schema
+   * change or exceeds the maximum entry size gives up and deletes what it
+   * wrote.
+   */
+  public class Writer {
+    private final QueryPlanCache.Key key;
+    private final QueryPlanCache.QueryInputs inputs;
+    private final String textPlan;
+    private final File file;
+
+    private OutputStream output;
+    private BatchSchema schema;
+    private long bytesWritten;
+    private int batchCount;
+    // set once the result was committed or discarded
+    private boolean finished;
+
+    private Writer(QueryPlanCache.Key key, QueryPlanCache.QueryInputs inputs, String textPlan, File file) {
+      this.key = key;
+      this.inputs = inputs;
+      this.textPlan = textPlan;
+      this.file = file;
+    }
+
+    /**
+     * Stores a batch sent to the client.
+     */
+    public synchronized void write(VectorContainer batch) {
+      // empty batches only carry the schema, which the first non-empty batch also has
+      if (finished || batch.getRecordCount() == 0) {
+        return;
+      }
+      if (schema == null) {
+        schema = batch.getSchema();
+      } else if (!schema.equals(batch.getSchema())) {
+        logger.debug("Result of query {} changes schema, it will not be cached", file.getName());
+        discard();
+        return;
+      }
+      try {
+        if (output == null) {
+          createDirectory();
+          output = new BufferedOutputStream(new FileOutputStream(file));
+        }
+        RecordBatchDef.Builder batchDef = RecordBatchDef.newBuilder()
+            .setRecordCount(batch.getRecordCount())
+            .setCarriesTwoByteSelectionVector(false);
+        List<DrillBuf> buffers = new ArrayList<>();
+        for (VectorWrapper<?> vw : batch) {
+          ValueVector vector = vw.getValueVector();
+          SerializedField metadata = vector.getMetadata();
+          batchDef.addField(metadata);
+          for (DrillBuf buffer : vector.getBuffers(false)) {
+            buffers.add(buffer);
+          }
+        }
+        RecordBatchDef def = batchDef.build();
+        def.writeDelimitedTo(output);
+        bytesWritten += def.getSerializedSize();
+        for (DrillBuf buffer : buffers) {
+          buffer.getBytes(buffer.readerIndex(), output, buffer.readableBytes());
+          bytesWritten += buffer.readableBytes();
+        }
+        batchCount++;
+      } catch (IOException e) {
+        logger.warn("Unable to write the result of query {} to the result cache", file.getName(), e);
+        discard();
+        return;
+      }
+      if (bytesWritten > maxEntrySize) {
+        logger.debug("Result of query {} is too large to be cached", file.getName());
+        discard();
+      }
+    }
+
+    /**
+     * Makes the stored result available to later queries. Called once the
+     * query completed successfully.
+     */
+    public void commit() {
+      synchronized (this) {
+        if (finished || output == null) {
+          discard();
+          return;
+        }
+        try {
+          output.close();
+        } catch (IOException e) {
+          logger.warn("Unable to write the result of query {} to the result cache", file.getName(), e);
+          discard();
+          return;
+        }
+        finished = true;
+      }
+      add(key, new CachedResult(file, bytesWritten, batchCount, inputs, textPlan));
+    }
+
+    /**
+     * Deletes the stored result. Called when the query failed or was
+     * canceled, and when the result can't be cached.
+     */
+    public synchronized void discard() {
+      finished = true;
+      if (output != null) {
+        try {
+          output.close();
+        } catch (IOException e) {
+          logger.debug("Unable to close {}", file, e);
+        }
+        output = null;
+      }
+      FileUtils.deleteQuietly(file);
+    }
+  }
+
+  private static class CachedResult {
+    private final File file;
+    private final long size;
+    private final int batchCount;
+    private final QueryPlanCache.QueryInputs inputs;
+    private final String textPlan;
+    private final long createdNanos = System.nanoTime();
+
+    CachedResult(File file, long size, int batchCount, QueryPlanCache.QueryInputs inputs, String textPlan) {
+      this.file = file;
+      this.size = size;
+      this.batchCount = batchCount;
+      this.inputs = inputs;
+      this.textPlan = textPlan;
+    }
+
+    void delete() {
+      FileUtils.deleteQuietly(file);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.cache.result;
+
+import java.net.SocketAddress;
+
+import org.apache.drill.exec.physical.impl.materialize.QueryDataPackage;
+import org.apache.drill.exec.proto.GeneralRPCProtos.Ack;
+import org.apache.drill.exec.proto.UserBitShared.QueryResult;
+import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.rpc.RpcOutcomeListener;
+import org.apache.drill.exec.rpc.UserClientConnection;
+import org.apache.drill.exec.rpc.user.UserSession;
+
+import io.netty.util.concurrent.Future;
+
+/**
+ * User connection given to the Screen operator of a query whose result is
+ * cached, storing the batches it sends with a {@link ResultCache.Writer}
+ * before passing them on to the client connection.
+ */
+public class ResultCacheConnection implements UserClientConnection {
+
+  private final UserClientConnection connection;
+  private final ResultCache.Writer writer;
+
+  public ResultCacheConnection(UserClientConnection connection, ResultCache.Writer writer) {
+    this.connection = connection;
+    this.writer = writer;
+  }
+
+  @Override
+  public UserSession getSession() {
+    return connection.getSession();
+  }
+
+  @Override
+  public void sendResult(RpcOutcomeListener<Ack> listener, QueryResult result) {
+    connection.sendResult(listener, result);
+  }
+
+  @Override
+  public void sendData(RpcOutcomeListener<Ack> listener, QueryDataPackage data) {
+    VectorContainer batch = data.batch();
+    if (batch != null) {
+      writer.write(batch);
+    }
+    connection.sendData(listener, data);
+  }
+
+  @Override
+  public Future<Void> getClosureFuture() {
+    return connection.getClosureFuture();
+  }
+
+  @Override
+  public SocketAddress getRemoteAddress() {
+    return connection.getRemoteAddress();
+  }
+}
@@ -19,6 +19,7 @@ package org.apache.drill.exec.compile;
 
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
 
@@ -42,6 +43,7 @@ public class CachedClassLoader extends URLClassLoader {
    */
 
   private ConcurrentMap<String, Class<?>> cache = Maps.newConcurrentMap();
+  private ConcurrentMap<String, byte[]> byteCodes = Maps.newConcurrentMap();
 
   public CachedClassLoader() {
     super(new URL[0], Thread.currentThread().getContextClassLoader());
@@ -50,6 +52,7 @@ public class CachedClassLoader extends URLClassLoader {
   public void addClass(String fqcn, byte[] byteCodes) {
     Class<?> newClass = defineClass(fqcn, byteCodes, 0, byteCodes.length);
     cache.put(fqcn, newClass);
+    this.byteCodes.put(fqcn, byteCodes);
   }
 
   @Override
@@ -66,4 +69,11 @@ public class CachedClassLoader extends URLClassLoader {
       addClass(result.getKey(), result.getValue());
     }
   }
+
+  /**
+   * @return byte codes of the defined classes, by class name
+   */
+  public Map<String, byte[]> getByteCodes() {
+    return Collections.unmodifiableMap(byteCodes);
+  }
 }
@@ -18,10 +18,17 @@
 package org.apache.drill.exec.compile;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.drill.common.config.DrillConfig;
 import org.apache.drill.exec.exception.ClassTransformationException;
 import org.apache.drill.exec.expr.CodeGenerator;
+import org.apache.drill.exec.rpc.NamedThreadFactory;
 import org.apache.drill.exec.server.options.OptionSet;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -35,7 +42,8 @@ import com.google.common.collect.Lists;
  * Holds a single cache of generated code (keyed by code source) to
  * prevent compiling identical code multiple times. Supports both
  * the byte-code merging and plain-old Java methods of code
- * generation and compilation.
+ * generation and compilation. Compiled classes may also be kept on disk
+ * by a {@link PersistentClassCache}, which is looked up before compiling.
  */
 
 public class CodeCompiler {
@@ -120,13 +128,43 @@ public class CodeCompiler {
 
   public static final String PREFER_POJ_CONFIG = CodeCompiler.COMPILE_BASE + ".prefer_plain_java";
 
+  /**
+   * Enables the persistent cache of compiled classes.
+   */
+
+  public static final String PERSISTENT_CACHE_ENABLED_CONFIG = COMPILE_BASE + ".persistent_cache.enabled";
+
+  /**
+   * File system of the persistent cache, shared by the Drillbits of a
+   * cluster when it is a distributed file system.
+   */
+
+  public static final String PERSISTENT_CACHE_FS_CONFIG = COMPILE_BASE + ".persistent_cache.fs";
+
+  /**
+   * Directory of the persistent cache, which has no default. It must be owned
+   * by the Drillbit user and not be writable by other users.
+   */
+
+  public static final String PERSISTENT_CACHE_DIRECTORY_CONFIG = COMPILE_BASE + ".persistent_cache.directory";
+
+  /**
+   * Number of threads compiling the classes requested with
+   * {@link #createInstanceAsync(CodeGenerator)}.
+   */
+
+  public static final String ASYNC_THREADS_CONFIG = COMPILE_BASE + ".async_threads";
+
   private final CodeGenCompiler codeGenCompiler;
   private final boolean useCache;
+  private final PersistentClassCache persistentCache;
+  private final ExecutorService asyncExecutor;
 
   // Metrics
 
-  private int classGenCount;
-  private int cacheMissCount;
+  private final LongAdder classGenCount = new LongAdder();
+  private final LongAdder cacheMissCount = new LongAdder();
+  private final LongAdder compileNanos = new LongAdder();
 
   /**
    * Google Guava loading cache that defers creating a cache
@@ -145,7 +183,10 @@ public class CodeCompiler {
     cache = CacheBuilder.newBuilder()
         .maximumSize(config.getInt(MAX_LOADING_CACHE_SIZE_CONFIG))
         .build(new Loader());
+    persistentCache = useCache ? PersistentClassCache.create(config) : null;
     preferPlainJava = config.getBoolean(PREFER_POJ_CONFIG);
+    asyncExecutor = Executors.newFixedThreadPool(config.getInt(ASYNC_THREADS_CONFIG),
+        new NamedThreadFactory("compile-"));
     logger.info(String.format("Plain java code generation preferred: %b", preferPlainJava));
   }
 
@@ -173,13 +214,42 @@ public class CodeCompiler {
    * for the Drill compilation chain.
    */
 
-  @SuppressWarnings("unchecked")
   public <T> List<T> createInstances(final CodeGenerator<?> cg, int count) throws ClassTransformationException {
+    generate(cg);
+    return instantiate(cg, count);
+  }
+
+  /**
+   * Create a single instance of the generated class, compiled by the
+   * compile thread pool so that the caller may proceed without it until
+   * it is available. The code is generated by the calling thread.
+   *
+   * @param cg code generator for the class to be instantiated.
+   * @return a future completed with an instance of the generated class,
+   * or exceptionally with a {@link ClassTransformationException}
+   */
+
+  public <T> CompletableFuture<T> createInstanceAsync(final CodeGenerator<?> cg) {
+    generate(cg);
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return this.<T>instantiate(cg, 1).get(0);
+      } catch (ClassTransformationException e) {
+        throw new CompletionException(e);
+      }
+    }, asyncExecutor);
+  }
+
+  private void generate(final CodeGenerator<?> cg) {
     if (preferPlainJava && cg.supportsPlainJava()) {
       cg.preferPlainJava(true);
     }
     cg.generate();
-    classGenCount++;
+    classGenCount.increment();
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> List<T> instantiate(final CodeGenerator<?> cg, int count) throws ClassTransformationException {
     try {
       final GeneratedClassEntry ce;
       if (useCache) {
@@ -225,8 +295,20 @@ public class CodeCompiler {
    */
 
   private GeneratedClassEntry makeClass(final CodeGenerator<?> cg) throws Exception {
-    cacheMissCount++;
-    return new GeneratedClassEntry(codeGenCompiler.compile(cg));
+    cacheMissCount.increment();
+    if (persistentCache != null) {
+      final Class<?> storedClass = persistentCache.load(cg);
+      if (storedClass != null) {
+        return new GeneratedClassEntry(storedClass);
+      }
+    }
+    final long start = System.nanoTime();
+    final Class<?> clazz = codeGenCompiler.compile(cg);
+    compileNanos.add(System.nanoTime() - start);
+    if (persistentCache != null) {
+      persistentCache.store(cg, clazz);
+    }
+    return new GeneratedClassEntry(clazz);
   }
 
   private class GeneratedClassEntry {
@@ -252,11 +334,40 @@ public class CodeCompiler {
     cache.invalidateAll();
   }
 
+  public long getClassGenCount() {
+    return classGenCount.sum();
+  }
+
+  public long getCacheMissCount() {
+    return cacheMissCount.sum();
+  }
+
+  public long getCacheSize() {
+    return cache.size();
+  }
+
+  /**
+   * @return time spent compiling classes, in milliseconds
+   */
+  public long getCompileTimeMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(compileNanos.sum());
+  }
+
+  /**
+   * @return the persistent cache of compiled classes, or null if it is disabled
+   */
+  public PersistentClassCache getPersistentCache() {
+    return persistentCache;
+  }
+
   /**
    * Upon close, report the effectiveness of the code cache to the log.
    */
 
   public void close() {
+    asyncExecutor.shutdownNow();
+    final long classGenCount = getClassGenCount();
+    final long cacheMissCount = getCacheMissCount();
     int hitRate = 0;
     if (classGenCount > 0) {
       hitRate = (int) Math.round((classGenCount - cacheMissCount) * 100.0 / classGenCount);
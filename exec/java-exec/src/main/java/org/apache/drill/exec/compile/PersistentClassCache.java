@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.compile;
+
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.common.util.DrillVersionInfo;
+import org.apache.drill.exec.expr.CodeGenerator;
+import org.apache.drill.exec.store.sys.VersionIterator.VersionInfo;
+import org.apache.drill.exec.util.ImpersonationUtil;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.permission.FsAction;
+import org.apache.hadoop.fs.permission.FsPermission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Second tier of the {@link CodeCompiler} cache, which keeps the byte codes
+ * of the compiled classes in a directory, so that they survive restarts and,
+ * when the directory is on a distributed file system, are shared by all the
+ * Drillbits of a cluster.
+ * <p>
+ * Classes are keyed by the Drill version and build commit, the template and
+ * the generated code with its class name replaced, the same code the in-memory
+ * cache is keyed on. Byte codes of classes merged with their templates depend
+ * on the template classes, hence on the Drill build. A file that cannot be
+ * read is compiled again, so a directory shared by Drillbits of different
+ * builds or a partially written file never fail a query.
+ * <p>
+ * Stored classes are loaded into the Drillbit, so the directory must be
+ * configured explicitly, be owned by the Drillbit user and not be writable by
+ * other users. The cache is disabled otherwise.
+ */
+public class PersistentClassCache {
+  private static final Logger logger = LoggerFactory.getLogger(PersistentClassCache.class);
+
+  private static final String FILE_SUFFIX = ".classes";
+
+  private static final FsPermission DIRECTORY_PERMISSION = new FsPermission(FsAction.ALL, FsAction.NONE, FsAction.NONE);
+
+  private static final String BUILD_ID = DrillVersionInfo.getVersion() + "|" + new VersionInfo().commit_id;
+
+  private final FileSystem fs;
+  private final Path directory;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  private PersistentClassCache(FileSystem fs, Path directory) {
+    this.fs = fs;
+    this.directory = directory;
+  }
+
+  /**
+   * Creates the cache configured for the Drillbit.
+   *
+   * @return the cache, or null if it is disabled or its directory cannot be used
+   */
+  public static PersistentClassCache create(DrillConfig config) {
+    if (!config.getBoolean(CodeCompiler.PERSISTENT_CACHE_ENABLED_CONFIG)) {
+      return null;
+    }
+    String directoryName = config.getString(CodeCompiler.PERSISTENT_CACHE_DIRECTORY_CONFIG);
+    if (directoryName.isEmpty()) {
+      logger.warn("{} is not set, compiled classes are not cached persistently",
+          CodeCompiler.PERSISTENT_CACHE_DIRECTORY_CONFIG);
+      return null;
+    }
+    Configuration conf = new Configuration();
+    conf.set(FileSystem.FS_DEFAULT_NAME_KEY, config.getString(CodeCompiler.PERSISTENT_CACHE_FS_CONFIG));
+    Path directory = new Path(directoryName);
+    try {
+      FileSystem fs = FileSystem.get(conf);
+      fs.mkdirs(directory, DIRECTORY_PERMISSION);
+      String user = ImpersonationUtil.getProcessUserName();
+      if (!isPrivate(fs.getFileStatus(directory), user)) {
+        logger.warn("Unable to use {} to cache compiled classes, it must be a directory owned by {} " +
+            "and not writable by other users", directory, user);
+        return null;
+      }
+      return new PersistentClassCache(fs, directory);
+    } catch (IOException e) {
+      logger.warn("Unable to use {} to cache compiled classes", directory, e);
+      return null;
+    }
+  }
+
+  /**
+   * Checks that only the given user can add classes to a directory.
+   */
+  static boolean isPrivate(FileStatus status, String user) {
+    FsPermission permission = status.getPermission();
+    return status.isDirectory() && user.equals(status.getOwner())
+        && !permission.getGroupAction().implies(FsAction.WRITE)
+        && !permission.getOtherAction().implies(FsAction.WRITE);
+  }
+
+  /**
+   * Loads the classes previously compiled for the code of a code generator.
+   *
+   * @return the generated class, or null if it was not stored
+   */
+  public Class<?> load(CodeGenerator<?> cg) {
+    Path file = new Path(directory, key(cg) + FILE_SUFFIX);
+    Map<String, byte[]> classes = new HashMap<>();
+    String className;
+    try (FSDataInputStream in = fs.open(file)) {
+      className = in.readUTF();
+      int classCount = in.readInt();
+      for (int i = 0; i < classCount; i++) {
+        String name = in.readUTF();
+        byte[] byteCode = new byte[in.readInt()];
+        in.readFully(byteCode);
+        classes.put(name, byteCode);
+      }
+    } catch (FileNotFoundException e) {
+      misses.increment();
+      return null;
+    } catch (IOException e) {
+      logger.debug("Unable to read compiled classes from {}", file, e);
+      misses.increment();
+      return null;
+    }
+    try {
+      Class<?> clazz = new StoredClassLoader(classes).loadClass(className);
+      hits.increment();
+      return clazz;
+    } catch (ClassNotFoundException | LinkageError e) {
+      logger.debug("Unable to load compiled classes from {}", file, e);
+      misses.increment();
+      return null;
+    }
+  }
+
+  /**
+   * Stores the classes compiled for the code of a code generator.
+   *
+   * @param cg code generator of the class
+   * @param clazz compiled class
+   */
+  public void store(CodeGenerator<?> cg, Class<?> clazz) {
+    Map<String, byte[]> classes = getByteCodes(clazz);
+    if (classes == null) {
+      return;
+    }
+    String name = key(cg);
+    Path file = new Path(directory, name + FILE_SUFFIX);
+    // written aside and renamed, so that other Drillbits never read a partial file
+    Path tmpFile = new Path(directory, name + "." + UUID.randomUUID() + ".tmp");
+    try {
+      try (FSDataOutputStream out = fs.create(tmpFile)) {
+        writeClasses(out, clazz.getName(), classes);
+      }
+      if (!fs.rename(tmpFile, file)) {
+        fs.delete(tmpFile, false);
+      }
+    } catch (IOException e) {
+      logger.debug("Unable to store compiled classes in {}", file, e);
+    }
+  }
+
+  private static void writeClasses(DataOutputStream out, String className, Map<String, byte[]> classes)
+      throws IOException {
+    out.writeUTF(className);
+    out.writeInt(classes.size());
+    for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+      out.writeUTF(entry.getKey());
+      out.writeInt(entry.getValue().length);
+      out.write(entry.getValue());
+    }
+  }
+
+  private static Map<String, byte[]> getByteCodes(Class<?> clazz) {
+    ClassLoader classLoader = clazz.getClassLoader();
+    if (classLoader instanceof QueryClassLoader) {
+      return ((QueryClassLoader) classLoader).getInjectedClasses();
+    } else if (classLoader instanceof CachedClassLoader) {
+      return ((CachedClassLoader) classLoader).getByteCodes();
+    }
+    return null;
+  }
+
+  private static String key(CodeGenerator<?> cg) {
+    return DigestUtils.sha256Hex(BUILD_ID
+        + "|" + cg.getDefinition().getTemplateClassName()
+        + "|" + cg.isPlainJava()
+        + "|" + cg.getGenerifiedCode());
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * Defines the stored classes when they are first loaded, so that they can
+   * refer to each other in any order.
+   */
+  private static class StoredClassLoader extends URLClassLoader {
+    private final Map<String, byte[]> classes;
+
+    StoredClassLoader(Map<String, byte[]> classes) {
+      super(new URL[0], Thread.currentThread().getContextClassLoader());
+      this.classes = classes;
+    }
+
+    @Override
+    protected Class<?> findClass(String className) throws ClassNotFoundException {
+      byte[] byteCode = classes.get(className);
+      if (byteCode != null) {
+        return defineClass(className, byteCode, 0, byteCode.length);
+      }
+      return super.findClass(className);
+    }
+  }
+}
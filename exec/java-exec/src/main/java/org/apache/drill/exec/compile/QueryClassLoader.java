@@ -29,6 +29,8 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -76,6 +78,13 @@ public class QueryClassLoader extends URLClassLoader {
 //    System.out.println( "Classes saved to: " + baseDir.getAbsolutePath() );
   }
 
+  /**
+   * @return byte codes of the injected classes, by class name
+   */
+  public Map<String, byte[]> getInjectedClasses() {
+    return Collections.unmodifiableMap(customClasses);
+  }
+
   @Override
   protected Class<?> findClass(String className) throws ClassNotFoundException {
     byte[] ba = customClasses.get(className);
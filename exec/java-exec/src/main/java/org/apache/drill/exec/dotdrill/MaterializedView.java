@@ -19,6 +19,7 @@ package org.apache.drill.exec.dotdrill;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.apache.calcite.rel.type.RelDataType;
@@ -75,6 +76,20 @@ public class MaterializedView {
   @JsonInclude(Include.NON_NULL)
   private RefreshStatus refreshStatus;
 
+  /**
+   * Source files the data was computed from, with their modification times.
+   * Only recorded for views that can be refreshed incrementally.
+   */
+  @JsonInclude(Include.NON_EMPTY)
+  private Map<String, Long> sourceFiles;
+
+  /**
+   * Data directory replaced by the last refresh. It may still be read by that
+   * refresh, so it is deleted by the next refresh or when the view is dropped.
+   */
+  @JsonInclude(Include.NON_NULL)
+  private String retiredDataStoragePath;
+
   public MaterializedView(String name, String sql, RelDataType rowType, List<String> workspaceSchemaPath) {
     this(name,
         sql,
@@ -172,6 +187,22 @@ public class MaterializedView {
     this.refreshStatus = refreshStatus;
   }
 
+  public Map<String, Long> getSourceFiles() {
+    return sourceFiles;
+  }
+
+  public void setSourceFiles(Map<String, Long> sourceFiles) {
+    this.sourceFiles = sourceFiles;
+  }
+
+  public String getRetiredDataStoragePath() {
+    return retiredDataStoragePath;
+  }
+
+  public void setRetiredDataStoragePath(String retiredDataStoragePath) {
+    this.retiredDataStoragePath = retiredDataStoragePath;
+  }
+
   /**
    * Marks the materialized view as successfully refreshed with the current timestamp.
    */
@@ -188,7 +219,7 @@ public class MaterializedView {
    * @return a new MaterializedView instance with updated refresh info
    */
   public MaterializedView withRefreshInfo(Long lastRefreshTime, RefreshStatus refreshStatus) {
-    return new MaterializedView(
+    MaterializedView materializedView = new MaterializedView(
         this.name,
         this.sql,
         this.fields,
@@ -196,5 +227,8 @@ public class MaterializedView {
         this.dataStoragePath,
         lastRefreshTime,
         refreshStatus);
+    materializedView.setSourceFiles(this.sourceFiles);
+    materializedView.setRetiredDataStoragePath(this.retiredDataStoragePath);
+    return materializedView;
   }
 }
@@ -363,6 +363,8 @@ public class ClassGenerator<T> {
     if (createNestedClass()) {
       // blocks from the last inner class should be used
       setupInnerClassBlocks();
+      // fields of the holders of the previous blocks are declared in another class
+      evaluationVisitor.clearClosedExpressions();
     }
   }
 
@@ -433,7 +435,7 @@ public class ClassGenerator<T> {
       }
     }
     if (blockRotated) {
-      evaluationVisitor.previousExpressions.clear();
+      evaluationVisitor.closeBlock();
       setupValidBlocks();
     }
   }
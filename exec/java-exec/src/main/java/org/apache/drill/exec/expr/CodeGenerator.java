@@ -18,7 +18,10 @@
 package org.apache.drill.exec.expr;
 
 import java.io.IOException;
+import java.util.Set;
+import java.util.TreeSet;
 
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.compile.TemplateClassDefinition;
 import org.apache.drill.exec.compile.sig.MappingSet;
 import org.apache.drill.exec.server.options.OptionSet;
@@ -88,6 +91,17 @@ public class CodeGenerator<T> {
   private String generatedCode;
   private String generifiedCode;
 
+  /**
+   * Null runs of the incoming batches the class is specialized for, or null
+   * if the generated code checks the bits of nullable vectors for each value.
+   */
+  private NullRuns nullRuns;
+
+  /**
+   * Ids of the nullable incoming vectors read by the generated code.
+   */
+  private final Set<Integer> nullableReads = new TreeSet<>();
+
   CodeGenerator(TemplateClassDefinition<T> definition, OptionSet optionManager) {
     this(ClassGenerator.getDefaultMapping(), definition, optionManager);
   }
@@ -102,7 +116,8 @@ public class CodeGenerator<T> {
       this.model = new JCodeModel();
       JDefinedClass clazz = model._package(PACKAGE_NAME)._class(className);
       rootGenerator = new ClassGenerator<>(this, mappingSet,
-        definition.getSignature(), new EvaluationVisitor(),
+        definition.getSignature(),
+        new EvaluationVisitor(optionManager == null || optionManager.getOption(ExecConstants.SHARED_SUBEXPRESSIONS)),
         clazz, model, optionManager);
     } catch (JClassAlreadyExistsException e) {
       throw new IllegalStateException(e);
@@ -171,6 +186,32 @@ public class CodeGenerator<T> {
     return rootGenerator;
   }
 
+  /**
+   * Specializes the generated code for the incoming batches with the given
+   * null runs. Must be set before expressions are added.
+   *
+   * @param nullRuns null runs of the batches the class is used for
+   */
+  public void specializeNullRuns(NullRuns nullRuns) {
+    this.nullRuns = nullRuns;
+  }
+
+  public NullRuns getNullRuns() {
+    return nullRuns;
+  }
+
+  void addNullableRead(int fieldId) {
+    nullableReads.add(fieldId);
+  }
+
+  /**
+   * @return ids of the nullable incoming vectors read by the generated code,
+   * whose null runs may be used to specialize the code
+   */
+  public int[] getNullableReads() {
+    return nullableReads.stream().mapToInt(Integer::intValue).toArray();
+  }
+
   public void generate() {
 
     // If this generated class uses the "plain Java" technique
@@ -206,6 +247,14 @@ public class CodeGenerator<T> {
     return generatedCode;
   }
 
+  /**
+   * @return the generated code with the class name replaced, identical for
+   * classes generated alike
+   */
+  public String getGenerifiedCode() {
+    return generifiedCode;
+  }
+
   public TemplateClassDefinition<T> getDefinition() {
     return definition;
   }
@@ -73,8 +73,10 @@ import org.apache.drill.exec.compile.sig.MappingSet;
 import org.apache.drill.exec.expr.ClassGenerator.HoldingContainer;
 import org.apache.drill.exec.expr.annotations.FunctionTemplate;
 import org.apache.drill.exec.expr.fn.AbstractFuncHolder;
+import org.apache.drill.exec.expr.fn.DrillSimpleFuncHolder;
 import org.apache.drill.exec.expr.holders.ValueHolder;
 import org.apache.drill.exec.physical.impl.filter.ReturnValueExpression;
+import org.apache.drill.exec.vector.NullableVector;
 import org.apache.drill.exec.vector.ValueHolderHelper;
 import org.apache.drill.exec.vector.complex.reader.FieldReader;
 
@@ -89,6 +91,7 @@ import com.sun.codemodel.JConditional;
 import com.sun.codemodel.JExpr;
 import com.sun.codemodel.JExpression;
 import com.sun.codemodel.JFieldRef;
+import com.sun.codemodel.JFieldVar;
 import com.sun.codemodel.JInvocation;
 import com.sun.codemodel.JLabel;
 import com.sun.codemodel.JType;
@@ -203,8 +206,64 @@ public class EvaluationVisitor {
     }
   }
 
+  /**
+   * Holds an expression evaluated at the top level of a block, whose holder
+   * is local to the block. Once the block is closed by a block rotation, the
+   * expression can still be used by the following blocks of the class, which
+   * are executed after it for the same record, if its holder is copied to a
+   * class field at the end of the block.
+   */
+  private static class BlockExpression {
+    private final ClassGenerator<?> generator;
+    private final JBlock block;
+    private final HoldingContainer container;
+    private HoldingContainer field;
+
+    BlockExpression(ClassGenerator<?> generator, JBlock block, HoldingContainer container) {
+      this.generator = generator;
+      this.block = block;
+      this.container = container;
+      if (container.getHolder() instanceof JFieldVar) {
+        // constant expressions are already held by class fields
+        field = container;
+      }
+    }
+
+    HoldingContainer getField() {
+      if (field == null) {
+        MajorType type = container.getMajorType();
+        JType holderType = generator.getHolderType(type);
+        JVar fieldValue = generator.declareClassField("shared", holderType);
+        // the field holder is created once, its values are copied for each record
+        generator.getSetupBlock().assign(fieldValue, JExpr._new(holderType));
+        block.pos(block.getContents().size());
+        for (String holderField : ValueHolderHelper.getHolderParams(type)) {
+          block.assign(fieldValue.ref(holderField), container.getHolder().ref(holderField));
+        }
+        JFieldRef isSet = type.getMode() == TypeProtos.DataMode.OPTIONAL ? fieldValue.ref("isSet") : null;
+        field = new HoldingContainer(type, fieldValue, fieldValue.ref("value"), isSet);
+      }
+      return field;
+    }
+  }
+
   public Map<ExpressionHolder, HoldingContainer> previousExpressions = new HashMap<>();
   private final Stack<Map<ExpressionHolder, HoldingContainer>> mapStack = new Stack<>();
+  private Map<ExpressionHolder, BlockExpression> blockExpressions = new HashMap<>();
+  private final Map<ExpressionHolder, BlockExpression> closedExpressions = new HashMap<>();
+  private final boolean shareAcrossBlocks;
+
+  public EvaluationVisitor() {
+    this(true);
+  }
+
+  /**
+   * @param shareAcrossBlocks whether the expressions evaluated at the top level
+   *                          of a block may be used by the following blocks
+   */
+  public EvaluationVisitor(boolean shareAcrossBlocks) {
+    this.shareAcrossBlocks = shareAcrossBlocks;
+  }
 
   public HoldingContainer addExpr(LogicalExpression e, ClassGenerator<?> generator) {
     Set<LogicalExpression> constantBoundaries;
@@ -226,11 +285,30 @@ public class EvaluationVisitor {
     previousExpressions = mapStack.pop();
   }
 
+  /**
+   * Closes the current block, after which its local holders are out of scope.
+   * The expressions evaluated at its top level remain available to the
+   * following blocks of the same class.
+   */
+  void closeBlock() {
+    previousExpressions.clear();
+    closedExpressions.putAll(blockExpressions);
+    blockExpressions = new HashMap<>();
+  }
+
+  /**
+   * Forgets the expressions of the closed blocks, when the following blocks
+   * are generated in another class.
+   */
+  void clearClosedExpressions() {
+    closedExpressions.clear();
+  }
+
   /**
    * Get a HoldingContainer for the expression if it had been already evaluated
    */
-  private HoldingContainer getPrevious(LogicalExpression expression, MappingSet mappingSet) {
-    ExpressionHolder holder = new ExpressionHolder(expression, mappingSet);
+  private HoldingContainer getPrevious(LogicalExpression expression, ClassGenerator<?> generator) {
+    ExpressionHolder holder = new ExpressionHolder(expression, generator.getMappingSet());
     HoldingContainer previous = null;
     for (Map<ExpressionHolder,HoldingContainer> m : mapStack) {
       previous = m.get(holder);
@@ -241,14 +319,59 @@ public class EvaluationVisitor {
     if (previous == null) {
       previous = previousExpressions.get(holder);
     }
+    if (previous == null) {
+      BlockExpression closed = closedExpressions.get(holder);
+      if (closed != null && closed.generator == generator) {
+        previous = closed.getField();
+      }
+    }
     if (previous != null) {
       logger.debug("Found previously evaluated expression: {}", ExpressionStringBuilder.toString(expression));
     }
     return previous;
   }
 
-  private void put(LogicalExpression expression, HoldingContainer hc, MappingSet mappingSet) {
-    previousExpressions.put(new ExpressionHolder(expression, mappingSet), hc);
+  private void put(LogicalExpression expression, HoldingContainer hc, ClassGenerator<?> generator) {
+    ExpressionHolder holder = new ExpressionHolder(expression, generator.getMappingSet());
+    previousExpressions.put(holder, hc);
+    if (shareAcrossBlocks && mapStack.isEmpty() && isShareableAcrossBlocks(expression, hc, generator)) {
+      blockExpressions.put(holder, new BlockExpression(generator, generator.getEvalBlock(), hc));
+    }
+  }
+
+  /**
+   * Checks whether the value of an expression evaluated at the top level of a
+   * block may be used by the following blocks. Column reads are cheap enough
+   * to be repeated, and values computed while evaluating constants belong to
+   * the setup blocks.
+   */
+  private static boolean isShareableAcrossBlocks(LogicalExpression expression, HoldingContainer hc,
+      ClassGenerator<?> generator) {
+    if (expression instanceof FunctionHolderExpression) {
+      FunctionHolderExpression function = (FunctionHolderExpression) expression;
+      // aggregate functions write their results in other methods
+      if (!(function.getHolder() instanceof DrillSimpleFuncHolder)
+          || ((DrillSimpleFuncHolder) function.getHolder()).isComplexWriterFuncHolder()
+          || function.isRandom()) {
+        return false;
+      }
+    } else if (!(expression instanceof IfExpression || expression instanceof BooleanOperator)) {
+      return false;
+    }
+    if (hc.getHolder() instanceof JFieldVar) {
+      return true;
+    }
+    MappingSet mappingSet = generator.getMappingSet();
+    GeneratorMapping mapping = mappingSet.getCurrentMapping();
+    String setupMethod = mapping.getMethodName(ClassGenerator.BlockType.SETUP);
+    if (mappingSet.isWithinConstant() || hc.isConstant() || hc.isReader()
+        || setupMethod == null || setupMethod.equals(mapping.getMethodName(ClassGenerator.BlockType.EVAL))) {
+      return false;
+    }
+    MajorType type = hc.getMajorType();
+    return type.getMode() != TypeProtos.DataMode.REPEATED
+        && type.getMinorType() != TypeProtos.MinorType.UNION
+        && !ValueHolderHelper.getHolderParams(type).isEmpty();
   }
 
   private static class EvalVisitor extends AbstractExprVisitor<HoldingContainer, ClassGenerator<?>, RuntimeException> {
@@ -599,12 +722,33 @@ public class EvaluationVisitor {
       final boolean complex = Types.isComplex(type);
 
       if (!hasReadPath && !complex) {
+        if (batchRef == null && !e.isSuperReader() && isNullableVector(type)
+            && e.getFieldId().getFieldIds().length == 1) {
+          return createHolderForNullableVector(generator, recordIndex, vv1, type, e.getFieldId().getFieldIds()[0]);
+        }
         return createHolderForVector(generator, recordIndex, vv1, type);
       } else {
         return createReaderForVector(e, generator, recordIndex, vv1, type);
       }
     }
 
+    /**
+     * Checks whether the vectors of a type implement {@link NullableVector}, whose bits
+     * can be scanned for null runs. Untyped null vectors, among others, do not.
+     */
+    private static boolean isNullableVector(MajorType type) {
+      if (type.getMode() != TypeProtos.DataMode.OPTIONAL || Types.isUnion(type)
+          || type.getMinorType() == TypeProtos.MinorType.NULL) {
+        return false;
+      }
+      try {
+        return NullableVector.class.isAssignableFrom(
+            BasicTypeHelper.getValueVectorClass(type.getMinorType(), type.getMode()));
+      } catch (UnsupportedOperationException e) {
+        return false;
+      }
+    }
+
     private HoldingContainer createHolderForVector(ClassGenerator<?> generator,
         JExpression recordIndex, JExpression vv1, MajorType type) {
       JBlock eval = new JBlock();
@@ -623,6 +767,36 @@ public class EvaluationVisitor {
       return new VectorVariableHolder(out, generator, evalBlock, vv1, recordIndex);
     }
 
+    /**
+     * Reads a nullable incoming vector, without checking its bits if the
+     * class is specialized for batches where it has no null or only nulls.
+     */
+    private HoldingContainer createHolderForNullableVector(ClassGenerator<?> generator,
+        JExpression recordIndex, JExpression vv1, MajorType type, int fieldId) {
+      CodeGenerator<?> codeGenerator = generator.getCodeGenerator();
+      codeGenerator.addNullableRead(fieldId);
+      NullRuns nullRuns = codeGenerator.getNullRuns();
+      if (nullRuns == null) {
+        return createHolderForVector(generator, recordIndex, vv1, type);
+      }
+      if (nullRuns.hasOnlyNulls(fieldId)) {
+        HoldingContainer out = generator.declare(type);
+        generator.getEvalBlock().assign(out.getIsSet(), JExpr.lit(0));
+        return out;
+      }
+      if (nullRuns.hasNoNulls(fieldId)) {
+        HoldingContainer out = generator.declare(type);
+        JBlock eval = new JBlock();
+        eval.assign(out.getIsSet(), JExpr.lit(1));
+        MajorType requiredType = type.toBuilder().setMode(TypeProtos.DataMode.REQUIRED).build();
+        GetSetVectorHelper.read(requiredType, vv1, eval, out, generator.getModel(), recordIndex);
+        JBlock evalBlock = generator.getEvalBlock();
+        evalBlock.add(eval);
+        return new VectorVariableHolder(out, generator, evalBlock, vv1, recordIndex);
+      }
+      return createHolderForVector(generator, recordIndex, vv1, type);
+    }
+
     private HoldingContainer createReaderForVector(ValueVectorReadExpression e,
         ClassGenerator<?> generator, JExpression recordIndex, JExpression vv1,
         MajorType type) {
@@ -1169,210 +1343,210 @@ public class EvaluationVisitor {
 
     @Override
     public HoldingContainer visitFunctionCall(FunctionCall call, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(call, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(call, generator);
       if (hc == null) {
         hc = super.visitFunctionCall(call, generator);
-        put(call, hc, generator.getMappingSet());
+        put(call, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitFunctionHolderExpression(FunctionHolderExpression holder, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(holder, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(holder, generator);
       if (hc == null || holder.isRandom()) {
         hc = super.visitFunctionHolderExpression(holder, generator);
-        put(holder, hc, generator.getMappingSet());
+        put(holder, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitIfExpression(IfExpression ifExpr, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(ifExpr, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(ifExpr, generator);
       if (hc == null) {
         hc = super.visitIfExpression(ifExpr, generator);
-        put(ifExpr, hc, generator.getMappingSet());
+        put(ifExpr, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitBooleanOperator(BooleanOperator call, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(call, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(call, generator);
       if (hc == null) {
         hc = super.visitBooleanOperator(call, generator);
-        put(call, hc, generator.getMappingSet());
+        put(call, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitSchemaPath(SchemaPath path, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(path, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(path, generator);
       if (hc == null) {
         hc = super.visitSchemaPath(path, generator);
-        put(path, hc, generator.getMappingSet());
+        put(path, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitIntConstant(IntExpression intExpr, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(intExpr, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(intExpr, generator);
       if (hc == null) {
         hc = super.visitIntConstant(intExpr, generator);
-        put(intExpr, hc, generator.getMappingSet());
+        put(intExpr, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitFloatConstant(FloatExpression fExpr, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(fExpr, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(fExpr, generator);
       if (hc == null) {
         hc = super.visitFloatConstant(fExpr, generator);
-        put(fExpr, hc, generator.getMappingSet());
+        put(fExpr, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitLongConstant(LongExpression longExpr, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(longExpr, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(longExpr, generator);
       if (hc == null) {
         hc = super.visitLongConstant(longExpr, generator);
-        put(longExpr, hc, generator.getMappingSet());
+        put(longExpr, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitDateConstant(DateExpression dateExpr, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(dateExpr, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(dateExpr, generator);
       if (hc == null) {
         hc = super.visitDateConstant(dateExpr, generator);
-        put(dateExpr, hc, generator.getMappingSet());
+        put(dateExpr, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitTimeConstant(TimeExpression timeExpr, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(timeExpr, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(timeExpr, generator);
       if (hc == null) {
         hc = super.visitTimeConstant(timeExpr, generator);
-        put(timeExpr, hc, generator.getMappingSet());
+        put(timeExpr, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitTimeStampConstant(TimeStampExpression timeStampExpr, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(timeStampExpr, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(timeStampExpr, generator);
       if (hc == null) {
         hc = super.visitTimeStampConstant(timeStampExpr, generator);
-        put(timeStampExpr, hc, generator.getMappingSet());
+        put(timeStampExpr, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitIntervalYearConstant(IntervalYearExpression intervalYearExpression, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(intervalYearExpression, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(intervalYearExpression, generator);
       if (hc == null) {
         hc = super.visitIntervalYearConstant(intervalYearExpression, generator);
-        put(intervalYearExpression, hc, generator.getMappingSet());
+        put(intervalYearExpression, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitIntervalDayConstant(IntervalDayExpression intervalDayExpression, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(intervalDayExpression, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(intervalDayExpression, generator);
       if (hc == null) {
         hc = super.visitIntervalDayConstant(intervalDayExpression, generator);
-        put(intervalDayExpression, hc, generator.getMappingSet());
+        put(intervalDayExpression, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitDecimal9Constant(Decimal9Expression decExpr, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(decExpr, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(decExpr, generator);
       if (hc == null) {
         hc = super.visitDecimal9Constant(decExpr, generator);
-        put(decExpr, hc, generator.getMappingSet());
+        put(decExpr, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitDecimal18Constant(Decimal18Expression decExpr, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(decExpr, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(decExpr, generator);
       if (hc == null) {
         hc = super.visitDecimal18Constant(decExpr, generator);
-        put(decExpr, hc, generator.getMappingSet());
+        put(decExpr, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitDecimal28Constant(Decimal28Expression decExpr, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(decExpr, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(decExpr, generator);
       if (hc == null) {
         hc = super.visitDecimal28Constant(decExpr, generator);
-        put(decExpr, hc, generator.getMappingSet());
+        put(decExpr, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitDecimal38Constant(Decimal38Expression decExpr, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(decExpr, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(decExpr, generator);
       if (hc == null) {
         hc = super.visitDecimal38Constant(decExpr, generator);
-        put(decExpr, hc, generator.getMappingSet());
+        put(decExpr, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitVarDecimalConstant(VarDecimalExpression decExpr, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(decExpr, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(decExpr, generator);
       if (hc == null) {
         hc = super.visitVarDecimalConstant(decExpr, generator);
-        put(decExpr, hc, generator.getMappingSet());
+        put(decExpr, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitDoubleConstant(DoubleExpression dExpr, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(dExpr, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(dExpr, generator);
       if (hc == null) {
         hc = super.visitDoubleConstant(dExpr, generator);
-        put(dExpr, hc, generator.getMappingSet());
+        put(dExpr, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitBooleanConstant(BooleanExpression e, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(e, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(e, generator);
       if (hc == null) {
         hc = super.visitBooleanConstant(e, generator);
-        put(e, hc, generator.getMappingSet());
+        put(e, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitQuotedStringConstant(QuotedString e, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(e, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(e, generator);
       if (hc == null) {
         hc = super.visitQuotedStringConstant(e, generator);
-        put(e, hc, generator.getMappingSet());
+        put(e, hc, generator);
       }
       return hc;
     }
@@ -1384,10 +1558,10 @@ public class EvaluationVisitor {
 
     @Override
     public HoldingContainer visitNullExpression(NullExpression e, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(e, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(e, generator);
       if (hc == null) {
         hc = super.visitNullExpression(e, generator);
-        put(e, hc, generator.getMappingSet());
+        put(e, hc, generator);
       }
       return hc;
     }
@@ -1395,10 +1569,10 @@ public class EvaluationVisitor {
     @Override
     public HoldingContainer visitUnknown(LogicalExpression e, ClassGenerator<?> generator) throws RuntimeException {
       if (e instanceof ValueVectorReadExpression) {
-        HoldingContainer hc = getPrevious(e, generator.getMappingSet());
+        HoldingContainer hc = getPrevious(e, generator);
         if (hc == null) {
           hc = super.visitUnknown(e, generator);
-          put(e, hc, generator.getMappingSet());
+          put(e, hc, generator);
         }
         return hc;
       }
@@ -1407,20 +1581,20 @@ public class EvaluationVisitor {
 
     @Override
     public HoldingContainer visitCastExpression(CastExpression e, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(e, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(e, generator);
       if (hc == null) {
         hc = super.visitCastExpression(e, generator);
-        put(e, hc, generator.getMappingSet());
+        put(e, hc, generator);
       }
       return hc;
     }
 
     @Override
     public HoldingContainer visitConvertExpression(ConvertExpression e, ClassGenerator<?> generator) throws RuntimeException {
-      HoldingContainer hc = getPrevious(e, generator.getMappingSet());
+      HoldingContainer hc = getPrevious(e, generator);
       if (hc == null) {
         hc = super.visitConvertExpression(e, generator);
-        put(e, hc, generator.getMappingSet());
+        put(e, hc, generator);
       }
       return hc;
     }
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.expr;
+
+import java.util.Arrays;
+
+import org.apache.drill.exec.record.VectorAccessible;
+import org.apache.drill.exec.record.VectorWrapper;
+import org.apache.drill.exec.vector.NullableVector;
+import org.apache.drill.exec.vector.UInt1Vector;
+import org.apache.drill.exec.vector.ValueVector;
+
+import io.netty.buffer.DrillBuf;
+
+/**
+ * Nulls of the nullable vectors of a batch read by generated code, when each
+ * of them has either no null or only nulls, as nullable Parquet columns often
+ * have no null in practice. Code generated for such batches reads the values,
+ * or the nulls, of these vectors without checking their bits, so that the null
+ * checks of the expressions using them are folded away by the JIT compiler.
+ */
+public class NullRuns {
+
+  /**
+   * The bits of eight values which are all set.
+   */
+  private static final long ALL_SET = 0x0101010101010101L;
+
+  private final int[] fieldIds;
+  private final boolean[] allNulls;
+
+  private NullRuns(int[] fieldIds, boolean[] allNulls) {
+    this.fieldIds = fieldIds;
+    this.allNulls = allNulls;
+  }
+
+  /**
+   * Scans the bits of the given nullable vectors of a batch.
+   *
+   * @param batch batch whose vectors are read
+   * @param fieldIds ids of the nullable vectors read by the generated code
+   * @return the null runs of the vectors, or null if one of them has both
+   * values and nulls or is not a nullable vector
+   */
+  public static NullRuns of(VectorAccessible batch, int[] fieldIds) {
+    boolean[] allNulls = new boolean[fieldIds.length];
+    for (int i = 0; i < fieldIds.length; i++) {
+      VectorWrapper<?> wrapper = batch.getValueAccessorById(ValueVector.class, fieldIds[i]);
+      if (!(wrapper.getValueVector() instanceof NullableVector)) {
+        return null;
+      }
+      NullableVector vector = (NullableVector) wrapper.getValueVector();
+      int valueCount = vector.getAccessor().getValueCount();
+      DrillBuf bits = ((UInt1Vector) vector.getBitsVector()).getBuffer();
+      int setCount = countSet(bits, valueCount);
+      if (setCount != 0 && setCount != valueCount) {
+        return null;
+      }
+      // the vectors of empty batches are considered without null
+      allNulls[i] = setCount == 0 && valueCount > 0;
+    }
+    return new NullRuns(fieldIds, allNulls);
+  }
+
+  /**
+   * Counts the set bits, stopping as soon as both set and unset bits are found.
+   */
+  private static int countSet(DrillBuf bits, int valueCount) {
+    int setCount = 0;
+    int index = 0;
+    for (; index + Long.BYTES <= valueCount; index += Long.BYTES) {
+      long word = bits.getLong(index);
+      if (word == ALL_SET) {
+        setCount += Long.BYTES;
+      } else if (word != 0 || setCount != 0) {
+        return -1;
+      }
+    }
+    for (; index < valueCount; index++) {
+      if (bits.getByte(index) != 0) {
+        setCount++;
+      }
+    }
+    return setCount;
+  }
+
+  /**
+   * Checks whether a vector has no null.
+   *
+   * @param fieldId id of the vector in the batch
+   * @return true if the vector is known to have no null
+   */
+  public boolean hasNoNulls(int fieldId) {
+    int i = indexOf(fieldId);
+    return i >= 0 && !allNulls[i];
+  }
+
+  /**
+   * Checks whether a vector has only nulls.
+   *
+   * @param fieldId id of the vector in the batch
+   * @return true if the vector is known to have only nulls
+   */
+  public boolean hasOnlyNulls(int fieldId) {
+    int i = indexOf(fieldId);
+    return i >= 0 && allNulls[i];
+  }
+
+  private int indexOf(int fieldId) {
+    for (int i = 0; i < fieldIds.length; i++) {
+      if (fieldIds[i] == fieldId) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(fieldIds) + Arrays.hashCode(allNulls);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof NullRuns)) {
+      return false;
+    }
+    NullRuns that = (NullRuns) obj;
+    return Arrays.equals(fieldIds, that.fieldIds) && Arrays.equals(allNulls, that.allNulls);
+  }
+
+  @Override
+  public String toString() {
+    return "NullRuns[fieldIds=" + Arrays.toString(fieldIds)
+        + ", allNulls=" + Arrays.toString(allNulls)
+        + "]";
+  }
+}
@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -42,6 +43,7 @@ import org.apache.drill.common.config.ConfigConstants;
 import org.apache.drill.common.config.DrillConfig;
 import org.apache.drill.common.exceptions.DrillRuntimeException;
 import org.apache.drill.common.expression.FunctionCall;
+import org.apache.drill.common.expression.LogicalExpression;
 import org.apache.drill.common.scanner.ClassPathScanner;
 import org.apache.drill.common.scanner.RunTimeScan;
 import org.apache.drill.common.scanner.persistence.ScanResult;
@@ -60,6 +62,8 @@ import org.apache.drill.exec.expr.fn.registry.JarScan;
 import org.apache.drill.exec.expr.fn.registry.RemoteFunctionRegistry;
 import org.apache.drill.exec.planner.sql.DrillOperatorTable;
 import org.apache.drill.exec.proto.UserBitShared.Jar;
+import org.apache.drill.exec.resolver.DefaultFunctionResolver;
+import org.apache.drill.exec.resolver.ExactFunctionResolver;
 import org.apache.drill.exec.resolver.FunctionResolver;
 import org.apache.drill.exec.resolver.FunctionResolverFactory;
 import org.apache.drill.exec.server.options.OptionManager;
@@ -67,6 +71,9 @@ import org.apache.drill.exec.server.options.OptionSet;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import org.apache.drill.exec.store.sys.store.DataChangeVersion;
 import org.apache.drill.exec.util.JarUtil;
 import org.apache.hadoop.fs.FileSystem;
@@ -83,6 +90,8 @@ import org.slf4j.LoggerFactory;
 public class FunctionImplementationRegistry implements FunctionLookupContext, AutoCloseable {
   private static final Logger logger = LoggerFactory.getLogger(FunctionImplementationRegistry.class);
 
+  private static final int MAX_RESOLVED_FUNCTIONS = 10_000;
+
   private final LocalFunctionRegistry localFunctionRegistry;
   private final RemoteFunctionRegistry remoteFunctionRegistry;
   private final Path localUdfDir;
@@ -92,6 +101,12 @@ public class FunctionImplementationRegistry implements FunctionLookupContext, Au
   private OptionSet optionManager;
   private final boolean useDynamicUdfs;
 
+  // Functions resolved for the argument types of calls, see getBestMatch()
+  private final Cache<ResolvedFunctionKey, DrillFuncHolder> resolvedFunctions = CacheBuilder.newBuilder()
+      .maximumSize(MAX_RESOLVED_FUNCTIONS)
+      .recordStats()
+      .build();
+
   @VisibleForTesting
   public FunctionImplementationRegistry(DrillConfig config){
     this(config, ClassPathScanner.fromPrescan(config));
@@ -180,9 +195,8 @@ public class FunctionImplementationRegistry implements FunctionLookupContext, Au
     // update the registry, so sync with remote.
 
     if (useDynamicUdfs) {
-      List<DrillFuncHolder> functions = localFunctionRegistry.getMethods(newFunctionName, version);
       FunctionResolver exactResolver = FunctionResolverFactory.getExactResolver(functionCall);
-      DrillFuncHolder holder = exactResolver.getBestMatch(functions, functionCall);
+      DrillFuncHolder holder = getBestMatch(exactResolver, newFunctionName, functionCall, version);
       if (holder != null) {
         return holder;
       }
@@ -192,8 +206,45 @@ public class FunctionImplementationRegistry implements FunctionLookupContext, Au
     // Whether Dynamic UDFs or not: look in the registry for
     // an inexact match.
 
-    List<DrillFuncHolder> functions = localFunctionRegistry.getMethods(newFunctionName, version);
-    return functionResolver.getBestMatch(functions, functionCall);
+    return getBestMatch(functionResolver, newFunctionName, functionCall, version);
+  }
+
+  /**
+   * Resolves a function call among the functions of the local registry with
+   * the given name. The built-in resolvers only depend on the argument types
+   * of the call, so their results are cached by resolver, function name,
+   * argument types and version of the local registry, which changes when
+   * dynamic UDFs are registered or unregistered. Expressions are materialized
+   * for each fragment and each batch schema, which otherwise computes the
+   * casting costs of all the functions with the name for each call again.
+   *
+   * @param functionResolver function resolver
+   * @param name function name, after replacement
+   * @param functionCall function call
+   * @param version holder for the version of the local registry
+   * @return best matching function holder, or null if there is none
+   */
+  private DrillFuncHolder getBestMatch(FunctionResolver functionResolver, String name,
+                                       FunctionCall functionCall, AtomicInteger version) {
+    List<DrillFuncHolder> functions = localFunctionRegistry.getMethods(name, version);
+    Class<?> resolverClass = functionResolver.getClass();
+    if (resolverClass != DefaultFunctionResolver.class && resolverClass != ExactFunctionResolver.class) {
+      return functionResolver.getBestMatch(functions, functionCall);
+    }
+    List<MajorType> argumentTypes = new ArrayList<>(functionCall.argCount());
+    for (LogicalExpression arg : functionCall.args()) {
+      argumentTypes.add(arg.getMajorType());
+    }
+    ResolvedFunctionKey key = new ResolvedFunctionKey(resolverClass, name, argumentTypes, version.get());
+    DrillFuncHolder holder = resolvedFunctions.getIfPresent(key);
+    if (holder == null) {
+      // calls that do not resolve are not cached, so that they look for new dynamic UDFs
+      holder = functionResolver.getBestMatch(functions, functionCall);
+      if (holder != null) {
+        resolvedFunctions.put(key, holder);
+      }
+    }
+    return holder;
   }
 
   /**
@@ -296,6 +347,11 @@ public class FunctionImplementationRegistry implements FunctionLookupContext, Au
     return false;
   }
 
+  @VisibleForTesting
+  public CacheStats getResolvedFunctionStats() {
+    return resolvedFunctions.stats();
+  }
+
   public LocalFunctionRegistry getLocalFunctionRegistry() {
     return localFunctionRegistry;
   }
@@ -610,6 +666,43 @@ public class FunctionImplementationRegistry implements FunctionLookupContext, Au
     }
   }
 
+  /**
+   * Key of a resolved function: the resolver, the call and the registry version it was resolved against.
+   */
+  private static class ResolvedFunctionKey {
+    private final Class<?> resolverClass;
+    private final String name;
+    private final List<MajorType> argumentTypes;
+    private final int registryVersion;
+
+    ResolvedFunctionKey(Class<?> resolverClass, String name, List<MajorType> argumentTypes, int registryVersion) {
+      this.resolverClass = resolverClass;
+      this.name = name;
+      this.argumentTypes = argumentTypes;
+      this.registryVersion = registryVersion;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      ResolvedFunctionKey key = (ResolvedFunctionKey) o;
+      return registryVersion == key.registryVersion
+          && resolverClass == key.resolverClass
+          && name.equals(key.name)
+          && argumentTypes.equals(key.argumentTypes);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(resolverClass, name, argumentTypes, registryVersion);
+    }
+  }
+
   /**
    * Fires when jar name is submitted for unregistration.
    * Will unregister all functions associated with the jar name
@@ -621,6 +714,8 @@ public class FunctionImplementationRegistry implements FunctionLookupContext, Au
     public void onChange(TransientStoreEvent<?> event) {
       String jarName = (String) event.getValue();
       localFunctionRegistry.unregister(jarName);
+      // unregistering does not change the registry version the resolved functions are keyed by
+      resolvedFunctions.invalidateAll();
       String localDir = localUdfDir.toUri().getPath();
       FileUtils.deleteQuietly(new File(localDir, jarName));
       FileUtils.deleteQuietly(new File(localDir, JarUtil.getSourceName(jarName)));
@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.expr.fn.impl;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.expr.fn.impl.RegexpUtil.SqlPatternInfo;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Cache of the compiled patterns of the LIKE, SIMILAR TO and regular
+ * expression functions, so that the setup of each generated class, for each
+ * batch schema and each fragment, does not translate and compile the same
+ * pattern again. Queries over many files or with many minor fragments set up
+ * these functions many times, and large regular expressions take longer to
+ * compile than to match short values.
+ * <p>
+ * Regular expressions are keyed by pattern and flags. {@link Pattern}s are
+ * immutable and shared, each function still creating its own
+ * {@link java.util.regex.Matcher}. LIKE patterns are keyed by pattern and
+ * escape string, and their byte matchers, which have no state except for the
+ * regular expression matcher, are shared as well.
+ * <p>
+ * Functions call static helpers from their inlined setup code, so the cache
+ * is shared by the whole process and configured by the Drillbit at startup
+ * ({@link ExecConstants#PATTERN_CACHE_MAX_ENTRIES}). Until then, as in unit
+ * tests, a cache of the default size is used.
+ */
+public class PatternCache {
+
+  public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+  private static volatile PatternCache instance = new PatternCache(DEFAULT_MAX_ENTRIES);
+
+  private final Cache<PatternKey, Pattern> patterns;
+  private final Cache<LikeKey, LikePattern> likePatterns;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  private PatternCache(long maxEntries) {
+    this.patterns = CacheBuilder.newBuilder()
+        .maximumSize(maxEntries)
+        .build();
+    this.likePatterns = CacheBuilder.newBuilder()
+        .maximumSize(maxEntries)
+        .build();
+  }
+
+  /**
+   * Sets up the cache of this process from the Drillbit configuration.
+   */
+  public static void configure(DrillConfig config) {
+    long maxEntries = config.getLong(ExecConstants.PATTERN_CACHE_MAX_ENTRIES);
+    instance = maxEntries > 0 ? new PatternCache(maxEntries) : null;
+  }
+
+  /**
+   * @return the cache of this process, or null if patterns are not cached
+   */
+  public static PatternCache getInstance() {
+    return instance;
+  }
+
+  /**
+   * Returns a compiled regular expression, from the cache if it is enabled.
+   *
+   * @param regex regular expression
+   * @return compiled regular expression, shared with other callers
+   */
+  public static Pattern compile(String regex) {
+    return compile(regex, 0);
+  }
+
+  /**
+   * Returns a compiled regular expression, from the cache if it is enabled.
+   *
+   * @param regex regular expression
+   * @param flags match flags, as for {@link Pattern#compile(String, int)}
+   * @return compiled regular expression, shared with other callers
+   */
+  public static Pattern compile(String regex, int flags) {
+    PatternCache cache = instance;
+    return cache == null ? Pattern.compile(regex, flags) : cache.getPattern(regex, flags);
+  }
+
+  /**
+   * Returns the translation of a SQL LIKE pattern, from the cache if it is
+   * enabled.
+   *
+   * @param sqlPattern LIKE pattern
+   * @param escape escape string, or null if the pattern has none
+   * @return translated pattern
+   */
+  public static SqlPatternInfo getLikePatternInfo(String sqlPattern, String escape) {
+    PatternCache cache = instance;
+    return cache == null ? translateLike(sqlPattern, escape) : cache.getLikePattern(sqlPattern, escape).info;
+  }
+
+  /**
+   * Returns a matcher of a SQL LIKE pattern, shared with other callers
+   * unless the pattern is matched with a regular expression.
+   *
+   * @param sqlPattern LIKE pattern
+   * @param escape escape string, or null if the pattern has none
+   * @return matcher of the pattern
+   */
+  public static SqlPatternMatcher getLikeMatcher(String sqlPattern, String escape) {
+    PatternCache cache = instance;
+    if (cache == null) {
+      return SqlPatternFactory.getSqlPatternMatcher(translateLike(sqlPattern, escape));
+    }
+    LikePattern likePattern = cache.getLikePattern(sqlPattern, escape);
+    return likePattern.matcher != null
+        ? likePattern.matcher
+        : SqlPatternFactory.getSqlPatternMatcher(likePattern.info);
+  }
+
+  private static SqlPatternInfo translateLike(String sqlPattern, String escape) {
+    return escape == null
+        ? RegexpUtil.sqlToRegexLike(sqlPattern)
+        : RegexpUtil.sqlToRegexLike(sqlPattern, escape);
+  }
+
+  // Values are computed outside of the cache, so that invalid patterns fail
+  // with their own exceptions rather than with cache loading exceptions.
+
+  private Pattern getPattern(String regex, int flags) {
+    PatternKey key = new PatternKey(regex, flags);
+    Pattern pattern = patterns.getIfPresent(key);
+    if (pattern != null) {
+      hits.increment();
+      return pattern;
+    }
+    misses.increment();
+    pattern = Pattern.compile(regex, flags);
+    patterns.put(key, pattern);
+    return pattern;
+  }
+
+  private LikePattern getLikePattern(String sqlPattern, String escape) {
+    LikeKey key = new LikeKey(sqlPattern, escape);
+    LikePattern likePattern = likePatterns.getIfPresent(key);
+    if (likePattern != null) {
+      hits.increment();
+      return likePattern;
+    }
+    misses.increment();
+    SqlPatternInfo info = translateLike(sqlPattern, escape);
+    SqlPatternMatcher matcher = SqlPatternFactory.getSqlPatternMatcher(info);
+    likePattern = new LikePattern(info, matcher instanceof SqlPatternComplexMatcher ? null : matcher);
+    likePatterns.put(key, likePattern);
+    return likePattern;
+  }
+
+  public long size() {
+    return patterns.size() + likePatterns.size();
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  private static class LikePattern {
+    private final SqlPatternInfo info;
+    // null if the matcher has state and is created for each caller
+    private final SqlPatternMatcher matcher;
+
+    LikePattern(SqlPatternInfo info, SqlPatternMatcher matcher) {
+      this.info = info;
+      this.matcher = matcher;
+    }
+  }
+
+  private static class PatternKey {
+    private final String regex;
+    private final int flags;
+
+    PatternKey(String regex, int flags) {
+      this.regex = regex;
+      this.flags = flags;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      PatternKey key = (PatternKey) o;
+      return flags == key.flags && regex.equals(key.regex);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(regex, flags);
+    }
+  }
+
+  private static class LikeKey {
+    private final String sqlPattern;
+    private final String escape;
+
+    LikeKey(String sqlPattern, String escape) {
+      this.sqlPattern = sqlPattern;
+      this.escape = escape;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      LikeKey key = (LikeKey) o;
+      return sqlPattern.equals(key.sqlPattern) && Objects.equals(escape, key.escape);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(sqlPattern, escape);
+    }
+  }
+}
@@ -17,6 +17,9 @@
  */
 package org.apache.drill.exec.expr.fn.impl;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Code copied from optiq (https://github.com/julianhyde/optiq).
  * Thanks goes to Julian Hyde and other contributors of optiq.
@@ -66,10 +69,20 @@ public class RegexpUtil {
     // javaPatternString used for regex pattern match.
     private final String javaPatternString;
 
+    // constant strings separated by % in complex patterns without _, null otherwise.
+    // Used for byte matching of patterns such as ABC%DEF or %ABC%DEF%.
+    private final List<String> simplePatternSegments;
+
     public SqlPatternInfo(final SqlPatternType patternType, final String javaPatternString, final String simplePatternString) {
+      this(patternType, javaPatternString, simplePatternString, null);
+    }
+
+    public SqlPatternInfo(final SqlPatternType patternType, final String javaPatternString, final String simplePatternString,
+                          final List<String> simplePatternSegments) {
       this.patternType = patternType;
       this.simplePatternString = simplePatternString;
       this.javaPatternString = javaPatternString;
+      this.simplePatternSegments = simplePatternSegments;
     }
 
     public SqlPatternType getPatternType() {
@@ -84,6 +97,15 @@ public class RegexpUtil {
       return javaPatternString;
     }
 
+    /**
+     * @return constant strings of a complex pattern, the first one anchored at
+     *         the start of the value and the last one at its end, or null if
+     *         the pattern has other meta characters than %
+     */
+    public List<String> getSimplePatternSegments() {
+      return simplePatternSegments;
+    }
+
   }
 
   /**
@@ -122,6 +144,9 @@ public class RegexpUtil {
     final int len = sqlPattern.length();
     final StringBuilder javaPattern = new StringBuilder(len + len);
     final StringBuilder simplePattern = new StringBuilder(len);
+    // constant strings between %, kept until a _ is found
+    List<String> segments = new ArrayList<>();
+    final StringBuilder segment = new StringBuilder(len);
 
     // Figure out the pattern type and build simplePatternString
     // as we are going through the sql pattern string
@@ -146,6 +171,7 @@ public class RegexpUtil {
             || (nextChar == escapeChar)) {
           javaPattern.append(nextChar);
           simplePattern.append(nextChar);
+          segment.append(nextChar);
           i++;
         } else {
           throw invalidEscapeSequence(sqlPattern, i);
@@ -153,6 +179,7 @@ public class RegexpUtil {
       } else if (c == '_') {
         // if we find _, it is not simple pattern, we are looking for only %
         patternType = SqlPatternType.COMPLEX;
+        segments = null;
         javaPattern.append('.');
       } else if (c == '%') {
         if (i == 0) {
@@ -172,13 +199,22 @@ public class RegexpUtil {
         }
         javaPattern.append(".");
         javaPattern.append('*');
+        if (segments != null) {
+          segments.add(segment.toString());
+          segment.setLength(0);
+        }
       } else {
         javaPattern.append(c);
         simplePattern.append(c);
+        segment.append(c);
       }
     }
 
-    return new SqlPatternInfo(patternType, javaPattern.toString(), simplePattern.toString());
+    if (patternType != SqlPatternType.COMPLEX || segments == null) {
+      return new SqlPatternInfo(patternType, javaPattern.toString(), simplePattern.toString());
+    }
+    segments.add(segment.toString());
+    return new SqlPatternInfo(patternType, javaPattern.toString(), simplePattern.toString(), segments);
   }
 
   private static RuntimeException invalidEscapeCharacter(String s) {
@@ -186,7 +186,7 @@ public class SimpleRepeatedFunctions {
 
     public void setup() {
       currVal = new VarCharHolder();
-      matcher = java.util.regex.Pattern.compile(
+      matcher = org.apache.drill.exec.expr.fn.impl.PatternCache.compile(
           org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(targetValue.start,  targetValue.end,  targetValue.buffer)).matcher("");
       charSequenceWrapper = new org.apache.drill.exec.expr.fn.impl.CharSequenceWrapper();
       matcher.reset(charSequenceWrapper);
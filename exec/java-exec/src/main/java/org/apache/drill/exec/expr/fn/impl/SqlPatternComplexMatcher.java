@@ -26,8 +26,12 @@ public class SqlPatternComplexMatcher implements SqlPatternMatcher {
   private final CharSequenceWrapper charSequenceWrapper;
 
   public SqlPatternComplexMatcher(String patternString) {
+    this(PatternCache.compile(patternString));
+  }
+
+  public SqlPatternComplexMatcher(Pattern pattern) {
     charSequenceWrapper = new CharSequenceWrapper();
-    matcher = Pattern.compile(patternString).matcher(charSequenceWrapper);
+    matcher = pattern.matcher(charSequenceWrapper);
   }
 
   @Override
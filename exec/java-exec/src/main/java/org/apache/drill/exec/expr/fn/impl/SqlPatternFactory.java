@@ -24,6 +24,9 @@ public class SqlPatternFactory {
   {
     switch (patternInfo.getPatternType()) {
       case COMPLEX:
+        if (patternInfo.getSimplePatternSegments() != null) {
+          return new SqlPatternSegmentsMatcher(patternInfo.getSimplePatternSegments());
+        }
         return new SqlPatternComplexMatcher(patternInfo.getJavaPatternString());
       case STARTS_WITH:
         return new SqlPatternStartsWithMatcher(patternInfo.getSimplePatternString());
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.expr.fn.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.drill.common.exceptions.UserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.buffer.DrillBuf;
+
+/**
+ * SQL pattern made of constant strings separated by %, such as ABC%DEF or
+ * %ABC%DEF%, the usual shape of LIKE patterns of log analysis queries.
+ * <p>
+ * Like the simple matchers of {@link AbstractSqlPatternMatcher}, it compares
+ * the UTF-8 bytes of the strings with the value, without decoding it: the first
+ * string has to start the value, the last one has to end it, and the strings in
+ * between are searched for in order, each from the end of the previous one. Since
+ * % matches any string, the leftmost occurrence of each string is the one that
+ * leaves the most room to the next ones, so no backtracking is needed.
+ * <p>
+ * The matcher has no state, and can be shared by concurrent callers.
+ */
+public final class SqlPatternSegmentsMatcher implements SqlPatternMatcher {
+  private static final Logger logger = LoggerFactory.getLogger(SqlPatternSegmentsMatcher.class);
+
+  private final byte[] prefix;
+  private final byte[] suffix;
+  private final byte[][] segments;
+  private final int minLength;
+
+  /**
+   * @param patternSegments constant strings of the pattern, at least two,
+   *        the first one and the last one being empty if the pattern starts
+   *        or ends with %
+   */
+  public SqlPatternSegmentsMatcher(List<String> patternSegments) {
+    assert patternSegments.size() >= 2;
+    prefix = encode(patternSegments.get(0));
+    suffix = encode(patternSegments.get(patternSegments.size() - 1));
+    List<byte[]> middle = new ArrayList<>();
+    int length = prefix.length + suffix.length;
+    for (String segment : patternSegments.subList(1, patternSegments.size() - 1)) {
+      if (!segment.isEmpty()) {
+        byte[] bytes = encode(segment);
+        middle.add(bytes);
+        length += bytes.length;
+      }
+    }
+    segments = middle.toArray(new byte[0][]);
+    minLength = length;
+  }
+
+  private static byte[] encode(String patternString) {
+    try {
+      ByteBuffer byteBuffer = StandardCharsets.UTF_8.newEncoder().encode(CharBuffer.wrap(patternString));
+      byte[] bytes = new byte[byteBuffer.remaining()];
+      byteBuffer.get(bytes);
+      return bytes;
+    } catch (CharacterCodingException e) {
+      throw UserException.validationError(e)
+          .message("Failure to encode pattern %s using UTF-8", patternString)
+          .addContext("Message: ", e.getMessage())
+          .build(logger);
+    }
+  }
+
+  @Override
+  public int match(int start, int end, DrillBuf drillBuf) {
+    if (end - start < minLength) {
+      return 0;
+    }
+    // the minimum length guarantees that the prefix and the suffix do not overlap
+    final int suffixStart = end - suffix.length;
+    if (!matchesAt(prefix, start, drillBuf) || !matchesAt(suffix, suffixStart, drillBuf)) {
+      return 0;
+    }
+    int position = start + prefix.length;
+    for (byte[] segment : segments) {
+      position = indexOf(segment, position, suffixStart, drillBuf);
+      if (position < 0) {
+        return 0;
+      }
+      position += segment.length;
+    }
+    return 1;
+  }
+
+  private static boolean matchesAt(byte[] bytes, int position, DrillBuf drillBuf) {
+    for (int idx = 0; idx < bytes.length; idx++) {
+      if (drillBuf.getByte(position + idx) != bytes[idx]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return start of the first occurrence of the bytes within [from, to), or -1
+   */
+  private static int indexOf(byte[] bytes, int from, int to, DrillBuf drillBuf) {
+    final byte firstByte = bytes[0];
+    final int last = to - bytes.length;
+    for (int position = from; position <= last; position++) {
+      if (drillBuf.getByte(position) != firstByte) {
+        continue;
+      }
+      int idx = 1;
+      while (idx < bytes.length && drillBuf.getByte(position + idx) == bytes[idx]) {
+        idx++;
+      }
+      if (idx == bytes.length) {
+        return position;
+      }
+    }
+    return -1;
+  }
+}
@@ -23,12 +23,22 @@ import org.apache.drill.common.exceptions.DrillRuntimeException;
 
 public class StringFunctionUtil {
 
+  // High bit of each byte of a word. A word of ASCII characters has none of them set.
+  private static final long HIGH_BITS = 0x8080808080808080L;
+  private static final long ONES = 0x0101010101010101L;
+
   /* Decode the input bytebuf using UTF-8, and return the number of characters
    */
   public static int getUTF8CharLength(ByteBuf buffer, int start, int end) {
     int charCount = 0;
 
     for (int idx = start, charLen = 0; idx < end; idx += charLen) {
+      // ASCII fast path: eight 1-byte chars at once
+      if (idx + Long.BYTES <= end && (buffer.getLong(idx) & HIGH_BITS) == 0) {
+        charLen = Long.BYTES;
+        charCount += Long.BYTES;
+        continue;
+      }
       charLen = utf8CharLen(buffer, idx);
       ++charCount;  //Advance the counter, since we find one char.
     }
@@ -47,6 +57,13 @@ public class StringFunctionUtil {
     }
 
     for (int idx = start, charLen = 0; idx < end; idx += charLen) {
+      // ASCII fast path: skips eight 1-byte chars at once, as long as the position is not among them
+      if (charCount + Long.BYTES <= charLength && idx + Long.BYTES <= end
+          && (buffer.getLong(idx) & HIGH_BITS) == 0) {
+        charLen = Long.BYTES;
+        charCount += Long.BYTES;
+        continue;
+      }
       charLen = utf8CharLen(buffer, idx);
       ++charCount;  //Advance the counter, since we find one char.
       if (charCount == charLength + 1) {
@@ -56,6 +73,57 @@ public class StringFunctionUtil {
     return end;
   }
 
+  /**
+   * Writes the bytes of [start, end) in lower case to the output buffer, if they
+   * are all ASCII characters. The output buffer must have room for them.
+   *
+   * @return false if a byte is not an ASCII character, in which case the output
+   *         is incomplete and the value has to be converted as a string
+   */
+  public static boolean toLowerCaseASCII(ByteBuf in, int start, int end, ByteBuf out, int outStart) {
+    return changeCaseASCII(in, start, end, out, outStart, 'A', 'Z');
+  }
+
+  /**
+   * Writes the bytes of [start, end) in upper case to the output buffer, if they
+   * are all ASCII characters. The output buffer must have room for them.
+   *
+   * @return false if a byte is not an ASCII character, in which case the output
+   *         is incomplete and the value has to be converted as a string
+   */
+  public static boolean toUpperCaseASCII(ByteBuf in, int start, int end, ByteBuf out, int outStart) {
+    return changeCaseASCII(in, start, end, out, outStart, 'a', 'z');
+  }
+
+  /**
+   * Flips the case bit (0x20) of the letters within [first, last], eight bytes
+   * at a time. Adding 0x80 - c to a byte lower than 0x80 sets its high bit if and
+   * only if the byte is at least c, without carrying into the next byte.
+   */
+  private static boolean changeCaseASCII(ByteBuf in, int start, int end, ByteBuf out, int outStart,
+                                         char first, char last) {
+    final long atLeastFirst = (0x80 - first) * ONES;
+    final long aboveLast = (0x80 - last - 1) * ONES;
+    int idx = start;
+    int outIdx = outStart;
+    for (; idx + Long.BYTES <= end; idx += Long.BYTES, outIdx += Long.BYTES) {
+      final long word = in.getLong(idx);
+      if ((word & HIGH_BITS) != 0) {
+        return false;
+      }
+      final long letters = (word + atLeastFirst) & ~(word + aboveLast) & HIGH_BITS;
+      out.setLong(outIdx, word ^ (letters >>> 2));
+    }
+    for (; idx < end; idx++, outIdx++) {
+      final byte b = in.getByte(idx);
+      if (b < 0) {
+        return false;
+      }
+      out.setByte(outIdx, b >= first && b <= last ? b ^ 0x20 : b);
+    }
+    return true;
+  }
+
   public static int stringLeftMatchUTF8(ByteBuf str, int strStart, int strEnd,
                                     ByteBuf substr, int subStart, int subEnd) {
     for (int i = strStart; i <= strEnd - (subEnd - subStart); i++) {
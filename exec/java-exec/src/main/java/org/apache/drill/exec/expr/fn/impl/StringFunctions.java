@@ -55,14 +55,12 @@ public class StringFunctions{
     @Param VarCharHolder input;
     @Param(constant=true) VarCharHolder pattern;
     @Output BitHolder out;
-    @Workspace org.apache.drill.exec.expr.fn.impl.RegexpUtil.SqlPatternInfo sqlPatternInfo;
     @Workspace org.apache.drill.exec.expr.fn.impl.SqlPatternMatcher sqlPatternMatcher;
 
     @Override
     public void setup() {
-      sqlPatternInfo = org.apache.drill.exec.expr.fn.impl.RegexpUtil.sqlToRegexLike(
-          org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start, pattern.end, pattern.buffer));
-      sqlPatternMatcher = org.apache.drill.exec.expr.fn.impl.SqlPatternFactory.getSqlPatternMatcher(sqlPatternInfo);
+      sqlPatternMatcher = org.apache.drill.exec.expr.fn.impl.PatternCache.getLikeMatcher(
+          org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start, pattern.end, pattern.buffer), null);
     }
 
     @Override
@@ -78,15 +76,13 @@ public class StringFunctions{
     @Param(constant=true) VarCharHolder pattern;
     @Param(constant=true) VarCharHolder escape;
     @Output BitHolder out;
-    @Workspace org.apache.drill.exec.expr.fn.impl.RegexpUtil.SqlPatternInfo sqlPatternInfo;
     @Workspace org.apache.drill.exec.expr.fn.impl.SqlPatternMatcher sqlPatternMatcher;
 
     @Override
     public void setup() {
-      sqlPatternInfo = org.apache.drill.exec.expr.fn.impl.RegexpUtil.sqlToRegexLike(
+      sqlPatternMatcher = org.apache.drill.exec.expr.fn.impl.PatternCache.getLikeMatcher(
           org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer),
           org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(escape.start,  escape.end,  escape.buffer));
-      sqlPatternMatcher = org.apache.drill.exec.expr.fn.impl.SqlPatternFactory.getSqlPatternMatcher(sqlPatternInfo);
     }
 
     @Override
@@ -106,8 +102,8 @@ public class StringFunctions{
 
     @Override
     public void setup() {
-      matcher = java.util.regex.Pattern.compile(org.apache.drill.exec.expr.fn.impl.RegexpUtil.sqlToRegexLike( //
-          org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer)).getJavaPatternString(),
+      matcher = org.apache.drill.exec.expr.fn.impl.PatternCache.compile(org.apache.drill.exec.expr.fn.impl.PatternCache.getLikePatternInfo( //
+          org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer), null).getJavaPatternString(),
           java.util.regex.Pattern.CASE_INSENSITIVE).matcher("");
       charSequenceWrapper = new org.apache.drill.exec.expr.fn.impl.CharSequenceWrapper();
       matcher.reset(charSequenceWrapper);
@@ -135,7 +131,7 @@ public class StringFunctions{
 
     @Override
     public void setup() {
-      matcher = java.util.regex.Pattern.compile(org.apache.drill.exec.expr.fn.impl.RegexpUtil.sqlToRegexLike( //
+      matcher = org.apache.drill.exec.expr.fn.impl.PatternCache.compile(org.apache.drill.exec.expr.fn.impl.PatternCache.getLikePatternInfo( //
           org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer),
           org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(escape.start,  escape.end,  escape.buffer)).getJavaPatternString(),
           java.util.regex.Pattern.CASE_INSENSITIVE).matcher("");
@@ -163,7 +159,7 @@ public class StringFunctions{
 
     @Override
     public void setup() {
-      matcher = java.util.regex.Pattern.compile(org.apache.drill.exec.expr.fn.impl.RegexpUtil.sqlToRegexSimilar(
+      matcher = org.apache.drill.exec.expr.fn.impl.PatternCache.compile(org.apache.drill.exec.expr.fn.impl.RegexpUtil.sqlToRegexSimilar(
           org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers
               .toStringFromUTF8(pattern.start, pattern.end, pattern.buffer))).matcher("");
       charSequenceWrapper = new org.apache.drill.exec.expr.fn.impl.CharSequenceWrapper();
@@ -191,7 +187,7 @@ public class StringFunctions{
 
     @Override
     public void setup() {
-      matcher = java.util.regex.Pattern.compile(org.apache.drill.exec.expr.fn.impl.RegexpUtil.sqlToRegexSimilar(
+      matcher = org.apache.drill.exec.expr.fn.impl.PatternCache.compile(org.apache.drill.exec.expr.fn.impl.RegexpUtil.sqlToRegexSimilar(
           org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer),
           org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(escape.start,  escape.end,  escape.buffer))).matcher("");
       charSequenceWrapper = new org.apache.drill.exec.expr.fn.impl.CharSequenceWrapper();
@@ -225,7 +221,7 @@ public class StringFunctions{
 
     @Override
     public void setup() {
-      matcher = java.util.regex.Pattern.compile(org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(
+      matcher = org.apache.drill.exec.expr.fn.impl.PatternCache.compile(org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(
           pattern.start, pattern.end, pattern.buffer)).matcher("");
       charSequenceWrapper = new org.apache.drill.exec.expr.fn.impl.CharSequenceWrapper();
       matcher.reset(charSequenceWrapper);
@@ -278,7 +274,7 @@ public class StringFunctions{
 
     @Override
     public void setup() {
-      matcher = java.util.regex.Pattern.compile(org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer)).matcher("");
+      matcher = org.apache.drill.exec.expr.fn.impl.PatternCache.compile(org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer)).matcher("");
       charSequenceWrapper = new org.apache.drill.exec.expr.fn.impl.CharSequenceWrapper();
       matcher.reset(charSequenceWrapper);
     }
@@ -313,7 +309,7 @@ public class StringFunctions{
 
     @Override
     public void setup() {
-      matcher = java.util.regex.Pattern.compile(org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer)).matcher("");
+      matcher = org.apache.drill.exec.expr.fn.impl.PatternCache.compile(org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer)).matcher("");
       charSequenceWrapper = new org.apache.drill.exec.expr.fn.impl.CharSequenceWrapper();
       matcher.reset(charSequenceWrapper);
     }
@@ -371,7 +367,7 @@ public class StringFunctions{
 
     @Override
     public void setup() {
-      matcher = java.util.regex.Pattern.compile(org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer)).matcher("");
+      matcher = org.apache.drill.exec.expr.fn.impl.PatternCache.compile(org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer)).matcher("");
       charSequenceWrapper = new org.apache.drill.exec.expr.fn.impl.CharSequenceWrapper();
       matcher.reset(charSequenceWrapper);
       index = indexHolder.value;
@@ -524,27 +520,42 @@ public class StringFunctions{
         throw org.apache.drill.common.exceptions.UserException.functionError()
           .message("Index in split_part can not be zero").build();
       }
-      String inputString = org.apache.drill.exec.expr.fn.impl.
-        StringFunctionHelpers.getStringFromVarCharHolder(in);
-      String result = "";
       if (index.value < 0) {
+        String inputString = org.apache.drill.exec.expr.fn.impl.
+          StringFunctionHelpers.getStringFromVarCharHolder(in);
+        String result = "";
         java.util.List<String> splits = splitter.splitToList(inputString);
         int size = splits.size();
         int arrayIndex = size + index.value;
         if (arrayIndex >= 0) {
           result = (String) splits.get(arrayIndex);
         }
+        byte[] strBytes = result.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+
+        out.buffer = buffer = buffer.reallocIfNeeded(strBytes.length);
+        out.start = 0;
+        out.end = strBytes.length;
+        out.buffer.setBytes(0, strBytes);
       } else {
-        int arrayIndex = index.value - 1;
-        result =
-          (String) com.google.common.collect.Iterables.get(splitter.split(inputString), arrayIndex, "");
+        // Searches the UTF-8 bytes of the delimiter, as Splitter does its characters,
+        // and returns the part in place
+        int partStart = in.start;
+        for (int part = 1; part < index.value && partStart >= 0; part++) {
+          int pos = org.apache.drill.exec.expr.fn.impl.StringFunctionUtil.stringLeftMatchUTF8(
+              in.buffer, partStart, in.end, delimiter.buffer, delimiter.start, delimiter.end);
+          partStart = pos < 0 ? -1 : pos + delimiter.end - delimiter.start;
+        }
+        if (partStart < 0) {
+          out.buffer = buffer;
+          out.start = out.end = 0;
+        } else {
+          int pos = org.apache.drill.exec.expr.fn.impl.StringFunctionUtil.stringLeftMatchUTF8(
+              in.buffer, partStart, in.end, delimiter.buffer, delimiter.start, delimiter.end);
+          out.buffer = in.buffer;
+          out.start = partStart;
+          out.end = pos < 0 ? in.end : pos;
+        }
       }
-      byte[] strBytes = result.getBytes(java.nio.charset.StandardCharsets.UTF_8);
-
-      out.buffer = buffer = buffer.reallocIfNeeded(strBytes.length);
-      out.start = 0;
-      out.end = strBytes.length;
-      out.buffer.setBytes(0, strBytes);
     }
 
   }
@@ -680,13 +691,19 @@ public class StringFunctions{
 
     @Override
     public void eval() {
-      String str = org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(input.start, input.end, input.buffer);
-      byte[] result = str.toLowerCase().getBytes(java.nio.charset.StandardCharsets.UTF_8);
-
-      out.buffer = buffer = buffer.reallocIfNeeded(result.length);
+      final int length = input.end - input.start;
+      out.buffer = buffer = buffer.reallocIfNeeded(length);
       out.start = 0;
-      out.end = result.length;
-      out.buffer.setBytes(0, result);
+      out.end = length;
+      // values other than ASCII are converted as strings
+      if (!org.apache.drill.exec.expr.fn.impl.StringFunctionUtil.toLowerCaseASCII(input.buffer, input.start, input.end, out.buffer, 0)) {
+        String str = org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(input.start, input.end, input.buffer);
+        byte[] result = str.toLowerCase().getBytes(java.nio.charset.StandardCharsets.UTF_8);
+
+        out.buffer = buffer = buffer.reallocIfNeeded(result.length);
+        out.end = result.length;
+        out.buffer.setBytes(0, result);
+      }
     }
   }
 
@@ -710,13 +727,19 @@ public class StringFunctions{
 
     @Override
     public void eval() {
-      String str = org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(input.start, input.end, input.buffer);
-      byte[] result = str.toUpperCase().getBytes(java.nio.charset.StandardCharsets.UTF_8);
-
-      out.buffer = buffer = buffer.reallocIfNeeded(result.length);
+      final int length = input.end - input.start;
+      out.buffer = buffer = buffer.reallocIfNeeded(length);
       out.start = 0;
-      out.end = result.length;
-      out.buffer.setBytes(0, result);
+      out.end = length;
+      // values other than ASCII are converted as strings
+      if (!org.apache.drill.exec.expr.fn.impl.StringFunctionUtil.toUpperCaseASCII(input.buffer, input.start, input.end, out.buffer, 0)) {
+        String str = org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(input.start, input.end, input.buffer);
+        byte[] result = str.toUpperCase().getBytes(java.nio.charset.StandardCharsets.UTF_8);
+
+        out.buffer = buffer = buffer.reallocIfNeeded(result.length);
+        out.end = result.length;
+        out.buffer.setBytes(0, result);
+      }
     }
   }
 
@@ -806,7 +829,7 @@ public class StringFunctions{
 
     @Override
     public void setup() {
-      matcher = java.util.regex.Pattern.compile(
+      matcher = org.apache.drill.exec.expr.fn.impl.PatternCache.compile(
           org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer))
           .matcher("");
       charSequenceWrapper = new org.apache.drill.exec.expr.fn.impl.CharSequenceWrapper();
@@ -839,7 +862,7 @@ public class StringFunctions{
 
     @Override
     public void setup() {
-      matcher = java.util.regex.Pattern.compile(
+      matcher = org.apache.drill.exec.expr.fn.impl.PatternCache.compile(
           org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer))
           .matcher("");
       charSequenceWrapper = new org.apache.drill.exec.expr.fn.impl.CharSequenceWrapper();
@@ -1628,13 +1651,10 @@ public class StringFunctions{
       out.buffer = buffer = buffer.reallocIfNeeded((left.end - left.start) + (right.end - right.start));
       out.start = out.end = 0;
 
-      for (int id = left.start; id < left.end; id++) {
-        out.buffer.setByte(out.end++, left.buffer.getByte(id));
-      }
-
-      for (int id = right.start; id < right.end; id++) {
-        out.buffer.setByte(out.end++, right.buffer.getByte(id));
-      }
+      out.buffer.setBytes(out.end, left.buffer, left.start, left.end - left.start);
+      out.end += left.end - left.start;
+      out.buffer.setBytes(out.end, right.buffer, right.start, right.end - right.start);
+      out.end += right.end - right.start;
     }
   }
 
@@ -1660,14 +1680,10 @@ public class StringFunctions{
       out.buffer = buffer = buffer.reallocIfNeeded( (left.end - left.start) + (right.end - right.start));
       out.start = out.end = 0;
 
-      int id = 0;
-      for (id = left.start; id < left.end; id++) {
-        out.buffer.setByte(out.end++, left.buffer.getByte(id));
-      }
-
-      for (id = right.start; id < right.end; id++) {
-        out.buffer.setByte(out.end++, right.buffer.getByte(id));
-      }
+      out.buffer.setBytes(out.end, left.buffer, left.start, left.end - left.start);
+      out.end += left.end - left.start;
+      out.buffer.setBytes(out.end, right.buffer, right.start, right.end - right.start);
+      out.end += right.end - right.start;
     }
   }
 
@@ -1692,13 +1708,10 @@ public class StringFunctions{
         out.buffer = buffer = buffer.reallocIfNeeded((left.end - left.start) + (right.end - right.start));
         out.start = out.end = 0;
 
-        for (int id = left.start; id < left.end; id++) {
-          out.buffer.setByte(out.end++, left.buffer.getByte(id));
-        }
-
-        for (int id = right.start; id < right.end; id++) {
-          out.buffer.setByte(out.end++, right.buffer.getByte(id));
-        }
+        out.buffer.setBytes(out.end, left.buffer, left.start, left.end - left.start);
+        out.end += left.end - left.start;
+        out.buffer.setBytes(out.end, right.buffer, right.start, right.end - right.start);
+        out.end += right.end - right.start;
       } else {
         out.buffer = left.buffer;
         out.start = left.start;
@@ -1728,13 +1741,10 @@ public class StringFunctions{
         out.buffer = buffer = buffer.reallocIfNeeded((left.end - left.start) + (right.end - right.start));
         out.start = out.end = 0;
 
-        for (int id = left.start; id < left.end; id++) {
-          out.buffer.setByte(out.end++, left.buffer.getByte(id));
-        }
-
-        for (int id = right.start; id < right.end; id++) {
-          out.buffer.setByte(out.end++, right.buffer.getByte(id));
-        }
+        out.buffer.setBytes(out.end, left.buffer, left.start, left.end - left.start);
+        out.end += left.end - left.start;
+        out.buffer.setBytes(out.end, right.buffer, right.start, right.end - right.start);
+        out.end += right.end - right.start;
       } else {
         out.buffer = right.buffer;
         out.start = right.start;
@@ -1764,13 +1774,10 @@ public class StringFunctions{
         out.buffer = buffer = buffer.reallocIfNeeded((left.end - left.start) + (right.end - right.start));
         out.start = out.end = 0;
 
-        for (int id = left.start; id < left.end; id++) {
-          out.buffer.setByte(out.end++, left.buffer.getByte(id));
-        }
-
-        for (int id = right.start; id < right.end; id++) {
-          out.buffer.setByte(out.end++, right.buffer.getByte(id));
-        }
+        out.buffer.setBytes(out.end, left.buffer, left.start, left.end - left.start);
+        out.end += left.end - left.start;
+        out.buffer.setBytes(out.end, right.buffer, right.start, right.end - right.start);
+        out.end += right.end - right.start;
       } else if (left.isSet == 1) {
         // right is null
         out.buffer = left.buffer;
@@ -91,6 +91,21 @@ public class InterpreterEvaluator {
     outVV.getMutator().setValueCount(recordCount);
   }
 
+  /**
+   * Prepares an expression to be evaluated row by row over the vectors of
+   * {@code incoming}, by passing the row index to {@code expr.accept()} with
+   * the returned visitor.
+   *
+   * @param udfUtilities utilities injected into the functions
+   * @param incoming     batch whose vectors the expression reads
+   * @param expr         materialized expression
+   * @return the visitor evaluating the expression
+   */
+  public static EvalVisitor prepare(UdfUtilities udfUtilities, VectorAccessible incoming, LogicalExpression expr) {
+    expr.accept(new InitVisitor(udfUtilities), incoming);
+    return new EvalVisitor(incoming, udfUtilities);
+  }
+
   /**
    * Assigns specified {@code Object[] args} to the function arguments,
    * evaluates function and returns its result.
@@ -545,7 +560,7 @@ public class InterpreterEvaluator {
       NULL
     }
 
-    private Trivalent isBitOn(ValueHolder holder) {
+    public Trivalent isBitOn(ValueHolder holder) {
       Preconditions.checkArgument(holder instanceof BitHolder || holder instanceof NullableBitHolder,
           "Input does not have type of BitHolder or NullableBitHolder.");
 
@@ -35,6 +35,7 @@ import org.apache.hadoop.fs.Path;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -57,13 +58,8 @@ public class MetastoreParquetTableMetadataProvider extends MetastoreFileTableMet
 
     this.entries = builder.entries;
     this.fallbackBuilder = builder.fallback;
-
-    ParquetMetadataProvider source = (ParquetTableMetadataProvider) builder.metadataProviderManager().getTableMetadataProvider();
-    // store results into metadataProviderManager to be able to use them when creating new instances
-    // for the case when source wasn't provided or it contains less row group metadata than the provider
-    if (source == null || source.getRowGroupsMeta().size() < getRowGroupsMeta().size()) {
-      builder.metadataProviderManager().setTableMetadataProvider(this);
-    }
+    // the provider is stored into metadataProviderManager by the parent constructor when the source contains
+    // less file metadata, row group metadata isn't compared since it is loaded only when required
   }
 
   @Override
@@ -114,6 +110,29 @@ public class MetastoreParquetTableMetadataProvider extends MetastoreFileTableMet
     return rowGroups;
   }
 
+  /**
+   * Requests row group metadata of the specified files only, so pruning of segments and files
+   * prevents loading row group metadata of the pruned ones from the Metastore.
+   */
+  @Override
+  public Multimap<Path, RowGroupMetadata> getRowGroupsMetadataMap(Collection<Path> files) {
+    if (rowGroups != null) {
+      return ParquetTableMetadataProvider.super.getRowGroupsMetadataMap(files);
+    }
+    throwIfChanged();
+    List<String> filesPaths = files.stream()
+        .map(path -> path.toUri().getPath())
+        .collect(Collectors.toList());
+    Multimap<Path, RowGroupMetadata> filesRowGroups = LinkedListMultimap.create();
+    basicTablesRequests.rowGroupsMetadata(tableInfo, null, filesPaths)
+        .forEach(rowGroupMetadata -> filesRowGroups.put(rowGroupMetadata.getPath(), rowGroupMetadata));
+    if (filesRowGroups.keySet().size() < files.size()) {
+      // incomplete metadata is handled by loading all row groups, which falls back to file metadata
+      return ParquetTableMetadataProvider.super.getRowGroupsMetadataMap(files);
+    }
+    return filesRowGroups;
+  }
+
   @Override
   public Set<Path> getFileSet() {
     throwIfChanged();
@@ -20,9 +20,11 @@ package org.apache.drill.exec.metastore.store.parquet;
 import org.apache.drill.exec.store.dfs.ReadEntryWithPath;
 import org.apache.drill.metastore.metadata.RowGroupMetadata;
 import org.apache.drill.metastore.metadata.TableMetadataProvider;
+import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Multimap;
 import org.apache.hadoop.fs.Path;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -60,6 +62,20 @@ public interface ParquetMetadataProvider extends TableMetadataProvider {
    */
   Multimap<Path, RowGroupMetadata> getRowGroupsMetadataMap();
 
+  /**
+   * Returns multimap of {@link RowGroupMetadata} instances of the specified files, used once files were pruned.
+   * Providers which are able to do so load row group metadata of the specified files only.
+   *
+   * @param files locations of the files whose row group metadata should be returned
+   * @return multimap of {@link RowGroupMetadata} instances of the specified files
+   */
+  default Multimap<Path, RowGroupMetadata> getRowGroupsMetadataMap(Collection<Path> files) {
+    Multimap<Path, RowGroupMetadata> rowGroups = getRowGroupsMetadataMap();
+    Multimap<Path, RowGroupMetadata> filesRowGroups = LinkedListMultimap.create();
+    files.forEach(file -> filesRowGroups.putAll(file, rowGroups.get(file)));
+    return filesRowGroups;
+  }
+
   /**
    * Returns list of file locations for table.
    *
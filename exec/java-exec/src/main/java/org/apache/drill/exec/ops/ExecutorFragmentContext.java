@@ -26,6 +26,7 @@ import org.apache.drill.exec.rpc.control.WorkEventBus;
 import org.apache.drill.exec.rpc.user.UserServer;
 import org.apache.drill.exec.server.QueryProfileStoreContext;
 import org.apache.drill.exec.work.batch.IncomingBuffers;
+import org.apache.drill.exec.work.fragment.FragmentScheduler;
 
 import java.util.Collection;
 import java.util.Map;
@@ -63,4 +64,10 @@ public interface ExecutorFragmentContext extends RootFragmentContext {
   Set<Map.Entry<UserServer.BitToUserConnection, UserServer.BitToUserConnectionConfig>> getUserConnections();
 
   boolean isUserAuthenticationEnabled();
+
+  /**
+   * Returns the scheduler running fragments on this Drillbit, or {@code null}
+   * if each fragment runs on its own thread.
+   */
+  FragmentScheduler getFragmentScheduler();
 }
@@ -80,6 +80,7 @@ import org.apache.drill.exec.testing.ExecutionControls;
 import org.apache.drill.exec.util.ImpersonationUtil;
 import org.apache.drill.exec.work.batch.IncomingBuffers;
 import org.apache.drill.exec.work.filter.RuntimeFilterWritable;
+import org.apache.drill.exec.work.fragment.FragmentScheduler;
 import org.apache.drill.metastore.MetastoreRegistry;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
@@ -411,6 +412,11 @@ public class FragmentContextImpl extends BaseFragmentContext implements Executor
     return getConfig().getBoolean(ExecConstants.USER_AUTHENTICATION_ENABLED);
   }
 
+  @Override
+  public FragmentScheduler getFragmentScheduler() {
+    return context.getFragmentScheduler();
+  }
+
   @Override
   public void addRuntimeFilter(RuntimeFilterWritable runtimeFilter) {
     long rfIdentifier = runtimeFilter.getRuntimeFilterBDef().getRfIdentifier();
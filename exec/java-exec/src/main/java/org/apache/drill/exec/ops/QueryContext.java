@@ -28,6 +28,7 @@ import org.apache.drill.common.config.LogicalPlanPersistence;
 import org.apache.drill.common.types.TypeProtos.MinorType;
 import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.alias.AliasRegistryProvider;
+import org.apache.drill.exec.cache.result.ResultCache;
 import org.apache.drill.exec.expr.fn.FunctionImplementationRegistry;
 import org.apache.drill.exec.expr.fn.registry.RemoteFunctionRegistry;
 import org.apache.drill.exec.expr.holders.ValueHolder;
@@ -36,8 +37,10 @@ import org.apache.drill.exec.physical.resultSet.ResultSetLoader;
 import org.apache.drill.exec.physical.resultSet.impl.ResultSetLoaderImpl;
 import org.apache.drill.exec.physical.resultSet.impl.ResultSetLoaderImpl.ResultSetOptions;
 import org.apache.drill.exec.schema.daffodil.RemoteDaffodilSchemaRegistry;
+import org.apache.drill.exec.planner.logical.MaterializedViewCatalog;
 import org.apache.drill.exec.planner.physical.PlannerSettings;
 import org.apache.drill.exec.planner.sql.DrillOperatorTable;
+import org.apache.drill.exec.planner.sql.QueryPlanCache;
 import org.apache.drill.exec.proto.BitControl.QueryContextInformation;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
 import org.apache.drill.exec.proto.UserBitShared.QueryId;
@@ -59,6 +62,7 @@ import org.apache.drill.exec.testing.ExecutionControls;
 import org.apache.drill.exec.util.Utilities;
 import org.apache.drill.metastore.MetastoreRegistry;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -83,6 +87,9 @@ public class QueryContext implements AutoCloseable, OptimizerRulesContext, Schem
   private final ViewExpansionContext viewExpansionContext;
   private final SchemaTreeProvider schemaTreeProvider;
   private boolean skipProfileWrite;
+  private boolean preparedStatement;
+  private ResultCache.Writer resultCacheWriter;
+  private final List<CompletionAction> completionActions = new ArrayList<>();
   /** Stores constants and their holders by type */
   private final Map<String, Map<MinorType, ValueHolder>> constantValueHolderCache;
   private SqlStatementType stmtType;
@@ -421,11 +428,77 @@ public class QueryContext implements AutoCloseable, OptimizerRulesContext, Schem
     return skipProfileWrite;
   }
 
+  /**
+   * Marks the query as the execution of a prepared statement.
+   */
+  public void setPreparedStatement(boolean preparedStatement) {
+    this.preparedStatement = preparedStatement;
+  }
+
+  /**
+   * @return true if the query executes a prepared statement
+   */
+  public boolean isPreparedStatement() {
+    return preparedStatement;
+  }
+
   public MetastoreRegistry getMetastoreRegistry() {
     return drillbitContext.getMetastoreRegistry();
   }
 
+  public MaterializedViewCatalog getMaterializedViewCatalog() {
+    return drillbitContext.getMaterializedViewCatalog();
+  }
+
+  public QueryPlanCache getQueryPlanCache() {
+    return drillbitContext.getQueryPlanCache();
+  }
+
+  public ResultCache getResultCache() {
+    return drillbitContext.getResultCache();
+  }
+
+  /**
+   * Makes the Foreman store the result of the query in the {@link ResultCache}.
+   */
+  public void setResultCacheWriter(ResultCache.Writer resultCacheWriter) {
+    this.resultCacheWriter = resultCacheWriter;
+  }
+
+  /**
+   * @return writer storing the result of the query, or null if the result
+   *         is not cached
+   */
+  public ResultCache.Writer getResultCacheWriter() {
+    return resultCacheWriter;
+  }
+
+  /**
+   * Makes the Foreman run an action of the statement once its fragments
+   * completed successfully, before the client is notified. Failures of the
+   * action fail the query.
+   */
+  public void addCompletionAction(CompletionAction action) {
+    completionActions.add(action);
+  }
+
+  /**
+   * @return actions to run once the query completed successfully
+   */
+  public List<CompletionAction> getCompletionActions() {
+    return completionActions;
+  }
+
   public AliasRegistryProvider getAliasRegistryProvider() {
     return drillbitContext.getAliasRegistryProvider();
   }
+
+  /**
+   * Work of a statement that may only take place once the data it wrote is
+   * complete, such as recording the files a refresh was computed from.
+   */
+  @FunctionalInterface
+  public interface CompletionAction {
+    void run() throws Exception;
+  }
 }
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.config;
+
+import java.util.List;
+
+import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.logical.data.NamedExpression;
+import org.apache.drill.exec.physical.base.AbstractSingle;
+import org.apache.drill.exec.physical.base.PhysicalOperator;
+import org.apache.drill.exec.physical.base.PhysicalVisitor;
+import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+
+/**
+ * A {@link Project} of the rows passing a {@link Filter}, evaluated in a
+ * single pass over the incoming batch, without an intermediate selection
+ * vector.
+ */
+@JsonTypeName("filter-project")
+public class FilterProject extends AbstractSingle {
+
+  public static final String OPERATOR_TYPE = "FILTER_PROJECT";
+
+  private final LogicalExpression expr;
+  private final List<NamedExpression> exprs;
+
+  @JsonCreator
+  public FilterProject(@JsonProperty("child") PhysicalOperator child,
+      @JsonProperty("expr") LogicalExpression expr,
+      @JsonProperty("exprs") List<NamedExpression> exprs) {
+    super(child);
+    this.expr = expr;
+    this.exprs = exprs;
+  }
+
+  /**
+   * @return the filter condition
+   */
+  public LogicalExpression getExpr() {
+    return expr;
+  }
+
+  /**
+   * @return the projected expressions
+   */
+  public List<NamedExpression> getExprs() {
+    return exprs;
+  }
+
+  @Override
+  public <T, X, E extends Throwable> T accept(PhysicalVisitor<T, X, E> physicalVisitor, X value) throws E {
+    return physicalVisitor.visitOp(this, value);
+  }
+
+  @Override
+  protected PhysicalOperator getNewWithChild(PhysicalOperator child) {
+    return new FilterProject(child, expr, exprs);
+  }
+
+  @Override
+  public SelectionVectorMode getSVMode() {
+    return SelectionVectorMode.NONE;
+  }
+
+  @Override
+  public String getOperatorType() {
+    return OPERATOR_TYPE;
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.filter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.apache.drill.common.exceptions.UserException;
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.expr.CodeGenerator;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.physical.impl.common.CodeGenMemberInjector;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.TransferPair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Filters the batches with an {@link InterpretedFilterer} while the generated
+ * filter is compiled in the background, then switches to the generated filter
+ * between two batches, as soon as it is available. Queries returning after a
+ * few batches thus do not wait for the compilation of their filter.
+ */
+public class AsyncFilterer implements Filterer {
+  private static final Logger logger = LoggerFactory.getLogger(AsyncFilterer.class);
+
+  private final CodeGenerator<Filterer> codeGenerator;
+  private final CompletableFuture<Filterer> compiledFilter;
+  private Filterer filter;
+  private boolean compiled;
+  private int interpretedBatches;
+
+  private FragmentContext context;
+  private RecordBatch incoming;
+  private RecordBatch outgoing;
+  private TransferPair[] transfers;
+
+  /**
+   * @param interpretedFilter filter used until the generated one is compiled
+   * @param codeGenerator generator of the filter being compiled
+   * @param compiledFilter instance of the generated filter, once compiled
+   */
+  public AsyncFilterer(Filterer interpretedFilter, CodeGenerator<Filterer> codeGenerator,
+      CompletableFuture<Filterer> compiledFilter) {
+    this.filter = interpretedFilter;
+    this.codeGenerator = codeGenerator;
+    this.compiledFilter = compiledFilter;
+  }
+
+  @Override
+  public void setup(FragmentContext context, RecordBatch incoming,
+      RecordBatch outgoing, TransferPair[] transfers) throws SchemaChangeException {
+    this.context = context;
+    this.incoming = incoming;
+    this.outgoing = outgoing;
+    this.transfers = transfers;
+    filter.setup(context, incoming, outgoing, transfers);
+  }
+
+  @Override
+  public void filterBatch(int recordCount) throws SchemaChangeException {
+    if (!compiled && compiledFilter.isDone()) {
+      switchToCompiledFilter();
+    }
+    if (!compiled) {
+      interpretedBatches++;
+    }
+    filter.filterBatch(recordCount);
+  }
+
+  private void switchToCompiledFilter() throws SchemaChangeException {
+    Filterer generatedFilter;
+    try {
+      generatedFilter = compiledFilter.join();
+    } catch (CompletionException e) {
+      throw UserException.internalError(e.getCause())
+          .message("Code generation error - likely code error.")
+          .build(logger);
+    }
+    // members are injected by the fragment thread, which owns the buffers of the context
+    CodeGenMemberInjector.injectMembers(codeGenerator.getRoot(), generatedFilter, context);
+    generatedFilter.setup(context, incoming, outgoing, transfers);
+    logger.debug("Switched to the compiled filter after {} interpreted batches", interpretedBatches);
+    filter = generatedFilter;
+    compiled = true;
+  }
+
+  /**
+   * @return number of batches filtered before the generated filter was available
+   */
+  public int getInterpretedBatches() {
+    return interpretedBatches;
+  }
+
+  @Override
+  public String toString() {
+    return "AsyncFilterer[filter=" + filter
+        + ", interpretedBatches=" + interpretedBatches
+        + "]";
+  }
+}
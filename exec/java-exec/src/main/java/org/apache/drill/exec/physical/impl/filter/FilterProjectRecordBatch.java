@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.drill.common.expression.ErrorCollector;
+import org.apache.drill.common.expression.ErrorCollectorImpl;
+import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.common.logical.data.NamedExpression;
+import org.apache.drill.common.types.TypeProtos.MajorType;
+import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.compile.sig.GeneratorMapping;
+import org.apache.drill.exec.compile.sig.MappingSet;
+import org.apache.drill.exec.exception.OutOfMemoryException;
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.expr.ClassGenerator;
+import org.apache.drill.exec.expr.CodeGenerator;
+import org.apache.drill.exec.expr.ExpressionTreeMaterializer;
+import org.apache.drill.exec.expr.ValueVectorReadExpression;
+import org.apache.drill.exec.expr.ValueVectorWriteExpression;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.physical.config.FilterProject;
+import org.apache.drill.exec.record.AbstractSingleRecordBatch;
+import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
+import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.TypedFieldId;
+import org.apache.drill.exec.vector.FixedWidthVector;
+import org.apache.drill.exec.vector.ValueVector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Evaluates a {@link FilterProject}: projects the incoming rows passing the
+ * filter directly into the outgoing vectors, with one generated class whose
+ * loop evaluates the condition and the projected expressions of each row.
+ * Unlike a Filter followed by a Project, no selection vector is created and
+ * the columns are not copied by a selection vector remover before being
+ * projected.
+ * <p>
+ * Columns projected as they are are copied too, since the rows of their
+ * vectors are filtered. Complex columns are copied entry by entry, the
+ * others by the generated code.
+ */
+public class FilterProjectRecordBatch extends AbstractSingleRecordBatch<FilterProject> {
+  private static final Logger logger = LoggerFactory.getLogger(FilterProjectRecordBatch.class);
+
+  private static final GeneratorMapping FILTER =
+      GeneratorMapping.create("doSetup", "doFilter", null, null);
+  private static final MappingSet FILTER_MAPPING = new MappingSet("inIndex", null, FILTER, FILTER);
+  private static final MappingSet PROJECT_MAPPING = new MappingSet("inIndex", "outIndex",
+      ClassGenerator.DEFAULT_SCALAR_MAP, ClassGenerator.DEFAULT_SCALAR_MAP);
+
+  private FilterProjector filterProjector;
+
+  public FilterProjectRecordBatch(FilterProject pop, RecordBatch incoming, FragmentContext context)
+      throws OutOfMemoryException {
+    super(pop, context, incoming);
+  }
+
+  @Override
+  public int getRecordCount() {
+    return container.getRecordCount();
+  }
+
+  @Override
+  protected IterOutcome doWork() {
+    int recordCount = incoming.getRecordCount();
+    // at most all the incoming rows pass the filter
+    container.allocate(recordCount);
+    try {
+      container.setValueCount(filterProjector.filterProjectRecords(recordCount));
+    } catch (SchemaChangeException e) {
+      throw new UnsupportedOperationException(e);
+    }
+    return getFinalOutcome(false);
+  }
+
+  @Override
+  protected boolean setupNewSchema() {
+    // as for the Project operator, the outgoing schema is defined by the
+    // projected expressions, vectors of a changed type are replaced by addOrGet()
+    container.zeroVectors();
+    ErrorCollector collector = new ErrorCollectorImpl();
+    ClassGenerator<FilterProjector> cg =
+        CodeGenerator.getRoot(FilterProjector.TEMPLATE_DEFINITION, context.getOptions());
+    cg.getCodeGenerator().plainJavaCapable(true);
+    // Uncomment the following line to enable saving generated code file for debugging
+    // cg.getCodeGenerator().saveCodeForDebugging(true);
+
+    LogicalExpression condition = ExpressionTreeMaterializer.materialize(popConfig.getExpr(), incoming,
+        collector, context.getFunctionRegistry(), false, unionTypeEnabled);
+    collector.reportErrors(logger);
+    cg.setMappingSet(FILTER_MAPPING);
+    cg.addExpr(new ReturnValueExpression(condition), ClassGenerator.BlkCreateMode.FALSE);
+
+    cg.setMappingSet(PROJECT_MAPPING);
+    List<ValueVector> copiedFrom = new ArrayList<>();
+    List<ValueVector> copiedTo = new ArrayList<>();
+    for (NamedExpression namedExpression : popConfig.getExprs()) {
+      // complex writer functions are left to the Project operator by the planner
+      LogicalExpression expr = ExpressionTreeMaterializer.materialize(namedExpression.getExpr(), incoming,
+          collector, context.getFunctionRegistry(), false, unionTypeEnabled);
+      collector.reportErrors(logger);
+      String name = namedExpression.getRef().getRootSegment().getPath();
+      MaterializedField outputField = MaterializedField.create(name, expr.getMajorType());
+      ValueVector outputVector = container.addOrGet(outputField, callBack);
+
+      if (expr instanceof ValueVectorReadExpression && !((ValueVectorReadExpression) expr).hasReadPath()) {
+        TypedFieldId id = ((ValueVectorReadExpression) expr).getFieldId();
+        ValueVector inputVector = incoming.getValueAccessorById(id.getIntermediateClass(),
+            id.getFieldIds()).getValueVector();
+        // creates the children of the outgoing vectors of maps
+        inputVector.makeTransferPair(outputVector);
+        if (isCopiedByEntry(expr.getMajorType())) {
+          copiedFrom.add(inputVector);
+          copiedTo.add(outputVector);
+          continue;
+        }
+      }
+      TypedFieldId fid = container.getValueVectorId(SchemaPath.getSimplePath(outputField.getName()));
+      boolean useSetSafe = !(outputVector instanceof FixedWidthVector);
+      cg.addExpr(new ValueVectorWriteExpression(fid, expr, useSetSafe), ClassGenerator.BlkCreateMode.TRUE_IF_BOUND);
+    }
+
+    filterProjector = context.getImplementationClass(cg);
+    try {
+      filterProjector.setup(context, incoming, this,
+          copiedFrom.toArray(new ValueVector[0]), copiedTo.toArray(new ValueVector[0]));
+    } catch (SchemaChangeException e) {
+      throw schemaChangeException(e, logger);
+    }
+
+    if (container.isSchemaChanged()) {
+      container.buildSchema(SelectionVectorMode.NONE);
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  private static boolean isCopiedByEntry(MajorType type) {
+    return Types.isComplex(type) || Types.isRepeated(type) || Types.isUnion(type);
+  }
+
+  @Override
+  public void dump() {
+    logger.error("FilterProjectRecordBatch[container={}, filterProjector={}, popConfig={}]",
+        container, filterProjector, popConfig);
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.filter;
+
+import org.apache.drill.exec.compile.TemplateClassDefinition;
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.vector.ValueVector;
+
+public interface FilterProjector {
+  TemplateClassDefinition<FilterProjector> TEMPLATE_DEFINITION =
+      new TemplateClassDefinition<FilterProjector>(FilterProjector.class, FilterProjectorTemplate.class);
+
+  /**
+   * @param copiedFrom incoming vectors copied as they are to the outgoing batch
+   * @param copiedTo outgoing vectors, in the same order as {@code copiedFrom}
+   */
+  void setup(FragmentContext context, RecordBatch incoming, RecordBatch outgoing,
+      ValueVector[] copiedFrom, ValueVector[] copiedTo) throws SchemaChangeException;
+
+  /**
+   * Writes the projection of the incoming rows passing the filter to the
+   * outgoing vectors, from the first outgoing row.
+   *
+   * @return number of outgoing rows
+   */
+  int filterProjectRecords(int recordCount) throws SchemaChangeException;
+}
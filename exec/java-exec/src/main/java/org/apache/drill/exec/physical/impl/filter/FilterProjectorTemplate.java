@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.filter;
+
+import javax.inject.Named;
+
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.selection.SelectionVector2;
+import org.apache.drill.exec.vector.ValueVector;
+
+public abstract class FilterProjectorTemplate implements FilterProjector {
+  private SelectionVector2 incomingSelectionVector;
+  private SelectionVectorMode svMode;
+  private ValueVector[] copiedFrom;
+  private ValueVector[] copiedTo;
+
+  @Override
+  public void setup(FragmentContext context, RecordBatch incoming, RecordBatch outgoing,
+      ValueVector[] copiedFrom, ValueVector[] copiedTo) throws SchemaChangeException {
+    this.copiedFrom = copiedFrom;
+    this.copiedTo = copiedTo;
+    this.svMode = incoming.getSchema().getSelectionVectorMode();
+    switch (svMode) {
+    case NONE:
+      break;
+    case TWO_BYTE:
+      incomingSelectionVector = incoming.getSelectionVector2();
+      break;
+    default:
+      throw new UnsupportedOperationException();
+    }
+    doSetup(context, incoming, outgoing);
+  }
+
+  @Override
+  public int filterProjectRecords(int recordCount) throws SchemaChangeException {
+    switch (svMode) {
+    case NONE:
+      return filterProjectNoSV(recordCount);
+    case TWO_BYTE:
+      return filterProjectSV2(recordCount);
+    default:
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private int filterProjectNoSV(int recordCount) throws SchemaChangeException {
+    int outIndex = 0;
+    for (int i = 0; i < recordCount; i++) {
+      if (doFilter(i)) {
+        project(i, outIndex);
+        outIndex++;
+      }
+    }
+    return outIndex;
+  }
+
+  private int filterProjectSV2(int recordCount) throws SchemaChangeException {
+    int outIndex = 0;
+    for (int i = 0; i < recordCount; i++) {
+      int index = incomingSelectionVector.getIndex(i);
+      if (doFilter(index)) {
+        project(index, outIndex);
+        outIndex++;
+      }
+    }
+    return outIndex;
+  }
+
+  private void project(int inIndex, int outIndex) throws SchemaChangeException {
+    doEval(inIndex, outIndex);
+    for (int i = 0; i < copiedTo.length; i++) {
+      copiedTo[i].copyEntry(outIndex, copiedFrom[i], inIndex);
+    }
+  }
+
+  public abstract void doSetup(@Named("context") FragmentContext context,
+                               @Named("incoming") RecordBatch incoming,
+                               @Named("outgoing") RecordBatch outgoing)
+                       throws SchemaChangeException;
+  public abstract boolean doFilter(@Named("inIndex") int inIndex)
+                          throws SchemaChangeException;
+  public abstract void doEval(@Named("inIndex") int inIndex,
+                              @Named("outIndex") int outIndex)
+                       throws SchemaChangeException;
+
+  @Override
+  public String toString() {
+    return "FilterProjectorTemplate[incomingSelectionVector=" + incomingSelectionVector
+        + ", svMode=" + svMode
+        + "]";
+  }
+}
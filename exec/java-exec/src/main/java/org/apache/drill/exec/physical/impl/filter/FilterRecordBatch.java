@@ -22,12 +22,14 @@ import java.util.List;
 import org.apache.drill.common.expression.ErrorCollector;
 import org.apache.drill.common.expression.ErrorCollectorImpl;
 import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.exception.OutOfMemoryException;
 import org.apache.drill.exec.exception.SchemaChangeException;
 import org.apache.drill.exec.expr.ClassGenerator;
 import org.apache.drill.exec.expr.CodeGenerator;
 import org.apache.drill.exec.expr.ExpressionTreeMaterializer;
 import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.ops.MetricDef;
 import org.apache.drill.exec.physical.config.Filter;
 import org.apache.drill.exec.record.AbstractSingleRecordBatch;
 import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
@@ -48,6 +50,15 @@ public class FilterRecordBatch extends AbstractSingleRecordBatch<Filter> {
   private SelectionVector4 sv4;
   private Filterer filter;
 
+  public enum Metric implements MetricDef {
+    INTERPRETED_BATCHES;
+
+    @Override
+    public int metricId() {
+      return ordinal();
+    }
+  }
+
   public FilterRecordBatch(Filter pop, RecordBatch incoming, FragmentContext context) throws OutOfMemoryException {
     super(pop, context, incoming);
   }
@@ -78,6 +89,9 @@ public class FilterRecordBatch extends AbstractSingleRecordBatch<Filter> {
       container.zeroVectors();
       int recordCount = incoming.getRecordCount();
       filter.filterBatch(recordCount);
+      if (filter instanceof AsyncFilterer) {
+        stats.setLongStat(Metric.INTERPRETED_BATCHES, ((AsyncFilterer) filter).getInterpretedBatches());
+      }
       // The container needs the actual number of values in
       // its contained vectors (not the filtered count)
       // Not sure the SV4 case is actually supported...
@@ -178,7 +192,11 @@ public class FilterRecordBatch extends AbstractSingleRecordBatch<Filter> {
             context.getFunctionRegistry(), false, unionTypeEnabled);
     collector.reportErrors(logger);
 
-    cg.addExpr(new ReturnValueExpression(expr), ClassGenerator.BlkCreateMode.FALSE);
+    final Filterer precompiledFilter = context.getOptions().getBoolean(ExecConstants.PRECOMPILED_KERNELS_KEY)
+        ? ComparisonFilterer.create(expr) : null;
+    if (precompiledFilter == null) {
+      cg.addExpr(new ReturnValueExpression(expr), ClassGenerator.BlkCreateMode.FALSE);
+    }
 
     for (final VectorWrapper<?> v : incoming) {
       final TransferPair pair = v.getValueVector().makeTransferPair(container.addOrGet(v.getField(), callBack));
@@ -186,9 +204,20 @@ public class FilterRecordBatch extends AbstractSingleRecordBatch<Filter> {
     }
 
     final TransferPair[] tx = transfers.toArray(new TransferPair[transfers.size()]);
-    CodeGenerator<Filterer> codeGen = cg.getCodeGenerator();
-    codeGen.plainJavaCapable(true);
-    final Filterer filter = context.getImplementationClass(codeGen);
+    final Filterer filter;
+    if (precompiledFilter != null) {
+      filter = precompiledFilter;
+    } else {
+      CodeGenerator<Filterer> codeGen = cg.getCodeGenerator();
+      codeGen.plainJavaCapable(true);
+      if (context.getOptions().getBoolean(ExecConstants.ASYNC_COMPILE_KEY)
+          && InterpretedFilterer.isInterpretable(expr)) {
+        filter = new AsyncFilterer(new InterpretedFilterer(expr), codeGen,
+            context.getCompiler().createInstanceAsync(codeGen));
+      } else {
+        filter = context.getImplementationClass(codeGen);
+      }
+    }
     try {
       filter.setup(context, incoming, this, tx);
     } catch (SchemaChangeException e) {
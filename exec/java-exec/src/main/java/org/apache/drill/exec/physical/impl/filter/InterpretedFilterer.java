@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.filter;
+
+import org.apache.drill.common.expression.BooleanOperator;
+import org.apache.drill.common.expression.FunctionHolderExpression;
+import org.apache.drill.common.expression.IfExpression;
+import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.expression.TypedNullConstant;
+import org.apache.drill.common.expression.ValueExpressions;
+import org.apache.drill.common.types.TypeProtos.MajorType;
+import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.expr.ValueVectorReadExpression;
+import org.apache.drill.exec.expr.fn.DrillSimpleFuncHolder;
+import org.apache.drill.exec.expr.fn.interpreter.InterpreterEvaluator;
+import org.apache.drill.exec.expr.fn.interpreter.InterpreterEvaluator.EvalVisitor;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.record.RecordBatch;
+
+/**
+ * Filter evaluating its condition with the {@link InterpreterEvaluator}
+ * instead of generated code. Much slower per row than the generated code, it
+ * is used while the generated class is compiled in the background, see
+ * {@link AsyncFilterer}.
+ */
+public class InterpretedFilterer extends FilterTemplate2 {
+
+  private final LogicalExpression condition;
+  private EvalVisitor evaluator;
+
+  public InterpretedFilterer(LogicalExpression condition) {
+    this.condition = condition;
+  }
+
+  /**
+   * Tells whether the interpreter is able to evaluate a materialized
+   * expression: it only evaluates simple functions over scalar columns.
+   */
+  public static boolean isInterpretable(LogicalExpression expr) {
+    if (expr instanceof FunctionHolderExpression) {
+      if (!(((FunctionHolderExpression) expr).getHolder() instanceof DrillSimpleFuncHolder)) {
+        return false;
+      }
+    } else if (expr instanceof ValueVectorReadExpression) {
+      ValueVectorReadExpression read = (ValueVectorReadExpression) expr;
+      MajorType type = read.getMajorType();
+      return !read.hasReadPath() && !read.isSuperReader()
+          && !Types.isRepeated(type) && !Types.isComplex(type) && !Types.isUnion(type);
+    } else if (!(expr instanceof BooleanOperator
+        || expr instanceof IfExpression
+        || expr instanceof TypedNullConstant
+        || expr.getClass().getEnclosingClass() == ValueExpressions.class)) {
+      return false;
+    }
+    for (LogicalExpression child : expr) {
+      if (!isInterpretable(child)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void doSetup(FragmentContext context, RecordBatch incoming, RecordBatch outgoing) {
+    evaluator = InterpreterEvaluator.prepare(context, incoming, condition);
+  }
+
+  @Override
+  public boolean doEval(int inIndex, int outIndex) {
+    return evaluator.isBitOn(condition.accept(evaluator, inIndex)) == EvalVisitor.Trivalent.TRUE;
+  }
+}
@@ -111,7 +111,9 @@ public class FlattenRecordBatch extends AbstractSingleRecordBatch<FlattenPOP> {
     OUTPUT_BATCH_COUNT,
     AVG_OUTPUT_BATCH_BYTES,
     AVG_OUTPUT_ROW_BYTES,
-    OUTPUT_RECORD_COUNT;
+    OUTPUT_RECORD_COUNT,
+    ADAPTIVE_OUTPUT_BATCH_BYTES,
+    ADAPTIVE_BATCH_SIZE_CHANGES;
 
     @Override
     public int metricId() {
@@ -173,6 +175,7 @@ public class FlattenRecordBatch extends AbstractSingleRecordBatch<FlattenPOP> {
     // get the output batch size from config.
     int configuredBatchSize = (int) context.getOptions().getOption(ExecConstants.OUTPUT_BATCH_SIZE_VALIDATOR);
     flattenMemoryManager = new FlattenMemoryManager(configuredBatchSize);
+    flattenMemoryManager.setAdaptiveBatchSizer(getAdaptiveBatchSizer(configuredBatchSize));
 
     RecordBatchStats.printConfiguredBatchSize(getRecordBatchStatsContext(),
       configuredBatchSize);
@@ -500,6 +503,7 @@ public class FlattenRecordBatch extends AbstractSingleRecordBatch<FlattenPOP> {
     stats.setLongStat(Metric.AVG_OUTPUT_BATCH_BYTES, flattenMemoryManager.getAvgOutputBatchSize());
     stats.setLongStat(Metric.AVG_OUTPUT_ROW_BYTES, flattenMemoryManager.getAvgOutputRowWidth());
     stats.setLongStat(Metric.OUTPUT_RECORD_COUNT, flattenMemoryManager.getTotalOutputRecords());
+    updateAdaptiveBatchSizeStats(Metric.ADAPTIVE_OUTPUT_BATCH_BYTES, Metric.ADAPTIVE_BATCH_SIZE_CHANGES);
 
     RecordBatchStats.logRecordBatchStats(getRecordBatchStatsContext(),
       "incoming aggregate: count : %d, avg bytes : %d,  avg row bytes : %d, record count : %d",
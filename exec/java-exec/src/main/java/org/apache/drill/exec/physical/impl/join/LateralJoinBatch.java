@@ -122,6 +122,7 @@ public class LateralJoinBatch extends AbstractBinaryRecordBatch<LateralJoinPOP>
 
     populateExcludedField(popConfig);
     batchMemoryManager = new JoinBatchMemoryManager(configOutputBatchSize, left, right, excludedFieldNames);
+    batchMemoryManager.setAdaptiveBatchSizer(getAdaptiveBatchSizer(configOutputBatchSize));
 
     // Initially it's set to default value of 64K and later for each new output row it will be set to the computed
     // row count
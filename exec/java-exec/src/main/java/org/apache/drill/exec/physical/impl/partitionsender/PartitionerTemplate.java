@@ -18,6 +18,7 @@
 package org.apache.drill.exec.physical.impl.partitionsender;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
@@ -74,6 +75,14 @@ public abstract class PartitionerTemplate implements Partitioner {
 
   private int outgoingRecordBatchSize = DEFAULT_RECORD_BATCH_SIZE;
 
+  // Batch scatter state, see exec.partition.batch_scatter. Reused across
+  // incoming batches and only grown when a larger batch arrives.
+  private boolean batchScatter;
+  private int[] rowIndexes = new int[0];
+  private int[] partitionIndexes = new int[0];
+  private int[] scatteredRows = new int[0];
+  private int[] partitionOffsets;
+
   @Override
   public List<? extends PartitionOutgoingBatch> getOutgoingBatches() {
     return outgoingBatches;
@@ -146,6 +155,10 @@ public abstract class PartitionerTemplate implements Partitioner {
       outgoingRecordBatchSize = (DEFAULT_RECORD_BATCH_SIZE + 1)/2 - 1;
     }
 
+    batchScatter = oContext.getFragmentContext().getOptions().getBoolean(
+        ExecConstants.PARTITIONER_BATCH_SCATTER_KEY);
+    partitionOffsets = new int[end - start + 1];
+
     int fieldId = 0;
     for (MinorFragmentEndpoint destination : popConfig.getDestinations()) {
       // create outgoingBatches only for subset of Destination Points
@@ -225,6 +238,10 @@ public abstract class PartitionerTemplate implements Partitioner {
 
   @Override
   public void partitionBatch(RecordBatch incoming) throws IOException {
+    if (batchScatter) {
+      scatterBatch(incoming);
+      return;
+    }
     SelectionVectorMode svMode = incoming.getSchema().getSelectionVectorMode();
 
     // Keeping the for loop inside the case to avoid case evaluation for each record.
@@ -254,6 +271,90 @@ public abstract class PartitionerTemplate implements Partitioner {
     }
   }
 
+  /**
+   * Partitions the incoming batch in three passes instead of row by row:
+   * <ol>
+   * <li>evaluate the partitioning expression for every row of the batch,</li>
+   * <li>group the rows that belong to this partitioner's destinations into a
+   * single selection array (counting sort by destination),</li>
+   * <li>copy each destination's rows into its outgoing batch in one run.</li>
+   * </ol>
+   * Copying one destination at a time keeps the outgoing vectors of a single
+   * receiver hot while its rows are appended, and lets rows for terminated
+   * receivers be skipped as a whole instead of being copied and discarded.
+   *
+   * @param incoming incoming batch to partition
+   * @throws IOException if an outgoing batch fails to flush
+   */
+  private void scatterBatch(RecordBatch incoming) throws IOException {
+    int recordCount = incoming.getRecordCount();
+    if (rowIndexes.length < recordCount) {
+      rowIndexes = new int[recordCount];
+      partitionIndexes = new int[recordCount];
+      scatteredRows = new int[recordCount];
+    }
+
+    SelectionVectorMode svMode = incoming.getSchema().getSelectionVectorMode();
+    switch (svMode) {
+      case NONE:
+        for (int recordId = 0; recordId < recordCount; ++recordId) {
+          rowIndexes[recordId] = recordId;
+        }
+        break;
+
+      case TWO_BYTE:
+        for (int recordId = 0; recordId < recordCount; ++recordId) {
+          rowIndexes[recordId] = sv2.getIndex(recordId);
+        }
+        break;
+
+      case FOUR_BYTE:
+        for (int recordId = 0; recordId < recordCount; ++recordId) {
+          rowIndexes[recordId] = sv4.get(recordId);
+        }
+        break;
+
+      default:
+        throw new UnsupportedOperationException("Unknown selection vector mode: " + svMode.toString());
+    }
+
+    // Pass 1: compute the destination of every row and count rows per destination.
+    int partitionCount = end - start;
+    Arrays.fill(partitionOffsets, 0);
+    try {
+      for (int recordId = 0; recordId < recordCount; ++recordId) {
+        int index = doEval(rowIndexes[recordId]);
+        partitionIndexes[recordId] = index;
+        if (index >= start && index < end) {
+          partitionOffsets[index - start + 1]++;
+        }
+      }
+    } catch (SchemaChangeException e) {
+      throw new UnsupportedOperationException(e);
+    }
+
+    // Pass 2: turn counts into offsets and group row indexes by destination.
+    for (int i = 0; i < partitionCount; i++) {
+      partitionOffsets[i + 1] += partitionOffsets[i];
+    }
+    for (int recordId = 0; recordId < recordCount; ++recordId) {
+      int index = partitionIndexes[recordId];
+      if (index >= start && index < end) {
+        scatteredRows[partitionOffsets[index - start]++] = rowIndexes[recordId];
+      }
+    }
+
+    // Pass 3: offsets now point at the end of each group; copy the groups.
+    int groupStart = 0;
+    for (int i = 0; i < partitionCount; i++) {
+      int groupEnd = partitionOffsets[i];
+      if (groupEnd > groupStart) {
+        outgoingBatches.get(i).copyRows(scatteredRows, groupStart, groupEnd);
+      }
+      groupStart = groupEnd;
+    }
+  }
+
   /**
    * Helper method to copy data based on partition
    * @param svIndex
@@ -325,6 +426,43 @@ public abstract class PartitionerTemplate implements Partitioner {
       }
     }
 
+    /**
+     * Copies a run of incoming rows destined to this batch, flushing whenever
+     * the outgoing batch fills up.
+     *
+     * @param rows incoming row indexes (already resolved through any selection vector)
+     * @param from first position in {@code rows} to copy, inclusive
+     * @param to last position in {@code rows} to copy, exclusive
+     * @throws IOException if the batch fails to flush
+     */
+    protected void copyRows(int[] rows, int from, int to) throws IOException {
+      if (dropAll) {
+        // Receiver is gone; nothing copied now would ever be sent.
+        totalRecords += to - from;
+        return;
+      }
+      try {
+        while (from < to) {
+          int count = Math.min(to - from, outgoingRecordBatchSize - recordCount);
+          for (int i = 0; i < count; i++) {
+            doEval(rows[from + i], recordCount + i);
+          }
+          recordCount += count;
+          totalRecords += count;
+          from += count;
+          if (recordCount == outgoingRecordBatchSize) {
+            flush(false);
+            if (dropAll) {
+              totalRecords += to - from;
+              return;
+            }
+          }
+        }
+      } catch (SchemaChangeException e) {
+        throw new UnsupportedOperationException(e);
+      }
+    }
+
     @Override
     public void terminate() {
       // receiver already terminated, don't send anything to it from now on
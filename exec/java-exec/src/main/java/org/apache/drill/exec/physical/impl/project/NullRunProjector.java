@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.project;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.expr.NullRuns;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.TransferPair;
+
+/**
+ * Projects each batch with code specialized for the null runs of the nullable
+ * columns it reads, checked once per batch: the columns without null, or with
+ * only nulls, are read without checking each value. Classes are generated on
+ * demand, the generic one for the batches whose columns have both values and
+ * nulls, so that a projection over nullable columns without null compiles a
+ * single class as before.
+ */
+class NullRunProjector implements Projector {
+
+  /**
+   * Maximum number of specialized classes, beyond which batches with other
+   * null runs are projected by the generic class.
+   */
+  private static final int MAX_SPECIALIZATIONS = 4;
+
+  private final Function<NullRuns, Projector> generator;
+  private final int[] nullableReads;
+  private final Map<NullRuns, Projector> specialized = new HashMap<>();
+  private Projector generic;
+
+  private FragmentContext context;
+  private RecordBatch incoming;
+  private RecordBatch outgoing;
+  private List<TransferPair> transfers;
+
+  /**
+   * @param generator generates the projector for the given null runs, or the
+   * generic projector for null
+   * @param nullableReads ids of the nullable incoming vectors read by the projection
+   */
+  NullRunProjector(Function<NullRuns, Projector> generator, int[] nullableReads) {
+    this.generator = generator;
+    this.nullableReads = nullableReads;
+  }
+
+  @Override
+  public void setup(FragmentContext context, RecordBatch incoming, RecordBatch outgoing,
+      List<TransferPair> transfers) {
+    this.context = context;
+    this.incoming = incoming;
+    this.outgoing = outgoing;
+    this.transfers = transfers;
+  }
+
+  @Override
+  public int projectRecords(RecordBatch incomingBatch, int startIndex, int recordCount, int firstOutputIndex) {
+    return select(incomingBatch).projectRecords(incomingBatch, startIndex, recordCount, firstOutputIndex);
+  }
+
+  private Projector select(RecordBatch incomingBatch) {
+    NullRuns nullRuns = NullRuns.of(incomingBatch, nullableReads);
+    if (nullRuns != null) {
+      Projector projector = specialized.get(nullRuns);
+      if (projector == null && specialized.size() < MAX_SPECIALIZATIONS) {
+        projector = create(nullRuns);
+        specialized.put(nullRuns, projector);
+      }
+      if (projector != null) {
+        return projector;
+      }
+    }
+    if (generic == null) {
+      generic = create(null);
+    }
+    return generic;
+  }
+
+  private Projector create(NullRuns nullRuns) {
+    Projector projector = generator.apply(nullRuns);
+    try {
+      projector.setup(context, incoming, outgoing, transfers);
+    } catch (SchemaChangeException e) {
+      throw new UnsupportedOperationException(e);
+    }
+    return projector;
+  }
+
+  /**
+   * @return number of classes generated for specific null runs
+   */
+  int getSpecializationCount() {
+    return specialized.size();
+  }
+
+  @Override
+  public String toString() {
+    return "NullRunProjector[generic=" + generic
+        + ", specialized=" + specialized
+        + "]";
+  }
+}
@@ -25,6 +25,7 @@ import org.apache.drill.common.types.Types;
 import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.exception.SchemaChangeException;
 import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.ops.MetricDef;
 import org.apache.drill.exec.physical.config.Project;
 import org.apache.drill.exec.physical.resultSet.ResultSetLoader;
 import org.apache.drill.exec.record.AbstractSingleRecordBatch;
@@ -64,6 +65,17 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
   private boolean first = true;
   private boolean wasNone; // whether a NONE iter outcome was already seen
 
+  public enum Metric implements MetricDef {
+    ADAPTIVE_OUTPUT_BATCH_BYTES,
+    ADAPTIVE_BATCH_SIZE_CHANGES,
+    NULL_RUN_SPECIALIZATIONS;
+
+    @Override
+    public int metricId() {
+      return ordinal();
+    }
+  }
+
   public ProjectRecordBatch(Project pop, RecordBatch incoming, FragmentContext context) {
     super(pop, context, incoming);
   }
@@ -73,6 +85,15 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
     return recordCount;
   }
 
+  @Override
+  public void close() {
+    updateAdaptiveBatchSizeStats(Metric.ADAPTIVE_OUTPUT_BATCH_BYTES, Metric.ADAPTIVE_BATCH_SIZE_CHANGES);
+    if (projector instanceof NullRunProjector) {
+      stats.setLongStat(Metric.NULL_RUN_SPECIALIZATIONS, ((NullRunProjector) projector).getSpecializationCount());
+    }
+    super.close();
+  }
+
   @Override
   protected void cancelIncoming() {
     super.cancelIncoming();
@@ -367,6 +388,7 @@ public class ProjectRecordBatch extends AbstractSingleRecordBatch<Project> {
 
   private void setupNewSchema(RecordBatch incomingBatch, int configuredBatchSize) {
     memoryManager = new ProjectMemoryManager(configuredBatchSize);
+    memoryManager.setAdaptiveBatchSizer(getAdaptiveBatchSizer(configuredBatchSize));
     memoryManager.init(incomingBatch, ProjectRecordBatch.this);
     if (allocationVectors != null) {
       for (ValueVector v : allocationVectors) {
@@ -37,10 +37,12 @@ import org.apache.drill.common.expression.fn.FunctionReplacementUtils;
 import org.apache.drill.common.logical.data.NamedExpression;
 import org.apache.drill.common.types.TypeProtos.MinorType;
 import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.expr.ClassGenerator;
 import org.apache.drill.exec.expr.CodeGenerator;
 import org.apache.drill.exec.expr.DrillFuncHolderExpr;
 import org.apache.drill.exec.expr.ExpressionTreeMaterializer;
+import org.apache.drill.exec.expr.NullRuns;
 import org.apache.drill.exec.expr.ValueVectorReadExpression;
 import org.apache.drill.exec.expr.ValueVectorWriteExpression;
 import org.apache.drill.exec.expr.fn.FunctionLookupContext;
@@ -114,6 +116,11 @@ class ProjectionMaterializer {
   private final ColumnExplorer columnExplorer;
   private final IntHashSet transferFieldIds = new IntHashSet();
   private final ProjectionMaterializer.ClassifierResult result = new ClassifierResult();
+  private final OptionManager options;
+  private final boolean precompiledKernels;
+  private final boolean nullRunSpecialization;
+  private final List<LogicalExpression> evaluatedExprs = new ArrayList<>();
+  private boolean hasComplexWriter;
   private boolean isAnyWildcard;
   private boolean classify;
 
@@ -127,17 +134,27 @@ class ProjectionMaterializer {
     this.functionLookupContext = functionLookupContext;
     this.batchBuilder = batchBuilder;
     this.unionTypeEnabled = unionTypeEnabled;
+    this.options = options;
     columnExplorer = new ColumnExplorer(options);
+    precompiledKernels = options.getBoolean(ExecConstants.PRECOMPILED_KERNELS_KEY);
+    nullRunSpecialization = options.getBoolean(ExecConstants.NULL_RUN_SPECIALIZATION_KEY);
     cg = CodeGenerator.getRoot(Projector.TEMPLATE_DEFINITION, options);
   }
 
   public Projector generateProjector(FragmentContext context, boolean saveCode) {
     long setupNewSchemaStartTime = System.currentTimeMillis();
     setup();
-    CodeGenerator<Projector> codeGen = cg.getCodeGenerator();
-    codeGen.plainJavaCapable(true);
-    codeGen.saveCodeForDebugging(saveCode);
-    Projector projector = context.getImplementationClass(codeGen);
+    Projector projector;
+    int[] nullableReads = cg.getCodeGenerator().getNullableReads();
+    if (evaluatedExprs.isEmpty() && precompiledKernels) {
+      // only transfers, there is no code to generate
+      projector = new TransferProjector();
+    } else if (nullRunSpecialization && nullableReads.length > 0 && !hasComplexWriter) {
+      projector = new NullRunProjector(
+          nullRuns -> generateProjector(context, nullRuns, saveCode), nullableReads);
+    } else {
+      projector = generateProjector(context, null, saveCode);
+    }
 
     long setupNewSchemaEndTime = System.currentTimeMillis();
     logger.trace("generateProjector: time {}  ms, Project {}, incoming {}",
@@ -145,6 +162,25 @@ class ProjectionMaterializer {
     return projector;
   }
 
+  /**
+   * Compiles the generated projector, or the projector specialized for the
+   * given null runs, generated again from the same expressions.
+   */
+  private Projector generateProjector(FragmentContext context, NullRuns nullRuns, boolean saveCode) {
+    ClassGenerator<Projector> generator = cg;
+    if (nullRuns != null) {
+      generator = CodeGenerator.getRoot(Projector.TEMPLATE_DEFINITION, options);
+      generator.getCodeGenerator().specializeNullRuns(nullRuns);
+      for (LogicalExpression expr : evaluatedExprs) {
+        generator.addExpr(expr, ClassGenerator.BlkCreateMode.TRUE_IF_BOUND);
+      }
+    }
+    CodeGenerator<Projector> codeGen = generator.getCodeGenerator();
+    codeGen.plainJavaCapable(true);
+    codeGen.saveCodeForDebugging(saveCode);
+    return context.getImplementationClass(codeGen);
+  }
+
   private void setup() {
     List<NamedExpression> exprs = exprSpec != null ? exprSpec
         : inferExpressions();
@@ -329,7 +365,7 @@ class ProjectionMaterializer {
 
         ValueVectorWriteExpression write = batchBuilder.addOutputVector(name,
             expr);
-        cg.addExpr(write, ClassGenerator.BlkCreateMode.TRUE_IF_BOUND);
+        addExpr(write);
       }
     }
   }
@@ -348,7 +384,8 @@ class ProjectionMaterializer {
     // The reference name will be passed to ComplexWriter, used as the name of
     // the output vector from the writer.
     ((DrillFuncHolderExpr) expr).setFieldReference(namedExpression.getRef());
-    cg.addExpr(expr, ClassGenerator.BlkCreateMode.TRUE_IF_BOUND);
+    hasComplexWriter = true;
+    addExpr(expr);
     batchBuilder.addComplexField(namedExpression.getRef());
   }
 
@@ -356,7 +393,12 @@ class ProjectionMaterializer {
       LogicalExpression expr, String outputName) {
     ValueVectorWriteExpression write = batchBuilder.addEvalVector(
         outputName, expr);
-    cg.addExpr(write, ClassGenerator.BlkCreateMode.TRUE_IF_BOUND);
+    addExpr(write);
+  }
+
+  private void addExpr(LogicalExpression expr) {
+    cg.addExpr(expr, ClassGenerator.BlkCreateMode.TRUE_IF_BOUND);
+    evaluatedExprs.add(expr);
   }
 
   private boolean isImplicitFileColumn(MaterializedField field) {
@@ -77,7 +77,9 @@ public class UnnestRecordBatch extends AbstractTableFunctionRecordBatch<UnnestPO
     OUTPUT_BATCH_COUNT,
     AVG_OUTPUT_BATCH_BYTES,
     AVG_OUTPUT_ROW_BYTES,
-    OUTPUT_RECORD_COUNT;
+    OUTPUT_RECORD_COUNT,
+    ADAPTIVE_OUTPUT_BATCH_BYTES,
+    ADAPTIVE_BATCH_SIZE_CHANGES;
 
     @Override
     public int metricId() {
@@ -136,6 +138,7 @@ public class UnnestRecordBatch extends AbstractTableFunctionRecordBatch<UnnestPO
     int configuredBatchSize = (int) context.getOptions().getOption(ExecConstants.OUTPUT_BATCH_SIZE_VALIDATOR);
     RecordBatchStats.printConfiguredBatchSize(getRecordBatchStatsContext(), configuredBatchSize);
     memoryManager = new UnnestMemoryManager(configuredBatchSize);
+    memoryManager.setAdaptiveBatchSizer(getAdaptiveBatchSizer(configuredBatchSize));
     rowIdColumnName = pop.getImplicitColumn();
   }
 
@@ -406,6 +409,7 @@ public class UnnestRecordBatch extends AbstractTableFunctionRecordBatch<UnnestPO
     stats.setLongStat(Metric.AVG_OUTPUT_BATCH_BYTES, memoryManager.getAvgOutputBatchSize());
     stats.setLongStat(Metric.AVG_OUTPUT_ROW_BYTES, memoryManager.getAvgOutputRowWidth());
     stats.setLongStat(Metric.OUTPUT_RECORD_COUNT, memoryManager.getTotalOutputRecords());
+    updateAdaptiveBatchSizeStats(Metric.ADAPTIVE_OUTPUT_BATCH_BYTES, Metric.ADAPTIVE_BATCH_SIZE_CHANGES);
 
     RecordBatchStats.logRecordBatchStats(getRecordBatchStatsContext(),
       "incoming aggregate: batch count : %d, avg batch bytes : %d,  avg row bytes : %d, record count : %d",
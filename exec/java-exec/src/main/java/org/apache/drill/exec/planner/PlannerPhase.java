@@ -19,6 +19,7 @@ package org.apache.drill.exec.planner;
 
 import org.apache.drill.exec.planner.logical.ConvertMetadataAggregateToDirectScanRule;
 import org.apache.drill.exec.planner.logical.DrillDistinctJoinToSemiJoinRule;
+import org.apache.drill.exec.planner.logical.DrillJoinEnumerationRule;
 import org.apache.drill.exec.planner.logical.DrillSetOpRule;
 import org.apache.drill.exec.planner.logical.DrillReduceExpressionsRule;
 import org.apache.drill.exec.planner.logical.DrillTableModifyRule;
@@ -159,6 +160,8 @@ public enum PlannerPhase {
       List<RelOptRule> rules = Lists.newArrayList();
       if (context.getPlannerSettings().isJoinOptimizationEnabled()) {
         rules.add(DRILL_JOIN_TO_MULTIJOIN_RULE);
+        // joins not ordered by the enumeration are ordered by the LOPT rule
+        rules.add(DrillJoinEnumerationRule.INSTANCE);
         rules.add(DRILL_LOPT_OPTIMIZE_JOIN_RULE);
       }
       rules.add(RuleInstance.PROJECT_REMOVE_RULE);
@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.planner.logical;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.calcite.plan.RelOptRule;
+import org.apache.calcite.plan.RelOptRuleCall;
+import org.apache.calcite.plan.RelOptUtil;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rel.metadata.RelMdUtil;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rel.rules.MultiJoin;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexShuttle;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.tools.RelBuilder;
+import org.apache.calcite.util.ImmutableBitSet;
+import org.apache.drill.exec.planner.DrillRelBuilder;
+import org.apache.drill.exec.planner.common.DrillRelOptUtil;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.exec.planner.physical.PrelUtil;
+
+/**
+ * Orders the inputs of a {@link MultiJoin} of inner joins by enumerating all
+ * the join trees without cartesian products and choosing the cheapest one,
+ * when table statistics are available for all the inputs and there are at
+ * most {@link PlannerSettings#JOIN_ENUMERATION_MAX_INPUTS} of them. Larger
+ * joins, outer joins and joins without statistics are left to the greedy
+ * {@link org.apache.calcite.rel.rules.LoptOptimizeJoinRule}.
+ * <p>
+ * The enumeration is a dynamic program over the subsets of the inputs: the
+ * cardinality of a subset is the product of the row counts of its inputs,
+ * which already account for their filters, and of the selectivities of the
+ * join conditions between them. The selectivity of an equi-join condition is
+ * {@code 1 / max(NDV(left key), NDV(right key))}. The cost of a join tree is
+ * the sum of the cardinalities of its joins and of their build sides, and the
+ * smaller side of every join is put on the right, where hash joins build
+ * their tables, so that the distribution of each join is then chosen by the
+ * physical planner from accurate row counts.
+ */
+public class DrillJoinEnumerationRule extends RelOptRule {
+  public static final RelOptRule INSTANCE = new DrillJoinEnumerationRule();
+
+  private DrillJoinEnumerationRule() {
+    super(operand(MultiJoin.class, any()),
+        DrillRelBuilder.proto(
+            DrillRelFactories.DRILL_LOGICAL_JOIN_FACTORY,
+            DrillRelFactories.DRILL_LOGICAL_PROJECT_FACTORY,
+            DrillRelFactories.DRILL_LOGICAL_FILTER_FACTORY),
+        "DrillJoinEnumerationRule");
+  }
+
+  @Override
+  public boolean matches(RelOptRuleCall call) {
+    MultiJoin multiJoin = call.rel(0);
+    PlannerSettings settings = PrelUtil.getPlannerSettings(call.getPlanner());
+    int inputCount = multiJoin.getInputs().size();
+    // two inputs have a single order, which the physical planner may still swap
+    if (inputCount < 3 || inputCount > settings.getJoinEnumerationMaxInputs()
+        || multiJoin.isFullOuterJoin()) {
+      return false;
+    }
+    for (int i = 0; i < inputCount; i++) {
+      if (multiJoin.getJoinTypes().get(i) != JoinRelType.INNER
+          || multiJoin.getOuterJoinConditions().get(i) != null
+          || DrillRelOptUtil.guessRows(multiJoin.getInput(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void onMatch(RelOptRuleCall call) {
+    MultiJoin multiJoin = call.rel(0);
+    JoinGraph graph = JoinGraph.create(multiJoin, call.getMetadataQuery());
+    if (graph == null || !graph.enumerate()) {
+      return;
+    }
+
+    RelBuilder relBuilder = call.builder();
+    int[] positions = graph.build(relBuilder, graph.all, new boolean[graph.conditions.size()]);
+
+    // restores the fields of the multi-join in their original order
+    List<RexNode> projects = new ArrayList<>();
+    for (int position : positions) {
+      projects.add(relBuilder.field(position));
+    }
+    relBuilder.project(projects, multiJoin.getRowType().getFieldNames(), true);
+    if (multiJoin.getPostJoinFilter() != null) {
+      relBuilder.filter(multiJoin.getPostJoinFilter());
+    }
+    call.transformTo(relBuilder.build());
+  }
+
+  /**
+   * Inputs and join conditions of a multi-join, with the best join tree found
+   * for every connected subset of the inputs, subsets being bit masks of the
+   * inputs.
+   */
+  private static class JoinGraph {
+    private final List<RelNode> inputs;
+    private final int[] fieldOffsets;
+    private final int fieldCount;
+    private final double[] inputRows;
+    private final List<RexNode> conditions;
+    private final int[] conditionInputs;
+    private final double[] selectivities;
+    private final int all;
+
+    private final double[] rows;
+    private final double[] costs;
+    private final int[] bestLeft;
+
+    private JoinGraph(MultiJoin multiJoin, double[] inputRows, List<RexNode> conditions) {
+      this.inputs = multiJoin.getInputs();
+      this.inputRows = inputRows;
+      this.conditions = conditions;
+      this.fieldOffsets = new int[inputs.size() + 1];
+      for (int i = 0; i < inputs.size(); i++) {
+        fieldOffsets[i + 1] = fieldOffsets[i] + inputs.get(i).getRowType().getFieldCount();
+      }
+      this.fieldCount = fieldOffsets[inputs.size()];
+      this.conditionInputs = new int[conditions.size()];
+      this.selectivities = new double[conditions.size()];
+      this.all = (1 << inputs.size()) - 1;
+      this.rows = new double[all + 1];
+      this.costs = new double[all + 1];
+      this.bestLeft = new int[all + 1];
+    }
+
+    static JoinGraph create(MultiJoin multiJoin, RelMetadataQuery mq) {
+      double[] inputRows = new double[multiJoin.getInputs().size()];
+      for (int i = 0; i < inputRows.length; i++) {
+        Double rowCount = mq.getRowCount(multiJoin.getInput(i));
+        if (rowCount == null) {
+          return null;
+        }
+        inputRows[i] = Math.max(rowCount, 1);
+      }
+      JoinGraph graph = new JoinGraph(multiJoin, inputRows, RelOptUtil.conjunctions(multiJoin.getJoinFilter()));
+      for (int i = 0; i < graph.conditions.size(); i++) {
+        RexNode condition = graph.conditions.get(i);
+        for (int field : RelOptUtil.InputFinder.bits(condition)) {
+          graph.conditionInputs[i] |= 1 << graph.inputOf(field);
+        }
+        graph.selectivities[i] = graph.selectivity(condition, mq);
+      }
+      return graph;
+    }
+
+    private int inputOf(int field) {
+      int input = 0;
+      while (fieldOffsets[input + 1] <= field) {
+        input++;
+      }
+      return input;
+    }
+
+    private double selectivity(RexNode condition, RelMetadataQuery mq) {
+      if (condition.isA(SqlKind.EQUALS)) {
+        List<RexNode> operands = ((RexCall) condition).getOperands();
+        if (operands.get(0) instanceof RexInputRef && operands.get(1) instanceof RexInputRef) {
+          int leftField = ((RexInputRef) operands.get(0)).getIndex();
+          int rightField = ((RexInputRef) operands.get(1)).getIndex();
+          if (inputOf(leftField) != inputOf(rightField)) {
+            return 1 / Math.max(1, Math.max(distinctValues(leftField, mq), distinctValues(rightField, mq)));
+          }
+        }
+      }
+      return RelMdUtil.guessSelectivity(condition);
+    }
+
+    private double distinctValues(int field, RelMetadataQuery mq) {
+      int input = inputOf(field);
+      Double ndv = mq.getDistinctRowCount(inputs.get(input),
+          ImmutableBitSet.of(field - fieldOffsets[input]), null);
+      // without NDV the key is assumed to be unique in its input
+      return ndv == null ? inputRows[input] : Math.min(ndv, inputRows[input]);
+    }
+
+    /**
+     * Finds the cheapest join tree of every connected subset of the inputs.
+     *
+     * @return whether the inputs are connected by the join conditions
+     */
+    boolean enumerate() {
+      for (int subset = 1; subset <= all; subset++) {
+        rows[subset] = cardinality(subset);
+        costs[subset] = Integer.bitCount(subset) == 1 ? 0 : Double.POSITIVE_INFINITY;
+        if (costs[subset] == 0) {
+          continue;
+        }
+        // each split is seen once, with the lowest input on the left
+        int lowest = Integer.lowestOneBit(subset);
+        for (int left = (subset - 1) & subset; left > 0; left = (left - 1) & subset) {
+          int right = subset ^ left;
+          if ((left & lowest) == 0 || costs[left] == Double.POSITIVE_INFINITY
+              || costs[right] == Double.POSITIVE_INFINITY || !connected(left, right)) {
+            continue;
+          }
+          double cost = costs[left] + costs[right] + rows[subset] + Math.min(rows[left], rows[right]);
+          if (cost < costs[subset]) {
+            costs[subset] = cost;
+            bestLeft[subset] = left;
+          }
+        }
+      }
+      return costs[all] != Double.POSITIVE_INFINITY;
+    }
+
+    private double cardinality(int subset) {
+      double cardinality = 1;
+      for (int i = 0; i < inputs.size(); i++) {
+        if ((subset & (1 << i)) != 0) {
+          cardinality *= inputRows[i];
+        }
+      }
+      for (int i = 0; i < conditions.size(); i++) {
+        if (conditionInputs[i] != 0 && (conditionInputs[i] & ~subset) == 0) {
+          cardinality *= selectivities[i];
+        }
+      }
+      return Math.max(cardinality, 1);
+    }
+
+    private boolean connected(int left, int right) {
+      for (int inputsOfCondition : conditionInputs) {
+        if ((inputsOfCondition & left) != 0 && (inputsOfCondition & right) != 0
+            && (inputsOfCondition & ~(left | right)) == 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Pushes the best join tree of a subset of the inputs on the builder,
+     * with the conditions not yet used by its subtrees.
+     *
+     * @return positions of the fields of the multi-join in the pushed
+     *         relational expression, -1 for fields of other inputs
+     */
+    int[] build(RelBuilder relBuilder, int subset, boolean[] usedConditions) {
+      int[] positions = new int[fieldCount];
+      Arrays.fill(positions, -1);
+      if (Integer.bitCount(subset) == 1) {
+        int input = Integer.numberOfTrailingZeros(subset);
+        relBuilder.push(inputs.get(input));
+        for (int field = fieldOffsets[input]; field < fieldOffsets[input + 1]; field++) {
+          positions[field] = field - fieldOffsets[input];
+        }
+        return positions;
+      }
+
+      int left = bestLeft[subset];
+      int right = subset ^ left;
+      if (rows[left] < rows[right]) {
+        left = right;
+        right = bestLeft[subset];
+      }
+      int[] leftPositions = build(relBuilder, left, usedConditions);
+      int[] rightPositions = build(relBuilder, right, usedConditions);
+      int leftFieldCount = relBuilder.peek(1).getRowType().getFieldCount();
+      for (int field = 0; field < fieldCount; field++) {
+        if (leftPositions[field] >= 0) {
+          positions[field] = leftPositions[field];
+        } else if (rightPositions[field] >= 0) {
+          positions[field] = leftFieldCount + rightPositions[field];
+        }
+      }
+
+      List<RexNode> joinConditions = new ArrayList<>();
+      RexShuttle shuttle = new RexShuttle() {
+        @Override
+        public RexNode visitInputRef(RexInputRef inputRef) {
+          return new RexInputRef(positions[inputRef.getIndex()], inputRef.getType());
+        }
+      };
+      for (int i = 0; i < conditions.size(); i++) {
+        if (!usedConditions[i] && (conditionInputs[i] & ~subset) == 0) {
+          usedConditions[i] = true;
+          joinConditions.add(conditions.get(i).accept(shuttle));
+        }
+      }
+      relBuilder.join(JoinRelType.INNER, joinConditions);
+      return positions;
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.planner.logical;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.dotdrill.MaterializedView;
+import org.apache.drill.exec.planner.logical.MaterializedViewRewriter.MaterializedViewCandidate;
+
+/**
+ * Drillbit-wide cache of the materialized views that
+ * {@link MaterializedViewRewriter} considers as rewrite candidates, so that
+ * planning a query does not list every file-based workspace.
+ * <p>
+ * The catalog is loaded on first use, from the metastore when it is enabled
+ * and otherwise by scanning the workspaces, and is kept current by the
+ * materialized view DDL handlers of this Drillbit. Changes made through other
+ * Drillbits are picked up when the catalog expires
+ * ({@link ExecConstants#MATERIALIZED_VIEW_CATALOG_TTL_KEY}). A stale entry can
+ * at worst cause a missed rewrite: the rewriter re-reads the definition of the
+ * view it chose before using it.
+ */
+public class MaterializedViewCatalog {
+
+  // Keyed by the full schema path and name of the view
+  private final Map<String, MaterializedViewCandidate> views = new ConcurrentHashMap<>();
+  private final Object loadLock = new Object();
+
+  private volatile boolean loaded;
+  private volatile boolean loadedFromMetastore;
+  private volatile long loadTimeNanos;
+
+  /**
+   * Returns the known materialized views, loading them first if the catalog
+   * has not been loaded yet, has expired or was loaded from the other source.
+   *
+   * @param fromMetastore whether the metastore is the source of truth for
+   *                      materialized views in the calling session
+   * @param ttlSeconds time after which the catalog is reloaded, zero to
+   *                   bypass the catalog and load on every call
+   * @param loader lists the materialized views from the source
+   * @return snapshot of the materialized view candidates
+   */
+  public List<MaterializedViewCandidate> getCandidates(boolean fromMetastore, long ttlSeconds,
+                                                       Supplier<List<MaterializedViewCandidate>> loader) {
+    if (ttlSeconds == 0) {
+      return loader.get();
+    }
+    if (!isCurrent(fromMetastore, ttlSeconds)) {
+      synchronized (loadLock) {
+        // another planner may have loaded the catalog while this one waited
+        if (!isCurrent(fromMetastore, ttlSeconds)) {
+          List<MaterializedViewCandidate> candidates = loader.get();
+          views.clear();
+          for (MaterializedViewCandidate candidate : candidates) {
+            views.put(key(candidate.getSchemaPath(), candidate.getName()), candidate);
+          }
+          loadedFromMetastore = fromMetastore;
+          loadTimeNanos = System.nanoTime();
+          loaded = true;
+        }
+      }
+    }
+    return new ArrayList<>(views.values());
+  }
+
+  private boolean isCurrent(boolean fromMetastore, long ttlSeconds) {
+    return loaded && loadedFromMetastore == fromMetastore
+        && System.nanoTime() - loadTimeNanos < TimeUnit.SECONDS.toNanos(ttlSeconds);
+  }
+
+  /**
+   * Adds or replaces a materialized view after it was created or refreshed.
+   */
+  public void put(String schemaPath, MaterializedView materializedView) {
+    views.put(key(schemaPath, materializedView.getName()), new MaterializedViewCandidate(
+        materializedView.getName(), schemaPath, materializedView,
+        materializedView.getRefreshStatus() == MaterializedView.RefreshStatus.COMPLETE));
+  }
+
+  /**
+   * Removes a materialized view after it was dropped.
+   */
+  public void remove(String schemaPath, String viewName) {
+    views.remove(key(schemaPath, viewName));
+  }
+
+  /**
+   * Forces the catalog to be reloaded on next use.
+   */
+  public void invalidate() {
+    loaded = false;
+  }
+
+  private static String key(String schemaPath, String viewName) {
+    return schemaPath + '.' + viewName;
+  }
+}
@@ -25,19 +25,28 @@ import org.apache.calcite.rel.RelRoot;
 import org.apache.calcite.schema.SchemaPlus;
 import org.apache.calcite.sql.SqlNode;
 import org.apache.calcite.util.Pair;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.dotdrill.MaterializedView;
+import org.apache.drill.exec.dotdrill.View;
 import org.apache.drill.exec.ops.QueryContext;
+import org.apache.drill.exec.planner.sql.SchemaUtilities;
 import org.apache.drill.exec.planner.sql.conversion.SqlConverter;
 import org.apache.drill.exec.store.AbstractSchema;
 import org.apache.drill.exec.store.StoragePlugin;
 import org.apache.drill.exec.store.StoragePluginRegistry;
 import org.apache.drill.exec.store.StoragePluginRegistry.PluginException;
 import org.apache.drill.exec.store.dfs.FileSystemPlugin;
+import org.apache.drill.metastore.components.materializedviews.MaterializedViewMetadataUnit;
+import org.apache.drill.metastore.exceptions.MetastoreException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -52,13 +61,17 @@ import java.util.Set;
  * normalizes both the query and MV definitions before performing structural
  * matching via {@link org.apache.calcite.plan.SubstitutionVisitor}.
  * <p>
- * Materialized views are discovered by iterating over enabled file-based
- * storage plugins (the only plugin type that supports MVs) and force-loading
- * their schemas to find .materialized_view.drill files.
+ * Candidate materialized views come from the Drillbit's
+ * {@link MaterializedViewCatalog}. The catalog is loaded from the metastore
+ * when it is enabled, otherwise by iterating over enabled file-based storage
+ * plugins (the only plugin type that supports MVs) and force-loading their
+ * schemas to find .materialized_view.drill files.
  */
 public class MaterializedViewRewriter {
   private static final Logger logger = LoggerFactory.getLogger(MaterializedViewRewriter.class);
 
+  private static final TypeReference<List<View.Field>> FIELD_LIST_TYPE = new TypeReference<List<View.Field>>() { };
+
   private final QueryContext context;
   private final SchemaPlus rootSchema;
   private final SqlConverter sqlConverter;
@@ -93,6 +106,7 @@ public class MaterializedViewRewriter {
 
     // Build Calcite RelOptMaterialization objects for each refreshed candidate
     List<RelOptMaterialization> materializations = new ArrayList<>();
+    Map<RelOptMaterialization, MaterializedViewCandidate> materializedCandidates = new IdentityHashMap<>();
     for (MaterializedViewCandidate candidate : candidates) {
       if (!candidate.isRefreshed()) {
         logger.debug("Skipping MV {} - not refreshed", candidate.getName());
@@ -103,6 +117,7 @@ public class MaterializedViewRewriter {
         RelOptMaterialization mat = buildMaterialization(candidate);
         if (mat != null) {
           materializations.add(mat);
+          materializedCandidates.put(mat, candidate);
         }
       } catch (Exception e) {
         logger.debug("Failed to build materialization for MV {}: {}", candidate.getName(), e.getMessage());
@@ -123,8 +138,13 @@ public class MaterializedViewRewriter {
 
       if (!results.isEmpty()) {
         RelNode rewritten = results.get(0).left;
+        List<RelOptMaterialization> usedMVs = results.get(0).right;
+        for (RelOptMaterialization usedMV : usedMVs) {
+          if (!isStillRefreshed(materializedCandidates.get(usedMV))) {
+            return queryRel;
+          }
+        }
         if (logger.isInfoEnabled()) {
-          List<RelOptMaterialization> usedMVs = results.get(0).right;
           logger.info("Query rewritten to use materialized view(s): {}",
               !usedMVs.isEmpty() ? usedMVs.get(0).qualifiedTableName : "unknown");
         }
@@ -138,6 +158,37 @@ public class MaterializedViewRewriter {
     return queryRel;
   }
 
+  /**
+   * Re-reads the definition of a cached candidate chosen for the rewrite, since
+   * it may have been dropped or be being refreshed through another Drillbit.
+   * Updates the catalog if the definition changed.
+   */
+  private boolean isStillRefreshed(MaterializedViewCandidate candidate) {
+    if (candidate == null) {
+      return false;
+    }
+    MaterializedViewCatalog catalog = context.getMaterializedViewCatalog();
+    try {
+      SchemaPlus schema = SchemaUtilities.findSchema(rootSchema, candidate.getSchemaPath());
+      AbstractSchema drillSchema = schema == null ? null : schema.unwrap(AbstractSchema.class);
+      MaterializedView current = drillSchema == null ? null : drillSchema.getMaterializedView(candidate.getName());
+      if (current == null) {
+        logger.debug("Skipping MV {} - dropped", candidate.getName());
+        catalog.remove(candidate.getSchemaPath(), candidate.getName());
+        return false;
+      }
+      if (current.getRefreshStatus() != MaterializedView.RefreshStatus.COMPLETE) {
+        logger.debug("Skipping MV {} - refresh in progress", candidate.getName());
+        catalog.put(candidate.getSchemaPath(), current);
+        return false;
+      }
+      return true;
+    } catch (IOException e) {
+      logger.debug("Error reading MV {}: {}", candidate.getName(), e.getMessage());
+      return false;
+    }
+  }
+
   /**
    * Builds a Calcite {@link RelOptMaterialization} for a candidate MV.
    */
@@ -215,6 +266,51 @@ public class MaterializedViewRewriter {
     }
   }
 
+  /**
+   * Returns the materialized views from the Drillbit's catalog, loading the
+   * catalog if needed.
+   */
+  private List<MaterializedViewCandidate> findCandidateMaterializedViews() {
+    boolean fromMetastore = context.getOptions().getOption(ExecConstants.METASTORE_ENABLED_VALIDATOR);
+    long ttlSeconds = context.getOptions().getOption(ExecConstants.MATERIALIZED_VIEW_CATALOG_TTL);
+    return context.getMaterializedViewCatalog().getCandidates(fromMetastore, ttlSeconds,
+        fromMetastore ? this::loadFromMetastore : this::scanWorkspaces);
+  }
+
+  /**
+   * Lists the materialized views recorded in the metastore. Falls back to
+   * scanning the workspaces if the metastore cannot be read.
+   */
+  private List<MaterializedViewCandidate> loadFromMetastore() {
+    List<MaterializedViewCandidate> candidates = new ArrayList<>();
+    try {
+      List<MaterializedViewMetadataUnit> units = context.getMetastoreRegistry().get()
+          .materializedViews()
+          .basicRequests()
+          .getAllMaterializedViews();
+      ObjectMapper mapper = context.getLpPersistence().getMapper();
+      for (MaterializedViewMetadataUnit unit : units) {
+        MaterializedView materializedView = new MaterializedView(
+            unit.name(),
+            unit.sql(),
+            unit.fields() == null ? null : mapper.readValue(unit.fields(), FIELD_LIST_TYPE),
+            unit.workspaceSchemaPath(),
+            unit.dataLocation(),
+            unit.lastRefreshTime(),
+            unit.refreshStatus() == null ? null : MaterializedView.RefreshStatus.valueOf(unit.refreshStatus()));
+        candidates.add(new MaterializedViewCandidate(
+            unit.name(),
+            SchemaUtilities.SCHEMA_PATH_JOINER.join(unit.storagePlugin(), unit.workspace()),
+            materializedView,
+            materializedView.getRefreshStatus() == MaterializedView.RefreshStatus.COMPLETE));
+      }
+    } catch (MetastoreException | IOException | IllegalArgumentException e) {
+      logger.warn("Failed to read materialized views from metastore, listing workspaces instead: {}", e.getMessage());
+      return scanWorkspaces();
+    }
+    return candidates;
+  }
+
   /**
    * Finds all materialized views by iterating over enabled file-based storage
    * plugins. Only file-based plugins (FileSystemPlugin) support materialized views.
@@ -223,7 +319,7 @@ public class MaterializedViewRewriter {
    * already-loaded schemas. Instead, we use the StoragePluginRegistry to
    * discover file-based plugins and force-load their workspace schemas.
    */
-  private List<MaterializedViewCandidate> findCandidateMaterializedViews() {
+  private List<MaterializedViewCandidate> scanWorkspaces() {
     List<MaterializedViewCandidate> candidates = new ArrayList<>();
     StoragePluginRegistry pluginRegistry = context.getStorage();
 
@@ -232,6 +232,11 @@ public class PlannerSettings implements Context{
    */
   public static final BooleanValidator JOIN_OPTIMIZATION = new BooleanValidator("planner.enable_join_optimization",
       new OptionDescription("Enables join ordering optimization."));
+  public static final RangeLongValidator JOIN_ENUMERATION_MAX_INPUTS = new RangeLongValidator("planner.join.enumeration_max_inputs", 0, 12,
+      new OptionDescription("Maximum number of inputs of inner joins whose order is chosen by enumerating all the join orders using table statistics. Larger joins are ordered greedily. 0 disables the enumeration. (Since Drill 1.23)"));
+  public static final String FILTER_PROJECT_FUSION_KEY = "planner.enable_filter_project_fusion";
+  public static final BooleanValidator FILTER_PROJECT_FUSION = new BooleanValidator(FILTER_PROJECT_FUSION_KEY,
+      new OptionDescription("Replaces a Project of the output of a Filter with a single operator evaluating the condition and the projected expressions in one pass, without a selection vector. (Since Drill 1.23)"));
   // for testing purpose
   public static final String FORCE_2PHASE_AGGR_KEY = "planner.force_2phase_aggr";
   public static final BooleanValidator FORCE_2PHASE_AGGR = new BooleanValidator(FORCE_2PHASE_AGGR_KEY,
@@ -457,6 +462,14 @@ public class PlannerSettings implements Context{
     return options.getOption(JOIN_OPTIMIZATION);
   }
 
+  public long getJoinEnumerationMaxInputs() {
+    return options.getOption(JOIN_ENUMERATION_MAX_INPUTS);
+  }
+
+  public boolean isFilterProjectFusionEnabled() {
+    return options.getOption(FILTER_PROJECT_FUSION);
+  }
+
   public boolean isUnnestLateralEnabled() {
     return options.getOption(ENABLE_UNNEST_LATERAL);
   }
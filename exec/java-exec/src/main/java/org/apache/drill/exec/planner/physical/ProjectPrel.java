@@ -83,6 +83,13 @@ public class ProjectPrel extends DrillProjectRelBase implements Prel{
     return new ProjectPrel(getCluster(), traitSet, input, exps, rowType, this.outputProj);
   }
 
+  /**
+   * @return true if this Project was inserted by {@link org.apache.drill.exec.planner.physical.visitor.TopProjectVisitor}
+   */
+  public boolean isOutputProj() {
+    return outputProj;
+  }
+
 
   @Override
   public PhysicalOperator getPhysicalOperator(PhysicalPlanCreator creator) throws IOException {
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.planner.physical.visitor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexVisitorImpl;
+import org.apache.drill.exec.expr.fn.FunctionImplementationRegistry;
+import org.apache.drill.exec.planner.StarColumnHelper;
+import org.apache.drill.exec.planner.physical.FilterPrel;
+import org.apache.drill.exec.planner.physical.FilterProjectPrel;
+import org.apache.drill.exec.planner.physical.Prel;
+import org.apache.drill.exec.planner.physical.ProjectPrel;
+
+/**
+ * Replaces each Project over a Filter with a {@link FilterProjectPrel}, which
+ * evaluates both in a single pass over the incoming batches, without the
+ * selection vector of the filter nor the remover copying the filtered rows
+ * before they are projected.
+ * <p>
+ * Projects with star columns, complex writer functions or flatten are left
+ * as they are, since they need the processing specific to the Project
+ * operator, as is the Project producing the final output of the query.
+ */
+public class FilterProjectFusionVisitor extends BasePrelVisitor<Prel, Void, RuntimeException> {
+
+  private final FunctionImplementationRegistry funcReg;
+
+  private FilterProjectFusionVisitor(FunctionImplementationRegistry funcReg) {
+    this.funcReg = funcReg;
+  }
+
+  public static Prel fuseFilterProjects(Prel prel, FunctionImplementationRegistry funcReg) {
+    return prel.accept(new FilterProjectFusionVisitor(funcReg), null);
+  }
+
+  @Override
+  public Prel visitPrel(Prel prel, Void value) throws RuntimeException {
+    List<RelNode> children = new ArrayList<>();
+    for (Prel child : prel) {
+      children.add(child.accept(this, null));
+    }
+    if (children.equals(prel.getInputs())) {
+      return prel;
+    }
+    return (Prel) prel.copy(prel.getTraitSet(), children);
+  }
+
+  @Override
+  public Prel visitProject(ProjectPrel project, Void value) throws RuntimeException {
+    Prel newProject = visitPrel(project, value);
+    if (newProject.getClass() != ProjectPrel.class
+        || project.isOutputProj()
+        || !(newProject.getInput(0) instanceof FilterPrel)) {
+      return newProject;
+    }
+    FilterPrel filter = (FilterPrel) newProject.getInput(0);
+    List<RexNode> projects = ((ProjectPrel) newProject).getProjects();
+    if (StarColumnHelper.containsStarColumn(newProject.getRowType())
+        || StarColumnHelper.containsStarColumnInProject(filter.getRowType(), projects)
+        || !isFusible(projects)) {
+      return newProject;
+    }
+    return new FilterProjectPrel(newProject.getCluster(), newProject.getTraitSet(), filter.getInput(),
+        filter.getCondition(), projects, newProject.getRowType());
+  }
+
+  private boolean isFusible(List<RexNode> projects) {
+    ComplexFunctionFinder finder = new ComplexFunctionFinder();
+    for (RexNode project : projects) {
+      project.accept(finder);
+    }
+    return !finder.found;
+  }
+
+  /**
+   * Looks for the functions whose output is written by a complex writer.
+   */
+  private class ComplexFunctionFinder extends RexVisitorImpl<Void> {
+    private boolean found;
+
+    ComplexFunctionFinder() {
+      super(true);
+    }
+
+    @Override
+    public Void visitCall(RexCall call) {
+      String name = call.getOperator().getName();
+      if (funcReg.isFunctionComplexOutput(name) || "flatten".equalsIgnoreCase(name)) {
+        found = true;
+      }
+      return super.visitCall(call);
+    }
+  }
+}
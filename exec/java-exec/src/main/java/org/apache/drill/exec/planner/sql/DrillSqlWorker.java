@@ -31,6 +31,7 @@ import org.apache.calcite.tools.RelConversionException;
 import org.apache.calcite.tools.ValidationException;
 import org.apache.drill.common.exceptions.UserException;
 import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.cache.result.ResultCache;
 import org.apache.drill.exec.exception.MetadataException;
 import org.apache.drill.exec.ops.QueryContext;
 import org.apache.drill.exec.ops.QueryContext.SqlStatementType;
@@ -54,6 +55,7 @@ import org.apache.drill.exec.planner.sql.parser.DrillSqlResetOption;
 import org.apache.drill.exec.planner.sql.parser.SqlSchema;
 import org.apache.drill.exec.planner.sql.conversion.SqlConverter;
 import org.apache.drill.exec.proto.UserBitShared.DrillPBError;
+import org.apache.drill.exec.store.dfs.FileListingCache;
 import org.apache.drill.exec.testing.ControlsInjector;
 import org.apache.drill.exec.testing.ControlsInjectorFactory;
 import org.apache.drill.exec.util.Pointer;
@@ -295,7 +297,77 @@ public class DrillSqlWorker {
       context.getOptions().setLocalOption(ExecConstants.RETURN_RESULT_SET_FOR_DDL, true);
     }
 
-    return handler.getPlan(sqlNode);
+    if (handler instanceof DefaultSqlHandler) {
+      final boolean cachePlan = QueryPlanCache.isCacheable(context, sqlNode);
+      final boolean cacheResult = ResultCache.isCacheable(context, sqlNode);
+      if (cachePlan || cacheResult) {
+        return getCachedPlan(context, sqlNode, (DefaultSqlHandler) handler, textPlan, cachePlan, cacheResult);
+      }
+    }
+    final boolean changesTables = sqlNode.getKind() != SqlKind.SET_OPTION
+        && (SqlKind.DDL.contains(sqlNode.getKind()) || sqlNode.getKind() == SqlKind.INSERT);
+    if (changesTables) {
+      // statements such as REFRESH TABLE METADATA work on the current files of tables
+      FileListingCache.invalidateAll();
+    }
+    final PhysicalPlan plan = handler.getPlan(sqlNode);
+    if (changesTables) {
+      // the statement may have changed tables, views or metadata that cached plans and results
+      // depend on, options are part of the cache key
+      context.getQueryPlanCache().invalidate();
+      context.getResultCache().invalidate();
+    }
+    return plan;
+  }
+
+  /**
+   * Returns the plan of a query from the {@link QueryPlanCache}, planning
+   * the query and caching its plan if it is not cached yet. When the result
+   * of the query is cached by the {@link ResultCache}, returns a plan reading
+   * the cached result instead, and otherwise makes the Foreman store the
+   * result of a deterministic query.
+   *
+   * @param context query context
+   * @param sqlNode parsed query
+   * @param handler handler planning the query
+   * @param textPlan text plan
+   * @param cachePlan whether the plan of the query may be cached
+   * @param cacheResult whether the result of the query may be cached
+   * @return query physical plan
+   */
+  private static PhysicalPlan getCachedPlan(QueryContext context, SqlNode sqlNode, DefaultSqlHandler handler,
+      Pointer<String> textPlan, boolean cachePlan, boolean cacheResult)
+      throws ForemanSetupException, RelConversionException, IOException, ValidationException {
+    final QueryPlanCache.Key key = QueryPlanCache.key(context, sqlNode);
+    if (key == null) {
+      return handler.getPlan(sqlNode);
+    }
+    final ResultCache resultCache = context.getResultCache();
+    if (cacheResult) {
+      final PhysicalPlan cachedResultPlan = resultCache.get(key, context, textPlan);
+      if (cachedResultPlan != null) {
+        logger.debug("Using cached query result");
+        return cachedResultPlan;
+      }
+    }
+    final QueryPlanCache planCache = context.getQueryPlanCache();
+    final Pointer<QueryPlanCache.QueryInputs> planInputs = new Pointer<>();
+    PhysicalPlan plan = cachePlan ? planCache.get(key, context, textPlan, planInputs) : null;
+    if (plan != null) {
+      logger.debug("Using cached query plan");
+    } else {
+      handler.setPlanInputs(planInputs);
+      plan = handler.getPlan(sqlNode);
+      // functions such as NOW() are folded into the plan while planning
+      if (cachePlan && planInputs.value != null && planInputs.value.isDeterministic()) {
+        planCache.put(key, context, plan, planInputs.value, textPlan);
+      }
+    }
+    if (cacheResult && planInputs.value != null && planInputs.value.isDeterministic()) {
+      context.setResultCacheWriter(resultCache.newWriter(key, planInputs.value,
+          textPlan == null ? null : textPlan.value, context.getQueryId()));
+    }
+    return plan;
   }
 
   private static boolean isAutoLimitShouldBeApplied(SqlNode sqlNode, int queryMaxRows) {
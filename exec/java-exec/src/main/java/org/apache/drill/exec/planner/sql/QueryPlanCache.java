@@ -0,0 +1,474 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.planner.sql;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelVisitor;
+import org.apache.calcite.rel.core.TableScan;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexShuttle;
+import org.apache.calcite.rex.RexSubQuery;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.SqlOperator;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.ops.QueryContext;
+import org.apache.drill.exec.physical.PhysicalPlan;
+import org.apache.drill.exec.planner.common.DrillRelOptUtil;
+import org.apache.drill.exec.planner.logical.DrillTable;
+import org.apache.drill.exec.server.options.OptionManager;
+import org.apache.drill.exec.server.options.OptionValue;
+import org.apache.drill.exec.store.dfs.DrillFileSystem;
+import org.apache.drill.exec.store.dfs.FileSystemPlugin;
+import org.apache.drill.exec.store.dfs.FormatSelection;
+import org.apache.drill.exec.util.DrillFileSystemUtil;
+import org.apache.drill.exec.util.ImpersonationUtil;
+import org.apache.drill.exec.util.Pointer;
+import org.apache.drill.metastore.operate.Metadata;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drillbit-wide cache of the physical plans of queries
+ * ({@link ExecConstants#QUERY_PLAN_CACHE_ENABLED}), so that dashboards
+ * sending the same statements over and over skip parsing-to-physical-plan
+ * conversion on the Drillbit that planned them before.
+ * <p>
+ * Plans are keyed by the normalized text of the parsed statement (so
+ * whitespace, comments and keyword case do not matter), the query user, the
+ * default schema, every option that is not at its default value, the
+ * function registry version and the Metastore version. Literals remain part
+ * of the key: Drill folds them into filter pushdown and partition pruning,
+ * so a plan is only valid for the literals it was planned with.
+ * <p>
+ * Queries calling functions whose result differs between queries, such as
+ * {@code NOW()} or {@code CURRENT_DATE}, are not cached, since Drill folds
+ * them into constants while planning.
+ * <p>
+ * Only queries reading nothing but file-based tables are cached. For every
+ * such table the cache records a digest of the listing of its selection root
+ * (paths, sizes and modification times) and re-lists it before reusing the
+ * plan, so that added, removed or rewritten files cause the query to be
+ * planned again. Changes the listing does not reveal, such as a view or a
+ * storage plugin changed through another Drillbit, are picked up when the
+ * plan expires ({@link ExecConstants#QUERY_PLAN_CACHE_TTL}); DDL statements
+ * planned on this Drillbit clear the cache right away.
+ * <p>
+ * Executions of prepared statements also use the cache when
+ * {@link ExecConstants#PREPARED_STATEMENT_CACHE_PLAN} is enabled, even when
+ * it is disabled for other queries. The statement handle only holds the query
+ * text, so executions of the same statement share the plan through the
+ * regular cache key.
+ * <p>
+ * Plans are stored serialized and read back for every use, since operators
+ * of a physical plan are modified while it is parallelized and can't be
+ * shared by concurrent queries.
+ */
+public class QueryPlanCache {
+  private static final Logger logger = LoggerFactory.getLogger(QueryPlanCache.class);
+
+  // Guarded by this; in access order, so the eldest entry is the least recently used
+  private final Map<Key, CachedPlan> plans = new LinkedHashMap<>(16, 0.75f, true);
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder stalePlans = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  /**
+   * Returns whether the plan of the given statement may be cached.
+   */
+  public static boolean isCacheable(QueryContext context, SqlNode sqlNode) {
+    OptionManager options = context.getOptions();
+    boolean enabled = options.getBoolean(ExecConstants.QUERY_PLAN_CACHE_ENABLED_KEY)
+        || context.isPreparedStatement() && options.getBoolean(ExecConstants.PREPARED_STATEMENT_CACHE_PLAN_KEY);
+    return enabled && sqlNode.getKind().belongsTo(SqlKind.QUERY);
+  }
+
+  /**
+   * Builds the cache key of the given statement.
+   *
+   * @return cache key, or null if the Metastore version could not be obtained
+   */
+  public static Key key(QueryContext context, SqlNode sqlNode) {
+    OptionManager options = context.getOptions();
+    // later option managers in the iteration (session, query) override the earlier ones
+    Map<String, Object> changedOptions = new TreeMap<>();
+    for (OptionValue option : options) {
+      if (option.scope != OptionValue.OptionScope.BOOT) {
+        changedOptions.put(option.name, option.getValue());
+      }
+    }
+    long metastoreVersion = -1;
+    if (options.getBoolean(ExecConstants.METASTORE_ENABLED)) {
+      try {
+        Metadata metadata = context.getMetastoreRegistry().get().tables().metadata();
+        metastoreVersion = metadata.supportsVersioning() ? metadata.version() : -1;
+      } catch (Exception e) {
+        logger.debug("Unable to get Metastore version, the plan will not be cached", e);
+        return null;
+      }
+    }
+    return new Key(sqlNode.toString(), context.getQueryUserName(), context.getSession().getDefaultSchemaPath(),
+        changedOptions, context.getDrillOperatorTable().getFunctionRegistryVersion(), metastoreVersion);
+  }
+
+  /**
+   * Returns a copy of the cached plan for the given key if it has not
+   * expired and the files it reads are unchanged.
+   *
+   * @param key cache key of the statement
+   * @param context query context
+   * @param textPlan receives the text of the cached plan, may be null
+   * @param inputs receives the inputs of the cached plan, may be null
+   * @return cached plan, or null if the statement must be planned
+   */
+  public PhysicalPlan get(Key key, QueryContext context, Pointer<String> textPlan, Pointer<QueryInputs> inputs) {
+    CachedPlan cached;
+    synchronized (this) {
+      cached = plans.get(key);
+    }
+    if (cached == null) {
+      misses.increment();
+      return null;
+    }
+    long ttlNanos = TimeUnit.SECONDS.toNanos(context.getOptions().getLong(ExecConstants.QUERY_PLAN_CACHE_TTL_KEY));
+    if (System.nanoTime() - cached.createdNanos >= ttlNanos || !cached.inputs.isUnchanged()) {
+      remove(key, cached);
+      stalePlans.increment();
+      misses.increment();
+      return null;
+    }
+    PhysicalPlan plan;
+    try {
+      plan = context.getDrillbitContext().getPlanReader().readPhysicalPlan(cached.planJson);
+    } catch (IOException e) {
+      logger.warn("Unable to read cached plan, the query will be planned again", e);
+      remove(key, cached);
+      misses.increment();
+      return null;
+    }
+    if (textPlan != null) {
+      textPlan.value = cached.textPlan;
+    }
+    if (inputs != null) {
+      inputs.value = cached.inputs;
+    }
+    hits.increment();
+    return plan;
+  }
+
+  /**
+   * Stores the plan of a statement.
+   *
+   * @param key cache key of the statement
+   * @param context query context
+   * @param plan physical plan of the statement
+   * @param inputs inputs of the plan, as returned by {@link #collectInputs(RelNode)}
+   * @param textPlan text of the plan, may be null
+   */
+  public void put(Key key, QueryContext context, PhysicalPlan plan, QueryInputs inputs,
+                  Pointer<String> textPlan) {
+    String planJson;
+    try {
+      planJson = plan.unparse(context.getLpPersistence().getMapper().writer());
+      // not every operator can be read back from its serialized form
+      context.getDrillbitContext().getPlanReader().readPhysicalPlan(planJson);
+    } catch (Exception e) {
+      logger.debug("Plan can not be serialized, it will not be cached", e);
+      return;
+    }
+    CachedPlan cached = new CachedPlan(planJson, textPlan == null ? null : textPlan.value, inputs);
+    long maxEntries = context.getOptions().getLong(ExecConstants.QUERY_PLAN_CACHE_MAX_ENTRIES_KEY);
+    synchronized (this) {
+      plans.put(key, cached);
+      Iterator<CachedPlan> eldest = plans.values().iterator();
+      while (plans.size() > maxEntries) {
+        eldest.next();
+        eldest.remove();
+        evictions.increment();
+      }
+    }
+  }
+
+  private synchronized void remove(Key key, CachedPlan cached) {
+    // another query may have already replaced the entry
+    plans.remove(key, cached);
+  }
+
+  /**
+   * Removes all cached plans, for example after a statement changed the
+   * tables, views or metadata plans depend on.
+   */
+  public void invalidate() {
+    synchronized (this) {
+      if (plans.isEmpty()) {
+        return;
+      }
+      plans.clear();
+    }
+    invalidations.increment();
+  }
+
+  /**
+   * Lists the files read by the given query with a digest of their current
+   * state, before the query is planned.
+   *
+   * @param rel query converted to relational algebra
+   * @return inputs of the query, or null if the query reads tables other
+   *         than file-based ones and can't be cached
+   */
+  public static QueryInputs collectInputs(RelNode rel) {
+    List<TableScan> scans = new ArrayList<>();
+    boolean[] deterministic = {true};
+    collect(rel, scans, deterministic);
+    List<PlanInput> inputs = new ArrayList<>();
+    for (TableScan scan : scans) {
+      DrillTable drillTable = DrillRelOptUtil.getDrillTable(scan);
+      if (drillTable == null || !(drillTable.getPlugin() instanceof FileSystemPlugin)
+          || !(drillTable.getSelection() instanceof FormatSelection)) {
+        return null;
+      }
+      PlanInput input = new PlanInput(ImpersonationUtil.resolveUserName(drillTable.getUserName()),
+          ((FileSystemPlugin) drillTable.getPlugin()).getFsConf(),
+          ((FormatSelection) drillTable.getSelection()).getSelection().getSelectionRoot());
+      try {
+        input.digest = input.currentDigest();
+      } catch (IOException e) {
+        logger.debug("Unable to list {}, the plan will not be cached", input.root, e);
+        return null;
+      }
+      inputs.add(input);
+    }
+    return new QueryInputs(inputs, deterministic[0]);
+  }
+
+  private static void collect(RelNode rel, List<TableScan> scans, boolean[] deterministic) {
+    new RelVisitor() {
+      @Override
+      public void visit(RelNode node, int ordinal, RelNode parent) {
+        if (node instanceof TableScan) {
+          scans.add((TableScan) node);
+        }
+        node.accept(new RexShuttle() {
+          @Override
+          public RexNode visitSubQuery(RexSubQuery subQuery) {
+            collect(subQuery.rel, scans, deterministic);
+            return subQuery;
+          }
+
+          @Override
+          public RexNode visitCall(RexCall call) {
+            if (!isDeterministic(call.getOperator())) {
+              deterministic[0] = false;
+            }
+            return super.visitCall(call);
+          }
+        });
+        super.visit(node, ordinal, parent);
+      }
+    }.go(rel);
+  }
+
+  /**
+   * Returns whether the function returns the same result for the same
+   * arguments in every query. Niladic functions such as {@code NOW()} or
+   * {@code CURRENT_USER} are evaluated once per query, but differ between
+   * queries.
+   */
+  private static boolean isDeterministic(SqlOperator operator) {
+    if (operator instanceof DrillCalciteSqlWrapper) {
+      operator = ((DrillCalciteSqlWrapper) operator).getOperator();
+    }
+    return operator.isDeterministic() && !operator.isDynamicFunction()
+        && !(operator instanceof DrillSqlOperator && ((DrillSqlOperator) operator).isNiladic());
+  }
+
+  public synchronized int size() {
+    return plans.size();
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getStalePlans() {
+    return stalePlans.sum();
+  }
+
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  public long getInvalidations() {
+    return invalidations.sum();
+  }
+
+  /**
+   * Identifies a statement along with everything its plan depends on other
+   * than the data it reads.
+   */
+  public static class Key {
+    private final String sql;
+    private final String userName;
+    private final String defaultSchema;
+    private final Map<String, Object> options;
+    private final int functionRegistryVersion;
+    private final long metastoreVersion;
+
+    Key(String sql, String userName, String defaultSchema, Map<String, Object> options,
+        int functionRegistryVersion, long metastoreVersion) {
+      this.sql = sql;
+      this.userName = userName;
+      this.defaultSchema = defaultSchema;
+      this.options = options;
+      this.functionRegistryVersion = functionRegistryVersion;
+      this.metastoreVersion = metastoreVersion;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return functionRegistryVersion == key.functionRegistryVersion
+          && metastoreVersion == key.metastoreVersion
+          && sql.equals(key.sql)
+          && Objects.equals(userName, key.userName)
+          && Objects.equals(defaultSchema, key.defaultSchema)
+          && options.equals(key.options);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(sql, userName, defaultSchema, options, functionRegistryVersion, metastoreVersion);
+    }
+  }
+
+  /**
+   * Files read by a query, with whether the query only calls functions
+   * whose result depends on nothing but their arguments.
+   */
+  public static class QueryInputs {
+    private final List<PlanInput> files;
+    private final boolean deterministic;
+
+    QueryInputs(List<PlanInput> files, boolean deterministic) {
+      this.files = files;
+      this.deterministic = deterministic;
+    }
+
+    public boolean isDeterministic() {
+      return deterministic;
+    }
+
+    /**
+     * Returns whether every file listing is the same as at planning time.
+     */
+    public boolean isUnchanged() {
+      for (PlanInput input : files) {
+        try {
+          if (!Arrays.equals(input.digest, input.currentDigest())) {
+            return false;
+          }
+        } catch (IOException e) {
+          logger.debug("Unable to list {}, the query will be planned again", input.root, e);
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Selection root of a file-based table read by a cached plan, with a
+   * digest of its listing at planning time.
+   */
+  public static class PlanInput {
+    private final String userName;
+    private final Configuration fsConf;
+    private final Path root;
+    private byte[] digest;
+
+    PlanInput(String userName, Configuration fsConf, Path root) {
+      this.userName = userName;
+      this.fsConf = fsConf;
+      this.root = root;
+    }
+
+    private byte[] currentDigest() throws IOException {
+      DrillFileSystem fs = ImpersonationUtil.createFileSystem(userName, fsConf);
+      List<FileStatus> statuses = DrillFileSystemUtil.listAll(fs, root, true);
+      statuses.sort(Comparator.comparing(FileStatus::getPath));
+      MessageDigest messageDigest;
+      try {
+        messageDigest = MessageDigest.getInstance("SHA-256");
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+      for (FileStatus status : statuses) {
+        messageDigest.update(status.getPath().toString().getBytes(StandardCharsets.UTF_8));
+        messageDigest.update(Long.toString(status.getLen()).getBytes(StandardCharsets.UTF_8));
+        messageDigest.update(Long.toString(status.getModificationTime()).getBytes(StandardCharsets.UTF_8));
+      }
+      return messageDigest.digest();
+    }
+  }
+
+  private static class CachedPlan {
+    private final String planJson;
+    private final String textPlan;
+    private final QueryInputs inputs;
+    private final long createdNanos = System.nanoTime();
+
+    CachedPlan(String planJson, String textPlan, QueryInputs inputs) {
+      this.planJson = planJson;
+      this.textPlan = textPlan;
+      this.inputs = inputs;
+    }
+  }
+}
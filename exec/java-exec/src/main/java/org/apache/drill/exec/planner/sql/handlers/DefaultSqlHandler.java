@@ -88,6 +88,7 @@ import org.apache.drill.exec.planner.physical.explain.PrelSequencer;
 import org.apache.drill.exec.planner.physical.visitor.AdjustOperatorsSchemaVisitor;
 import org.apache.drill.exec.planner.physical.visitor.ComplexToJsonPrelVisitor;
 import org.apache.drill.exec.planner.physical.visitor.ExcessiveExchangeIdentifier;
+import org.apache.drill.exec.planner.physical.visitor.FilterProjectFusionVisitor;
 import org.apache.drill.exec.planner.physical.visitor.FinalColumnReorderer;
 import org.apache.drill.exec.planner.physical.visitor.InsertLocalExchangeVisitor;
 import org.apache.drill.exec.planner.physical.visitor.LateralUnnestRowIDVisitor;
@@ -100,6 +101,7 @@ import org.apache.drill.exec.planner.physical.visitor.SplitUpComplexExpressions;
 import org.apache.drill.exec.planner.physical.visitor.StarColumnConverter;
 import org.apache.drill.exec.planner.physical.visitor.SwapHashJoinVisitor;
 import org.apache.drill.exec.planner.physical.visitor.TopProjectVisitor;
+import org.apache.drill.exec.planner.sql.QueryPlanCache;
 import org.apache.drill.exec.planner.sql.parser.FindLimit0SqlVisitor;
 import org.apache.drill.exec.planner.sql.parser.UnsupportedOperatorsVisitor;
 import org.apache.drill.exec.server.options.OptionManager;
@@ -120,6 +122,7 @@ public class DefaultSqlHandler extends AbstractSqlHandler {
   private final long targetSliceSize;
   protected final SqlHandlerConfig config;
   protected final QueryContext context;
+  private Pointer<QueryPlanCache.QueryInputs> planInputs;
 
   public DefaultSqlHandler(SqlHandlerConfig config) {
     this(config, null);
@@ -133,6 +136,17 @@ public class DefaultSqlHandler extends AbstractSqlHandler {
     this.targetSliceSize = config.getContext().getOptions().getOption(ExecConstants.SLICE_TARGET_OPTION);
   }
 
+  /**
+   * Makes {@link #getPlan(SqlNode)} list the files the query reads, so that
+   * its plan or results can be cached.
+   *
+   * @param planInputs receives the inputs of the query, or null if the
+   *                   query reads tables whose plan can't be cached
+   */
+  public void setPlanInputs(Pointer<QueryPlanCache.QueryInputs> planInputs) {
+    this.planInputs = planInputs;
+  }
+
   protected void log(final PlannerType plannerType, final PlannerPhase phase, final RelNode node, final Logger logger,
       Stopwatch watch) {
     if (logger.isDebugEnabled()) {
@@ -173,6 +187,9 @@ public class DefaultSqlHandler extends AbstractSqlHandler {
     final ConvertedRelNode convertedRelNode = validateAndConvert(sqlNode);
     final RelDataType validatedRowType = convertedRelNode.getValidatedRowType();
     final RelNode queryRelNode = convertedRelNode.getConvertedNode();
+    if (planInputs != null) {
+      planInputs.value = QueryPlanCache.collectInputs(queryRelNode);
+    }
 
     final DrillRel drel = convertToDrel(queryRelNode);
     final Prel prel = convertToPrel(drel, validatedRowType);
@@ -597,6 +614,14 @@ public class DefaultSqlHandler extends AbstractSqlHandler {
       phyRelNode = RuntimeFilterVisitor.addRuntimeFilter(phyRelNode, context);
     }
 
+    /*
+     * Fuse each Project over a Filter into a single operator if the option is set
+     */
+    if (context.getPlannerSettings().isFilterProjectFusionEnabled()) {
+      phyRelNode = FilterProjectFusionVisitor.fuseFilterProjects(phyRelNode,
+          context.getPlannerSettings().functionImplementationRegistry);
+    }
+
     /* 9.)
      * Next, we add any required selection vector removers given the supported encodings of each
      * operator. This will ultimately move to a new trait but we're managing here for now to avoid
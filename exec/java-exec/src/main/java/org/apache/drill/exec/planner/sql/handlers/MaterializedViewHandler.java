@@ -18,6 +18,11 @@
 package org.apache.drill.exec.planner.sql.handlers;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.calcite.avatica.util.Quoting;
 
 import org.apache.calcite.plan.RelTraitSet;
 import org.apache.calcite.rel.RelNode;
@@ -30,14 +35,17 @@ import org.apache.calcite.tools.RelConversionException;
 import org.apache.calcite.tools.ValidationException;
 import org.apache.drill.common.exceptions.UserException;
 import org.apache.drill.common.util.DrillStringUtils;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.dotdrill.MaterializedView;
 import org.apache.drill.exec.ops.QueryContext;
 import org.apache.drill.exec.physical.PhysicalPlan;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
 import org.apache.drill.exec.planner.logical.CreateTableEntry;
+import org.apache.drill.exec.planner.logical.DrillMaterializedViewTable;
 import org.apache.drill.exec.planner.logical.DrillRel;
 import org.apache.drill.exec.planner.logical.DrillScreenRel;
 import org.apache.drill.exec.planner.logical.DrillWriterRel;
+import org.apache.drill.exec.planner.logical.MaterializedViewCatalog;
 import org.apache.drill.exec.planner.physical.Prel;
 import org.apache.drill.exec.planner.sql.DirectPlan;
 import org.apache.drill.exec.planner.sql.SchemaUtilities;
@@ -48,6 +56,7 @@ import org.apache.drill.exec.planner.sql.parser.SqlRefreshMaterializedView;
 import org.apache.drill.exec.store.AbstractSchema;
 import org.apache.drill.exec.work.foreman.ForemanSetupException;
 import org.apache.drill.exec.work.foreman.SqlUnsupportedException;
+import org.apache.hadoop.fs.Path;
 
 /**
  * Handlers for materialized view DDL commands: CREATE, DROP, and REFRESH MATERIALIZED VIEW.
@@ -65,6 +74,21 @@ public abstract class MaterializedViewHandler extends DefaultSqlHandler {
     this.context = config.getContext();
   }
 
+  /**
+   * Records the current definition of a materialized view in the Drillbit's
+   * {@link MaterializedViewCatalog}, or removes the view if it no longer exists,
+   * so that query rewriting sees DDL changes without reloading the catalog.
+   */
+  protected void updateCatalog(AbstractSchema drillSchema, String viewName) throws IOException {
+    final MaterializedViewCatalog catalog = context.getMaterializedViewCatalog();
+    final MaterializedView materializedView = drillSchema.getMaterializedView(viewName);
+    if (materializedView == null) {
+      catalog.remove(drillSchema.getFullSchemaName(), viewName);
+    } else {
+      catalog.put(drillSchema.getFullSchemaName(), materializedView);
+    }
+  }
+
   /**
    * Handler for CREATE MATERIALIZED VIEW DDL command.
    * <p>
@@ -116,6 +140,7 @@ public abstract class MaterializedViewHandler extends DefaultSqlHandler {
 
       // Create the materialized view definition file
       final boolean replaced = drillSchema.createMaterializedView(materializedView);
+      updateCatalog(drillSchema, newViewName);
 
       String message = replaced
           ? String.format("Materialized view '%s' replaced successfully in '%s' schema", newViewName, schemaPath)
@@ -230,6 +255,7 @@ public abstract class MaterializedViewHandler extends DefaultSqlHandler {
 
       // Drop the materialized view (definition file and data directory)
       drillSchema.dropMaterializedView(viewName);
+      updateCatalog(drillSchema, viewName);
 
       return DirectPlan.createDirectPlan(context, true,
           String.format("Materialized view [%s] deleted successfully from schema [%s].", viewName, schemaPath));
@@ -241,6 +267,15 @@ public abstract class MaterializedViewHandler extends DefaultSqlHandler {
    * <p>
    * Re-executes the MV's defining query and writes the results to Parquet files
    * in the MV's data directory. Returns write statistics (like CTAS).
+   * <p>
+   * Views that {@link MaterializedViewIncrementalRefresh} supports record the
+   * source files they were computed from, and later refreshes only process
+   * the files added since, as long as no other source file changed.
+   * <p>
+   * The view is INCOMPLETE while its data is written, and is only marked
+   * COMPLETE, with its source files, once the write succeeded. A view left
+   * INCOMPLETE by a failed refresh is read from its definition, and the next
+   * refresh recomputes it fully.
    */
   public static class RefreshMaterializedView extends MaterializedViewHandler {
 
@@ -266,8 +301,8 @@ public abstract class MaterializedViewHandler extends DefaultSqlHandler {
             .build(logger);
       }
 
-      // Clear existing data directory and mark INCOMPLETE while refresh is in progress
-      drillSchema.refreshMaterializedView(viewName);
+      // The view query must read its sources, never this or another materialized view
+      context.getOptions().setLocalOption(ExecConstants.ENABLE_MATERIALIZED_VIEW_REWRITE_KEY, false);
 
       // Parse and validate the MV's SQL definition
       SqlNode mvQuery = config.getConverter().parse(materializedView.getSql());
@@ -275,25 +310,59 @@ public abstract class MaterializedViewHandler extends DefaultSqlHandler {
       final RelDataType validatedRowType = convertedRelNode.getValidatedRowType();
       final RelNode queryRelNode = convertedRelNode.getConvertedNode();
 
-      try {
-        // Get the writer entry for the MV data directory
-        CreateTableEntry createTableEntry = drillSchema.createMaterializedViewDataWriter(materializedView);
+      MaterializedViewIncrementalRefresh incrementalRefresh =
+          context.getOptions().getOption(ExecConstants.MATERIALIZED_VIEW_INCREMENTAL_REFRESH)
+              ? MaterializedViewIncrementalRefresh.analyze(queryRelNode)
+              : null;
+      Map<String, Long> sourceFiles = null;
+      if (incrementalRefresh != null) {
+        sourceFiles = incrementalRefresh.listSourceFiles();
+        if (sourceFiles.isEmpty()) {
+          incrementalRefresh = null;
+          sourceFiles = null;
+        }
+      }
 
-        // Convert to Drill logical plan with writer
-        DrillRel drel = convertToDrel(queryRelNode, createTableEntry, validatedRowType);
+      try {
+        if (incrementalRefresh != null
+            && materializedView.getRefreshStatus() == MaterializedView.RefreshStatus.COMPLETE
+            && materializedView.getSourceFiles() != null) {
+          List<String> newFiles = MaterializedViewIncrementalRefresh.newFiles(
+              materializedView.getSourceFiles(), sourceFiles);
+          if (newFiles != null) {
+            return planIncrementalRefresh(drillSchema, materializedView, incrementalRefresh,
+                sourceFiles, newFiles, validatedRowType);
+          }
+          logger.info("Source files of materialized view [{}] were modified or deleted, refreshing it fully",
+              viewName);
+        }
 
-        // Convert to physical plan
-        Prel prel = convertToPrel(drel, validatedRowType);
-        logAndSetTextPlan("Materialized View Refresh Physical", prel, logger);
+        // Clear existing data directory and mark INCOMPLETE while refresh is in progress
+        drillSchema.refreshMaterializedView(viewName);
+        updateCatalog(drillSchema, viewName);
 
-        PhysicalOperator pop = convertToPop(prel);
-        PhysicalPlan plan = convertToPlan(pop, queryRelNode);
+        // Read exactly the files that will be recorded for the next incremental refresh
+        final RelNode refreshRelNode = sourceFiles == null
+            ? queryRelNode
+            : incrementalRefresh.restrictTo(new ArrayList<>(sourceFiles.keySet()));
 
-        // Mark COMPLETE after the plan is successfully created.
-        // TODO: Ideally this should be called after plan execution completes
-        // via a post-execution callback, so that the status is only COMPLETE
-        // once data files are fully written.
-        drillSchema.completeMaterializedViewRefresh(viewName);
+        // Get the writer entry for the MV data directory
+        CreateTableEntry createTableEntry = drillSchema.createMaterializedViewDataWriter(materializedView);
+        PhysicalPlan plan = planWrite(refreshRelNode, createTableEntry, validatedRowType);
+
+        // Mark COMPLETE once the data files are fully written
+        final Map<String, Long> refreshedSourceFiles = sourceFiles;
+        context.addCompletionAction(() -> {
+          if (refreshedSourceFiles == null) {
+            drillSchema.completeMaterializedViewRefresh(viewName);
+          } else {
+            MaterializedView refreshed = drillSchema.getMaterializedView(viewName)
+                .withRefreshInfo(System.currentTimeMillis(), MaterializedView.RefreshStatus.COMPLETE);
+            refreshed.setSourceFiles(refreshedSourceFiles);
+            drillSchema.updateMaterializedView(refreshed);
+          }
+          updateCatalog(drillSchema, viewName);
+        });
 
         logger.info("Refreshing materialized view [{}] in schema [{}]", viewName, schemaPath);
         return plan;
@@ -305,6 +374,107 @@ public abstract class MaterializedViewHandler extends DefaultSqlHandler {
       }
     }
 
+    /**
+     * Plans a refresh that only processes the source files added since the
+     * last refresh. Rows of a filter/project view are written to a new
+     * sub-directory of the view data. Rows of an aggregate view are merged with
+     * the current view data into a new data directory, retiring the current one.
+     */
+    private PhysicalPlan planIncrementalRefresh(AbstractSchema drillSchema, MaterializedView materializedView,
+        MaterializedViewIncrementalRefresh incrementalRefresh, Map<String, Long> sourceFiles,
+        List<String> newFiles, RelDataType validatedRowType)
+        throws ValidationException, RelConversionException, IOException, ForemanSetupException,
+        SqlUnsupportedException {
+      final String viewName = materializedView.getName();
+      final long refreshTime = System.currentTimeMillis();
+      final MaterializedView refreshed = materializedView.withRefreshInfo(refreshTime,
+          MaterializedView.RefreshStatus.COMPLETE);
+      refreshed.setSourceFiles(sourceFiles);
+
+      if (newFiles.isEmpty()) {
+        drillSchema.updateMaterializedView(refreshed);
+        updateCatalog(drillSchema, viewName);
+        return DirectPlan.createDirectPlan(context, true,
+            String.format("Materialized view [%s] in schema [%s] is up to date with its source files.",
+                viewName, drillSchema.getFullSchemaName()));
+      }
+
+      final RelNode increment = incrementalRefresh.restrictTo(newFiles);
+      final RelNode refreshRelNode;
+      final MaterializedView dataTarget;
+      if (incrementalRefresh.isAggregate()) {
+        refreshed.setDataStoragePath(viewName + MaterializedView.DATA_DIR_SUFFIX + "_" + refreshTime);
+        refreshed.setRetiredDataStoragePath(materializedView.getDataStoragePath());
+        refreshRelNode = incrementalRefresh.merge(
+            convertViewDataScan(drillSchema, materializedView, validatedRowType), increment);
+        dataTarget = refreshed;
+      } else {
+        // the retired directory of an earlier refresh is deleted below
+        refreshed.setRetiredDataStoragePath(null);
+        refreshRelNode = increment;
+        dataTarget = materializedView.withRefreshInfo(refreshTime, MaterializedView.RefreshStatus.COMPLETE);
+        dataTarget.setDataStoragePath(materializedView.getDataStoragePath() + Path.SEPARATOR + "refresh_" + refreshTime);
+      }
+
+      PhysicalPlan plan = planWrite(refreshRelNode,
+          drillSchema.createMaterializedViewDataWriter(dataTarget), validatedRowType);
+
+      // Until the write succeeds the view is read from its definition, and a
+      // failed write makes the next refresh recompute it fully. The directory
+      // an aggregate view is written to is recorded as retired, so that this
+      // full refresh deletes it.
+      final MaterializedView inProgress = materializedView.withRefreshInfo(
+          materializedView.getLastRefreshTime(), MaterializedView.RefreshStatus.INCOMPLETE);
+      inProgress.setRetiredDataStoragePath(incrementalRefresh.isAggregate() ? refreshed.getDataStoragePath() : null);
+      drillSchema.updateMaterializedView(inProgress);
+      updateCatalog(drillSchema, viewName);
+
+      context.addCompletionAction(() -> {
+        drillSchema.updateMaterializedView(refreshed);
+        updateCatalog(drillSchema, viewName);
+      });
+
+      logger.info("Incrementally refreshing materialized view [{}] in schema [{}] from {} new files",
+          viewName, drillSchema.getFullSchemaName(), newFiles.size());
+      return plan;
+    }
+
+    /**
+     * Converts a scan of the current view data, with the columns the refresh
+     * writes.
+     */
+    private RelNode convertViewDataScan(AbstractSchema drillSchema, MaterializedView materializedView,
+        RelDataType validatedRowType) throws ValidationException, RelConversionException, ForemanSetupException {
+      Quoting quoting = context.getPlannerSettings().getQuotingIdentifiers();
+      StringBuilder scanSql = new StringBuilder("SELECT ");
+      List<String> fieldNames = validatedRowType.getFieldNames();
+      for (int i = 0; i < fieldNames.size(); i++) {
+        if (i > 0) {
+          scanSql.append(", ");
+        }
+        scanSql.append(DrillMaterializedViewTable.quoteIdentifier(quoting, fieldNames.get(i)));
+      }
+      scanSql.append(" FROM ");
+      for (String schemaName : drillSchema.getSchemaPath()) {
+        scanSql.append(DrillMaterializedViewTable.quoteIdentifier(quoting, schemaName)).append('.');
+      }
+      scanSql.append(DrillMaterializedViewTable.quoteIdentifier(quoting, materializedView.getDataStoragePath()));
+      return validateAndConvert(config.getConverter().parse(scanSql.toString())).getConvertedNode();
+    }
+
+    private PhysicalPlan planWrite(RelNode relNode, CreateTableEntry createTableEntry, RelDataType validatedRowType)
+        throws RelConversionException, IOException, SqlUnsupportedException {
+      // Convert to Drill logical plan with writer
+      DrillRel drel = convertToDrel(relNode, createTableEntry, validatedRowType);
+
+      // Convert to physical plan
+      Prel prel = convertToPrel(drel, validatedRowType);
+      logAndSetTextPlan("Materialized View Refresh Physical", prel, logger);
+
+      PhysicalOperator pop = convertToPop(prel);
+      return convertToPlan(pop, relNode);
+    }
+
     /**
      * Convert to Drill logical plan with a writer on top.
      */
@@ -0,0 +1,338 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.planner.sql.handlers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.calcite.prepare.RelOptTableImpl;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelShuttleImpl;
+import org.apache.calcite.rel.core.Aggregate;
+import org.apache.calcite.rel.core.AggregateCall;
+import org.apache.calcite.rel.core.Filter;
+import org.apache.calcite.rel.core.RelFactories;
+import org.apache.calcite.rel.core.Project;
+import org.apache.calcite.rel.core.TableScan;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rel.type.RelDataTypeField;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexOver;
+import org.apache.calcite.rex.RexUtil;
+import org.apache.calcite.sql.fun.SqlStdOperatorTable;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.tools.RelBuilder;
+import org.apache.drill.common.util.GuavaUtils;
+import org.apache.drill.exec.planner.logical.DrillTable;
+import org.apache.drill.exec.planner.logical.DrillTranslatableTable;
+import org.apache.drill.exec.planner.logical.DynamicDrillTable;
+import org.apache.drill.exec.planner.logical.SelectionBasedTableScan;
+import org.apache.drill.exec.store.dfs.DrillFileSystem;
+import org.apache.drill.exec.store.dfs.FileSelection;
+import org.apache.drill.exec.store.dfs.FileSystemPlugin;
+import org.apache.drill.exec.store.dfs.FormatSelection;
+import org.apache.drill.exec.util.ImpersonationUtil;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * Plans an incremental refresh of a materialized view whose data can be
+ * brought up to date from the source files added since the last refresh.
+ * <p>
+ * This applies to views over a single file-based table made of filters and
+ * projections, optionally topped by an aggregate whose functions can be
+ * re-aggregated (SUM, MIN, MAX and COUNT) and projections that only reorder
+ * or rename the aggregate's columns. Everything else, and any source change
+ * other than new files, is handled by a full refresh.
+ * <ul>
+ * <li>For a filter/project view, the view query is run over the new files
+ * only and its output is added to the view data.</li>
+ * <li>For an aggregate view, the view query is run over the new files and
+ * its output is merged with the existing view data by aggregating both again:
+ * sums are added, counts are summed, minimums and maximums are compared.</li>
+ * </ul>
+ */
+class MaterializedViewIncrementalRefresh {
+
+  private final RelNode queryRel;
+  private final SelectionBasedTableScan scan;
+  private final DrillTable table;
+  private final Aggregate aggregate;
+  // view column index to aggregate output index, null for views without aggregate
+  private final int[] aggregateColumns;
+
+  private MaterializedViewIncrementalRefresh(RelNode queryRel, SelectionBasedTableScan scan,
+                                             DrillTable table, Aggregate aggregate, int[] aggregateColumns) {
+    this.queryRel = queryRel;
+    this.scan = scan;
+    this.table = table;
+    this.aggregate = aggregate;
+    this.aggregateColumns = aggregateColumns;
+  }
+
+  /**
+   * Checks whether the view query can be refreshed incrementally.
+   *
+   * @param queryRel the converted view query
+   * @return the incremental refresh planner, or null if the view needs full refreshes
+   */
+  static MaterializedViewIncrementalRefresh analyze(RelNode queryRel) {
+    // Projections above the aggregate may only pick aggregate columns
+    int[] columns = identity(queryRel.getRowType().getFieldCount());
+    RelNode current = queryRel;
+    while (current instanceof Project && isColumnSelection((Project) current)) {
+      List<RexNode> projects = ((Project) current).getProjects();
+      int[] inputColumns = new int[columns.length];
+      for (int i = 0; i < columns.length; i++) {
+        inputColumns[i] = ((RexInputRef) projects.get(columns[i])).getIndex();
+      }
+      columns = inputColumns;
+      current = ((Project) current).getInput();
+    }
+
+    Aggregate aggregate = null;
+    if (current instanceof Aggregate) {
+      aggregate = (Aggregate) current;
+      if (!isMergeable(aggregate, columns)) {
+        return null;
+      }
+      current = aggregate.getInput();
+    } else {
+      current = queryRel;
+    }
+
+    while (current instanceof Project || current instanceof Filter) {
+      if (current instanceof Project
+          && (RexOver.containsOver(((Project) current).getProjects(), null)
+              || RexUtil.SubQueryFinder.containsSubQuery((Project) current))) {
+        return null;
+      }
+      if (current instanceof Filter && RexUtil.SubQueryFinder.containsSubQuery((Filter) current)) {
+        return null;
+      }
+      current = current.getInput(0);
+    }
+    if (!(current instanceof SelectionBasedTableScan)) {
+      return null;
+    }
+    DrillTable table = current.getTable().unwrap(DrillTable.class);
+    if (table == null
+        || !(table.getPlugin() instanceof FileSystemPlugin)
+        || !(table.getSelection() instanceof FormatSelection)) {
+      return null;
+    }
+    return new MaterializedViewIncrementalRefresh(queryRel, (SelectionBasedTableScan) current, table,
+        aggregate, aggregate == null ? null : columns);
+  }
+
+  private static boolean isColumnSelection(Project project) {
+    for (RexNode expr : project.getProjects()) {
+      if (!(expr instanceof RexInputRef)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isMergeable(Aggregate aggregate, int[] columns) {
+    if (aggregate.getGroupType() != Aggregate.Group.SIMPLE) {
+      return false;
+    }
+    for (AggregateCall call : aggregate.getAggCallList()) {
+      if (call.isDistinct() || call.hasFilter()) {
+        return false;
+      }
+      switch (call.getAggregation().getKind()) {
+        case SUM:
+        case SUM0:
+        case MIN:
+        case MAX:
+        case COUNT:
+          break;
+        default:
+          return false;
+      }
+    }
+    // every group key must be a view column to merge rows on
+    boolean[] keyInView = new boolean[aggregate.getGroupCount()];
+    for (int column : columns) {
+      if (column < keyInView.length) {
+        keyInView[column] = true;
+      }
+    }
+    for (boolean inView : keyInView) {
+      if (!inView) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  boolean isAggregate() {
+    return aggregate != null;
+  }
+
+  /**
+   * Lists the files currently making up the source table with their
+   * modification times.
+   *
+   * @return file path to modification time, empty if the table has no files
+   */
+  Map<String, Long> listSourceFiles() throws IOException {
+    FileSystemPlugin plugin = (FileSystemPlugin) table.getPlugin();
+    DrillFileSystem fs = ImpersonationUtil.createFileSystem(
+        ImpersonationUtil.resolveUserName(table.getUserName()), plugin.getFsConf());
+    FileSelection files = ((FormatSelection) table.getSelection()).getSelection().minusDirectories(fs);
+    Map<String, Long> sourceFiles = new HashMap<>();
+    if (files != null) {
+      for (FileStatus status : files.getFileStatuses()) {
+        sourceFiles.put(status.getPath().toString(), status.getModificationTime());
+      }
+    }
+    return sourceFiles;
+  }
+
+  /**
+   * Returns the files added since the last refresh, or null if a file read
+   * by the last refresh has since been modified or deleted, in which case
+   * the view data can no longer be updated incrementally.
+   */
+  static List<String> newFiles(Map<String, Long> refreshedFiles, Map<String, Long> currentFiles) {
+    for (Map.Entry<String, Long> refreshed : refreshedFiles.entrySet()) {
+      if (!refreshed.getValue().equals(currentFiles.get(refreshed.getKey()))) {
+        return null;
+      }
+    }
+    List<String> newFiles = new ArrayList<>();
+    for (String file : currentFiles.keySet()) {
+      if (!refreshedFiles.containsKey(file)) {
+        newFiles.add(file);
+      }
+    }
+    return newFiles;
+  }
+
+  /**
+   * Returns the view query reading only the given source files.
+   */
+  RelNode restrictTo(List<String> files) {
+    FormatSelection formatSelection = (FormatSelection) table.getSelection();
+    FileSelection selection = formatSelection.getSelection();
+    List<Path> paths = new ArrayList<>();
+    for (String file : files) {
+      paths.add(new Path(file));
+    }
+    // keep the table root so that partition directory columns keep their values
+    FileSelection newSelection = new FileSelection(null, paths, selection.getSelectionRoot());
+    newSelection.setExpandedFully();
+    FormatSelection newFormatSelection = new FormatSelection(formatSelection.getFormat(), newSelection);
+
+    DynamicDrillTable newDrillTable = new DynamicDrillTable(table.getPlugin(), table.getStorageEngineName(),
+        table.getUserName(), newFormatSelection, table.getMetadataProviderManager());
+    RelOptTableImpl newOptTable = RelOptTableImpl.create(scan.getTable().getRelOptSchema(),
+        scan.getTable().getRowType(), new DrillTranslatableTable(newDrillTable),
+        GuavaUtils.convertToUnshadedImmutableList(scan.getTable().getQualifiedName()));
+    TableScan newScan = SelectionBasedTableScan.create(scan.getCluster(), newOptTable, newSelection.toString());
+
+    return queryRel.accept(new RelShuttleImpl() {
+      @Override
+      public RelNode visit(TableScan tableScan) {
+        return tableScan == scan ? newScan : tableScan;
+      }
+    });
+  }
+
+  /**
+   * Merges the current view data with the view query over the new files by
+   * aggregating both again.
+   *
+   * @param viewData scan of the current view data, with the view's columns
+   * @param increment the view query restricted to the new files
+   * @return the merged view data, with the view's columns
+   */
+  RelNode merge(RelNode viewData, RelNode increment) {
+    RelBuilder builder = RelFactories.LOGICAL_BUILDER.create(increment.getCluster(), null);
+    List<RelDataTypeField> fields = increment.getRowType().getFieldList();
+
+    // view data is read with the types the file format reports, align them with the query
+    builder.push(viewData);
+    List<RexNode> casts = new ArrayList<>();
+    for (int i = 0; i < fields.size(); i++) {
+      RelDataType type = fields.get(i).getType();
+      RexNode field = builder.field(i);
+      casts.add(type.getSqlTypeName() == SqlTypeName.ANY || type.equals(field.getType())
+          ? field
+          : builder.getRexBuilder().makeCast(type, field, true));
+    }
+    builder.project(casts, increment.getRowType().getFieldNames(), true);
+    builder.push(increment);
+    builder.union(true, 2);
+
+    List<RexNode> keys = new ArrayList<>();
+    List<RelBuilder.AggCall> calls = new ArrayList<>();
+    // position of each view column in the output of the merging aggregate
+    int[] positions = new int[fields.size()];
+    int keyCount = aggregate.getGroupCount();
+    for (int i = 0; i < aggregateColumns.length; i++) {
+      if (aggregateColumns[i] < keyCount) {
+        positions[i] = keys.size();
+        keys.add(builder.field(i));
+      }
+    }
+    for (int i = 0; i < aggregateColumns.length; i++) {
+      if (aggregateColumns[i] >= keyCount) {
+        positions[i] = -1 - calls.size();
+        calls.add(mergeCall(builder, aggregate.getAggCallList().get(aggregateColumns[i] - keyCount), i));
+      }
+    }
+    builder.aggregate(builder.groupKey(keys), calls);
+
+    List<RexNode> output = new ArrayList<>();
+    for (int position : positions) {
+      output.add(builder.field(position >= 0 ? position : keys.size() - 1 - position));
+    }
+    builder.project(output, increment.getRowType().getFieldNames(), true);
+    return builder.build();
+  }
+
+  private static RelBuilder.AggCall mergeCall(RelBuilder builder, AggregateCall call, int column) {
+    switch (call.getAggregation().getKind()) {
+      case MIN:
+        return builder.min(builder.field(column));
+      case MAX:
+        return builder.max(builder.field(column));
+      case COUNT:
+      case SUM0:
+        return builder.aggregateCall(SqlStdOperatorTable.SUM0, builder.field(column));
+      default:
+        return builder.sum(builder.field(column));
+    }
+  }
+
+  private static int[] identity(int count) {
+    int[] columns = new int[count];
+    for (int i = 0; i < count; i++) {
+      columns[i] = i;
+    }
+    return columns;
+  }
+}
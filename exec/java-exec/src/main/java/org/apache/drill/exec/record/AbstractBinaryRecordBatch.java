@@ -51,7 +51,9 @@ public abstract class AbstractBinaryRecordBatch<T extends PhysicalOperator> exte
     OUTPUT_BATCH_COUNT,
     AVG_OUTPUT_BATCH_BYTES,
     AVG_OUTPUT_ROW_BYTES,
-    OUTPUT_RECORD_COUNT;
+    OUTPUT_RECORD_COUNT,
+    ADAPTIVE_OUTPUT_BATCH_BYTES,
+    ADAPTIVE_BATCH_SIZE_CHANGES;
 
     @Override
     public int metricId() {
@@ -129,6 +131,7 @@ public abstract class AbstractBinaryRecordBatch<T extends PhysicalOperator> exte
     stats.setLongStat(Metric.AVG_OUTPUT_BATCH_BYTES, batchMemoryManager.getAvgOutputBatchSize());
     stats.setLongStat(Metric.AVG_OUTPUT_ROW_BYTES, batchMemoryManager.getAvgOutputRowWidth());
     stats.setLongStat(Metric.OUTPUT_RECORD_COUNT, batchMemoryManager.getTotalOutputRecords());
+    updateAdaptiveBatchSizeStats(Metric.ADAPTIVE_OUTPUT_BATCH_BYTES, Metric.ADAPTIVE_BATCH_SIZE_CHANGES);
   }
 
   @Override
@@ -25,6 +25,7 @@ import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.exception.OutOfMemoryException;
 import org.apache.drill.exec.exception.SchemaChangeException;
 import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.ops.MetricDef;
 import org.apache.drill.exec.ops.OperatorContext;
 import org.apache.drill.exec.ops.OperatorStats;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
@@ -51,6 +52,9 @@ public abstract class AbstractRecordBatch<T extends PhysicalOperator> implements
   // during the method's execution a value IterOutcome.STOP will be assigned.
   private IterOutcome lastOutcome;
 
+  // Only set for operators that size their output batches adaptively
+  private AdaptiveBatchSizer adaptiveBatchSizer;
+
   protected AbstractRecordBatch(final T popConfig, final FragmentContext context) throws OutOfMemoryException {
     this(popConfig, context, true, context.newOperatorContext(popConfig));
   }
@@ -138,6 +142,9 @@ public abstract class AbstractRecordBatch<T extends PhysicalOperator> implements
   public final IterOutcome next() {
     try {
       stats.startProcessing();
+      if (adaptiveBatchSizer != null) {
+        adaptiveBatchSizer.nextRequested();
+      }
       switch (state) {
         case BUILD_SCHEMA: {
           buildSchema();
@@ -160,6 +167,9 @@ public abstract class AbstractRecordBatch<T extends PhysicalOperator> implements
           lastOutcome = innerNext();
           break;
       }
+      if (adaptiveBatchSizer != null && (lastOutcome == IterOutcome.OK || lastOutcome == IterOutcome.EMIT)) {
+        adaptiveBatchSizer.batchReturned(getRecordCount());
+      }
       return lastOutcome;
     } finally {
       stats.stopProcessing();
@@ -168,6 +178,33 @@ public abstract class AbstractRecordBatch<T extends PhysicalOperator> implements
 
   public abstract IterOutcome innerNext();
 
+  /**
+   * Returns the sizer that tunes the output batch size of this operator,
+   * creating it on first use, or {@code null} if adaptive batch sizing is
+   * disabled. Once created, {@link #next()} reports to it when each batch is
+   * returned and when downstream asks for the next one.
+   *
+   * @param configuredBatchSize static output batch size, used as upper bound
+   */
+  protected AdaptiveBatchSizer getAdaptiveBatchSizer(int configuredBatchSize) {
+    if (adaptiveBatchSizer == null && context.getOptions().getBoolean(ExecConstants.ADAPTIVE_BATCH_SIZE)) {
+      int minBatchSize = (int) context.getOptions().getLong(ExecConstants.ADAPTIVE_BATCH_MIN_SIZE);
+      adaptiveBatchSizer = new AdaptiveBatchSizer(oContext.getAllocator(), minBatchSize, configuredBatchSize);
+    }
+    return adaptiveBatchSizer;
+  }
+
+  /**
+   * Records the output batch size chosen by the adaptive batch sizer, if any,
+   * in the operator profile.
+   */
+  protected void updateAdaptiveBatchSizeStats(MetricDef batchBytesMetric, MetricDef changesMetric) {
+    if (adaptiveBatchSizer != null) {
+      stats.setLongStat(batchBytesMetric, adaptiveBatchSizer.getCurrentBatchSize());
+      stats.setLongStat(changesMetric, adaptiveBatchSizer.getAdjustmentCount());
+    }
+  }
+
   @Override
   public BatchSchema getSchema() {
     if (container.hasSchema()) {
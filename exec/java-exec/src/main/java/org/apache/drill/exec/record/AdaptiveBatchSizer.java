@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.record;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.drill.exec.memory.BufferAllocator;
+
+/**
+ * Tunes the output batch size of a streaming operator at run time
+ * ({@link org.apache.drill.exec.ExecConstants#ADAPTIVE_BATCH_SIZE}).
+ * <p>
+ * The best batch size depends on the row width and on what the downstream
+ * operators do with each batch: narrow rows in large batches amortize the
+ * per-batch overhead, while large batches of wide rows no longer fit in the
+ * CPU caches and every downstream pass over them goes to main memory. Instead
+ * of guessing, the sizer measures the time downstream spends per row between
+ * the moment a batch is returned and the moment the next batch is requested,
+ * and walks the batch size up or down in powers of two towards the size with
+ * the lowest per-row cost:
+ * <ul>
+ * <li>if the last step raised the per-row cost, turn around,</li>
+ * <li>otherwise take another step in the same direction, so that a plateau
+ * does not hide a drop in cost further on,</li>
+ * <li>at the smallest or largest allowed size, turn around as well, so the
+ * sizer keeps probing when the workload changes.</li>
+ * </ul>
+ * The size stays between the configured minimum and the static output batch
+ * size, and is further capped to a fraction of the memory the operator still
+ * has left, so a tight memory limit shrinks the batches before allocations
+ * start to fail.
+ * <p>
+ * The chosen size is consumed through
+ * {@link RecordBatchMemoryManager#getOutputBatchSize()}, which operators
+ * already use to derive their output row count from the row width.
+ */
+public class AdaptiveBatchSizer {
+
+  // Number of batches measured before each adjustment
+  public static final int SAMPLE_BATCHES = 4;
+  // Relative change of the per-row cost below which two sizes count as equal
+  private static final double TOLERANCE = 0.05;
+  // A single output batch may use at most this fraction of the remaining memory
+  private static final int HEADROOM_FRACTION = 4;
+
+  private final BufferAllocator allocator;
+  private final int minBatchSize;
+  private final int maxBatchSize;
+
+  private int targetBatchSize;
+  // Last size handed out, after the memory cap
+  private int currentBatchSize;
+  private boolean shrinking = true;
+  private double lastCostPerRow = -1;
+
+  private long sampleNanos;
+  private long sampleRows;
+  private int sampleBatches;
+
+  private long returnedAt;
+  private int returnedRows;
+
+  private int adjustmentCount;
+
+  public AdaptiveBatchSizer(BufferAllocator allocator, int minBatchSize, int maxBatchSize) {
+    this.allocator = allocator;
+    this.maxBatchSize = maxBatchSize;
+    this.minBatchSize = Math.min(minBatchSize, maxBatchSize);
+    this.targetBatchSize = maxBatchSize;
+    this.currentBatchSize = maxBatchSize;
+  }
+
+  /**
+   * Called when the operator hands a batch to its downstream operator.
+   */
+  public void batchReturned(int rowCount) {
+    if (rowCount > 0) {
+      returnedAt = System.nanoTime();
+      returnedRows = rowCount;
+    }
+  }
+
+  /**
+   * Called when the downstream operator asks for the next batch, that is
+   * once it is done with the previous one.
+   */
+  public void nextRequested() {
+    if (returnedRows > 0) {
+      recordDownstreamTime(System.nanoTime() - returnedAt, returnedRows);
+      returnedRows = 0;
+    }
+  }
+
+  @VisibleForTesting
+  void recordDownstreamTime(long nanos, int rowCount) {
+    sampleNanos += nanos;
+    sampleRows += rowCount;
+    if (++sampleBatches >= SAMPLE_BATCHES) {
+      adjust((double) sampleNanos / sampleRows);
+      sampleNanos = 0;
+      sampleRows = 0;
+      sampleBatches = 0;
+    }
+  }
+
+  private void adjust(double costPerRow) {
+    if (lastCostPerRow >= 0 && costPerRow > lastCostPerRow * (1 + TOLERANCE)) {
+      shrinking = !shrinking;
+    }
+    lastCostPerRow = costPerRow;
+
+    int newSize = nextSize();
+    if (newSize == targetBatchSize) {
+      shrinking = !shrinking;
+      newSize = nextSize();
+    }
+    if (newSize != targetBatchSize) {
+      targetBatchSize = newSize;
+      adjustmentCount++;
+    }
+  }
+
+  private int nextSize() {
+    return shrinking
+        ? Math.max(minBatchSize, targetBatchSize / 2)
+        : (int) Math.min((long) targetBatchSize * 2, maxBatchSize);
+  }
+
+  /**
+   * Returns the output batch size in bytes to use for the next output batch.
+   */
+  public int getTargetBatchSize() {
+    long headroom = allocator.getLimit() - allocator.getAllocatedMemory();
+    long cap = Math.max(minBatchSize, headroom / HEADROOM_FRACTION);
+    currentBatchSize = (int) Math.min(targetBatchSize, cap);
+    return currentBatchSize;
+  }
+
+  /**
+   * Returns the batch size last returned by {@link #getTargetBatchSize()}, for the operator profile.
+   */
+  public int getCurrentBatchSize() {
+    return currentBatchSize;
+  }
+
+  /**
+   * Returns the number of times the batch size was changed, for the operator profile.
+   */
+  public int getAdjustmentCount() {
+    return adjustmentCount;
+  }
+}
@@ -79,10 +79,13 @@ public class JoinBatchMemoryManager extends RecordBatchMemoryManager {
     // Get final net outgoing row width after reducing the excluded columns width
     int newOutgoingRowWidth = rowWidth[LEFT_INDEX] + rowWidth[RIGHT_INDEX];
 
-    // If outgoing row width is 0 or there is no change in outgoing row width, just return.
+    final int configOutputBatchSize = getOutputBatchSize();
+
+    // If outgoing row width is 0 or there is no change in outgoing row width and target batch size, just return.
     // This is possible for empty batches or
     // when first set of batches come with OK_NEW_SCHEMA and no data.
-    if (newOutgoingRowWidth == 0 || newOutgoingRowWidth == getOutgoingRowWidth()) {
+    if (newOutgoingRowWidth == 0 || (newOutgoingRowWidth == getOutgoingRowWidth()
+        && configOutputBatchSize == getOutputRowCountBatchSize())) {
       return;
     }
 
@@ -91,7 +94,6 @@ public class JoinBatchMemoryManager extends RecordBatchMemoryManager {
     final int previousOutgoingWidth = getOutgoingRowWidth();
     final long memoryUsed = outputPosition * previousOutgoingWidth;
 
-    final int configOutputBatchSize = getOutputBatchSize();
     // This is the remaining memory.
     final long remainingMemory = Math.max(configOutputBatchSize - memoryUsed, 0);
 
@@ -35,7 +35,10 @@ public class RecordBatchMemoryManager {
   // the incoming rows become wide, then less (than planned) would fit into the remaining current allocated memory)
   private int currentOutgoingMaxRowCount = MAX_NUM_ROWS;
   private int outgoingRowWidth;
+  // output batch size the current outputRowCount was computed for; it changes with the adaptive batch sizer
+  private int outputRowCountBatchSize;
   private final int outputBatchSize;
+  private AdaptiveBatchSizer adaptiveBatchSizer;
   private final RecordBatchSizer[] sizer;
   private final BatchStats[] inputBatchStats;
   private final BatchStats outputBatchStats;
@@ -188,13 +191,15 @@ public class RecordBatchMemoryManager {
     // for small variations in row width.
     // If row width changes, calculate actual adjusted row count i.e. row count
     // rounded down to nearest power of two and do nothing if that does not change.
-    if (newOutgoingRowWidth == outgoingRowWidth ||
-      computeOutputRowCount(outputBatchSize, newOutgoingRowWidth) == computeOutputRowCount(outputBatchSize, outgoingRowWidth)) {
+    // A new target batch size (see AdaptiveBatchSizer) always needs the row count to be recomputed.
+    int batchSize = getOutputBatchSize();
+    if (batchSize == outputRowCountBatchSize && (newOutgoingRowWidth == outgoingRowWidth ||
+      computeOutputRowCount(batchSize, newOutgoingRowWidth) == computeOutputRowCount(batchSize, outgoingRowWidth))) {
       return false;
     }
 
     // Set number of rows in outgoing batch. This number will be used for new batch creation.
-    setOutputRowCount(outputBatchSize, newOutgoingRowWidth);
+    setOutputRowCount(batchSize, newOutgoingRowWidth);
     setOutgoingRowWidth(newOutgoingRowWidth);
     return true;
   }
@@ -219,6 +224,7 @@ public class RecordBatchMemoryManager {
    */
   public void setOutputRowCount(int targetBatchSize, int rowWidth) {
     this.outputRowCount = adjustOutputRowCount(RecordBatchSizer.safeDivide(targetBatchSize, rowWidth));
+    this.outputRowCountBatchSize = targetBatchSize;
   }
 
   public void setOutputRowCount(int outputRowCount) {
@@ -256,6 +262,13 @@ public class RecordBatchMemoryManager {
     return outgoingRowWidth;
   }
 
+  /**
+   * Returns the output batch size the current output row count was computed for.
+   */
+  public int getOutputRowCountBatchSize() {
+    return outputRowCountBatchSize;
+  }
+
   public void setRecordBatchSizer(int index, RecordBatchSizer sizer) {
     Preconditions.checkArgument(index >= 0 && index < numInputs);
     this.sizer[index] = sizer;
@@ -312,8 +325,20 @@ public class RecordBatchMemoryManager {
     outputBatchStats.incSumBatchSizes(outgoingRowWidth * outputRecords);
   }
 
+  /**
+   * Returns the target size in bytes of an output batch: the configured size, or
+   * the size currently chosen by the adaptive batch sizer if the operator has one.
+   */
   public int getOutputBatchSize() {
-    return outputBatchSize;
+    return adaptiveBatchSizer == null ? outputBatchSize : adaptiveBatchSizer.getTargetBatchSize();
+  }
+
+  public void setAdaptiveBatchSizer(AdaptiveBatchSizer adaptiveBatchSizer) {
+    this.adaptiveBatchSizer = adaptiveBatchSizer;
+  }
+
+  public AdaptiveBatchSizer getAdaptiveBatchSizer() {
+    return adaptiveBatchSizer;
   }
 
   public int getOffsetVectorWidth() {
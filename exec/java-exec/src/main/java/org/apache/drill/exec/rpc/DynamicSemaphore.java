@@ -17,6 +17,7 @@
  */
 package org.apache.drill.exec.rpc;
 
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
@@ -45,8 +46,25 @@ public class DynamicSemaphore {
 
     }
 
+    /**
+     * Acquires a credit, blocking until one is available. The wait goes through
+     * {@link ForkJoinPool#managedBlock} so that a cooperative fragment scheduler
+     * worker blocked on credits is compensated by the pool; on other threads it
+     * is a plain blocking acquire.
+     */
     public void acquire() throws InterruptedException {
-        semaphore.acquire();
+        ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+            @Override
+            public boolean block() throws InterruptedException {
+                semaphore.acquire();
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                return semaphore.tryAcquire();
+            }
+        });
     }
 
     public void release() {
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.serialization;
+
+import java.io.IOException;
+
+import io.protostuff.JsonIOUtil;
+import io.protostuff.LinkedBuffer;
+import io.protostuff.ProtobufIOUtil;
+import io.protostuff.Schema;
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.protobuf.Message;
+
+/**
+ * Serializes protobuf messages in the compact protobuf wire format rather than
+ * JSON. Values written as JSON by {@link ProtoSerializer} are still readable,
+ * so a store can switch to this serializer without migrating existing data.
+ */
+public class BinaryProtoSerializer<T, B extends Message.Builder> implements InstanceSerializer<T> {
+  private final Schema<B> readSchema;
+  private final Schema<T> writeSchema;
+
+  public BinaryProtoSerializer(final Schema<B> readSchema, final Schema<T> writeSchema) {
+    this.readSchema = Preconditions.checkNotNull(readSchema);
+    this.writeSchema = Preconditions.checkNotNull(writeSchema);
+  }
+
+  @Override
+  public T deserialize(final byte[] raw) throws IOException {
+    final B builder = readSchema.newMessage();
+    if (isJson(raw)) {
+      JsonIOUtil.mergeFrom(raw, builder, readSchema, false);
+    } else {
+      ProtobufIOUtil.mergeFrom(raw, builder, readSchema);
+    }
+    return (T) builder.build();
+  }
+
+  @Override
+  public byte[] serialize(final T instance) throws IOException {
+    return ProtobufIOUtil.toByteArray(instance, writeSchema, LinkedBuffer.allocate());
+  }
+
+  /**
+   * JSON written by {@link ProtoSerializer} always starts with '{', which as the
+   * first byte of a protobuf message would be a group start tag. Drill's
+   * messages do not use groups. Only the first byte is checked: whitespace
+   * bytes are valid protobuf tags, so skipping them could misread a binary value.
+   */
+  private static boolean isJson(final byte[] raw) {
+    return raw.length > 0 && raw[0] == '{';
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(readSchema, writeSchema);
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (obj instanceof BinaryProtoSerializer && obj.getClass().equals(getClass())) {
+      final BinaryProtoSerializer<T, B> other = (BinaryProtoSerializer<T, B>) obj;
+      return Objects.equal(readSchema, other.readSchema) && Objects.equal(writeSchema, other.writeSchema);
+    }
+    return false;
+  }
+}
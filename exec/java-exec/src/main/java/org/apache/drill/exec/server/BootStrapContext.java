@@ -43,6 +43,7 @@ import org.apache.drill.exec.rpc.TransportCheck;
 import org.apache.drill.exec.rpc.security.AuthenticatorProvider;
 import org.apache.drill.exec.rpc.security.AuthenticatorProviderImpl;
 import org.apache.drill.exec.server.options.OptionDefinition;
+import org.apache.drill.exec.work.fragment.FragmentScheduler;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.CommonConfigurationKeys;
 import org.apache.hadoop.security.UserGroupInformation;
@@ -72,6 +73,7 @@ public class BootStrapContext implements AutoCloseable {
   private final ExecutorService executor;
   private final ExecutorService scanExecutor;
   private final ExecutorService scanDecodeExecutor;
+  private final FragmentScheduler fragmentScheduler;
   private final String hostName;
 
   public BootStrapContext(DrillConfig config, CaseInsensitiveMap<OptionDefinition> definitions,
@@ -114,6 +116,8 @@ public class BootStrapContext implements AutoCloseable {
     this.scanExecutor = Executors.newFixedThreadPool(scanThreadPoolSize, new NamedThreadFactory("scan-"));
     this.scanDecodeExecutor =
         Executors.newFixedThreadPool(scanDecodeThreadPoolSize, new NamedThreadFactory("scan-decode-"));
+    this.fragmentScheduler = config.getBoolean(ExecConstants.FRAGMENT_SCHEDULER_COOPERATIVE) ?
+        new FragmentScheduler(config) : null;
   }
 
   private void login(final DrillConfig config) throws DrillbitStartupException {
@@ -189,6 +193,14 @@ public class BootStrapContext implements AutoCloseable {
     return scanDecodeExecutor;
   }
 
+  /**
+   * Returns the scheduler that runs fragments in cooperative mode, or null
+   * when every fragment runs on its own thread from {@link #getExecutor()}.
+   */
+  public FragmentScheduler getFragmentScheduler() {
+    return fragmentScheduler;
+  }
+
   public DrillConfig getConfig() {
     return config;
   }
@@ -262,6 +274,10 @@ public class BootStrapContext implements AutoCloseable {
       scanDecodeExecutor.shutdownNow();
     }
 
+    if (fragmentScheduler != null) {
+      fragmentScheduler.close();
+    }
+
     try {
       AutoCloseables.close(allocator, authProvider);
       shutdown(controlLoopGroup);
@@ -316,9 +316,12 @@ public class Drillbit implements AutoCloseable {
     }
 
     try {
+      // profiles still being written asynchronously must reach the store before it closes
+      DrillbitContext drillbitContext = manager.getContext();
       AutoCloseables.close(
           webServer,
           engine,
+          drillbitContext == null ? null : drillbitContext.getProfileStoreContext(),
           storeProvider,
           coord,
           manager,
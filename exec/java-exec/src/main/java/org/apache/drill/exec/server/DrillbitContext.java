@@ -24,15 +24,19 @@ import org.apache.drill.common.config.LogicalPlanPersistence;
 import org.apache.drill.common.scanner.persistence.ScanResult;
 import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.alias.AliasRegistryProvider;
+import org.apache.drill.exec.cache.result.ResultCache;
 import org.apache.drill.exec.compile.CodeCompiler;
 import org.apache.drill.exec.coord.ClusterCoordinator;
 import org.apache.drill.exec.expr.fn.FunctionImplementationRegistry;
+import org.apache.drill.exec.expr.fn.impl.PatternCache;
 import org.apache.drill.exec.expr.fn.registry.RemoteFunctionRegistry;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.metrics.DrillCounters;
 import org.apache.drill.exec.oauth.OAuthTokenProvider;
 import org.apache.drill.exec.physical.impl.OperatorCreatorRegistry;
 import org.apache.drill.exec.planner.PhysicalPlanReader;
+import org.apache.drill.exec.planner.logical.MaterializedViewCatalog;
+import org.apache.drill.exec.planner.sql.QueryPlanCache;
 import org.apache.drill.exec.planner.sql.DrillOperatorTable;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
 import org.apache.drill.exec.rpc.control.Controller;
@@ -47,9 +51,12 @@ import org.apache.drill.exec.schema.daffodil.RemoteDaffodilSchemaRegistry;
 import org.apache.drill.exec.server.options.SystemOptionManager;
 import org.apache.drill.exec.store.SchemaFactory;
 import org.apache.drill.exec.store.StoragePluginRegistry;
+import org.apache.drill.exec.store.dfs.FileListingCache;
+import org.apache.drill.exec.store.parquet.ParquetFooterCache;
 import org.apache.drill.exec.store.sys.PersistentStoreProvider;
 import org.apache.drill.exec.work.foreman.rm.ResourceManager;
 import org.apache.drill.exec.work.foreman.rm.ResourceManagerBuilder;
+import org.apache.drill.exec.work.fragment.FragmentScheduler;
 import org.apache.drill.metastore.MetastoreRegistry;
 
 import java.util.Collection;
@@ -83,6 +90,9 @@ public class DrillbitContext implements AutoCloseable {
   private final QueryProfileStoreContext profileStoreContext;
   private ResourceManager resourceManager;
   private final MetastoreRegistry metastoreRegistry;
+  private final MaterializedViewCatalog materializedViewCatalog;
+  private final QueryPlanCache queryPlanCache;
+  private final ResultCache resultCache;
   private final DrillCounters counters;
   private final DaffodilSchemaProvider daffodilSchemaProvider;
 
@@ -133,6 +143,13 @@ public class DrillbitContext implements AutoCloseable {
     //This profile store context is built from the profileStoreProvider
     profileStoreContext = new QueryProfileStoreContext(config, profileStoreProvider, coord);
     this.metastoreRegistry = new MetastoreRegistry(config);
+    this.materializedViewCatalog = new MaterializedViewCatalog();
+    this.queryPlanCache = new QueryPlanCache();
+    this.resultCache = new ResultCache(config, endpoint);
+    // Parquet footers are read through static helpers, so their cache is process-wide
+    ParquetFooterCache.configure(config);
+    FileListingCache.configure(config);
+    PatternCache.configure(config);
     this.aliasRegistryProvider = new AliasRegistryProvider(this);
     this.oAuthTokenProvider = new OAuthTokenProvider(this);
 
@@ -277,6 +294,9 @@ public class DrillbitContext implements AutoCloseable {
   public ExecutorService getScanDecodeExecutor() {
     return context.getScanDecodeExecutor();
   }
+  public FragmentScheduler getFragmentScheduler() {
+    return context.getFragmentScheduler();
+  }
 
   public LogicalPlanPersistence getLpPersistence() {
     return lpPersistence;
@@ -333,6 +353,7 @@ public class DrillbitContext implements AutoCloseable {
     getAliasRegistryProvider().close();
     getOauthTokenProvider().close();
     getDaffodilSchemaProvider().close();
+    getResultCache().close();
   }
 
   public ResourceManager getResourceManager() {
@@ -343,6 +364,18 @@ public class DrillbitContext implements AutoCloseable {
     return metastoreRegistry;
   }
 
+  public MaterializedViewCatalog getMaterializedViewCatalog() {
+    return materializedViewCatalog;
+  }
+
+  public QueryPlanCache getQueryPlanCache() {
+    return queryPlanCache;
+  }
+
+  public ResultCache getResultCache() {
+    return resultCache;
+  }
+
   public DrillCounters getCounters() {
     return counters;
   }
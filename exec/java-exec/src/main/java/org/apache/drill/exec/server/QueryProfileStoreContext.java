@@ -17,8 +17,19 @@
  */
 package org.apache.drill.exec.server;
 
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
 import org.apache.drill.common.config.DrillConfig;
 import org.apache.drill.common.exceptions.DrillRuntimeException;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.coord.ClusterCoordinator;
 import org.apache.drill.exec.coord.store.TransientStore;
 import org.apache.drill.exec.coord.store.TransientStoreConfig;
@@ -26,31 +37,92 @@ import org.apache.drill.exec.proto.SchemaUserBitShared;
 import org.apache.drill.exec.proto.UserBitShared;
 import org.apache.drill.exec.proto.UserBitShared.QueryInfo;
 import org.apache.drill.exec.proto.UserBitShared.QueryProfile;
+import org.apache.drill.exec.rpc.NamedThreadFactory;
+import org.apache.drill.exec.serialization.InstanceSerializer;
+import org.apache.drill.exec.serialization.ProtoSerializer;
 import org.apache.drill.exec.store.sys.PersistentStore;
 import org.apache.drill.exec.store.sys.PersistentStoreConfig;
 import org.apache.drill.exec.store.sys.PersistentStoreProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
 
-public class QueryProfileStoreContext {
+/**
+ * Access to running and completed query profiles.
+ * <p>
+ * Completed profiles are written either as JSON or, with
+ * {@link ExecConstants#PROFILES_STORE_FORMAT} set to {@code binary}, in the
+ * protobuf wire format, which is several times smaller and cheaper to encode
+ * and decode for profiles with many minor fragments.
+ * <p>
+ * With {@link ExecConstants#PROFILES_STORE_INDEX} enabled, an index store next
+ * to the profiles keeps a summary of each completed profile: the profile
+ * without its fragment profiles. Listing profiles reads
+ * only these summaries. An index missing on startup (for example after an
+ * upgrade) is built from the existing profiles in the background.
+ * <p>
+ * With {@link ExecConstants#PROFILES_STORE_ASYNC_WRITE} enabled, profiles are
+ * written by a background thread so that query completion does not wait for
+ * the store. Until written, a profile is served from memory by the lookup
+ * and listing methods of this class, which should be used instead of
+ * reading the stores directly.
+ */
+public class QueryProfileStoreContext implements AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(QueryProfileStoreContext.class);
 
   private static final String PROFILES = "profiles";
+  private static final String PROFILES_INDEX = "profiles_index";
   private static final String RUNNING = "running";
+  private static final String BINARY_FORMAT = "binary";
+
+  // Number of profiles read at a time while building a missing index
+  private static final int INDEX_BUILD_BATCH_SIZE = 100;
+  private static final int SHUTDOWN_TIMEOUT_SECONDS = 30;
 
   private final PersistentStore<UserBitShared.QueryProfile> completedProfiles;
 
+  // Completed profiles without fragment profiles, null if the index is disabled
+  private final PersistentStore<UserBitShared.QueryProfile> profileSummaries;
+
   private final TransientStore<UserBitShared.QueryInfo> runningProfiles;
 
   private final PersistentStoreConfig<QueryProfile> profileStoreConfig;
 
+  private final InstanceSerializer<QueryProfile> profileJsonSerializer;
+
+  private final boolean asyncWrite;
+
+  // Profiles handed to the writer thread but not yet written
+  private final Map<String, QueryProfile> pendingProfiles = new ConcurrentHashMap<>();
+
+  private final ExecutorService profileWriter;
+
   public QueryProfileStoreContext(DrillConfig config, PersistentStoreProvider storeProvider,
                                   ClusterCoordinator coordinator) {
-    profileStoreConfig = PersistentStoreConfig.newProtoBuilder(SchemaUserBitShared.QueryProfile.WRITE,
-        SchemaUserBitShared.QueryProfile.MERGE)
+    profileJsonSerializer = new ProtoSerializer<>(SchemaUserBitShared.QueryProfile.MERGE,
+        SchemaUserBitShared.QueryProfile.WRITE);
+
+    final PersistentStoreConfig.StoreConfigBuilder<QueryProfile> profileConfigBuilder =
+        BINARY_FORMAT.equalsIgnoreCase(config.getString(ExecConstants.PROFILES_STORE_FORMAT))
+            ? PersistentStoreConfig.newProtoBinaryBuilder(SchemaUserBitShared.QueryProfile.WRITE,
+                SchemaUserBitShared.QueryProfile.MERGE)
+            : PersistentStoreConfig.newProtoBuilder(SchemaUserBitShared.QueryProfile.WRITE,
+                SchemaUserBitShared.QueryProfile.MERGE);
+    profileStoreConfig = profileConfigBuilder
         .name(PROFILES)
         .blob()
         .build();
 
     try {
       completedProfiles = storeProvider.getOrCreateStore(profileStoreConfig);
+      profileSummaries = !config.getBoolean(ExecConstants.PROFILES_STORE_INDEX) ? null
+          : storeProvider.getOrCreateStore(PersistentStoreConfig
+              .newProtoBinaryBuilder(SchemaUserBitShared.QueryProfile.WRITE, SchemaUserBitShared.QueryProfile.MERGE)
+              .name(PROFILES_INDEX)
+              .blob()
+              .build());
     } catch (final Exception e) {
       throw new DrillRuntimeException(e);
     }
@@ -59,12 +131,26 @@ public class QueryProfileStoreContext {
         .newProtoBuilder(SchemaUserBitShared.QueryInfo.WRITE, SchemaUserBitShared.QueryInfo.MERGE)
         .name(RUNNING)
         .build());
+
+    asyncWrite = config.getBoolean(ExecConstants.PROFILES_STORE_ASYNC_WRITE);
+    profileWriter = Executors.newSingleThreadExecutor(new NamedThreadFactory("drill-profile-writer-"));
+    if (profileSummaries != null) {
+      profileWriter.execute(this::buildMissingIndex);
+    }
   }
 
   public PersistentStoreConfig<QueryProfile> getProfileStoreConfig() {
     return profileStoreConfig;
   }
 
+  /**
+   * Returns the serializer used to present profiles as JSON, whatever
+   * format they are stored in.
+   */
+  public InstanceSerializer<QueryProfile> getProfileJsonSerializer() {
+    return profileJsonSerializer;
+  }
+
   public PersistentStore<QueryProfile> getCompletedProfileStore() {
     return completedProfiles;
   }
@@ -72,4 +158,155 @@ public class QueryProfileStoreContext {
   public TransientStore<QueryInfo> getRunningProfileStore() {
     return runningProfiles;
   }
+
+  /**
+   * Stores the profile of a completed query, on the writer thread if
+   * asynchronous writes are enabled.
+   */
+  public void storeCompletedProfile(String queryId, QueryProfile profile) {
+    if (asyncWrite) {
+      pendingProfiles.put(queryId, profile);
+      try {
+        profileWriter.execute(() -> {
+          try {
+            writeProfile(queryId, profile);
+          } finally {
+            pendingProfiles.remove(queryId);
+          }
+        });
+        return;
+      } catch (RejectedExecutionException e) {
+        // shutting down, write on the caller's thread
+        pendingProfiles.remove(queryId);
+      }
+    }
+    writeProfile(queryId, profile);
+  }
+
+  private void writeProfile(String queryId, QueryProfile profile) {
+    try {
+      completedProfiles.put(queryId, profile);
+      if (profileSummaries != null) {
+        profileSummaries.put(queryId, summarize(profile));
+      }
+    } catch (Exception e) {
+      logger.error("Failure while storing Query Profile", e);
+    }
+  }
+
+  /**
+   * Returns the profile of a completed query, or null if there is none.
+   */
+  public QueryProfile getCompletedProfile(String queryId) {
+    final QueryProfile pending = pendingProfiles.get(queryId);
+    return pending != null ? pending : completedProfiles.get(queryId);
+  }
+
+  /**
+   * Returns the profile of a completed query without its fragment profiles,
+   * or null if there is none.
+   */
+  public QueryProfile getProfileSummary(String queryId) {
+    final QueryProfile pending = pendingProfiles.get(queryId);
+    if (pending != null) {
+      return summarize(pending);
+    }
+    final QueryProfile summary = profileSummaries == null ? null : profileSummaries.get(queryId);
+    if (summary != null) {
+      return summary;
+    }
+    final QueryProfile profile = completedProfiles.get(queryId);
+    return profile == null ? null : summarize(profile);
+  }
+
+  /**
+   * Returns a range of completed profiles, in store order.
+   */
+  public Iterator<Map.Entry<String, QueryProfile>> getCompletedProfiles(int skip, int take) {
+    return withPendingProfiles(completedProfiles, skip, take, false);
+  }
+
+  /**
+   * Returns a range of completed profiles without their fragment profiles,
+   * in store order. Reads the index if enabled, so is much cheaper than
+   * {@link #getCompletedProfiles(int, int)}.
+   */
+  public Iterator<Map.Entry<String, QueryProfile>> getProfileSummaries(int skip, int take) {
+    return profileSummaries == null
+        ? withPendingProfiles(completedProfiles, skip, take, true)
+        : withPendingProfiles(profileSummaries, skip, take, true);
+  }
+
+  private Iterator<Map.Entry<String, QueryProfile>> withPendingProfiles(PersistentStore<QueryProfile> store,
+      int skip, int take, boolean stripFragments) {
+    final Iterator<Map.Entry<String, QueryProfile>> range;
+    if (pendingProfiles.isEmpty()) {
+      range = store.getRange(skip, take);
+    } else {
+      // Pending profiles are not in the store yet, merge them in key order.
+      // A profile written meanwhile may be in both, the map keeps one copy.
+      final SortedMap<String, QueryProfile> merged = new TreeMap<>();
+      store.getRange(0, (int) Math.min((long) skip + take, Integer.MAX_VALUE))
+          .forEachRemaining(entry -> merged.put(entry.getKey(), entry.getValue()));
+      merged.putAll(pendingProfiles);
+      range = merged.entrySet().stream()
+          .skip(skip)
+          .limit(take)
+          .iterator();
+    }
+    return stripFragments
+        ? Iterators.transform(range, entry -> Maps.immutableEntry(entry.getKey(), summarize(entry.getValue())))
+        : range;
+  }
+
+  private static QueryProfile summarize(QueryProfile profile) {
+    return profile.getFragmentProfileCount() == 0 ? profile : profile.toBuilder().clearFragmentProfile().build();
+  }
+
+  /**
+   * Adds the profiles written before the index was enabled to the index.
+   * Runs only if the index is empty.
+   */
+  private void buildMissingIndex() {
+    try {
+      if (profileSummaries.getRange(0, 1).hasNext()) {
+        return;
+      }
+      int skip = 0;
+      int count;
+      do {
+        count = 0;
+        final Iterator<Map.Entry<String, QueryProfile>> profiles = completedProfiles.getRange(skip, INDEX_BUILD_BATCH_SIZE);
+        while (profiles.hasNext()) {
+          final Map.Entry<String, QueryProfile> entry = profiles.next();
+          profileSummaries.putIfAbsent(entry.getKey(), summarize(entry.getValue()));
+          count++;
+        }
+        skip += count;
+      } while (count == INDEX_BUILD_BATCH_SIZE);
+      if (skip > 0) {
+        logger.info("Indexed {} existing query profiles", skip);
+      }
+    } catch (Exception e) {
+      logger.warn("Failure while indexing existing query profiles", e);
+    }
+  }
+
+  /**
+   * Writes the pending profiles and stops the writer thread.
+   */
+  @Override
+  public void close() {
+    profileWriter.shutdown();
+    try {
+      if (!profileWriter.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        logger.warn("Timed out writing query profiles, {} profiles were not stored", pendingProfiles.size());
+        profileWriter.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      logger.warn("Interrupted while writing query profiles");
+      profileWriter.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
 }
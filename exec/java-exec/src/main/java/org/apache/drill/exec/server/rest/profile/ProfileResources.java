@@ -50,15 +50,18 @@ import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.coord.ClusterCoordinator;
 import org.apache.drill.exec.coord.store.TransientStore;
 import org.apache.drill.exec.proto.GeneralRPCProtos.Ack;
+import org.apache.drill.exec.proto.SchemaUserBitShared;
+import org.apache.drill.exec.proto.UserBitShared.MajorFragmentProfile;
 import org.apache.drill.exec.proto.UserBitShared.QueryId;
 import org.apache.drill.exec.proto.UserBitShared.QueryInfo;
 import org.apache.drill.exec.proto.UserBitShared.QueryProfile;
 import org.apache.drill.exec.proto.helper.QueryIdHelper;
+import org.apache.drill.exec.serialization.InstanceSerializer;
+import org.apache.drill.exec.serialization.ProtoSerializer;
 import org.apache.drill.exec.server.rest.DrillRestServer.UserAuthEnabled;
 import org.apache.drill.exec.server.QueryProfileStoreContext;
 import org.apache.drill.exec.server.rest.ViewableWithPermissions;
 import org.apache.drill.exec.server.rest.auth.DrillUserPrincipal;
-import org.apache.drill.exec.store.sys.PersistentStore;
 import org.apache.drill.exec.store.sys.PersistentStoreProvider;
 import org.apache.drill.exec.work.WorkManager;
 import org.apache.drill.exec.work.foreman.Foreman;
@@ -292,6 +295,9 @@ public class ProfileResources {
   //max Param to cap listing of profiles
   private static final String MAX_QPROFILES_PARAM = "max";
 
+  private static final InstanceSerializer<MajorFragmentProfile> FRAGMENT_PROFILE_SERIALIZER =
+      new ProtoSerializer<>(SchemaUserBitShared.MajorFragmentProfile.MERGE, SchemaUserBitShared.MajorFragmentProfile.WRITE);
+
   private static final Cache<String, String> PROFILE_CACHE = CacheBuilder
     .newBuilder().expireAfterAccess(1, TimeUnit.MINUTES).build();
 
@@ -376,7 +382,6 @@ public class ProfileResources {
   public Response getCompletedProfilesJSON(@Context UriInfo uriInfo) {
     try {
       final QueryProfileStoreContext profileStoreContext = work.getContext().getProfileStoreContext();
-      final PersistentStore<QueryProfile> completed = profileStoreContext.getCompletedProfileStore();
       final List<String> errors = Lists.newArrayList();
       final List<ProfileInfo> finishedQueries = Lists.newArrayList();
 
@@ -387,7 +392,7 @@ public class ProfileResources {
         maxProfilesToLoad = Integer.valueOf(maxProfilesParams);
       }
 
-      final Iterator<Map.Entry<String, QueryProfile>> range = completed.getRange(0, maxProfilesToLoad);
+      final Iterator<Map.Entry<String, QueryProfile>> range = profileStoreContext.getProfileSummaries(0, maxProfilesToLoad);
       while (range.hasNext()) {
         try {
           final Map.Entry<String, QueryProfile> profileEntry = range.next();
@@ -455,8 +460,7 @@ public class ProfileResources {
 
     // then check blob store
     try {
-      final PersistentStore<QueryProfile> profiles = work.getContext().getProfileStoreContext().getCompletedProfileStore();
-      final QueryProfile queryProfile = profiles.get(queryId);
+      final QueryProfile queryProfile = work.getContext().getProfileStoreContext().getCompletedProfile(queryId);
       if (queryProfile != null) {
         checkOrThrowProfileViewAuthorization(queryProfile);
         return queryProfile;
@@ -478,7 +482,7 @@ public class ProfileResources {
       String profileData = PROFILE_CACHE.getIfPresent(queryId);
       if (profileData == null) {
         profileData = new String(work.getContext().getProfileStoreContext()
-          .getProfileStoreConfig().getSerializer().serialize(getQueryProfile(queryId)));
+          .getProfileJsonSerializer().serialize(getQueryProfile(queryId)));
       } else {
         PROFILE_CACHE.invalidate(queryId);
       }
@@ -493,6 +497,59 @@ public class ProfileResources {
     }
   }
 
+  /**
+   * Returns the profile of a query without its fragment profiles, so that
+   * clients can show the query overview of a large profile and fetch the
+   * fragment profiles they need with {@link #getMajorFragmentProfileJSON}.
+   */
+  @GET
+  @Path("/profiles/{queryid}/summary.json")
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response getProfileSummaryJSON(@PathParam("queryid") String queryId) {
+    try {
+      final QueryProfileStoreContext profileStoreContext = work.getContext().getProfileStoreContext();
+      QueryProfile summary = profileStoreContext.getProfileSummary(queryId);
+      if (summary != null) {
+        checkOrThrowProfileViewAuthorization(summary);
+      } else {
+        // still running
+        summary = getQueryProfile(queryId).toBuilder().clearFragmentProfile().build();
+      }
+      return Response.ok()
+        .entity(new String(profileStoreContext.getProfileJsonSerializer().serialize(summary)))
+        .build();
+    } catch (Exception e) {
+      logger.debug("Failed to serialize profile summary for: " + queryId);
+      return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+        .entity("{ 'message' : 'error (unable to serialize profile summary)' }")
+        .build();
+    }
+  }
+
+  @GET
+  @Path("/profiles/{queryid}/fragments/{majorid}.json")
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response getMajorFragmentProfileJSON(@PathParam("queryid") String queryId,
+                                              @PathParam("majorid") int majorFragmentId) {
+    try {
+      for (MajorFragmentProfile fragmentProfile : getQueryProfile(queryId).getFragmentProfileList()) {
+        if (fragmentProfile.getMajorFragmentId() == majorFragmentId) {
+          return Response.ok()
+            .entity(new String(FRAGMENT_PROFILE_SERIALIZER.serialize(fragmentProfile)))
+            .build();
+        }
+      }
+      return Response.status(Response.Status.NOT_FOUND)
+        .entity("{ 'message' : 'no major fragment " + majorFragmentId + "' }")
+        .build();
+    } catch (Exception e) {
+      logger.debug("Failed to serialize fragment profile for: " + queryId);
+      return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+        .entity("{ 'message' : 'error (unable to serialize fragment profile)' }")
+        .build();
+    }
+  }
+
   @GET
   @Path("/profiles/{queryid}")
   @Produces(MediaType.TEXT_HTML)
@@ -513,7 +570,7 @@ public class ProfileResources {
   public Viewable viewProfile(@FormDataParam("profileData") String content) {
     try {
       QueryProfile profile = work.getContext().getProfileStoreContext()
-        .getProfileStoreConfig().getSerializer().deserialize(content.getBytes(StandardCharsets.UTF_8));
+        .getProfileJsonSerializer().deserialize(content.getBytes(StandardCharsets.UTF_8));
       PROFILE_CACHE.put(profile.getQueryId(), content);
       ProfileWrapper wrapper = new ProfileWrapper(profile,
         work.getContext().getConfig(), request);
@@ -228,6 +228,21 @@ public abstract class AbstractSchema implements Schema, SchemaPartitionExplorer,
         .build(logger);
   }
 
+  /**
+   * Replaces the definition of an existing materialized view. Used by
+   * incremental refreshes, which add to or replace the view data themselves
+   * rather than going through {@link #refreshMaterializedView(String)}.
+   * Deletes the data directory retired by the previous refresh, if any.
+   *
+   * @param materializedView the new materialized view definition
+   * @throws IOException in case of error updating the materialized view
+   */
+  public void updateMaterializedView(MaterializedView materializedView) throws IOException {
+    throw UserException.unsupportedError()
+        .message("Updating materialized views is not supported in schema [%s]", getSchemaPath())
+        .build(logger);
+  }
+
   /**
    * Get the materialized view with the given name.
    *
@@ -55,6 +55,7 @@ import org.apache.hadoop.io.compress.CompressionCodec;
 import org.apache.hadoop.io.compress.CompressionCodecFactory;
 import org.apache.hadoop.security.AccessControlException;
 import org.apache.hadoop.security.Credentials;
+import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.hadoop.security.token.Token;
 import org.apache.hadoop.util.Progressable;
 import org.slf4j.Logger;
@@ -81,6 +82,7 @@ public class DrillFileSystem extends FileSystem implements OpenFileTracker {
   private final FileSystem underlyingFs;
   private final OperatorStats operatorStats;
   private final CompressionCodecFactory codecFactory;
+  private final String userName;
 
   public DrillFileSystem(Configuration fsConf) throws IOException {
     this(fsConf, null);
@@ -94,6 +96,17 @@ public class DrillFileSystem extends FileSystem implements OpenFileTracker {
     this.underlyingFs = FileSystem.get(fsConf);
     this.codecFactory = new CompressionCodecFactory(fsConf);
     this.operatorStats = operatorStats;
+    this.userName = UserGroupInformation.getCurrentUser().getShortUserName();
+  }
+
+  /**
+   * Returns the name of the user this file system was created for, which is the user
+   * accessing the underlying file system if impersonation is enabled.
+   *
+   * @return short name of the user
+   */
+  public String getUserName() {
+    return userName;
   }
 
   private void throwUnsupported() {
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.dfs;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Short-lived cache of the recursive listings of the directories of file
+ * selections, so that queries issued in quick succession over the same
+ * deeply partitioned table, typically on an object store, do not list it
+ * again.
+ * <p>
+ * Listings are keyed by file system, user and directory, and expire after a
+ * configured time, during which files added to the directory by other tools
+ * are not seen. Statements changing tables, such as CTAS, DROP TABLE or
+ * {@code REFRESH TABLE METADATA}, invalidate all the listings.
+ * <p>
+ * Like {@link org.apache.drill.exec.store.parquet.ParquetFooterCache}, the
+ * cache is shared by the whole process, since file selections are expanded by
+ * static helpers, and is configured by the Drillbit at startup
+ * ({@link ExecConstants#FILE_LISTING_CACHE_ENABLED}).
+ */
+public class FileListingCache {
+
+  private static volatile FileListingCache instance;
+
+  private final Cache<Key, List<FileStatus>> listings;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+  private final LongAdder listingNanos = new LongAdder();
+
+  /**
+   * Lists the files of a directory.
+   */
+  @FunctionalInterface
+  public interface FileLister {
+    List<FileStatus> list() throws IOException;
+  }
+
+  private FileListingCache(long ttlSeconds, long maxEntries) {
+    this.listings = CacheBuilder.newBuilder()
+        .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+        .maximumSize(maxEntries)
+        .build();
+  }
+
+  /**
+   * Sets up the cache of this process from the Drillbit configuration.
+   */
+  public static void configure(DrillConfig config) {
+    if (!config.getBoolean(ExecConstants.FILE_LISTING_CACHE_ENABLED)) {
+      instance = null;
+      return;
+    }
+    instance = new FileListingCache(config.getLong(ExecConstants.FILE_LISTING_CACHE_TTL),
+        config.getLong(ExecConstants.FILE_LISTING_CACHE_MAX_ENTRIES));
+  }
+
+  /**
+   * @return the cache of this process, or null if listings are not cached
+   */
+  public static FileListingCache getInstance() {
+    return instance;
+  }
+
+  /**
+   * Returns the files of a directory, from the cache if it is enabled.
+   *
+   * @param fs file system to list the directory with
+   * @param path path of the directory
+   * @param lister lists the directory if its listing is not cached
+   * @return statuses of the files of the directory, which must not be modified
+   */
+  public static List<FileStatus> listFiles(DrillFileSystem fs, Path path, FileLister lister) throws IOException {
+    FileListingCache cache = instance;
+    return cache == null ? lister.list() : cache.getListing(fs, path, lister);
+  }
+
+  /**
+   * Removes all the cached listings.
+   */
+  public static void invalidateAll() {
+    FileListingCache cache = instance;
+    if (cache != null) {
+      cache.invalidations.increment();
+      cache.listings.invalidateAll();
+    }
+  }
+
+  private List<FileStatus> getListing(DrillFileSystem fs, Path path, FileLister lister) throws IOException {
+    Key key = new Key(fs.getUri().toString(), fs.getUserName(),
+        Path.getPathWithoutSchemeAndAuthority(path).toUri().getPath());
+    List<FileStatus> statuses = listings.getIfPresent(key);
+    if (statuses != null) {
+      hits.increment();
+      return statuses;
+    }
+    misses.increment();
+    long start = System.nanoTime();
+    statuses = Collections.unmodifiableList(new ArrayList<>(lister.list()));
+    listingNanos.add(System.nanoTime() - start);
+    listings.put(key, statuses);
+    return statuses;
+  }
+
+  public long size() {
+    return listings.size();
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getInvalidations() {
+    return invalidations.sum();
+  }
+
+  /**
+   * @return time spent listing the directories whose listings were not cached, in milliseconds
+   */
+  public long getListingTimeMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(listingNanos.sum());
+  }
+
+  private static class Key {
+    private final String fileSystem;
+    private final String userName;
+    private final String directory;
+
+    Key(String fileSystem, String userName, String directory) {
+      this.fileSystem = fileSystem;
+      this.userName = userName;
+      this.directory = directory;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return fileSystem.equals(key.fileSystem)
+          && Objects.equals(userName, key.userName)
+          && directory.equals(key.directory);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(fileSystem, userName, directory);
+    }
+  }
+}
@@ -178,7 +178,8 @@ public class FileSelection implements DrillTableSelection {
 
     List<FileStatus> nonDirectories = Lists.newArrayList();
     for (FileStatus status : statuses) {
-      nonDirectories.addAll(DrillFileSystemUtil.listFiles(fs, status.getPath(), true));
+      nonDirectories.addAll(FileListingCache.listFiles(fs, status.getPath(),
+          () -> DrillFileSystemUtil.listFiles(fs, status.getPath(), true)));
     }
 
     FileSelection fileSel = create(nonDirectories, null, selectionRoot);
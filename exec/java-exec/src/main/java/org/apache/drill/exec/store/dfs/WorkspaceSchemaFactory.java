@@ -94,6 +94,7 @@ import org.apache.hadoop.security.AccessControlException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
@@ -432,6 +433,7 @@ public class WorkspaceSchemaFactory {
       if (getFS().exists(dataPath)) {
         getFS().delete(dataPath, true);
       }
+      deleteRetiredData(materializedView);
 
       // Remove from metastore if enabled
       removeMaterializedViewFromMetastore(viewName);
@@ -453,6 +455,7 @@ public class WorkspaceSchemaFactory {
       if (getFS().exists(dataPath)) {
         getFS().delete(dataPath, true);
       }
+      deleteRetiredData(materializedView);
 
       // Recreate the data directory
       final FsPermission dirPerms = new FsPermission(
@@ -464,17 +467,49 @@ public class WorkspaceSchemaFactory {
       MaterializedView updatedMaterializedView = materializedView.withRefreshInfo(
           materializedView.getLastRefreshTime(),
           MaterializedView.RefreshStatus.INCOMPLETE);
+      // The data no longer reflects the recorded source files
+      updatedMaterializedView.setSourceFiles(null);
+      updatedMaterializedView.setRetiredDataStoragePath(null);
 
-      // Write the updated definition file
-      Path viewPath = getMaterializedViewPath(viewName);
+      writeMaterializedViewDefinition(updatedMaterializedView);
+    }
+
+    @Override
+    public void updateMaterializedView(MaterializedView materializedView) throws IOException {
+      MaterializedView previous = getMaterializedView(materializedView.getName());
+      if (previous == null) {
+        throw UserException.validationError()
+            .message("Materialized view [%s] not found in schema [%s]", materializedView.getName(), getFullSchemaName())
+            .build(logger);
+      }
+      // The refresh that retired this directory has completed by now
+      if (previous.getRetiredDataStoragePath() != null
+          && !previous.getRetiredDataStoragePath().equals(materializedView.getDataStoragePath())) {
+        deleteRetiredData(previous);
+      }
+      writeMaterializedViewDefinition(materializedView);
+    }
+
+    private void deleteRetiredData(MaterializedView materializedView) throws IOException {
+      if (materializedView == null || materializedView.getRetiredDataStoragePath() == null) {
+        return;
+      }
+      Path retiredPath = new Path(config.getLocation(), materializedView.getRetiredDataStoragePath());
+      if (getFS().exists(retiredPath)) {
+        getFS().delete(retiredPath, true);
+      }
+    }
+
+    private void writeMaterializedViewDefinition(MaterializedView materializedView) throws IOException {
+      Path viewPath = getMaterializedViewPath(materializedView.getName());
       final FsPermission viewPerms = new FsPermission(
           schemaConfig.getOption(ExecConstants.NEW_VIEW_DEFAULT_PERMS_KEY).string_val);
       try (OutputStream stream = DrillFileSystem.create(getFS(), viewPath, viewPerms)) {
-        mapper.writeValue(stream, updatedMaterializedView);
+        mapper.writeValue(stream, materializedView);
       }
 
       // Sync updated metadata to metastore if enabled
-      syncMaterializedViewToMetastore(updatedMaterializedView);
+      syncMaterializedViewToMetastore(materializedView);
     }
 
     @Override
@@ -491,14 +526,7 @@ public class WorkspaceSchemaFactory {
           System.currentTimeMillis(),
           MaterializedView.RefreshStatus.COMPLETE);
 
-      Path viewPath = getMaterializedViewPath(viewName);
-      final FsPermission viewPerms = new FsPermission(
-          schemaConfig.getOption(ExecConstants.NEW_VIEW_DEFAULT_PERMS_KEY).string_val);
-      try (OutputStream stream = DrillFileSystem.create(getFS(), viewPath, viewPerms)) {
-        mapper.writeValue(stream, updatedMaterializedView);
-      }
-
-      syncMaterializedViewToMetastore(updatedMaterializedView);
+      writeMaterializedViewDefinition(updatedMaterializedView);
     }
 
     @Override
@@ -595,6 +623,7 @@ public class WorkspaceSchemaFactory {
             .name(materializedView.getName())
             .owner(schemaConfig.getUserName())
             .sql(materializedView.getSql())
+            .fields(mapper.writeValueAsString(materializedView.getFields()))
             .workspaceSchemaPath(materializedView.getWorkspaceSchemaPath())
             .dataLocation(materializedView.getDataStoragePath())
             .refreshStatus(materializedView.getRefreshStatus() != null
@@ -610,7 +639,7 @@ public class WorkspaceSchemaFactory {
             .execute();
 
         logger.debug("Synced materialized view [{}] to metastore", materializedView.getName());
-      } catch (MetastoreException e) {
+      } catch (MetastoreException | JsonProcessingException e) {
         logger.warn("Failed to sync materialized view [{}] to metastore: {}",
             materializedView.getName(), e.getMessage());
       }
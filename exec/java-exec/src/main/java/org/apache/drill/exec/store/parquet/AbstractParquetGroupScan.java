@@ -329,11 +329,15 @@ public abstract class AbstractParquetGroupScan extends AbstractGroupScanWithMeta
     return !filteredMetadata.isMatchAllMetadata()
         && (super.isAllDataPruned(filteredMetadata)
             // all row groups are pruned if row group metadata is available
-            || filteredMetadata.getRowGroups().isEmpty() && !getRowGroupsMetadata().isEmpty());
+            || filteredMetadata.getRowGroups().isEmpty() && hasRowGroupsMetadata());
   }
 
   private boolean isGroupScanFullyMatchesFilter(RowGroupScanFilterer<?> filteredMetadata) {
-    if (!getRowGroupsMetadata().isEmpty()) {
+    if (MapUtils.isNotEmpty(filteredMetadata.getFiles())
+        && filteredMetadata.getFiles().size() < getFilesMetadata().size()) {
+      // files were pruned, row group metadata of the pruned files may not be loaded
+      return false;
+    } else if (hasRowGroupsMetadata()) {
       return getRowGroupsMetadata().size() == filteredMetadata.getRowGroups().size();
     } else {
       return super.isGroupScanFullyMatchesFilter(filteredMetadata);
@@ -341,6 +345,10 @@ public abstract class AbstractParquetGroupScan extends AbstractGroupScanWithMeta
   }
 
   protected Multimap<Path, RowGroupMetadata> pruneRowGroupsForFiles(Map<Path, FileMetadata> filteredFileMetadata) {
+    if (rowGroups == null) {
+      // loads row group metadata of the remaining files only
+      return metadataProvider.getRowGroupsMetadataMap(filteredFileMetadata.keySet());
+    }
     Multimap<Path, RowGroupMetadata> prunedRowGroups = LinkedListMultimap.create();
     for (Path filteredPartition : filteredFileMetadata.keySet()) {
       Multimap<Path, RowGroupMetadata> rowGroupsMetadata = getRowGroupsMetadata();
@@ -453,6 +461,20 @@ public abstract class AbstractParquetGroupScan extends AbstractGroupScanWithMeta
   }
 
   // protected methods block
+
+  /**
+   * Checks whether row group metadata is available without loading it when file metadata is present,
+   * since every file has at least one row group.
+   *
+   * @return true if row group metadata is available
+   */
+  protected boolean hasRowGroupsMetadata() {
+    if (rowGroups == null && !getFilesMetadata().isEmpty()) {
+      return true;
+    }
+    return !getRowGroupsMetadata().isEmpty();
+  }
+
   protected Multimap<Path, RowGroupMetadata> getRowGroupsMetadata() {
     if (rowGroups == null) {
       rowGroups = metadataProvider.getRowGroupsMetadataMap();
@@ -528,8 +550,11 @@ public abstract class AbstractParquetGroupScan extends AbstractGroupScanWithMeta
     public AbstractParquetGroupScan build() {
       AbstractParquetGroupScan newScan = getNewScan();
       newScan.tableMetadata = tableMetadata;
+      // row groups of the source aren't loaded when they were loaded for the files remaining after pruning only
+      Multimap<Path, RowGroupMetadata> sourceRowGroups = ((AbstractParquetGroupScan) source).rowGroups;
       // updates common row count and nulls counts for every column
-      if (newScan.getTableMetadata() != null && rowGroups != null && newScan.getRowGroupsMetadata().size() != rowGroups.size()) {
+      if (newScan.getTableMetadata() != null && rowGroups != null
+          && (sourceRowGroups == null || sourceRowGroups.size() != rowGroups.size())) {
         newScan.tableMetadata = TableMetadataUtils.updateRowCount(newScan.getTableMetadata(), rowGroups.values());
       }
       newScan.partitions = partitions;
@@ -561,7 +586,7 @@ public abstract class AbstractParquetGroupScan extends AbstractGroupScanWithMeta
     protected B getFiltered(OptionManager optionManager, FilterPredicate<?> filterPredicate) {
       super.getFiltered(optionManager, filterPredicate);
 
-      if (!((AbstractParquetGroupScan) source).getRowGroupsMetadata().isEmpty()) {
+      if (((AbstractParquetGroupScan) source).hasRowGroupsMetadata()) {
         filterRowGroupMetadata(optionManager, filterPredicate);
       }
       return self();
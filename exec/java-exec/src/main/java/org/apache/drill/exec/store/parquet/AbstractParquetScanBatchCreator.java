@@ -147,7 +147,7 @@ public abstract class AbstractParquetScanBatchCreator {
             timer.start();
           }
 
-          ParquetMetadata footer = readFooter(fs.getConf(), rowGroup.getPath(), readerConfig);
+          ParquetMetadata footer = readFooter(fs, rowGroup.getPath(), readerConfig);
           if (timer != null) {
             long timeToRead = timer.elapsed(TimeUnit.MICROSECONDS);
             logger.trace("ParquetTrace,Read Footer,{},{},{},{},{},{},{}", "", rowGroup.getPath(), "", 0, 0, 0, timeToRead);
@@ -359,11 +359,13 @@ public abstract class AbstractParquetScanBatchCreator {
 
   protected abstract AbstractDrillFileSystemManager getDrillFileSystemCreator(OperatorContext operatorContext, OptionManager optionManager);
 
-  private ParquetMetadata readFooter(Configuration conf, Path path, ParquetReaderConfig readerConfig) throws IOException {
-    try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(path,
-      readerConfig.addCountersToConf(conf)), readerConfig.toReadOptions())) {
-      return reader.getFooter();
-    }
+  private ParquetMetadata readFooter(DrillFileSystem fs, Path path, ParquetReaderConfig readerConfig) throws IOException {
+    return ParquetFooterCache.readFooter(fs, path, readerConfig, () -> {
+      try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(path,
+        readerConfig.addCountersToConf(fs.getConf())), readerConfig.toReadOptions())) {
+        return reader.getFooter();
+      }
+    });
   }
 
   /**
@@ -143,6 +143,20 @@ public class FooterGatherer {
    * @throws IOException
    */
   public static Footer readFooter(final Configuration config, final FileStatus status) throws IOException {
+    final ByteArrayInputStream from = new ByteArrayInputStream(readFooterBytes(config, status));
+    ParquetMetadata metadata = ParquetFormatPlugin.parquetMetadataConverter.readParquetMetadata(from, NO_FILTER);
+    return new Footer(status.getPath(), metadata);
+  }
+
+  /**
+   * Reads the serialized footer of a Parquet file, without the footer length
+   * and magic bytes that follow it.
+   * @param config configuration for file system
+   * @param status file status
+   * @return serialized footer
+   * @throws IOException if the file can't be read or is not a Parquet file
+   */
+  public static byte[] readFooterBytes(final Configuration config, final FileStatus status) throws IOException {
     final FileSystem fs = status.getPath().getFileSystem(config);
     try(FSDataInputStream file = fs.open(status.getPath())) {
 
@@ -169,11 +183,7 @@ public class FooterGatherer {
         int start = footerBytes.length - (size + FOOTER_METADATA_SIZE);
         footerBytes = ArrayUtils.subarray(footerBytes, start, start + size);
       }
-
-      final ByteArrayInputStream from = new ByteArrayInputStream(footerBytes);
-      ParquetMetadata metadata = ParquetFormatPlugin.parquetMetadataConverter.readParquetMetadata(from, NO_FILTER);
-      Footer footer = new Footer(status.getPath(), metadata);
-      return footer;
+      return footerBytes;
     }
   }
 }
@@ -0,0 +1,400 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.store.dfs.DrillFileSystem;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.apache.parquet.format.Util;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Cache of the footers of Parquet files, so that the footers read to plan a
+ * query, and read again by its scans, are not read over and over by later
+ * queries. Listing-heavy stores such as S3 benefit the most, since every
+ * footer read costs at least one request.
+ * <p>
+ * Footers are keyed by the path, length and modification time of the file,
+ * so a rewritten file is read again, along with the reader options that
+ * change how footer statistics are interpreted, and by the user reading
+ * them, so that with impersonation a user is only served the footers of
+ * files they could read. Footers are always read by the reader of the
+ * caller, through its file system. The in-memory cache is
+ * bounded by the number of column chunks the footers describe, which is
+ * roughly proportional to their size on heap. When a directory is
+ * configured, the serialized footers are also kept on local disk, where they
+ * survive evictions and restarts. The directory holds one file per user and
+ * Parquet file, named after both and replaced when the Parquet file changes, and
+ * is bounded in bytes: the least recently used footers are deleted first.
+ * <p>
+ * Footers are read through static helpers, such as
+ * {@link org.apache.drill.exec.store.parquet.metadata.Metadata}, so the cache
+ * is shared by the whole process and configured by the Drillbit at startup
+ * ({@link ExecConstants#PARQUET_FOOTER_CACHE_ENABLED}). The cached footers
+ * are shared by concurrent readers and must not be modified.
+ */
+public class ParquetFooterCache {
+  private static final Logger logger = LoggerFactory.getLogger(ParquetFooterCache.class);
+
+  private static volatile ParquetFooterCache instance;
+
+  private static final String TMP_SUFFIX = ".tmp";
+  // A footer file starts with the length and modification time of its Parquet file
+  private static final int HEADER_SIZE = 2 * Long.BYTES;
+
+  private final Cache<Key, ParquetMetadata> footers;
+  private final File directory;
+  private final long maxDirectorySize;
+  private final AtomicLong directorySize = new AtomicLong();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder diskHits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Reads the footer of a Parquet file.
+   */
+  @FunctionalInterface
+  public interface FooterReader {
+    ParquetMetadata read() throws IOException;
+  }
+
+  private ParquetFooterCache(long maxColumnChunks, File directory, long maxDirectorySize) {
+    this.footers = CacheBuilder.newBuilder()
+        .maximumWeight(maxColumnChunks)
+        .weigher((Key key, ParquetMetadata footer) -> weight(footer))
+        .recordStats()
+        .build();
+    this.directory = directory;
+    this.maxDirectorySize = maxDirectorySize;
+    if (directory != null) {
+      // left over by writes interrupted by a shutdown
+      deleteTemporaryFiles(directory);
+      directorySize.set(cleanDirectory(directory, maxDirectorySize));
+    }
+  }
+
+  /**
+   * Sets up the cache of this process from the Drillbit configuration.
+   */
+  public static void configure(DrillConfig config) {
+    if (!config.getBoolean(ExecConstants.PARQUET_FOOTER_CACHE_ENABLED)) {
+      instance = null;
+      return;
+    }
+    String directory = config.getString(ExecConstants.PARQUET_FOOTER_CACHE_DIRECTORY);
+    instance = new ParquetFooterCache(config.getLong(ExecConstants.PARQUET_FOOTER_CACHE_MAX_COLUMN_CHUNKS),
+        directory.isEmpty() ? null : new File(directory),
+        config.getLong(ExecConstants.PARQUET_FOOTER_CACHE_DIRECTORY_MAX_SIZE));
+  }
+
+  /**
+   * @return the cache of this process, or null if footers are not cached
+   */
+  public static ParquetFooterCache getInstance() {
+    return instance;
+  }
+
+  /**
+   * Returns the footer of a Parquet file, from the cache if it is enabled.
+   * The footer is cached for the user of the calling thread.
+   *
+   * @param status status of the file
+   * @param readerConfig reader options
+   * @param reader reads the footer if it is not cached
+   * @return footer of the file
+   */
+  public static ParquetMetadata readFooter(FileStatus status, ParquetReaderConfig readerConfig,
+                                           FooterReader reader) throws IOException {
+    ParquetFooterCache cache = instance;
+    return cache == null ? reader.read()
+        : cache.getFooter(UserGroupInformation.getCurrentUser().getShortUserName(), status, readerConfig, reader);
+  }
+
+  /**
+   * Returns the footer of a Parquet file, from the cache if it is enabled.
+   * Gets the status of the file only when the cache is enabled. The footer is
+   * cached for the user of the file system.
+   *
+   * @param fs file system to read the file with
+   * @param path path of the file
+   * @param readerConfig reader options
+   * @param reader reads the footer if it is not cached
+   * @return footer of the file
+   */
+  public static ParquetMetadata readFooter(FileSystem fs, Path path, ParquetReaderConfig readerConfig,
+                                           FooterReader reader) throws IOException {
+    ParquetFooterCache cache = instance;
+    if (cache == null) {
+      return reader.read();
+    }
+    String user = fs instanceof DrillFileSystem
+        ? ((DrillFileSystem) fs).getUserName()
+        : UserGroupInformation.getCurrentUser().getShortUserName();
+    return cache.getFooter(user, fs.getFileStatus(path), readerConfig, reader);
+  }
+
+  private ParquetMetadata getFooter(String user, FileStatus status, ParquetReaderConfig readerConfig,
+                                    FooterReader reader) throws IOException {
+    Key key = new Key(user, status, readerConfig.enableStringsSignedMinMax());
+    ParquetMetadata footer = footers.getIfPresent(key);
+    if (footer != null) {
+      hits.increment();
+      return footer;
+    }
+    try {
+      // concurrent readers of the same file wait for a single read
+      return footers.get(key, () -> load(user, status, readerConfig, reader));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Failed to read the footer of " + status.getPath(), e.getCause());
+    }
+  }
+
+  private ParquetMetadata load(String user, FileStatus status, ParquetReaderConfig readerConfig,
+                               FooterReader reader) throws IOException {
+    if (directory == null) {
+      misses.increment();
+      return reader.read();
+    }
+    File file = new File(directory, DigestUtils.sha256Hex(user + "|" + status.getPath()));
+    byte[] fileBytes = null;
+    if (file.exists()) {
+      try {
+        fileBytes = Files.readAllBytes(file.toPath());
+      } catch (IOException e) {
+        logger.debug("Unable to read cached footer {} of {}", file, status.getPath(), e);
+      }
+      if (fileBytes != null && !matches(fileBytes, status)) {
+        // footer of an earlier version of the file
+        delete(file);
+        fileBytes = null;
+      }
+    }
+    ParquetMetadataConverter converter = new ParquetMetadataConverter(readerConfig.toReadOptions());
+    if (fileBytes == null) {
+      misses.increment();
+      ParquetMetadata footer = reader.read();
+      store(file, serialize(converter, footer, status));
+      return footer;
+    }
+    diskHits.increment();
+    // the modification time of footer files tells the least recently used ones
+    file.setLastModified(System.currentTimeMillis());
+    return converter.readParquetMetadata(
+        new ByteArrayInputStream(fileBytes, HEADER_SIZE, fileBytes.length - HEADER_SIZE), ParquetMetadataConverter.NO_FILTER);
+  }
+
+  /**
+   * Serializes a footer read by a caller, after the header identifying the
+   * version of its Parquet file.
+   *
+   * @return content of the footer file, or null if the footer can't be serialized
+   */
+  private static byte[] serialize(ParquetMetadataConverter converter, ParquetMetadata footer, FileStatus status) {
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      out.write(ByteBuffer.allocate(HEADER_SIZE)
+          .putLong(status.getLen())
+          .putLong(status.getModificationTime())
+          .array());
+      Util.writeFileMetaData(converter.toParquetMetadata(ParquetFileWriter.CURRENT_VERSION, footer), out);
+      return out.toByteArray();
+    } catch (IOException | RuntimeException e) {
+      logger.debug("Unable to serialize the footer of {}", status.getPath(), e);
+      return null;
+    }
+  }
+
+  private static boolean matches(byte[] fileBytes, FileStatus status) {
+    if (fileBytes.length < HEADER_SIZE) {
+      return false;
+    }
+    ByteBuffer header = ByteBuffer.wrap(fileBytes, 0, HEADER_SIZE);
+    return header.getLong() == status.getLen() && header.getLong() == status.getModificationTime();
+  }
+
+  private void store(File file, byte[] fileBytes) {
+    if (fileBytes == null) {
+      return;
+    }
+    try {
+      Files.createDirectories(directory.toPath());
+      // written aside and moved, so that readers never see a partial footer
+      File tmpFile = new File(directory, file.getName() + "." + UUID.randomUUID() + TMP_SUFFIX);
+      Files.write(tmpFile.toPath(), fileBytes);
+      long replacedSize = file.length();
+      Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      if (directorySize.addAndGet(fileBytes.length - replacedSize) > maxDirectorySize) {
+        synchronized (this) {
+          if (directorySize.get() > maxDirectorySize) {
+            directorySize.set(cleanDirectory(directory, maxDirectorySize));
+          }
+        }
+      }
+    } catch (IOException e) {
+      logger.debug("Unable to store the footer of {} in {}", file, directory, e);
+    }
+  }
+
+  private void delete(File file) {
+    long size = file.length();
+    if (file.delete()) {
+      directorySize.addAndGet(-size);
+    }
+  }
+
+  /**
+   * Deletes the least recently used footer files until the directory holds
+   * at most the given number of bytes.
+   *
+   * @return bytes left in the directory
+   */
+  @VisibleForTesting
+  static long cleanDirectory(File directory, long maxSize) {
+    File[] files = directory.listFiles(file -> file.isFile() && !file.getName().endsWith(TMP_SUFFIX));
+    if (files == null) {
+      return 0;
+    }
+    long size = Arrays.stream(files).mapToLong(File::length).sum();
+    if (size <= maxSize) {
+      return size;
+    }
+    // taken once, since readers touch the files while they are sorted
+    Map<File, Long> lastUsed = Arrays.stream(files)
+        .collect(Collectors.toMap(Function.identity(), File::lastModified));
+    Arrays.sort(files, Comparator.comparing(lastUsed::get));
+    for (File file : files) {
+      if (size <= maxSize) {
+        break;
+      }
+      long fileSize = file.length();
+      if (file.delete()) {
+        size -= fileSize;
+      }
+    }
+    return size;
+  }
+
+  private static void deleteTemporaryFiles(File directory) {
+    File[] files = directory.listFiles(file -> file.getName().endsWith(TMP_SUFFIX));
+    if (files != null) {
+      Arrays.stream(files).forEach(File::delete);
+    }
+  }
+
+  private static int weight(ParquetMetadata footer) {
+    int columnChunks = 1;
+    for (BlockMetaData block : footer.getBlocks()) {
+      columnChunks += block.getColumns().size();
+    }
+    return columnChunks;
+  }
+
+  public long size() {
+    return footers.size();
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getDiskHits() {
+    return diskHits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getEvictions() {
+    return footers.stats().evictionCount();
+  }
+
+  private static class Key {
+    private final String user;
+    private final String path;
+    private final long length;
+    private final long modificationTime;
+    private final boolean signedStringMinMax;
+
+    Key(String user, FileStatus status, boolean signedStringMinMax) {
+      this.user = user;
+      this.path = status.getPath().toString();
+      this.length = status.getLen();
+      this.modificationTime = status.getModificationTime();
+      this.signedStringMinMax = signedStringMinMax;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return length == key.length
+          && modificationTime == key.modificationTime
+          && signedStringMinMax == key.signedStringMinMax
+          && path.equals(key.path)
+          && user.equals(key.user);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(user, path, length, modificationTime, signedStringMinMax);
+    }
+  }
+}
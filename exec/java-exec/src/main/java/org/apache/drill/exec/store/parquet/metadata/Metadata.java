@@ -33,9 +33,11 @@ import org.apache.drill.common.util.JacksonUtils;
 import org.apache.drill.exec.serialization.PathSerDe;
 import org.apache.drill.exec.store.TimedCallable;
 import org.apache.drill.exec.store.dfs.MetadataContext;
+import org.apache.drill.exec.store.parquet.ParquetFooterCache;
 import org.apache.drill.exec.store.parquet.ParquetReaderConfig;
 import org.apache.drill.exec.util.DrillFileSystemUtil;
 import org.apache.drill.exec.util.ImpersonationUtil;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.Lists;
 import org.apache.hadoop.conf.Configuration;
@@ -52,15 +54,23 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 import static org.apache.commons.lang3.builder.ToStringStyle.SHORT_PREFIX_STYLE;
@@ -93,6 +103,13 @@ public class Metadata {
   public static final Long DEFAULT_NULL_COUNT = 0L;
   public static final Long NULL_COUNT_NOT_EXISTS = -1L;
 
+  // number of directories whose metadata files are created concurrently
+  public static final String DIRECTORY_PARALLELISM_PROP_NAME = "drill.exec.parquet_metadata_directory_parallelism";
+  private static final int DEFAULT_DIRECTORY_PARALLELISM = 16;
+
+  // number of footers read from parquet files to collect their metadata
+  private static final LongAdder footerReads = new LongAdder();
+
   private final ParquetReaderConfig readerConfig;
 
   private ParquetTableMetadataBase parquetTableMetadata;
@@ -242,7 +259,9 @@ public class Metadata {
 
   /**
    * Create the parquet metadata files for the directory at the given path and for any subdirectories.
-   * Metadata cache files written to the disk contain relative paths. Returned Pair of metadata contains absolute paths.
+   * Subdirectories are processed concurrently, see {@link DirectoryMetadataTask}. The number of directories
+   * processed at once may be set with the {@link #DIRECTORY_PARALLELISM_PROP_NAME} Hadoop config property.
+   * The pool running them is shut down once the metadata files are created.
    *
    * @param path to the directory of the parquet table
    * @param fs file system
@@ -256,6 +275,67 @@ public class Metadata {
   private Pair<ParquetTableMetadata_v4, ParquetTableMetadataDirs> createMetaFilesRecursively(
       Path path, FileSystem fs, boolean allColumnsInteresting, Set<SchemaPath> columnSet) throws IOException {
     Stopwatch timer = logger.isDebugEnabled() ? Stopwatch.createStarted() : null;
+    ForkJoinPool pool = new ForkJoinPool(
+        fs.getConf().getInt(DIRECTORY_PARALLELISM_PROP_NAME, DEFAULT_DIRECTORY_PARALLELISM));
+    try {
+      return pool.invoke(new DirectoryMetadataTask(path, fs, allColumnsInteresting, columnSet));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      pool.shutdown();
+      if (timer != null) {
+        logger.debug("Creating metadata files recursively took {} ms", timer.elapsed(TimeUnit.MILLISECONDS));
+        timer.stop();
+      }
+    }
+  }
+
+  /**
+   * Creates the metadata files of a directory once those of its subdirectories are created. Subdirectories are
+   * forked as separate tasks, since a whole subtree may take longer than the per-task timeout of
+   * {@link TimedCallable}, which is kept for the footers of the files of each directory.
+   */
+  private class DirectoryMetadataTask extends RecursiveTask<Pair<ParquetTableMetadata_v4, ParquetTableMetadataDirs>> {
+
+    private final Path path;
+    private final FileSystem fs;
+    private final boolean allColumnsInteresting;
+    private final Set<SchemaPath> columnSet;
+
+    DirectoryMetadataTask(Path path, FileSystem fs, boolean allColumnsInteresting, Set<SchemaPath> columnSet) {
+      this.path = path;
+      this.fs = fs;
+      this.allColumnsInteresting = allColumnsInteresting;
+      this.columnSet = columnSet;
+    }
+
+    @Override
+    protected Pair<ParquetTableMetadata_v4, ParquetTableMetadataDirs> compute() {
+      try {
+        return createDirectoryMetaFiles(path, fs, allColumnsInteresting, columnSet);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  /**
+   * Create the parquet metadata files for a directory, given the metadata files of its subdirectories are created
+   * by forked {@link DirectoryMetadataTask}s.
+   * Metadata cache files written to the disk contain relative paths. Returned Pair of metadata contains absolute paths.
+   * <p>
+   * The footers of the files of the directory are only read again if they are new or changed since the previous
+   * metadata files of the directory were written, see {@link #getPreviousFileMetadata}.
+   *
+   * @param path to the directory of the parquet table
+   * @param fs file system
+   * @param allColumnsInteresting if set, store column metadata for all the columns
+   * @param columnSet Set of columns for which column metadata has to be stored
+   * @return Pair of parquet metadata for the directory and for its subdirectories
+   * @throws IOException if parquet metadata can't be serialized and written to the json file
+   */
+  private Pair<ParquetTableMetadata_v4, ParquetTableMetadataDirs> createDirectoryMetaFiles(
+      Path path, FileSystem fs, boolean allColumnsInteresting, Set<SchemaPath> columnSet) throws IOException {
     List<ParquetFileMetadata_v4> metaDataList = Lists.newArrayList();
     List<Path> directoryList = Lists.newArrayList();
     ConcurrentHashMap<ColumnTypeMetadata_v4.Key, ColumnTypeMetadata_v4> columnTypeInfoSet =
@@ -265,44 +345,51 @@ public class Metadata {
     assert fileStatus.isDirectory() : "Expected directory";
 
     final Map<FileStatus, FileSystem> childFiles = new LinkedHashMap<>();
+    final List<DirectoryMetadataTask> subDirectoryTasks = new ArrayList<>();
 
     for (final FileStatus file : DrillFileSystemUtil.listAll(fs, path, false)) {
       if (file.isDirectory()) {
-        ParquetTableMetadata_v4 subTableMetadata = (createMetaFilesRecursively(file.getPath(), fs, allColumnsInteresting, columnSet)).getLeft();
-        ConcurrentHashMap<ColumnTypeMetadata_v4.Key, ColumnTypeMetadata_v4> subTableColumnTypeInfo = subTableMetadata.getColumnTypeInfoMap();
-        metaDataList.addAll((List<ParquetFileMetadata_v4>) subTableMetadata.getFiles());
-        directoryList.addAll(subTableMetadata.getDirectories());
-        directoryList.add(file.getPath());
-        //TODO: We need a merge method that merges two columns with the same name but different types
-        if (columnTypeInfoSet.isEmpty()) {
-          columnTypeInfoSet.putAll(subTableColumnTypeInfo);
-        } else {
-          for (ColumnTypeMetadata_v4.Key key : subTableColumnTypeInfo.keySet()) {
-            ColumnTypeMetadata_v4 columnTypeMetadata_v4 = columnTypeInfoSet.get(key);
-            if (columnTypeMetadata_v4 == null) {
-              columnTypeMetadata_v4 = subTableColumnTypeInfo.get(key);
+        subDirectoryTasks.add(new DirectoryMetadataTask(file.getPath(), fs, allColumnsInteresting, columnSet));
+      } else {
+        childFiles.put(file, fs);
+      }
+    }
+    ForkJoinTask.invokeAll(subDirectoryTasks);
+
+    for (DirectoryMetadataTask subDirectoryTask : subDirectoryTasks) {
+      ParquetTableMetadata_v4 subTableMetadata = subDirectoryTask.join().getLeft();
+      ConcurrentHashMap<ColumnTypeMetadata_v4.Key, ColumnTypeMetadata_v4> subTableColumnTypeInfo = subTableMetadata.getColumnTypeInfoMap();
+      metaDataList.addAll((List<ParquetFileMetadata_v4>) subTableMetadata.getFiles());
+      directoryList.addAll(subTableMetadata.getDirectories());
+      directoryList.add(subDirectoryTask.path);
+      //TODO: We need a merge method that merges two columns with the same name but different types
+      if (columnTypeInfoSet.isEmpty()) {
+        columnTypeInfoSet.putAll(subTableColumnTypeInfo);
+      } else {
+        for (ColumnTypeMetadata_v4.Key key : subTableColumnTypeInfo.keySet()) {
+          ColumnTypeMetadata_v4 columnTypeMetadata_v4 = columnTypeInfoSet.get(key);
+          if (columnTypeMetadata_v4 == null) {
+            columnTypeMetadata_v4 = subTableColumnTypeInfo.get(key);
+          } else {
+            // If the existing total null count or the null count of the child file is unknown(-1), update the total null count
+            // as unknown
+            if (subTableColumnTypeInfo.get(key).totalNullCount < 0 || columnTypeMetadata_v4.totalNullCount < 0) {
+              columnTypeMetadata_v4.totalNullCount = NULL_COUNT_NOT_EXISTS;
             } else {
-              // If the existing total null count or the null count of the child file is unknown(-1), update the total null count
-              // as unknown
-              if (subTableColumnTypeInfo.get(key).totalNullCount < 0 || columnTypeMetadata_v4.totalNullCount < 0) {
-                columnTypeMetadata_v4.totalNullCount = NULL_COUNT_NOT_EXISTS;
-              } else {
-                columnTypeMetadata_v4.totalNullCount = columnTypeMetadata_v4.totalNullCount + subTableColumnTypeInfo.get(key).totalNullCount;
-              }
+              columnTypeMetadata_v4.totalNullCount = columnTypeMetadata_v4.totalNullCount + subTableColumnTypeInfo.get(key).totalNullCount;
             }
-            columnTypeInfoSet.put(key, columnTypeMetadata_v4);
           }
+          columnTypeInfoSet.put(key, columnTypeMetadata_v4);
         }
-        dirTotalRowCount = dirTotalRowCount + subTableMetadata.getTotalRowCount();
-      } else {
-        childFiles.put(file, fs);
       }
+      dirTotalRowCount = dirTotalRowCount + subTableMetadata.getTotalRowCount();
     }
     Metadata_V4.MetadataSummary metadataSummary = new Metadata_V4.MetadataSummary(SUPPORTED_VERSIONS.last().toString(),
       DrillVersionInfo.getVersion(), allColumnsInteresting || columnSet == null);
     ParquetTableMetadata_v4 parquetTableMetadata = new ParquetTableMetadata_v4(metadataSummary);
     if (childFiles.size() > 0) {
-      List<ParquetFileAndRowCountMetadata> childFileAndRowCountMetadata = getParquetFileMetadata_v4(parquetTableMetadata, childFiles, allColumnsInteresting, columnSet);
+      List<ParquetFileAndRowCountMetadata> childFileAndRowCountMetadata =
+          getChildFileMetadata(parquetTableMetadata, path, fs, childFiles, allColumnsInteresting, columnSet);
       // If the columnTypeInfoSet is empty, add the columnTypeInfo from the parquetTableMetadata
       if (columnTypeInfoSet.isEmpty()) {
         columnTypeInfoSet.putAll(parquetTableMetadata.getColumnTypeInfoMap());
@@ -352,13 +439,140 @@ public class Metadata {
     // only the directories will be included in the list.
     writeFile(new ParquetTableMetadataDirs(metadataSummaryWithRelativePaths.directories),
         new Path(path, METADATA_DIRECTORIES_FILENAME), fs);
-    if (timer != null) {
-      logger.debug("Creating metadata files recursively took {} ms", timer.elapsed(TimeUnit.MILLISECONDS));
-      timer.stop();
-    }
     return Pair.of(parquetTableMetadata, new ParquetTableMetadataDirs(directoryList));
   }
 
+  /**
+   * Get the metadata of the files of a directory, reusing the metadata of the previous metadata files of the
+   * directory for the files which were not changed since.
+   *
+   * @param parquetTableMetadata can store column schema info from all the files and row groups
+   * @param path the directory
+   * @param fs file system
+   * @param childFiles statuses of the files of the directory and corresponding file systems
+   * @param allColumnsInteresting if set, store column metadata for all the columns
+   * @param columnSet Set of columns for which column metadata has to be stored
+   * @return list of the parquet file metadata with absolute paths, in the order of {@code childFiles}
+   * @throws IOException if parquet file metadata can't be obtained
+   */
+  private List<ParquetFileAndRowCountMetadata> getChildFileMetadata(ParquetTableMetadata_v4 parquetTableMetadata,
+      Path path, FileSystem fs, Map<FileStatus, FileSystem> childFiles, boolean allColumnsInteresting,
+      Set<SchemaPath> columnSet) throws IOException {
+    Pair<ParquetTableMetadata_v4, Long> previousMetadata = allColumnsInteresting ? getPreviousFileMetadata(path, fs) : null;
+    if (previousMetadata == null) {
+      return getParquetFileMetadata_v4(parquetTableMetadata, childFiles, allColumnsInteresting, columnSet);
+    }
+    Map<Path, ParquetFileMetadata_v4> previousFiles = new HashMap<>();
+    for (ParquetFileMetadata file : previousMetadata.getLeft().getFiles()) {
+      previousFiles.put(file.getPath(), (ParquetFileMetadata_v4) file);
+    }
+    long previousModificationTime = previousMetadata.getRight();
+
+    Map<FileStatus, ParquetFileAndRowCountMetadata> fileMetadata = new LinkedHashMap<>();
+    Map<FileStatus, FileSystem> changedFiles = new LinkedHashMap<>();
+    for (Map.Entry<FileStatus, FileSystem> childFile : childFiles.entrySet()) {
+      FileStatus file = childFile.getKey();
+      ParquetFileMetadata_v4 previousFile = previousFiles.get(Path.getPathWithoutSchemeAndAuthority(file.getPath()));
+      ParquetFileAndRowCountMetadata metadata = null;
+      // a file written in the same time unit as the previous metadata may have been written after it
+      if (previousFile != null && previousFile.getLength() == file.getLen()
+          && file.getModificationTime() < previousModificationTime) {
+        metadata = reuseFileMetadata(parquetTableMetadata, previousMetadata.getLeft().getSummary(), previousFile);
+      }
+      fileMetadata.put(file, metadata);
+      if (metadata == null) {
+        changedFiles.put(file, childFile.getValue());
+      }
+    }
+    logger.debug("Reading the footers of {} new or changed files out of {} in {}",
+        changedFiles.size(), childFiles.size(), path);
+    if (!changedFiles.isEmpty()) {
+      Iterator<ParquetFileAndRowCountMetadata> changedFileMetadata =
+          getParquetFileMetadata_v4(parquetTableMetadata, changedFiles, allColumnsInteresting, columnSet).iterator();
+      for (FileStatus file : changedFiles.keySet()) {
+        fileMetadata.put(file, changedFileMetadata.next());
+      }
+    }
+    return new ArrayList<>(fileMetadata.values());
+  }
+
+  /**
+   * Reads the previous metadata files of a directory, if they hold the metadata of all the columns in the
+   * current metadata version.
+   *
+   * @param path the directory
+   * @param fs file system
+   * @return the previous metadata with absolute paths and the modification time of its file metadata file,
+   *         or null if the previous metadata can't be reused
+   */
+  private Pair<ParquetTableMetadata_v4, Long> getPreviousFileMetadata(Path path, FileSystem fs) {
+    Path fileMetadataFile = getFileMetadataFileName(path);
+    try {
+      if (!fs.exists(fileMetadataFile)) {
+        return null;
+      }
+      MetadataSummary summary = getSummary(fs, path, true, readerConfig);
+      if (summary == null || !summary.isAllColumnsInteresting()
+          || !SUPPORTED_VERSIONS.last().toString().equals(summary.getMetadataVersion())) {
+        return null;
+      }
+      long modificationTime = fs.getFileStatus(fileMetadataFile).getModificationTime();
+      ParquetTableMetadata_v4 previousMetadata = new ParquetTableMetadata_v4(summary);
+      try (InputStream is = fs.open(fileMetadataFile)) {
+        previousMetadata.assignFiles(createMetadataMapper().readValue(is, FileMetadata.class).getFiles());
+      }
+      previousMetadata.updateRelativePaths(Path.getPathWithoutSchemeAndAuthority(path).toUri().getPath());
+      return Pair.of(previousMetadata, modificationTime);
+    } catch (IOException e) {
+      logger.debug("Failed to read previous '{}' metadata file, reading all the footers", fileMetadataFile, e);
+      return null;
+    }
+  }
+
+  /**
+   * Builds the metadata of a file from its previous metadata, along with the null counts and type info that
+   * {@link FileMetadataCollector} gathers from its footer.
+   *
+   * @param parquetTableMetadata the table metadata to be updated with the columns' info of the file
+   * @param previousSummary summary of the previous metadata of the file
+   * @param previousFile previous metadata of the file
+   * @return the file metadata, or null if the previous summary misses some of its columns
+   */
+  private ParquetFileAndRowCountMetadata reuseFileMetadata(ParquetTableMetadata_v4 parquetTableMetadata,
+      MetadataSummary previousSummary, ParquetFileMetadata_v4 previousFile) {
+    Map<ColumnTypeMetadata_v4.Key, ColumnTypeMetadata_v4> columnTypeInfo = new HashMap<>();
+    Map<ColumnTypeMetadata_v4.Key, Long> totalNullCountMap = new HashMap<>();
+    long rowCount = 0;
+    for (RowGroupMetadata rowGroup : previousFile.getRowGroups()) {
+      rowCount += rowGroup.getRowCount();
+      for (MetadataBase.ColumnMetadata column : rowGroup.getColumns()) {
+        ColumnTypeMetadata_v4.Key key = new ColumnTypeMetadata_v4.Key(column.getName());
+        ColumnTypeMetadata_v4 previousType = previousSummary.getColumnTypeInfo(key);
+        if (previousType == null) {
+          return null;
+        }
+        columnTypeInfo.computeIfAbsent(key, k -> new ColumnTypeMetadata_v4.Builder()
+            .name(previousType.name)
+            .primitiveType(previousType.primitiveType)
+            .originalType(previousType.originalType)
+            .precision(previousType.precision)
+            .scale(previousType.scale)
+            .repetitionLevel(previousType.repetitionLevel)
+            .definitionLevel(previousType.definitionLevel)
+            .totalNullCount(0)
+            .interesting(previousType.isInteresting)
+            .parentTypes(previousType.parentTypes == null ? Collections.emptyList() : previousType.parentTypes)
+            .repetition(previousType.repetition)
+            .build());
+        Long nulls = column.getNulls();
+        long nullCount = totalNullCountMap.getOrDefault(key, DEFAULT_NULL_COUNT);
+        totalNullCountMap.put(key, nullCount < 0 || nulls == null || nulls < 0 ? NULL_COUNT_NOT_EXISTS : nullCount + nulls);
+      }
+    }
+    parquetTableMetadata.metadataSummary.columnTypeInfo.putAll(columnTypeInfo);
+    return new ParquetFileAndRowCountMetadata(previousFile, totalNullCountMap, rowCount);
+  }
+
   /**
    * Get the parquet metadata for the parquet files in a directory.
    *
@@ -498,14 +712,16 @@ public class Metadata {
     throws IOException, InterruptedException {
     ParquetMetadata metadata = footer; // if a non-null footer is given, no need to read it again from the file
     if (metadata == null) {
+      footerReads.increment();
       UserGroupInformation processUserUgi = ImpersonationUtil.getProcessUserUGI();
       Configuration conf = new Configuration(fs.getConf());
       try {
-        metadata = processUserUgi.doAs((PrivilegedExceptionAction<ParquetMetadata>) () -> {
-          try (ParquetFileReader parquetFileReader = ParquetFileReader.open(HadoopInputFile.fromStatus(file, conf), readerConfig.toReadOptions())) {
-            return parquetFileReader.getFooter();
-          }
-        });
+        metadata = processUserUgi.doAs((PrivilegedExceptionAction<ParquetMetadata>) () ->
+          ParquetFooterCache.readFooter(file, readerConfig, () -> {
+            try (ParquetFileReader parquetFileReader = ParquetFileReader.open(HadoopInputFile.fromStatus(file, conf), readerConfig.toReadOptions())) {
+              return parquetFileReader.getFooter();
+            }
+          }));
       } catch (Exception e) {
         logger.error("Exception while reading footer of parquet file [Details - path: {}, owner: {}] as process user {}",
           file.getPath(), file.getOwner(), processUserUgi.getShortUserName(), e);
@@ -520,6 +736,14 @@ public class Metadata {
     return metadataCollector.getFileMetadata();
   }
 
+  /**
+   * @return number of footers read from parquet files since the start of the process
+   */
+  @VisibleForTesting
+  public static long getFooterReadCount() {
+    return footerReads.sum();
+  }
+
   /**
    * Serialize parquet metadata to json and write to a file.
    *
@@ -558,22 +782,10 @@ public class Metadata {
     Stopwatch timer = logger.isDebugEnabled() ? Stopwatch.createStarted() : null;
     Path metadataParentDir = Path.getPathWithoutSchemeAndAuthority(path.getParent());
     String metadataParentDirPath = metadataParentDir.toUri().getPath();
-    ObjectMapper mapper = JacksonUtils.createObjectMapper();
-
-    final SimpleModule serialModule = new SimpleModule();
-    serialModule.addDeserializer(SchemaPath.class, new SchemaPath.De());
-    serialModule.addKeyDeserializer(Metadata_V2.ColumnTypeMetadata_v2.Key.class, new Metadata_V2.ColumnTypeMetadata_v2.Key.DeSerializer());
-    serialModule.addKeyDeserializer(Metadata_V3.ColumnTypeMetadata_v3.Key.class, new Metadata_V3.ColumnTypeMetadata_v3.Key.DeSerializer());
-    serialModule.addKeyDeserializer(ColumnTypeMetadata_v4.Key.class, new ColumnTypeMetadata_v4.Key.DeSerializer());
-
-    AfterburnerModule module = new AfterburnerModule();
-    module.setUseOptimizedBeanDeserializer(true);
+    ObjectMapper mapper = createMetadataMapper();
 
     boolean isFileMetadata = path.toString().endsWith(METADATA_FILENAME);
     boolean isSummaryFile = path.toString().endsWith(METADATA_SUMMARY_FILENAME);
-    mapper.registerModule(serialModule);
-    mapper.registerModule(module);
-    mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     try (InputStream is = fs.open(path)) {
       boolean alreadyCheckedModification;
       boolean newMetadata = false;
@@ -645,6 +857,27 @@ public class Metadata {
     }
   }
 
+  /**
+   * @return mapper reading the metadata files of any version
+   */
+  private static ObjectMapper createMetadataMapper() {
+    ObjectMapper mapper = JacksonUtils.createObjectMapper();
+
+    final SimpleModule serialModule = new SimpleModule();
+    serialModule.addDeserializer(SchemaPath.class, new SchemaPath.De());
+    serialModule.addKeyDeserializer(Metadata_V2.ColumnTypeMetadata_v2.Key.class, new Metadata_V2.ColumnTypeMetadata_v2.Key.DeSerializer());
+    serialModule.addKeyDeserializer(Metadata_V3.ColumnTypeMetadata_v3.Key.class, new Metadata_V3.ColumnTypeMetadata_v3.Key.DeSerializer());
+    serialModule.addKeyDeserializer(ColumnTypeMetadata_v4.Key.class, new ColumnTypeMetadata_v4.Key.DeSerializer());
+
+    AfterburnerModule module = new AfterburnerModule();
+    module.setUseOptimizedBeanDeserializer(true);
+
+    mapper.registerModule(serialModule);
+    mapper.registerModule(module);
+    mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    return mapper;
+  }
+
   private Set<SchemaPath> getInterestingColumns(FileSystem fs, Path metadataParentDir, boolean autoRefreshTriggered) {
     Metadata_V4.MetadataSummary metadataSummary = getSummary(fs, metadataParentDir, autoRefreshTriggered, null);
     if (metadataSummary == null) {
@@ -17,14 +17,16 @@
  */
 package org.apache.drill.exec.store.schedule;
 
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.RandomAccess;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import org.apache.drill.common.exceptions.DrillRuntimeException;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
@@ -32,7 +34,6 @@ import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
 import com.carrotsearch.hppc.cursors.ObjectLongCursor;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Iterators;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -46,15 +47,9 @@ public class AssignmentCreator<T extends CompleteWork> {
   static final Logger logger = LoggerFactory.getLogger(AssignmentCreator.class);
 
   /**
-   * Comparator used to sort in order of decreasing affinity
+   * Number of work units from which their endpoints are sorted in parallel
    */
-  private static Comparator<Entry<DrillbitEndpoint,Long>> comparator = new Comparator<Entry<DrillbitEndpoint,Long>>() {
-    @Override
-    public int compare(Entry<DrillbitEndpoint, Long> o1, Entry<DrillbitEndpoint,Long> o2) {
-      long ret = o1.getValue() - o2.getValue();
-      return ret > 0? 1 : ((ret < 0)? -1: 0);
-    }
-  };
+  static final int PARALLEL_SORT_THRESHOLD = 1024;
 
   /**
    * The maximum number of work units to assign to any minor fragment
@@ -103,18 +98,18 @@ public class AssignmentCreator<T extends CompleteWork> {
   private ListMultimap<Integer, T> getMappings() {
     Stopwatch watch = Stopwatch.createStarted();
     maxWork = (int) Math.ceil(units.size() / ((float) incomingEndpoints.size()));
-    LinkedList<WorkEndpointListPair<T>> workList = getWorkList();
-    LinkedList<WorkEndpointListPair<T>> unassignedWorkList;
     Map<DrillbitEndpoint,FragIteratorWrapper> endpointIterators = getEndpointIterators();
+    List<WorkEndpointListPair<T>> workList = getWorkList(endpointIterators);
+    ArrayDeque<WorkEndpointListPair<T>> unassignedWorkList;
 
     // Assign up to maxCount per node based on locality.
-    unassignedWorkList = assign(workList, endpointIterators, false);
+    unassignedWorkList = assign(workList, false);
 
     // Assign up to minCount per node in a round robin fashion.
     assignLeftovers(unassignedWorkList, endpointIterators, true);
 
     // Assign up to maxCount + leftovers per node based on locality.
-    unassignedWorkList = assign(unassignedWorkList, endpointIterators,  true);
+    unassignedWorkList = assign(unassignedWorkList, true);
 
     // Assign up to maxCount + leftovers per node in a round robin fashion.
     assignLeftovers(unassignedWorkList, endpointIterators, false);
@@ -129,26 +124,18 @@ public class AssignmentCreator<T extends CompleteWork> {
 
   /**
    *
-   * @param workList the list of work units to assign
-   * @param endpointIterators the endpointIterators to assign to
+   * @param workList the list of work units to assign, with the fragments of their endpoints
    * @param assignMaxLeftOvers whether to assign up to maximum including leftovers
    * @return a list of unassigned work units
    */
-  private LinkedList<WorkEndpointListPair<T>> assign(List<WorkEndpointListPair<T>> workList,
-                                                     Map<DrillbitEndpoint,FragIteratorWrapper> endpointIterators,
+  private ArrayDeque<WorkEndpointListPair<T>> assign(Collection<WorkEndpointListPair<T>> workList,
                                                      boolean assignMaxLeftOvers) {
-    LinkedList<WorkEndpointListPair<T>> currentUnassignedList = Lists.newLinkedList();
+    ArrayDeque<WorkEndpointListPair<T>> currentUnassignedList = new ArrayDeque<>();
     outer: for (WorkEndpointListPair<T> workPair : workList) {
-      List<DrillbitEndpoint> endpoints = workPair.sortedEndpoints;
-      for (DrillbitEndpoint endpoint : endpoints) {
-        FragIteratorWrapper iteratorWrapper = endpointIterators.get(endpoint);
-        if (iteratorWrapper == null) {
-          continue;
-        }
+      for (FragIteratorWrapper iteratorWrapper : workPair.sortedEndpoints) {
         if (iteratorWrapper.count < (assignMaxLeftOvers ? (iteratorWrapper.maxCount + iteratorWrapper.maxCountLeftOver) : iteratorWrapper.maxCount)) {
-          Integer assignment = iteratorWrapper.iter.next();
           iteratorWrapper.count++;
-          mappings.put(assignment, workPair.work);
+          mappings.put(iteratorWrapper.next(), workPair.work);
           continue outer;
         }
       }
@@ -163,7 +150,7 @@ public class AssignmentCreator<T extends CompleteWork> {
    * @param endpointIterators the endpointIterators to assign to
    * @param assignMinimum whether to assign the minimum amount
    */
-  private void assignLeftovers(LinkedList<WorkEndpointListPair<T>> unassignedWorkList,
+  private void assignLeftovers(ArrayDeque<WorkEndpointListPair<T>> unassignedWorkList,
                                Map<DrillbitEndpoint,FragIteratorWrapper> endpointIterators,
                                boolean assignMinimum) {
     outer: for (FragIteratorWrapper iteratorWrapper : endpointIterators.values()) {
@@ -172,62 +159,72 @@ public class AssignmentCreator<T extends CompleteWork> {
         if (workPair == null) {
           break outer;
         }
-        Integer assignment = iteratorWrapper.iter.next();
         iteratorWrapper.count++;
-        mappings.put(assignment, workPair.work);
+        mappings.put(iteratorWrapper.next(), workPair.work);
       }
     }
   }
 
   /**
-   * Builds the list of WorkEndpointListPairs, which pair a work unit with a list of endpoints sorted by affinity
-   * @return the list of WorkEndpointListPairs
+   * Builds the list of WorkEndpointListPairs, which pair a work unit with the fragments of the endpoints it has
+   * affinity to, sorted by affinity. Endpoints without fragments are left out. The endpoints of each work unit are
+   * sorted independently, so for many work units they are sorted in parallel.
+   *
+   * @param endpointIterators the fragments of each endpoint, which are only read
+   * @return the list of WorkEndpointListPairs, in the order of the work units
    */
-  private LinkedList<WorkEndpointListPair<T>> getWorkList() {
-    LinkedList<WorkEndpointListPair<T>> workList = Lists.newLinkedList();
-    for (T work : units) {
-      List<Map.Entry<DrillbitEndpoint,Long>> entries = Lists.newArrayList();
-      for (ObjectLongCursor<DrillbitEndpoint> cursor : work.getByteMap()) {
-        final DrillbitEndpoint ep = cursor.key;
-        final Long val = cursor.value;
-        Map.Entry<DrillbitEndpoint,Long> entry = new Entry<DrillbitEndpoint, Long>() {
-
-          @Override
-          public DrillbitEndpoint getKey() {
-            return ep;
-          }
-
-          @Override
-          public Long getValue() {
-            return val;
-          }
+  @SuppressWarnings("unchecked")
+  private List<WorkEndpointListPair<T>> getWorkList(Map<DrillbitEndpoint,FragIteratorWrapper> endpointIterators) {
+    List<T> work = units instanceof RandomAccess ? units : new ArrayList<>(units);
+    WorkEndpointListPair<T>[] workList = new WorkEndpointListPair[work.size()];
+    IntStream indexes = IntStream.range(0, workList.length);
+    if (workList.length >= PARALLEL_SORT_THRESHOLD) {
+      indexes = indexes.parallel();
+    }
+    indexes.forEach(i -> workList[i] = new WorkEndpointListPair<>(work.get(i),
+        getSortedEndpoints(work.get(i).getByteMap(), endpointIterators)));
+    return Arrays.asList(workList);
+  }
 
-          @Override
-          public Long setValue(Long value) {
-            throw new UnsupportedOperationException();
-          }
-        };
-        entries.add(entry);
+  /**
+   * Sorts the fragments of the endpoints of a byte map in order of increasing affinity. The sort is stable, so
+   * endpoints with the same affinity keep the order of the byte map.
+   */
+  private static FragIteratorWrapper[] getSortedEndpoints(EndpointByteMap byteMap,
+                                                          Map<DrillbitEndpoint,FragIteratorWrapper> endpointIterators) {
+    FragIteratorWrapper[] wrappers = new FragIteratorWrapper[4];
+    long[] bytes = new long[wrappers.length];
+    int count = 0;
+    for (ObjectLongCursor<DrillbitEndpoint> cursor : byteMap) {
+      FragIteratorWrapper wrapper = endpointIterators.get(cursor.key);
+      if (wrapper == null) {
+        continue;
       }
-      Collections.sort(entries, comparator);
-      List<DrillbitEndpoint> sortedEndpoints = Lists.newArrayList();
-      for (Entry<DrillbitEndpoint,Long> entry : entries) {
-        sortedEndpoints.add(entry.getKey());
+      if (count == wrappers.length) {
+        wrappers = Arrays.copyOf(wrappers, count * 2);
+        bytes = Arrays.copyOf(bytes, count * 2);
       }
-      workList.add(new WorkEndpointListPair<T>(work, sortedEndpoints));
+      // insertion sort, byte maps usually hold a few endpoints
+      int j = count++;
+      for (; j > 0 && bytes[j - 1] > cursor.value; j--) {
+        wrappers[j] = wrappers[j - 1];
+        bytes[j] = bytes[j - 1];
+      }
+      wrappers[j] = wrapper;
+      bytes[j] = cursor.value;
     }
-    return workList;
+    return count == wrappers.length ? wrappers : Arrays.copyOf(wrappers, count);
   }
 
   /**
-   * Wrapper class around a work unit and its associated sort list of Endpoints
-   * (sorted by affinity in decreasing order)
+   * Wrapper class around a work unit and the fragments of its associated endpoints
+   * (sorted by affinity in increasing order)
    */
   private static class WorkEndpointListPair<T> {
-    T work;
-    List<DrillbitEndpoint> sortedEndpoints;
+    final T work;
+    final FragIteratorWrapper[] sortedEndpoints;
 
-    WorkEndpointListPair(T work, List<DrillbitEndpoint> sortedEndpoints) {
+    WorkEndpointListPair(T work, FragIteratorWrapper[] sortedEndpoints) {
       this.work = work;
       this.sortedEndpoints = sortedEndpoints;
     }
@@ -255,7 +252,7 @@ public class AssignmentCreator<T extends CompleteWork> {
     int totalMaxCount = 0;
     for (DrillbitEndpoint endpoint : mmap.keySet()) {
       FragIteratorWrapper wrapper = new FragIteratorWrapper();
-      wrapper.iter = Iterators.cycle(mmap.get(endpoint));
+      wrapper.fragments = mmap.get(endpoint).stream().mapToInt(Integer::intValue).toArray();
       // To distribute the load among nodes equally, limit the maxCount per node.
       int maxCount = (int) ((double)mmap.get(endpoint).size()/incomingEndpoints.size() * units.size());
       wrapper.maxCount = Math.min(maxWork * mmap.get(endpoint).size(), maxCount);
@@ -288,6 +285,16 @@ public class AssignmentCreator<T extends CompleteWork> {
     int maxCount;
     int maxCountLeftOver;
     int minCount;
-    Iterator<Integer> iter;
+    int[] fragments;
+    int next;
+
+    /**
+     * Returns the next minor fragment id of the endpoint, cycling through them
+     */
+    int next() {
+      int fragment = fragments[next];
+      next = (next + 1) % fragments.length;
+      return fragment;
+    }
   }
 }
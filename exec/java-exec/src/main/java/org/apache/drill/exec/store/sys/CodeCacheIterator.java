@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.sys;
+
+import java.util.Iterator;
+
+import org.apache.drill.exec.compile.CodeCompiler;
+import org.apache.drill.exec.compile.PersistentClassCache;
+import org.apache.drill.exec.ops.ExecutorFragmentContext;
+import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
+import org.apache.drill.exec.store.pojo.NonNullable;
+
+/**
+ * Reports the usage of the cache of compiled classes of the Drillbit, in
+ * memory and, if enabled, on disk.
+ */
+public class CodeCacheIterator implements Iterator<Object> {
+
+  private boolean beforeFirst = true;
+  private final ExecutorFragmentContext context;
+
+  public CodeCacheIterator(final ExecutorFragmentContext context) {
+    this.context = context;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return beforeFirst;
+  }
+
+  @Override
+  public Object next() {
+    if (!beforeFirst) {
+      throw new IllegalStateException();
+    }
+    beforeFirst = false;
+    final CodeCacheInfo info = new CodeCacheInfo();
+
+    final DrillbitEndpoint endpoint = context.getEndpoint();
+    info.hostname = endpoint.getAddress();
+    info.user_port = endpoint.getUserPort();
+
+    final CodeCompiler compiler = context.getCompiler();
+    info.generated = compiler.getClassGenCount();
+    info.entries = compiler.getCacheSize();
+    info.misses = compiler.getCacheMissCount();
+    info.compile_time_ms = compiler.getCompileTimeMillis();
+
+    final PersistentClassCache persistentCache = compiler.getPersistentCache();
+    info.disk_enabled = persistentCache != null;
+    if (persistentCache != null) {
+      info.disk_hits = persistentCache.getHits();
+      info.disk_misses = persistentCache.getMisses();
+    }
+    return info;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static class CodeCacheInfo {
+    @NonNullable
+    public String hostname;
+    public long user_port;
+    public long generated;
+    public long entries;
+    public long misses;
+    public boolean disk_enabled;
+    public long disk_hits;
+    public long disk_misses;
+    public long compile_time_ms;
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.sys;
+
+import java.util.Iterator;
+
+import org.apache.drill.exec.ops.ExecutorFragmentContext;
+import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
+import org.apache.drill.exec.store.parquet.ParquetFooterCache;
+import org.apache.drill.exec.store.pojo.NonNullable;
+
+/**
+ * Reports the usage of the {@link ParquetFooterCache}. The cache is shared by
+ * the Drillbits of a process, which all report the same usage.
+ */
+public class ParquetFooterCacheIterator implements Iterator<Object> {
+
+  private boolean beforeFirst = true;
+  private final ExecutorFragmentContext context;
+
+  public ParquetFooterCacheIterator(final ExecutorFragmentContext context) {
+    this.context = context;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return beforeFirst;
+  }
+
+  @Override
+  public Object next() {
+    if (!beforeFirst) {
+      throw new IllegalStateException();
+    }
+    beforeFirst = false;
+    final ParquetFooterCacheInfo info = new ParquetFooterCacheInfo();
+
+    final DrillbitEndpoint endpoint = context.getEndpoint();
+    info.hostname = endpoint.getAddress();
+    info.user_port = endpoint.getUserPort();
+
+    final ParquetFooterCache footerCache = ParquetFooterCache.getInstance();
+    info.enabled = footerCache != null;
+    if (footerCache != null) {
+      info.entries = footerCache.size();
+      info.hits = footerCache.getHits();
+      info.disk_hits = footerCache.getDiskHits();
+      info.misses = footerCache.getMisses();
+      info.evictions = footerCache.getEvictions();
+    }
+    return info;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static class ParquetFooterCacheInfo {
+    @NonNullable
+    public String hostname;
+    public long user_port;
+    public boolean enabled;
+    public long entries;
+    public long hits;
+    public long disk_hits;
+    public long misses;
+    public long evictions;
+  }
+}
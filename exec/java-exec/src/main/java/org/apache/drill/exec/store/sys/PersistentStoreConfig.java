@@ -23,6 +23,7 @@ import com.google.common.base.Preconditions;
 import com.google.protobuf.Message;
 import com.google.protobuf.Message.Builder;
 import io.protostuff.Schema;
+import org.apache.drill.exec.serialization.BinaryProtoSerializer;
 import org.apache.drill.exec.serialization.InstanceSerializer;
 import org.apache.drill.exec.serialization.JacksonSerializer;
 import org.apache.drill.exec.serialization.ProtoSerializer;
@@ -83,6 +84,10 @@ public class PersistentStoreConfig<V> {
     return new StoreConfigBuilder<>(new ProtoSerializer<>(readSchema, writeSchema));
   }
 
+  public static <V extends Message, X extends Builder> StoreConfigBuilder<V> newProtoBinaryBuilder(Schema<V> writeSchema, Schema<X> readSchema) {
+    return new StoreConfigBuilder<>(new BinaryProtoSerializer<>(readSchema, writeSchema));
+  }
+
   public static <V> StoreConfigBuilder<V> newJacksonBuilder(Class<V> clazz) {
     return new StoreConfigBuilder<>(new JacksonSerializer<>(clazz));
   }
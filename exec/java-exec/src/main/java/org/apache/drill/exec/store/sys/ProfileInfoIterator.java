@@ -46,9 +46,7 @@ public class ProfileInfoIterator extends ProfileIterator {
 
   @Override
   protected Iterator<Entry<String, QueryProfile>> getProfiles(int skip, int take) {
-    return profileStoreContext
-      .getCompletedProfileStore()
-      .getRange(skip, take);
+    return profileStoreContext.getProfileSummaries(skip, take);
   }
 
   //Returns an iterator for authorized profiles
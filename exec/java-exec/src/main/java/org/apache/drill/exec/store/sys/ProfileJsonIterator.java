@@ -44,13 +44,13 @@ public class ProfileJsonIterator extends ProfileIterator {
   public ProfileJsonIterator(ExecutorFragmentContext context, int maxRecords) {
     super(context, maxRecords);
     //Holding a serializer (for JSON extract)
-    this.profileSerializer = profileStoreContext.getProfileStoreConfig().getSerializer();
+    this.profileSerializer = profileStoreContext.getProfileJsonSerializer();
     this.itr = iterateProfileInfoJson();
   }
 
   @Override
   protected Iterator<Entry<String, QueryProfile>> getProfiles(int skip, int take) {
-    return profileStoreContext.getCompletedProfileStore().getRange(skip, take);
+    return profileStoreContext.getCompletedProfiles(skip, take);
   }
 
   //Returns an iterator for authorized profiles
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.sys;
+
+import java.util.Iterator;
+
+import org.apache.drill.exec.ops.ExecutorFragmentContext;
+import org.apache.drill.exec.planner.sql.QueryPlanCache;
+import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
+import org.apache.drill.exec.store.pojo.NonNullable;
+
+/**
+ * Reports the usage of the {@link QueryPlanCache} of this Drillbit.
+ */
+public class QueryPlanCacheIterator implements Iterator<Object> {
+
+  private boolean beforeFirst = true;
+  private final ExecutorFragmentContext context;
+
+  public QueryPlanCacheIterator(final ExecutorFragmentContext context) {
+    this.context = context;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return beforeFirst;
+  }
+
+  @Override
+  public Object next() {
+    if (!beforeFirst) {
+      throw new IllegalStateException();
+    }
+    beforeFirst = false;
+    final QueryPlanCacheInfo info = new QueryPlanCacheInfo();
+
+    final DrillbitEndpoint endpoint = context.getEndpoint();
+    info.hostname = endpoint.getAddress();
+    info.user_port = endpoint.getUserPort();
+
+    final QueryPlanCache planCache = context.getDrillbitContext().getQueryPlanCache();
+    info.entries = planCache.size();
+    info.hits = planCache.getHits();
+    info.misses = planCache.getMisses();
+    info.stale_plans = planCache.getStalePlans();
+    info.evictions = planCache.getEvictions();
+    info.invalidations = planCache.getInvalidations();
+    return info;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static class QueryPlanCacheInfo {
+    @NonNullable
+    public String hostname;
+    public long user_port;
+    public long entries;
+    public long hits;
+    public long misses;
+    public long stale_plans;
+    public long evictions;
+    public long invalidations;
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.sys;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.apache.drill.exec.ops.ExecutorFragmentContext;
+import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
+import org.apache.drill.exec.proto.helper.QueryIdHelper;
+import org.apache.drill.exec.store.pojo.NonNullable;
+import org.apache.drill.exec.work.fragment.FragmentScheduler;
+import org.apache.drill.exec.work.fragment.FragmentScheduler.QueryShareInfo;
+
+/**
+ * Lists the queries with fragments on the cooperative fragment scheduler of
+ * this Drillbit, with their weight and the CPU time they received so far.
+ * Empty if cooperative scheduling is disabled.
+ */
+public class QuerySharesIterator implements Iterator<Object> {
+
+  private final DrillbitEndpoint endpoint;
+  private final Iterator<QueryShareInfo> shares;
+
+  public QuerySharesIterator(final ExecutorFragmentContext context) {
+    this.endpoint = context.getEndpoint();
+    final FragmentScheduler scheduler = context.getFragmentScheduler();
+    this.shares = scheduler == null
+        ? Collections.emptyIterator()
+        : scheduler.getQueryShares().iterator();
+  }
+
+  @Override
+  public boolean hasNext() {
+    return shares.hasNext();
+  }
+
+  @Override
+  public Object next() {
+    final QueryShareInfo share = shares.next();
+    final QueryShareRecord record = new QueryShareRecord();
+    record.hostname = endpoint.getAddress();
+    record.user_port = endpoint.getUserPort();
+    record.query_id = QueryIdHelper.getQueryId(share.getQueryId());
+    record.weight = share.getWeight();
+    record.fragments = share.getFragments();
+    record.runnable_fragments = share.getRunnableFragments();
+    record.cpu_time_ms = share.getCpuNanos() / 1_000_000;
+    record.cpu_share = share.getCpuShare();
+    return record;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static class QueryShareRecord {
+    @NonNullable
+    public String hostname;
+    public long user_port;
+    @NonNullable
+    public String query_id;
+    public long weight;
+    public long fragments;
+    public long runnable_fragments;
+    public long cpu_time_ms;
+    public double cpu_share;
+  }
+}
@@ -29,6 +29,9 @@ import org.apache.drill.exec.store.sys.OptionIterator.OptionValueWrapper;
  * <p>
  *   OPTION, DRILLBITS and VERSION are local tables available on every Drillbit.
  *   MEMORY and THREADS are distributed tables with one record on every Drillbit.
+ *   QUERY_SHARES is a distributed table with one record per running query on every Drillbit.
+ *   QUERY_PLAN_CACHE, RESULT_CACHE, PARQUET_FOOTER_CACHE, FILE_LISTING_CACHE and CODE_CACHE are distributed
+ *   tables with one record on every Drillbit.
  *   PROFILES and PROFILES_JSON are stored in local / distributed storage.
  * </p>
  */
@@ -119,6 +122,48 @@ public enum SystemTable implements DrillTableSelection {
     }
   },
 
+  QUERY_SHARES("query_shares", true, QuerySharesIterator.QueryShareRecord.class) {
+    @Override
+    public Iterator<Object> getIterator(final ExecutorFragmentContext context, final int maxRecords) {
+      return new QuerySharesIterator(context);
+    }
+  },
+
+  QUERY_PLAN_CACHE("query_plan_cache", true, QueryPlanCacheIterator.QueryPlanCacheInfo.class) {
+    @Override
+    public Iterator<Object> getIterator(final ExecutorFragmentContext context, final int maxRecords) {
+      return new QueryPlanCacheIterator(context);
+    }
+  },
+
+  RESULT_CACHE("result_cache", true, ResultCacheIterator.ResultCacheInfo.class) {
+    @Override
+    public Iterator<Object> getIterator(final ExecutorFragmentContext context, final int maxRecords) {
+      return new ResultCacheIterator(context);
+    }
+  },
+
+  PARQUET_FOOTER_CACHE("parquet_footer_cache", true, ParquetFooterCacheIterator.ParquetFooterCacheInfo.class) {
+    @Override
+    public Iterator<Object> getIterator(final ExecutorFragmentContext context, final int maxRecords) {
+      return new ParquetFooterCacheIterator(context);
+    }
+  },
+
+  FILE_LISTING_CACHE("file_listing_cache", true, FileListingCacheIterator.FileListingCacheInfo.class) {
+    @Override
+    public Iterator<Object> getIterator(final ExecutorFragmentContext context, final int maxRecords) {
+      return new FileListingCacheIterator(context);
+    }
+  },
+
+  CODE_CACHE("code_cache", true, CodeCacheIterator.CodeCacheInfo.class) {
+    @Override
+    public Iterator<Object> getIterator(final ExecutorFragmentContext context, final int maxRecords) {
+      return new CodeCacheIterator(context);
+    }
+  },
+
   FUNCTIONS("functions", false, FunctionsIterator.FunctionInfo.class) {
     @Override
     public Iterator<Object> getIterator(final ExecutorFragmentContext context, final int maxRecords) {
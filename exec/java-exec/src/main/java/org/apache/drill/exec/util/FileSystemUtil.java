@@ -19,6 +19,7 @@ package org.apache.drill.exec.util;
 
 import org.apache.drill.common.exceptions.ErrorHelper;
 import org.apache.drill.common.exceptions.UserException;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -45,6 +46,7 @@ public class FileSystemUtil {
 
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(FileSystemUtil.class);
   public static final String RECURSIVE_LISTING_PROP_NAME = "drill.exec.recursive_file_listing_max_size";
+  public static final String RECURSIVE_LISTING_PARALLELISM_PROP_NAME = "drill.exec.recursive_file_listing_parallelism";
 
   /**
    * Filter that will accept all files and directories.
@@ -253,7 +255,10 @@ public class FileSystemUtil {
   /**
    * Lists file statuses recursively based on given file system objects {@link Scope}.
    * Uses {@link ForkJoinPool} executor service and {@link RecursiveListing} task
-   * to parallel and speed up listing.
+   * to parallel and speed up listing. The number of directories listed at once
+   * defaults to the number of processors, and may be raised with the
+   * {@link #RECURSIVE_LISTING_PARALLELISM_PROP_NAME} Hadoop config property for
+   * object stores, whose listing requests mostly wait for responses.
    *
    * @param fs file system
    * @param path path to file or directory
@@ -263,9 +268,11 @@ public class FileSystemUtil {
    * @return list of file statuses
    */
   private static List<FileStatus> listRecursive(FileSystem fs, Path path, Scope scope, boolean suppressExceptions, PathFilter filter) {
-    ForkJoinPool pool = new ForkJoinPool();
+    Configuration conf = fs.getConf();
+    ForkJoinPool pool = new ForkJoinPool(
+      conf.getInt(RECURSIVE_LISTING_PARALLELISM_PROP_NAME, Runtime.getRuntime().availableProcessors()));
     AtomicInteger fileCounter = new AtomicInteger(0);
-    int recursiveListingMaxSize = fs.getConf().getInt(RECURSIVE_LISTING_PROP_NAME, 0);
+    int recursiveListingMaxSize = conf.getInt(RECURSIVE_LISTING_PROP_NAME, 0);
 
     try {
       RecursiveListing task = new RecursiveListing(
@@ -48,6 +48,7 @@ import org.apache.drill.exec.work.batch.ControlMessageHandler;
 import org.apache.drill.exec.work.filter.RuntimeFilterWritable;
 import org.apache.drill.exec.work.foreman.Foreman;
 import org.apache.drill.exec.work.fragment.FragmentExecutor;
+import org.apache.drill.exec.work.fragment.FragmentScheduler;
 import org.apache.drill.exec.work.fragment.FragmentManager;
 import org.apache.drill.exec.work.user.UserWorker;
 
@@ -87,6 +88,7 @@ public class WorkManager implements AutoCloseable {
   private final WorkerBee bee;
   private final WorkEventBus workBus;
   private final Executor executor;
+  private final FragmentScheduler fragmentScheduler;
   private final StatusThread statusThread;
   private final Lock isEmptyLock = new ReentrantLock();
   private Condition isEmptyCondition;
@@ -101,6 +103,7 @@ public class WorkManager implements AutoCloseable {
     bee = new WorkerBee(); // TODO should this just be an interface?
     workBus = new WorkEventBus(); // TODO should this just be an interface?
     executor = context.getExecutor();
+    fragmentScheduler = context.getFragmentScheduler();
 
     // TODO references to this escape here (via WorkerBee) before construction is done
     controlMessageWorker = new ControlMessageHandler(bee); // TODO getFragmentRunner(), getForemanForQueryId()
@@ -119,6 +122,10 @@ public class WorkManager implements AutoCloseable {
     statusThread.start();
 
     DrillMetrics.register("drill.fragments.running", (Gauge<Integer>) runningFragments::size);
+    if (fragmentScheduler != null) {
+      DrillMetrics.register("drill.fragments.scheduler.threads", (Gauge<Integer>) fragmentScheduler::getPoolSize);
+      DrillMetrics.register("drill.fragments.scheduler.queued", (Gauge<Long>) fragmentScheduler::getQueuedFragmentCount);
+    }
   }
 
   public Executor getExecutor() {
@@ -332,11 +339,18 @@ public class WorkManager implements AutoCloseable {
     public void addFragmentRunner(final FragmentExecutor fragmentExecutor) {
       final FragmentHandle fragmentHandle = fragmentExecutor.getContext().getHandle();
       runningFragments.put(fragmentHandle, fragmentExecutor);
+      final Runnable onCompletion = () -> {
+        runningFragments.remove(fragmentHandle);
+        indicateIfSafeToExit();
+      };
+      if (fragmentScheduler != null) {
+        fragmentScheduler.schedule(fragmentExecutor, onCompletion);
+        return;
+      }
       executor.execute(new SelfCleaningRunnable(fragmentExecutor) {
         @Override
         protected void cleanup() {
-          runningFragments.remove(fragmentHandle);
-          indicateIfSafeToExit();
+          onCompletion.run();
         }
       });
     }
@@ -355,14 +369,21 @@ public class WorkManager implements AutoCloseable {
         return;
       }
       runningFragments.put(fragmentHandle, fragmentExecutor);
+      final Runnable onCompletion = () -> {
+        runningFragments.remove(fragmentHandle);
+        if (!fragmentManager.isCancelled()) {
+          workBus.removeFragmentManager(fragmentHandle, false);
+        }
+        indicateIfSafeToExit();
+      };
+      if (fragmentScheduler != null) {
+        fragmentScheduler.schedule(fragmentExecutor, onCompletion);
+        return;
+      }
       executor.execute(new SelfCleaningRunnable(fragmentExecutor) {
         @Override
         protected void cleanup() {
-          runningFragments.remove(fragmentHandle);
-          if (!fragmentManager.isCancelled()) {
-            workBus.removeFragmentManager(fragmentHandle, false);
-          }
-          indicateIfSafeToExit();
+          onCompletion.run();
         }
       });
     }
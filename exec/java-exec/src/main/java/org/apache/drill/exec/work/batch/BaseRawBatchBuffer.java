@@ -18,6 +18,7 @@
 package org.apache.drill.exec.work.batch;
 
 import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -95,6 +96,11 @@ public abstract class BaseRawBatchBuffer<T> implements RawBatchBuffer {
     enqueueInner(batch);
   }
 
+  @Override
+  public boolean hasPendingBatches() {
+    return isTerminated() || !bufferQueue.isEmpty();
+  }
+
   /**
    * implementation specific method to enqueue batch
    *
@@ -185,7 +191,7 @@ public abstract class BaseRawBatchBuffer<T> implements RawBatchBuffer {
         // thread will stuck forever. So we pool for 5 seconds until we get a batch or FragmentExecutor state is in
         // error condition.
         while (b == null) {
-          b = bufferQueue.poll(5, TimeUnit.SECONDS);
+          b = pollWithTimeout();
           if (!context.getExecutorState().shouldContinue()) {
             kill(context);
             if (b != null) {
@@ -243,6 +249,42 @@ public abstract class BaseRawBatchBuffer<T> implements RawBatchBuffer {
     return b;
   }
 
+  /**
+   * Waits up to 5 seconds for the next batch. The wait goes through
+   * {@link ForkJoinPool#managedBlock} so that a cooperative fragment scheduler
+   * worker waiting for data is compensated by the pool.
+   */
+  private RawFragmentBatch pollWithTimeout() throws IOException, InterruptedException {
+    final PollBlocker blocker = new PollBlocker();
+    ForkJoinPool.managedBlock(blocker);
+    if (blocker.failure != null) {
+      throw blocker.failure;
+    }
+    return blocker.batch;
+  }
+
+  private class PollBlocker implements ForkJoinPool.ManagedBlocker {
+    private RawFragmentBatch batch;
+    private IOException failure;
+    private boolean done;
+
+    @Override
+    public boolean block() throws InterruptedException {
+      try {
+        batch = bufferQueue.poll(5, TimeUnit.SECONDS);
+      } catch (IOException e) {
+        failure = e;
+      }
+      done = true;
+      return true;
+    }
+
+    @Override
+    public boolean isReleasable() {
+      return done;
+    }
+  }
+
   private void assertAckSent(RawFragmentBatch batch) {
     assert batch == null || batch.isAckSent() : "Ack not sent for batch";
   }
@@ -59,6 +59,12 @@ public class IncomingBuffers implements AutoCloseable {
   private final AutoCloseableLock sharedIncomingBatchLock = new AutoCloseableLock(lock.readLock());
   private final AutoCloseableLock exclusiveCloseLock = new AutoCloseableLock(lock.writeLock());
 
+  /**
+   * Notified after each accepted batch, used to resume a fragment that yielded
+   * its thread while waiting for data. See {@link #setDataArrivalListener(Runnable)}.
+   */
+  private volatile Runnable dataArrivalListener;
+
   public IncomingBuffers(PlanFragment fragment, FragmentContext context) {
     this.context = context;
     Map<Integer, DataCollector> collectors = Maps.newHashMap();
@@ -113,6 +119,11 @@ public class IncomingBuffers implements AutoCloseable {
             .batchArrived(incomingBatch.getHeader().getSendingMinorFragmentId(), newRawFragmentBatch);
         newRawFragmentBatch.release();
 
+        final Runnable listener = dataArrivalListener;
+        if (listener != null) {
+          listener.run();
+        }
+
         // we should only return true if remaining required has been decremented and is currently equal to zero.
         return decrementedToZero;
       }
@@ -121,6 +132,34 @@ public class IncomingBuffers implements AutoCloseable {
 
   }
 
+  /**
+   * Registers a callback invoked whenever a batch has been queued in one of the
+   * buffers.
+   *
+   * @param listener callback, or null to remove the current one
+   */
+  public void setDataArrivalListener(Runnable listener) {
+    this.dataArrivalListener = listener;
+  }
+
+  /**
+   * Returns true if the owning fragment can make progress without waiting for
+   * more data: at least one buffer has a queued batch or has finished.
+   */
+  public boolean hasPendingData() {
+    if (isDone()) {
+      return true;
+    }
+    for (DataCollector collector : collectorMap.values()) {
+      for (RawBatchBuffer buffer : collector.getBuffers()) {
+        if (buffer.hasPendingBatches()) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   public int getRemainingRequired() {
     int rem = remainingRequired.get();
     if (rem < 0) {
@@ -38,4 +38,10 @@ public interface RawBatchBuffer extends RawFragmentBatchProvider {
    * @return Whether response should be returned.
    */
   public void enqueue(RawFragmentBatch batch) throws IOException;
+
+  /**
+   * Returns true if a call to {@link #getNext()} would not have to wait, i.e.
+   * a batch is queued or all incoming streams have finished.
+   */
+  public boolean hasPendingBatches();
 }
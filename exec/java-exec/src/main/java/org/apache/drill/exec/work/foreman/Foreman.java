@@ -20,7 +20,9 @@ package org.apache.drill.exec.work.foreman;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.drill.common.util.JacksonUtils;
 import org.apache.drill.exec.work.filter.RuntimeFilterRouter;
+import com.codahale.metrics.Timer;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.Lists;
 import com.google.protobuf.InvalidProtocolBufferException;
 import io.netty.util.concurrent.Future;
@@ -30,9 +32,13 @@ import org.apache.drill.common.exceptions.UserException;
 import org.apache.drill.common.logical.LogicalPlan;
 import org.apache.drill.common.logical.PlanProperties.Generator.ResultMode;
 import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.cache.result.ResultCache;
+import org.apache.drill.exec.cache.result.ResultCacheConnection;
 import org.apache.drill.exec.exception.OptimizerException;
 import org.apache.drill.exec.exception.OutOfMemoryException;
+import org.apache.drill.exec.metrics.DrillMetrics;
 import org.apache.drill.exec.ops.QueryContext;
+import org.apache.drill.exec.ops.QueryContext.SqlStatementType;
 import org.apache.drill.exec.opt.BasicOptimizer;
 import org.apache.drill.exec.physical.PhysicalPlan;
 import org.apache.drill.exec.physical.base.FragmentRoot;
@@ -56,7 +62,9 @@ import org.apache.drill.exec.rpc.RpcException;
 import org.apache.drill.exec.rpc.UserClientConnection;
 import org.apache.drill.exec.server.DrillbitContext;
 import org.apache.drill.exec.server.FailureUtils;
+import org.apache.drill.exec.server.options.OptionManager;
 import org.apache.drill.exec.server.options.OptionSet;
+import org.apache.drill.exec.store.dfs.FileListingCache;
 import org.apache.drill.exec.testing.ControlsInjector;
 import org.apache.drill.exec.testing.ControlsInjectorFactory;
 import org.apache.drill.exec.util.Pointer;
@@ -71,6 +79,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.drill.exec.server.FailureUtils.EXIT_CODE_HEAP_OOM;
 
@@ -97,6 +106,12 @@ import static org.apache.drill.exec.server.FailureUtils.EXIT_CODE_HEAP_OOM;
 public class Foreman implements Runnable {
   private static final Logger logger = LoggerFactory.getLogger(Foreman.class);
   private static final Logger queryLogger = LoggerFactory.getLogger("query.logger");
+
+  /**
+   * Time taken to split the physical plans into fragments and assign them to Drillbits,
+   * which is part of the planning time of the query profiles.
+   */
+  private static final Timer PARALLELIZATION_TIMER = DrillMetrics.getRegistry().timer("drill.queries.parallelization");
   private static final ControlsInjector injector = ControlsInjectorFactory.getInjector(Foreman.class);
 
   public enum ProfileOption { SYNC, ASYNC, NONE }
@@ -413,6 +428,7 @@ public class Foreman implements Runnable {
     validatePlan(plan);
 
     queryRM.visitAbstractPlan(plan);
+    applyQueueSchedulingWeight(plan.totalCost());
     final QueryWorkUnit work = getQueryWorkUnit(plan, queryRM);
     if (enableRuntimeFilter) {
       runtimeFilterRouter = new RuntimeFilterRouter(work, drillbitContext);
@@ -428,11 +444,33 @@ public class Foreman implements Runnable {
     work.applyPlan(drillbitContext.getPlanReader());
     logWorkUnit(work);
 
+    final ResultCache.Writer resultCacheWriter = queryContext.getResultCacheWriter();
+    if (resultCacheWriter != null) {
+      fragmentsRunner.setInitiatingClient(new ResultCacheConnection(initiatingClient, resultCacheWriter));
+    }
     fragmentsRunner.setFragmentsInfo(work.getFragments(), work.getRootFragment(), work.getRootOperator());
 
     startQueryProcessing();
   }
 
+  /**
+   * Gives queries bound for the large queue the scheduling weight configured
+   * for that queue. Must run before the fragments are generated since they
+   * carry a copy of the query options.
+   *
+   * @param cost total cost of the physical plan
+   */
+  private void applyQueueSchedulingWeight(double cost) {
+    if (!queryRM.hasQueue()) {
+      return;
+    }
+    final OptionManager options = queryContext.getOptions();
+    final long largeWeight = options.getLong(ExecConstants.QUEUE_LARGE_SCHEDULING_WEIGHT_KEY);
+    if (largeWeight > 0 && cost >= options.getLong(ExecConstants.QUEUE_THRESHOLD_SIZE.getOptionName())) {
+      options.setLocalOption(ExecConstants.QUERY_SCHEDULING_WEIGHT_KEY, largeWeight);
+    }
+  }
+
   /**
    * This is a helper method to run query based on the list of PlanFragment that were planned
    * at some point of time
@@ -555,6 +593,7 @@ public class Foreman implements Runnable {
 
     queryText = serverState.getSqlQuery();
     logger.info("Prepared statement query for QueryId {} : {}", queryId, queryText);
+    queryContext.setPreparedStatement(true);
     runSQL(queryText);
 
   }
@@ -574,11 +613,17 @@ public class Foreman implements Runnable {
 
     final Fragment rootFragment = rootOperator.accept(MakeFragmentsVisitor.INSTANCE, null);
 
-    return rm.getParallelizer(plan.getProperties().hasResourcePlan).generateWorkUnit(queryContext.getOptions().getOptionList(),
+    final Stopwatch watch = Stopwatch.createStarted();
+    final QueryWorkUnit workUnit = rm.getParallelizer(plan.getProperties().hasResourcePlan).generateWorkUnit(queryContext.getOptions().getOptionList(),
                                                                         queryContext.getCurrentEndpoint(),
                                                                         queryId, queryContext.getOnlineEndpoints(),
                                                                         rootFragment, initiatingClient.getSession(),
                                                                         queryContext.getQueryContextInfo());
+    final long elapsed = watch.elapsed(TimeUnit.NANOSECONDS);
+    PARALLELIZATION_TIMER.update(elapsed, TimeUnit.NANOSECONDS);
+    logger.debug("{}: parallelized the plan into {} fragments in {} ms", queryIdString,
+        workUnit.getFragments().size() + 1, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    return workUnit;
   }
 
   private void logWorkUnit(QueryWorkUnit queryWorkUnit) {
@@ -755,6 +800,19 @@ public class Foreman implements Runnable {
       // log the query summary
       logQuerySummary();
 
+      // run while the schemas of the query context are still open
+      if (resultState == QueryState.COMPLETED) {
+        for (QueryContext.CompletionAction action : queryContext.getCompletionActions()) {
+          try {
+            action.run();
+          } catch (Exception e) {
+            resultState = QueryState.FAILED;
+            addException(e);
+            break;
+          }
+        }
+      }
+
       // These are straight forward removals from maps, so they won't throw.
       drillbitContext.getWorkBus().removeFragmentStatusListener(queryId);
       drillbitContext.getClusterCoordinator().removeDrillbitStatusListener(queryManager.getDrillbitStatusListener());
@@ -774,6 +832,23 @@ public class Foreman implements Runnable {
       // set query end time before writing final profile
       queryStateProcessor.close();
 
+      // stored before the client learns that the query completed, so that it
+      // finds the result if it runs the query again
+      final ResultCache.Writer resultCacheWriter = queryContext.getResultCacheWriter();
+      if (resultCacheWriter != null) {
+        if (resultState == QueryState.COMPLETED) {
+          resultCacheWriter.commit();
+        } else {
+          resultCacheWriter.discard();
+        }
+      }
+
+      // the files written by the query are listed again by the next queries
+      final SqlStatementType statementType = queryContext.getSQLStatementType();
+      if (statementType == SqlStatementType.CTAS || statementType == SqlStatementType.INSERT) {
+        FileListingCache.invalidateAll();
+      }
+
       /*
        * Construct the response based on the latest resultState. The builder shouldn't fail.
        */
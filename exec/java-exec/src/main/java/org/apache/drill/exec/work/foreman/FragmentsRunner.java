@@ -61,7 +61,7 @@ public class FragmentsRunner {
   private static final ControlsInjector injector = ControlsInjectorFactory.getInjector(FragmentsRunner.class);
 
   private final WorkerBee bee;
-  private final UserClientConnection initiatingClient;
+  private UserClientConnection initiatingClient;
   private final DrillbitContext drillbitContext;
   private final Foreman foreman;
 
@@ -76,6 +76,14 @@ public class FragmentsRunner {
     this.foreman = foreman;
   }
 
+  /**
+   * Replaces the connection the root fragment sends the query results to.
+   * Must be called before the fragments are submitted.
+   */
+  public void setInitiatingClient(UserClientConnection initiatingClient) {
+    this.initiatingClient = initiatingClient;
+  }
+
   public WorkerBee getBee() {
     return bee;
   }
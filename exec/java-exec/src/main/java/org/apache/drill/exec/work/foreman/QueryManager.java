@@ -50,8 +50,8 @@ import org.apache.drill.exec.proto.helper.QueryIdHelper;
 import org.apache.drill.exec.rpc.RpcException;
 import org.apache.drill.exec.rpc.control.Controller;
 import org.apache.drill.exec.server.DrillbitContext;
+import org.apache.drill.exec.server.QueryProfileStoreContext;
 import org.apache.drill.exec.server.options.OptionList;
-import org.apache.drill.exec.store.sys.PersistentStore;
 import org.apache.drill.exec.store.sys.PersistentStoreProvider;
 import org.apache.drill.exec.work.EndpointListener;
 
@@ -84,7 +84,7 @@ public class QueryManager implements AutoCloseable {
       new IntObjectHashMap<>();
   private final List<FragmentData> fragmentDataSet = Lists.newArrayList();
 
-  private final PersistentStore<QueryProfile> completedProfileStore;
+  private final QueryProfileStoreContext profileStoreContext;
   private final TransientStore<QueryInfo> runningProfileStore;
 
   // the following mutable variables are used to capture ongoing query status
@@ -121,8 +121,8 @@ public class QueryManager implements AutoCloseable {
 
     stringQueryId = QueryIdHelper.getQueryId(queryId);
 
-    this.completedProfileStore = foreman.getQueryContext().getProfileStoreContext().getCompletedProfileStore();
-    this.runningProfileStore = foreman.getQueryContext().getProfileStoreContext().getRunningProfileStore();
+    this.profileStoreContext = foreman.getQueryContext().getProfileStoreContext();
+    this.runningProfileStore = profileStoreContext.getRunningProfileStore();
   }
 
   private static boolean isTerminal(final FragmentState state) {
@@ -325,7 +325,7 @@ public class QueryManager implements AutoCloseable {
   void writeFinalProfile(UserException ex) {
     try {
       // TODO(DRILL-2362) when do these ever get deleted?
-      completedProfileStore.put(stringQueryId, getQueryProfile(ex));
+      profileStoreContext.storeCompletedProfile(stringQueryId, getQueryProfile(ex));
     } catch (Exception e) {
       logger.error("Failure while storing Query Profile", e);
     }
@@ -47,6 +47,7 @@ import org.apache.drill.exec.server.FailureUtils;
 import org.apache.drill.exec.testing.ControlsInjector;
 import org.apache.drill.exec.testing.ControlsInjectorFactory;
 import org.apache.drill.exec.util.ImpersonationUtil;
+import org.apache.drill.exec.work.batch.IncomingBuffers;
 import org.apache.drill.exec.work.foreman.DrillbitStatusListener;
 import org.apache.hadoop.security.UserGroupInformation;
 import org.slf4j.Logger;
@@ -127,6 +128,17 @@ import static org.apache.drill.exec.server.FailureUtils.EXIT_CODE_HEAP_OOM;
  * upstream?</li>
  * </ol>
  * </p>
+ * <h2>Cooperative Scheduling</h2>
+ * <p>
+ * When a {@link FragmentScheduler} is set, {@link FragmentExecutor#run()} runs
+ * one slice of the fragment instead of the whole fragment. A slice ends when the
+ * fragment's {@link IncomingBuffers} have no data to process, in which case the
+ * fragment is parked until the next batch arrives, or when the scheduler's time
+ * slice is used up, in which case the fragment is re-queued. Resources are only
+ * released, and the completion listener notified, once the last slice finishes.
+ * Cancellation of a parked fragment resumes it so that it can clean up; a running
+ * slice is interrupted as in the thread-per-fragment mode.
+ * </p>
  */
 public class FragmentExecutor implements Runnable {
   private static final Logger logger = LoggerFactory.getLogger(FragmentExecutor.class);
@@ -152,6 +164,18 @@ public class FragmentExecutor implements Runnable {
   // Thread that is currently executing the Fragment. Value is null if the fragment hasn't started running or finished
   private final AtomicReference<Thread> myThreadRef = new AtomicReference<>(null);
 
+  private final DrillbitStatusListener drillbitStatusListener = new FragmentDrillbitStatusListener();
+
+  // Cooperative scheduling state, unused when the fragment runs on its own thread.
+  private volatile FragmentScheduler scheduler;
+  private Runnable completionListener;
+  private volatile boolean started;
+  private final Object scheduleLock = new Object();
+  // Guarded by scheduleLock: thread running the current slice, null between slices
+  private Thread sliceThread;
+  // Guarded by scheduleLock: true while waiting for incoming data with no slice queued
+  private boolean parked;
+
   /**
    * Create a FragmentExecutor where we need to parse and materialize the root operator.
    *
@@ -266,50 +290,83 @@ public class FragmentExecutor implements Runnable {
     eventProcessor.receiverFinished(handle);
   }
 
+  /**
+   * Switches this fragment to cooperative scheduling. Must be called before the
+   * fragment is first run.
+   *
+   * @param scheduler scheduler that runs the slices of this fragment
+   * @param completionListener invoked once the fragment has finished
+   */
+  void setScheduler(FragmentScheduler scheduler, Runnable completionListener) {
+    this.completionListener = completionListener;
+    this.scheduler = scheduler;
+  }
+
   @Override
   public void run() {
     final Thread myThread = Thread.currentThread();
+    final boolean resumed = started;
 
-    if (!myThreadRef.compareAndSet(null, myThread)) {
+    if (resumed) {
+      synchronized (scheduleLock) {
+        sliceThread = myThread;
+      }
+    } else if (!myThreadRef.compareAndSet(null, myThread)) {
+      // cancelled before it was started, resources were released by the cancelling thread
+      notifyCompletion();
       return;
+    } else {
+      synchronized (scheduleLock) {
+        started = true;
+        sliceThread = myThread;
+      }
     }
 
     final String originalThreadName = myThread.getName();
     final FragmentHandle fragmentHandle = fragmentContext.getHandle();
     final ClusterCoordinator clusterCoordinator = fragmentContext.getClusterCoordinator();
-    final DrillbitStatusListener drillbitStatusListener = new FragmentDrillbitStatusListener();
     final String newThreadName = QueryIdHelper.getExecutorThreadName(fragmentHandle);
+    boolean yielded = false;
 
     try {
       myThread.setName(newThreadName);
 
-      // if we didn't get the root operator when the executor was created, create it now.
-      final FragmentRoot rootOperator = this.rootOperator != null ? this.rootOperator :
-          fragmentContext.getPlanReader().readFragmentRoot(fragment.getFragmentJson());
+      if (!resumed) {
+        // if we didn't get the root operator when the executor was created, create it now.
+        final FragmentRoot rootOperator = this.rootOperator != null ? this.rootOperator :
+            fragmentContext.getPlanReader().readFragmentRoot(fragment.getFragmentJson());
 
-      root = ImplCreator.getExec(fragmentContext, rootOperator);
-      if (root == null) {
-        return;
-      }
+        root = ImplCreator.getExec(fragmentContext, rootOperator);
+        if (root == null) {
+          return;
+        }
 
-      clusterCoordinator.addDrillbitStatusListener(drillbitStatusListener);
-      updateState(FragmentState.RUNNING);
+        clusterCoordinator.addDrillbitStatusListener(drillbitStatusListener);
+        updateState(FragmentState.RUNNING);
 
-      eventProcessor.start();
-      injector.injectPause(fragmentContext.getExecutionControls(), "fragment-running", logger);
+        if (scheduler != null && fragmentContext.getBuffers() != null) {
+          fragmentContext.getBuffers().setDataArrivalListener(this::resume);
+        }
 
-      final DrillbitEndpoint endpoint = fragmentContext.getEndpoint();
-      logger.debug("Starting fragment {}:{} on {}:{}",
-          fragmentHandle.getMajorFragmentId(), fragmentHandle.getMinorFragmentId(),
-          endpoint.getAddress(), endpoint.getUserPort());
+        eventProcessor.start();
+        injector.injectPause(fragmentContext.getExecutionControls(), "fragment-running", logger);
+
+        final DrillbitEndpoint endpoint = fragmentContext.getEndpoint();
+        logger.debug("Starting fragment {}:{} on {}:{}",
+            fragmentHandle.getMajorFragmentId(), fragmentHandle.getMinorFragmentId(),
+            endpoint.getAddress(), endpoint.getUserPort());
+      }
 
       final UserGroupInformation queryUserUgi = fragmentContext.isImpersonationEnabled() ?
           ImpersonationUtil.createProxyUgi(fragmentContext.getQueryUserName()) :
           ImpersonationUtil.getProcessUserUGI();
 
-      queryUserUgi.doAs((PrivilegedExceptionAction<Void>) () -> {
-        injector.injectChecked(fragmentContext.getExecutionControls(), "fragment-execution", IOException.class);
+      yielded = queryUserUgi.doAs((PrivilegedExceptionAction<Boolean>) () -> {
+        if (!resumed) {
+          injector.injectChecked(fragmentContext.getExecutionControls(), "fragment-execution", IOException.class);
+        }
 
+        final long sliceStart = System.nanoTime();
         while (shouldContinue()) {
           // Fragment is not cancelled
 
@@ -318,13 +375,18 @@ public class FragmentExecutor implements Runnable {
             root.receivingFragmentFinished(fragmentHandle1);
           }
 
+          if (scheduler != null && shouldYield(sliceStart)) {
+            // Give the thread back to the scheduler, the fragment continues in a later slice
+            return true;
+          }
+
           if (!root.next()) {
             // Fragment has processed all of its data
             break;
           }
         }
 
-        return null;
+        return false;
       });
 
     } catch (QueryCancelledException e) {
@@ -346,21 +408,84 @@ public class FragmentExecutor implements Runnable {
       }
       fail(t);
     } finally {
+      if (yielded) {
+        myThread.setName(originalThreadName);
+        endSlice();
+      } else {
+
+        // Don't process any more termination requests, we are done.
+        eventProcessor.terminate();
+        // Clear the interrupt flag if it is set.
+        Thread.interrupted();
+
+        // here we could be in FAILED, RUNNING, or CANCELLATION_REQUESTED
+        // FAILED state will be because of any Exception in execution loop root.next()
+        // CANCELLATION_REQUESTED because of a CANCEL request received by Foreman.
+        // ELSE will be in FINISHED state.
+        cleanup(FragmentState.FINISHED);
 
-      // Don't process any more termination requests, we are done.
-      eventProcessor.terminate();
-      // Clear the interrupt flag if it is set.
-      Thread.interrupted();
+        clusterCoordinator.removeDrillbitStatusListener(drillbitStatusListener);
 
-      // here we could be in FAILED, RUNNING, or CANCELLATION_REQUESTED
-      // FAILED state will be because of any Exception in execution loop root.next()
-      // CANCELLATION_REQUESTED because of a CANCEL request received by Foreman.
-      // ELSE will be in FINISHED state.
-      cleanup(FragmentState.FINISHED);
+        myThread.setName(originalThreadName);
+        notifyCompletion();
+      }
+    }
+  }
+
+  /**
+   * Decides whether the current slice should end before the next call to
+   * {@link RootExec#next()}: either there is no incoming data to work on, or the
+   * fragment has used up its time slice.
+   */
+  private boolean shouldYield(long sliceStart) {
+    return !hasIncomingData() || System.nanoTime() - sliceStart >= scheduler.getTimeSliceNanos();
+  }
+
+  private boolean hasIncomingData() {
+    final IncomingBuffers buffers = fragmentContext.getBuffers();
+    return buffers == null || buffers.hasPendingData();
+  }
+
+  /**
+   * Ends the current slice: parks the fragment if it is waiting for data,
+   * otherwise queues its next slice. The check for data and the parked flag are
+   * updated under {@link #scheduleLock} so a batch arriving concurrently either
+   * is seen here or finds the fragment parked and resumes it.
+   */
+  private void endSlice() {
+    boolean requeue = true;
+    synchronized (scheduleLock) {
+      sliceThread = null;
+      if (shouldContinue() && receiverFinishedQueue.isEmpty() && !hasIncomingData()) {
+        parked = true;
+        requeue = false;
+      }
+    }
+    // An interrupt aimed at the slice that just ended must not leak into
+    // the next task run by this pool thread.
+    Thread.interrupted();
+    if (requeue) {
+      scheduler.resume(this);
+    }
+  }
 
-      clusterCoordinator.removeDrillbitStatusListener(drillbitStatusListener);
+  /**
+   * Queues the next slice of a parked fragment. Called when data arrives, a
+   * receiver finished or the fragment is cancelled.
+   */
+  private void resume() {
+    synchronized (scheduleLock) {
+      if (!parked) {
+        return;
+      }
+      parked = false;
+    }
+    scheduler.resume(this);
+  }
 
-      myThread.setName(originalThreadName);
+  private void notifyCompletion() {
+    if (completionListener != null) {
+      completionListener.run();
     }
   }
 
@@ -636,6 +761,9 @@ public class FragmentExecutor implements Runnable {
               QueryIdHelper.getFragmentId(event.handle));
 
             receiverFinishedQueue.add(event.handle);
+            if (scheduler != null) {
+              resume();
+            }
           } else {
             logger.warn("Dropping request for early fragment termination for path {} -> {} as no root exec exists.",
               QueryIdHelper.getFragmentId(getContext().getHandle()), QueryIdHelper.getFragmentId(event.handle));
@@ -652,6 +780,19 @@ public class FragmentExecutor implements Runnable {
      * procedure of the main thread.
     */
     private void killThread() {
+      if (scheduler != null) {
+        // Only the thread running the current slice may be interrupted: between
+        // slices the pool thread is running other work.
+        synchronized (scheduleLock) {
+          if (sliceThread != null) {
+            logger.debug("Interrupting fragment thread {}", sliceThread.getName());
+            sliceThread.interrupt();
+            return;
+          }
+        }
+        resume();
+        return;
+      }
       // myThreadRef must contain a non-null reference at this point
       final Thread myThread = myThreadRef.get();
       logger.debug("Interrupting fragment thread {}", myThread.getName());
@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.work.fragment;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.proto.UserBitShared.QueryId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drives fragments in cooperative scheduling mode
+ * ({@link ExecConstants#FRAGMENT_SCHEDULER_COOPERATIVE}).
+ * <p>
+ * Instead of giving each {@link FragmentExecutor} a dedicated thread for its
+ * whole lifetime, fragments run in slices on a fixed-size work-stealing pool.
+ * A fragment gives its thread back when its incoming buffers are empty (it is
+ * resumed when the next batch arrives) or when it has used up its time slice
+ * (it is re-queued behind the other runnable fragments).
+ * <p>
+ * Operators still use the pull model, so a fragment may block inside
+ * {@code next()}, for example a merging receiver waiting on one particular
+ * sender or a sender out of credits. Those waits go through
+ * {@link ForkJoinPool#managedBlock(ForkJoinPool.ManagedBlocker)} so that the
+ * pool adds a compensating worker instead of starving runnable fragments.
+ * <h4>Fair Share</h4>
+ * Runnable fragments are grouped by query. Each query has a weight
+ * ({@link ExecConstants#QUERY_SCHEDULING_WEIGHT_KEY}) and accumulates a
+ * virtual time: the CPU time its slices consumed divided by its weight. A free
+ * worker always runs a fragment of the runnable query with the smallest
+ * virtual time, so concurrent queries receive CPU in proportion to their
+ * weights. A query that becomes active starts at the smallest virtual time of
+ * the queries already running, so it neither starves them nor is starved.
+ */
+public class FragmentScheduler implements AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(FragmentScheduler.class);
+
+  private static final int SHUTDOWN_TIMEOUT_SECONDS = 1;
+
+  private final ForkJoinPool pool;
+  private final long timeSliceNanos;
+  private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+  private final boolean cpuTimeSupported;
+
+  // Guarded by this
+  private final Map<QueryId, QueryShare> shares = new HashMap<>();
+  // Guarded by this; only moves forward
+  private double minVirtualTime;
+
+  public FragmentScheduler(DrillConfig config) {
+    int threads = config.getInt(ExecConstants.FRAGMENT_SCHEDULER_THREADS);
+    if (threads <= 0) {
+      threads = Runtime.getRuntime().availableProcessors();
+    }
+    this.timeSliceNanos = TimeUnit.MILLISECONDS.toNanos(
+        config.getLong(ExecConstants.FRAGMENT_SCHEDULER_TIME_SLICE_MS));
+    this.pool = new ForkJoinPool(threads, FragmentWorkerThread::new,
+        (thread, e) -> logger.error("{} leaked an exception.", thread.getName(), e), true);
+    this.cpuTimeSupported = threadMXBean.isCurrentThreadCpuTimeSupported();
+    logger.info("Cooperative fragment scheduling enabled with {} worker threads", threads);
+  }
+
+  /**
+   * Starts running the given fragment on the scheduler pool.
+   *
+   * @param fragmentExecutor fragment to run
+   * @param completionListener invoked once the fragment has finished,
+   *                           on the thread that ran its last slice
+   */
+  public void schedule(FragmentExecutor fragmentExecutor, Runnable completionListener) {
+    final QueryShare share;
+    synchronized (this) {
+      share = shares.computeIfAbsent(queryIdOf(fragmentExecutor),
+          queryId -> new QueryShare(queryId, weightOf(fragmentExecutor), minVirtualTime));
+      share.fragments++;
+    }
+    fragmentExecutor.setScheduler(this, () -> {
+      release(share);
+      completionListener.run();
+    });
+    resume(fragmentExecutor);
+  }
+
+  /**
+   * Queues the next slice of a fragment.
+   */
+  void resume(FragmentExecutor fragmentExecutor) {
+    synchronized (this) {
+      QueryShare share = shares.get(queryIdOf(fragmentExecutor));
+      if (share == null) {
+        // fragment has already completed
+        return;
+      }
+      share.runnable.add(fragmentExecutor);
+    }
+    // one dispatch per queued slice, the dispatch picks whichever slice is due
+    pool.execute(this::runNextSlice);
+  }
+
+  private void runNextSlice() {
+    final QueryShare share;
+    final FragmentExecutor fragmentExecutor;
+    synchronized (this) {
+      share = nextShare();
+      if (share == null) {
+        return;
+      }
+      fragmentExecutor = share.runnable.poll();
+    }
+    final long start = currentTime();
+    try {
+      fragmentExecutor.run();
+    } finally {
+      charge(share, currentTime() - start);
+    }
+  }
+
+  /**
+   * Returns the query with runnable fragments that has the smallest virtual time.
+   */
+  private QueryShare nextShare() {
+    QueryShare next = null;
+    for (QueryShare share : shares.values()) {
+      if (!share.runnable.isEmpty() && (next == null || share.virtualTime < next.virtualTime)) {
+        next = share;
+      }
+    }
+    return next;
+  }
+
+  private synchronized void charge(QueryShare share, long nanos) {
+    share.cpuNanos += nanos;
+    share.virtualTime += (double) nanos / share.weight;
+    updateMinVirtualTime();
+  }
+
+  private synchronized void release(QueryShare share) {
+    if (--share.fragments == 0) {
+      shares.remove(share.queryId);
+      updateMinVirtualTime();
+    }
+  }
+
+  private void updateMinVirtualTime() {
+    double min = Double.MAX_VALUE;
+    for (QueryShare share : shares.values()) {
+      min = Math.min(min, share.virtualTime);
+    }
+    if (min != Double.MAX_VALUE && min > minVirtualTime) {
+      minVirtualTime = min;
+    }
+  }
+
+  private long currentTime() {
+    return cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : System.nanoTime();
+  }
+
+  private static QueryId queryIdOf(FragmentExecutor fragmentExecutor) {
+    return fragmentExecutor.getContext().getHandle().getQueryId();
+  }
+
+  private static long weightOf(FragmentExecutor fragmentExecutor) {
+    return Math.max(1, fragmentExecutor.getContext().getOptions()
+        .getLong(ExecConstants.QUERY_SCHEDULING_WEIGHT_KEY));
+  }
+
+  long getTimeSliceNanos() {
+    return timeSliceNanos;
+  }
+
+  public int getParallelism() {
+    return pool.getParallelism();
+  }
+
+  public int getPoolSize() {
+    return pool.getPoolSize();
+  }
+
+  public long getQueuedFragmentCount() {
+    return pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount();
+  }
+
+  /**
+   * Returns a snapshot of the queries that currently have fragments on this
+   * scheduler, along with the share of CPU time each has received so far.
+   */
+  public synchronized List<QueryShareInfo> getQueryShares() {
+    long totalNanos = 0;
+    for (QueryShare share : shares.values()) {
+      totalNanos += share.cpuNanos;
+    }
+    List<QueryShareInfo> infos = new ArrayList<>(shares.size());
+    for (QueryShare share : shares.values()) {
+      infos.add(new QueryShareInfo(share.queryId, share.weight, share.fragments, share.runnable.size(),
+          share.cpuNanos, totalNanos == 0 ? 0 : (double) share.cpuNanos / totalNanos));
+    }
+    return infos;
+  }
+
+  @Override
+  public void close() {
+    pool.shutdown();
+    try {
+      if (!pool.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        pool.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      logger.warn("Interrupted while waiting for fragment scheduler to terminate");
+      pool.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Scheduling state of one query on this Drillbit.
+   */
+  private static class QueryShare {
+    private final QueryId queryId;
+    private final long weight;
+    private final Queue<FragmentExecutor> runnable = new ArrayDeque<>();
+    private int fragments;
+    private long cpuNanos;
+    private double virtualTime;
+
+    QueryShare(QueryId queryId, long weight, double virtualTime) {
+      this.queryId = queryId;
+      this.weight = weight;
+      this.virtualTime = virtualTime;
+    }
+  }
+
+  /**
+   * Point-in-time view of a query's scheduling state.
+   */
+  public static class QueryShareInfo {
+    private final QueryId queryId;
+    private final long weight;
+    private final int fragments;
+    private final int runnableFragments;
+    private final long cpuNanos;
+    private final double cpuShare;
+
+    QueryShareInfo(QueryId queryId, long weight, int fragments, int runnableFragments,
+                   long cpuNanos, double cpuShare) {
+      this.queryId = queryId;
+      this.weight = weight;
+      this.fragments = fragments;
+      this.runnableFragments = runnableFragments;
+      this.cpuNanos = cpuNanos;
+      this.cpuShare = cpuShare;
+    }
+
+    public QueryId getQueryId() {
+      return queryId;
+    }
+
+    public long getWeight() {
+      return weight;
+    }
+
+    public int getFragments() {
+      return fragments;
+    }
+
+    public int getRunnableFragments() {
+      return runnableFragments;
+    }
+
+    public long getCpuNanos() {
+      return cpuNanos;
+    }
+
+    public double getCpuShare() {
+      return cpuShare;
+    }
+  }
+
+  private static class FragmentWorkerThread extends ForkJoinWorkerThread {
+    private static final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    FragmentWorkerThread(ForkJoinPool pool) {
+      super(pool);
+      setName("drill-fragment-" + threadNumber.getAndIncrement());
+      setDaemon(true);
+    }
+  }
+}
@@ -30,6 +30,7 @@ import org.apache.drill.common.scanner.ClassPathScanner;
 import org.apache.drill.common.scanner.persistence.ScanResult;
 import org.apache.drill.common.types.TypeProtos;
 import org.apache.drill.exec.ExecTest;
+import org.apache.drill.exec.cache.result.ResultCache;
 import org.apache.drill.exec.alias.AliasRegistryProvider;
 import org.apache.drill.exec.expr.fn.FunctionImplementationRegistry;
 import org.apache.drill.exec.expr.holders.ValueHolder;
@@ -38,9 +39,11 @@ import org.apache.drill.exec.memory.RootAllocatorFactory;
 import org.apache.drill.exec.ops.QueryContext;
 import org.apache.drill.exec.ops.ViewExpansionContext;
 import org.apache.drill.exec.physical.PhysicalPlan;
+import org.apache.drill.exec.planner.logical.MaterializedViewCatalog;
 import org.apache.drill.exec.planner.physical.PlannerSettings;
 import org.apache.drill.exec.planner.sql.DrillOperatorTable;
 import org.apache.drill.exec.planner.sql.DrillSqlWorker;
+import org.apache.drill.exec.planner.sql.QueryPlanCache;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
 import org.apache.drill.exec.rpc.user.UserSession;
 import org.apache.drill.exec.server.DrillbitContext;
@@ -124,6 +127,9 @@ public class PlanningBase extends ExecTest {
     when(context.getDrillOperatorTable()).thenReturn(table);
     when(context.getAllocator()).thenReturn(allocator);
     when(context.getExecutionControls()).thenReturn(executionControls);
+    when(context.getMaterializedViewCatalog()).thenReturn(new MaterializedViewCatalog());
+    when(context.getQueryPlanCache()).thenReturn(new QueryPlanCache());
+    when(context.getResultCache()).thenReturn(new ResultCache(config, DrillbitEndpoint.getDefaultInstance()));
     when(context.getLpPersistence()).thenReturn(logicalPlanPersistence);
     // mocks for org.apache.drill.TestTpchPlanning#tpch06 test.
     // With changes for decimal types, subtract udf for decimals is used.
@@ -20,7 +20,9 @@ package org.apache.drill;
 import org.apache.drill.categories.OperatorTest;
 import org.apache.drill.exec.ops.OperatorMetricRegistry;
 import org.apache.drill.exec.physical.config.ExternalSort;
+import org.apache.drill.exec.physical.config.Filter;
 import org.apache.drill.exec.physical.config.NestedLoopJoinPOP;
+import org.apache.drill.exec.physical.config.Project;
 import org.apache.drill.exec.physical.config.Screen;
 import org.apache.drill.test.BaseTestQuery;
 import org.junit.Test;
@@ -41,6 +43,13 @@ public class TestOperatorMetrics extends BaseTestQuery {
     assertArrayEquals(new String[]{"SPILL_COUNT", "NOT_USED", "PEAK_BATCHES_IN_MEMORY", "MERGE_COUNT", "MIN_BUFFER",
                       "SPILL_MB"},
               OperatorMetricRegistry.getMetricNames(ExternalSort.OPERATOR_TYPE));
+
+    assertArrayEquals(new String[]{"ADAPTIVE_OUTPUT_BATCH_BYTES", "ADAPTIVE_BATCH_SIZE_CHANGES",
+                      "NULL_RUN_SPECIALIZATIONS"},
+              OperatorMetricRegistry.getMetricNames(Project.OPERATOR_TYPE));
+
+    assertArrayEquals(new String[]{"INTERPRETED_BATCHES"},
+              OperatorMetricRegistry.getMetricNames(Filter.OPERATOR_TYPE));
   }
 
   @Test
@@ -241,6 +241,25 @@ public class TestUntypedNull extends ClusterTest {
         .go();
   }
 
+  @Test
+  public void testCoalesceOnNotExistentColumnsWithNullRunSpecialization() throws Exception {
+    String query = "select abs(coalesce(unk1, unk2)) as coal, unk1 is null as unk, n_nationkey\n" +
+        "from cp.`tpch/nation.parquet` where n_nationkey < 3";
+    try {
+      client.alterSession(ExecConstants.NULL_RUN_SPECIALIZATION_KEY, true);
+      testBuilder()
+          .sqlQuery(query)
+          .unOrdered()
+          .baselineColumns("coal", "unk", "n_nationkey")
+          .baselineValues(null, true, 0)
+          .baselineValues(null, true, 1)
+          .baselineValues(null, true, 2)
+          .go();
+    } finally {
+      client.resetSession(ExecConstants.NULL_RUN_SPECIALIZATION_KEY);
+    }
+  }
+
   @Test
   public void testValueIsNotReferencedOnUntypedNullHolderInstance() throws Exception {
     testBuilder()
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.cache.result;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.test.ClusterFixtureBuilder;
+import org.apache.drill.test.ClusterTest;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TestResultCache extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    ClusterFixtureBuilder builder = new ClusterFixtureBuilder(dirTestWatcher)
+        .configProperty(ExecConstants.RESULT_CACHE_DIRECTORY, new File(dirTestWatcher.getTmpDir(), "result_cache").getPath())
+        .systemOption(ExecConstants.QUERY_RESULT_CACHE_ENABLED_KEY, true);
+    startCluster(builder);
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    run("DROP TABLE IF EXISTS dfs.tmp.result_cache_src");
+  }
+
+  @Test
+  public void testRepeatedQueryUsesCachedResult() throws Exception {
+    run("CREATE TABLE dfs.tmp.`result_cache_src/p1` AS SELECT * FROM cp.`employee.json` WHERE employee_id < 100");
+    String sql = "SELECT employee_id, full_name FROM dfs.tmp.result_cache_src WHERE position_id = 2";
+    long expected = queryBuilder().sql(sql).run().recordCount();
+    assertTrue(expected > 0);
+
+    long hits = stat("hits");
+    assertEquals(expected, queryBuilder().sql(sql).run().recordCount());
+    assertEquals(expected, queryBuilder().sql(sql).run().recordCount());
+    assertEquals(hits + 2, stat("hits"));
+
+    String sumSql = "SELECT sum(employee_id) FROM dfs.tmp.result_cache_src WHERE position_id = 2";
+    long sum = queryBuilder().sql(sumSql).singletonLong();
+    assertEquals(sum, queryBuilder().sql(sumSql).singletonLong());
+    assertEquals(hits + 3, stat("hits"));
+  }
+
+  @Test
+  public void testNewFileInvalidatesResult() throws Exception {
+    File tableDir = new File(dirTestWatcher.getDfsTestTmpDir(), "result_cache_src");
+    assertTrue(tableDir.mkdirs());
+    writeRows(new File(tableDir, "p1.json"), 1, 2, 3);
+    String sql = "SELECT sum(employee_id) FROM dfs.tmp.result_cache_src";
+    assertEquals(6, queryBuilder().sql(sql).singletonLong());
+    assertEquals(6, queryBuilder().sql(sql).singletonLong());
+
+    // a file written outside of Drill is only noticed through the listing of the table
+    writeRows(new File(tableDir, "p2.json"), 4, 5);
+    long staleResults = stat("stale_results");
+    assertEquals(15, queryBuilder().sql(sql).singletonLong());
+    assertEquals(staleResults + 1, stat("stale_results"));
+  }
+
+  @Test
+  public void testMissingResultFileRunsQuery() throws Exception {
+    File tableDir = new File(dirTestWatcher.getDfsTestTmpDir(), "result_cache_src");
+    assertTrue(tableDir.mkdirs());
+    writeRows(new File(tableDir, "p1.json"), 1, 2, 3);
+    String sql = "SELECT sum(employee_id) FROM dfs.tmp.result_cache_src";
+    assertEquals(6, queryBuilder().sql(sql).singletonLong());
+
+    // the cached result can't be opened any more, the query runs instead of failing
+    FileUtils.cleanDirectory(new File(dirTestWatcher.getTmpDir(), "result_cache"));
+    long hits = stat("hits");
+    assertEquals(6, queryBuilder().sql(sql).singletonLong());
+    assertEquals(hits, stat("hits"));
+  }
+
+  @Test
+  public void testNonDeterministicQueryIsNotCached() throws Exception {
+    run("CREATE TABLE dfs.tmp.`result_cache_src/p1` AS SELECT * FROM cp.`employee.json` WHERE employee_id < 100");
+    long entries = stat("entries");
+    queryBuilder().sql("SELECT employee_id, random() r FROM dfs.tmp.result_cache_src").run();
+    queryBuilder().sql("SELECT employee_id, now() t FROM dfs.tmp.result_cache_src").run();
+    assertEquals(entries, stat("entries"));
+  }
+
+  @Test
+  public void testOnlyPrivateDirectoriesAreUsed() throws Exception {
+    File directory = dirTestWatcher.makeSubDir(Paths.get("result_cache_private"));
+    String user = System.getProperty("user.name");
+    Files.setPosixFilePermissions(directory.toPath(), PosixFilePermissions.fromString("rwxr-xr-x"));
+    assertTrue(ResultCache.isPrivate(directory, user));
+    assertFalse(ResultCache.isPrivate(directory, user + "_other"));
+
+    Files.setPosixFilePermissions(directory.toPath(), PosixFilePermissions.fromString("rwxrwxrwx"));
+    assertFalse(ResultCache.isPrivate(directory, user));
+
+    File file = new File(directory, "file");
+    assertTrue(file.createNewFile());
+    assertFalse(ResultCache.isPrivate(file, user));
+  }
+
+  private static void writeRows(File file, int... ids) throws Exception {
+    StringBuilder rows = new StringBuilder();
+    for (int id : ids) {
+      rows.append("{\"employee_id\": ").append(id).append("}\n");
+    }
+    Files.write(file.toPath(), rows.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private long stat(String column) throws Exception {
+    return queryBuilder().sql("SELECT %s FROM sys.result_cache", column).singletonLong();
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.compile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.apache.drill.test.ClusterFixtureBuilder;
+import org.apache.drill.test.ClusterTest;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.permission.FsPermission;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TestPersistentClassCache extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    ClusterFixtureBuilder builder = new ClusterFixtureBuilder(dirTestWatcher)
+        .configProperty(CodeCompiler.PERSISTENT_CACHE_ENABLED_CONFIG, true)
+        .configProperty(CodeCompiler.PERSISTENT_CACHE_DIRECTORY_CONFIG,
+            new File(dirTestWatcher.getTmpDir(), "compiled").getPath());
+    startCluster(builder);
+  }
+
+  @Test
+  public void testCompiledClassesAreReloaded() throws Exception {
+    String sql = "SELECT sum(employee_id * 3 + position_id) FROM cp.`employee.json` WHERE salary > 20000";
+    long expected = queryBuilder().sql(sql).singletonLong();
+    assertTrue(stat("disk_misses") > 0);
+
+    // classes missing from memory, as after a restart, are read from disk
+    cluster.drillbit().getContext().getCompiler().flushCache();
+    long hits = stat("disk_hits");
+    assertEquals(expected, queryBuilder().sql(sql).singletonLong());
+    assertTrue(stat("disk_hits") > hits);
+  }
+
+  @Test
+  public void testOnlyPrivateDirectoriesAreUsed() {
+    assertTrue(PersistentClassCache.isPrivate(directory(0700, "drill"), "drill"));
+    assertTrue(PersistentClassCache.isPrivate(directory(0755, "drill"), "drill"));
+    // other users could plant classes loaded by the Drillbit
+    assertFalse(PersistentClassCache.isPrivate(directory(0777, "drill"), "drill"));
+    assertFalse(PersistentClassCache.isPrivate(directory(0770, "drill"), "drill"));
+    assertFalse(PersistentClassCache.isPrivate(directory(0700, "other"), "drill"));
+  }
+
+  private static FileStatus directory(int permission, String owner) {
+    return new FileStatus(0, true, 1, 0, 0, 0, new FsPermission((short) permission), owner, owner,
+        new Path("/compiled"));
+  }
+
+  private long stat(String column) throws Exception {
+    return queryBuilder().sql("SELECT %s FROM sys.code_cache", column).singletonLong();
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.compile;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.physical.rowSet.RowSet;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterTest;
+import org.apache.drill.test.rowSet.RowSetUtilities;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Checks the expressions shared by the generated code of expressions split
+ * into several blocks, which use the values computed by the previous blocks,
+ * against the results of the same code generated without sharing.
+ */
+public class TestSharedSubexpressions extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    startCluster(ClusterFixture.builder(dirTestWatcher));
+  }
+
+  @Test
+  public void testProjection() throws Exception {
+    verify("SELECT sum(char_length(upper(full_name))) a, " +
+        "sum(char_length(substr(upper(full_name), 1, 3))) b, " +
+        "sum(employee_id * position_id + 1) c, " +
+        "sum(employee_id * position_id + 2) d, " +
+        "max(concat(upper(full_name), cast(employee_id * position_id AS VARCHAR))) e, " +
+        "sum(CASE WHEN position_id > 10 THEN employee_id * position_id ELSE 0 END) f " +
+        "FROM cp.`employee.json`");
+  }
+
+  @Test
+  public void testAggregation() throws Exception {
+    verify("SELECT department_id, sum(salary * 2) a, max(salary * 2) b, min(salary * 2) c, " +
+        "count(DISTINCT salary * 2) d " +
+        "FROM cp.`employee.json` GROUP BY department_id ORDER BY department_id");
+  }
+
+  private void verify(String sql) throws Exception {
+    try {
+      // a block per expression
+      client.alterSession(ExecConstants.CODE_GEN_EXP_IN_METHOD_SIZE, 1);
+      client.alterSession(ExecConstants.SHARED_SUBEXPRESSIONS_KEY, false);
+      RowSet expected = queryBuilder().sql(sql).rowSet();
+      client.alterSession(ExecConstants.SHARED_SUBEXPRESSIONS_KEY, true);
+      RowSetUtilities.verify(expected, queryBuilder().sql(sql).rowSet());
+    } finally {
+      client.resetSession(ExecConstants.CODE_GEN_EXP_IN_METHOD_SIZE);
+      client.resetSession(ExecConstants.SHARED_SUBEXPRESSIONS_KEY);
+    }
+  }
+}
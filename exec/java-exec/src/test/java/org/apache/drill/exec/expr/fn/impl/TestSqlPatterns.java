@@ -18,6 +18,9 @@
 package org.apache.drill.exec.expr.fn.impl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.nio.ByteBuffer;
@@ -26,6 +29,7 @@ import java.nio.charset.CharacterCodingException;
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.drill.common.exceptions.DrillRuntimeException;
@@ -525,6 +529,54 @@ public class TestSqlPatterns extends BaseTest {
   }
 
 
+  @Test
+  public void testSqlPatternSegments() {
+    RegexpUtil.SqlPatternInfo patternInfo = RegexpUtil.sqlToRegexLike("A%B%D");
+    assertEquals(Arrays.asList("A", "B", "D"), patternInfo.getSimplePatternSegments());
+    assertTrue(SqlPatternFactory.getSqlPatternMatcher(patternInfo) instanceof SqlPatternSegmentsMatcher);
+
+    patternInfo = RegexpUtil.sqlToRegexLike("%A#%B%%C%", '#');
+    assertEquals(Arrays.asList("", "A%B", "", "C", ""), patternInfo.getSimplePatternSegments());
+
+    // _ matches a character, not a byte, so it is left to the regular expression
+    patternInfo = RegexpUtil.sqlToRegexLike("A%B_");
+    assertNull(patternInfo.getSimplePatternSegments());
+    assertTrue(SqlPatternFactory.getSqlPatternMatcher(patternInfo) instanceof SqlPatternComplexMatcher);
+
+    final String[] inputs = {"", "A", "AB", "ABD", "ABBD", "AXBXD", "ADB", "ABAB", "ABCABD", "XABD", "ABDX",
+        "¤EÀsÆW°ê»Ú®i¶T¤¤¤ß3¼Ó®i¶TÆU2~~", wideString};
+    final String[] patterns = {"A%B%D", "A%%D", "%B%", "AB%AB", "%AB%AB%", "A%A%", "%D%B", "¤E%®i%2~~",
+        "%¶T%¶T%", "%®i%¤¤¤%", "b00dUrA0%42%9a8BZ", "%4Pk%Tdsl%"};
+    for (String pattern : patterns) {
+      patternInfo = RegexpUtil.sqlToRegexLike(pattern);
+      SqlPatternMatcher matcher = SqlPatternFactory.getSqlPatternMatcher(patternInfo);
+      java.util.regex.Matcher expected = java.util.regex.Pattern.compile(patternInfo.getJavaPatternString()).matcher("");
+      for (String input : inputs) {
+        setDrillBuf(input);
+        assertEquals("pattern=[" + pattern + "], input=[" + input + "]",
+            expected.reset(input).matches() ? 1 : 0, matcher.match(0, byteBuffer.limit(), drillBuf));
+      }
+    }
+  }
+
+  @Test
+  public void testPatternCache() {
+    assertSame(PatternCache.compile("a+b"), PatternCache.compile("a+b"));
+    assertNotSame(PatternCache.compile("a+b"), PatternCache.compile("a+b", java.util.regex.Pattern.CASE_INSENSITIVE));
+
+    // matchers without state are shared, the others only share their pattern
+    assertSame(PatternCache.getLikeMatcher("%AB%", null), PatternCache.getLikeMatcher("%AB%", null));
+    assertSame(PatternCache.getLikeMatcher("A%B%C", null), PatternCache.getLikeMatcher("A%B%C", null));
+    assertNotSame(PatternCache.getLikeMatcher("A_B", null), PatternCache.getLikeMatcher("A_B", null));
+    assertNotSame(PatternCache.getLikeMatcher("A#%B%", "#"), PatternCache.getLikeMatcher("A#%B%", null));
+
+    SqlPatternMatcher matcher = PatternCache.getLikeMatcher("A_C", null);
+    setDrillBuf("ABC");
+    assertEquals(1, matcher.match(0, byteBuffer.limit(), drillBuf));
+    setDrillBuf("AC");
+    assertEquals(0, matcher.match(0, byteBuffer.limit(), drillBuf));
+  }
+
   @After
   public void cleanup() {
     drillBuf.close();
@@ -1706,4 +1706,26 @@ public class TestStringFunctions extends BaseTestQuery {
         .build()
         .run();
   }
+
+  @Test
+  public void testAsciiFastPaths() throws Exception {
+    // values longer than a word, ASCII or with multi-byte characters after the first words
+    testBuilder()
+        .sqlQuery("select\n" +
+            "lower(a) as col_lower,\n" +
+            "upper(a) as col_upper,\n" +
+            "char_length(a) as col_length,\n" +
+            "substr(a, 10, 9) as col_substr,\n" +
+            "concat(a, '!') as col_concat,\n" +
+            "split_part(a, 'ж', 2) as col_part\n" +
+            "from (values('GET /Index.html?Q=[AZ]@`{}'), ('Hello, World! Привет жМир')) as t(a)")
+        .unOrdered()
+        .baselineColumns("col_lower", "col_upper", "col_length", "col_substr", "col_concat", "col_part")
+        .baselineValues("get /index.html?q=[az]@`{}", "GET /INDEX.HTML?Q=[AZ]@`{}", 26L, "x.html?Q=",
+            "GET /Index.html?Q=[AZ]@`{}!", "")
+        .baselineValues("hello, world! привет жмир", "HELLO, WORLD! ПРИВЕТ ЖМИР", 25L, "rld! Прив",
+            "Hello, World! Привет жМир!", "Мир")
+        .build()
+        .run();
+  }
 }
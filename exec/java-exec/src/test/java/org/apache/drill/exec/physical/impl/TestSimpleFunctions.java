@@ -23,6 +23,7 @@ import static org.junit.Assert.assertTrue;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.drill.common.expression.ExpressionPosition;
@@ -37,6 +38,7 @@ import org.apache.drill.common.util.DrillFileUtils;
 import org.apache.drill.exec.ExecTest;
 import org.apache.drill.exec.expr.fn.DrillFuncHolder;
 import org.apache.drill.exec.expr.fn.FunctionImplementationRegistry;
+import org.apache.drill.exec.expr.fn.registry.LocalFunctionRegistry;
 import org.apache.drill.exec.expr.fn.impl.StringFunctionHelpers;
 import org.apache.drill.exec.expr.holders.NullableVarBinaryHolder;
 import org.apache.drill.exec.expr.holders.NullableVarCharHolder;
@@ -54,6 +56,7 @@ import org.apache.drill.exec.vector.NullableVarBinaryVector;
 import org.apache.drill.exec.vector.NullableVarCharVector;
 import org.junit.Test;
 
+import com.google.common.cache.CacheStats;
 import com.google.common.io.Files;
 import com.sun.codemodel.JClassAlreadyExistsException;
 
@@ -101,6 +104,36 @@ public class TestSimpleFunctions extends ExecTest {
         registry);
   }
 
+  @Test
+  public void testCachedFunctionResolution() {
+    final FunctionImplementationRegistry registry = new FunctionImplementationRegistry(c);
+    resolveHashes(registry);
+    CacheStats stats = registry.getResolvedFunctionStats();
+    assertEquals(0, stats.hitCount());
+
+    // the second resolution of each call is cached, and still depends on the argument types
+    resolveHashes(registry);
+    assertEquals(stats.hitCount() + 2, registry.getResolvedFunctionStats().hitCount());
+
+    // functions resolved against an earlier version of the registry are resolved again
+    stats = registry.getResolvedFunctionStats();
+    LocalFunctionRegistry localRegistry = registry.getLocalFunctionRegistry();
+    localRegistry.register(Collections.emptyList(), localRegistry.getVersion() + 1);
+    resolveHashes(registry);
+    assertEquals(stats.hitCount(), registry.getResolvedFunctionStats().hitCount());
+    assertTrue(registry.getResolvedFunctionStats().missCount() >= stats.missCount() + 2);
+  }
+
+  private void resolveHashes(FunctionImplementationRegistry registry) {
+    resolveHash(new TypedNullConstant(Types.optional(TypeProtos.MinorType.BIGINT)),
+        TypeProtos.DataMode.OPTIONAL,
+        registry);
+
+    resolveHash(new ValueExpressions.LongExpression(100L, ExpressionPosition.UNKNOWN),
+        TypeProtos.DataMode.REQUIRED,
+        registry);
+  }
+
   public void resolveHash(LogicalExpression arg, TypeProtos.DataMode expectedBestInputMode,
                           FunctionImplementationRegistry registry) {
     final List<LogicalExpression> args = new ArrayList<>();
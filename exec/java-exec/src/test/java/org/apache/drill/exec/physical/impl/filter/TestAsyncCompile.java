@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.physical.config.Filter;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterTest;
+import org.apache.drill.test.ProfileParser;
+import org.apache.drill.test.QueryBuilder.QuerySummary;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TestAsyncCompile extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    startCluster(ClusterFixture.builder(dirTestWatcher).saveProfiles());
+  }
+
+  @Test
+  public void testInterpretedThenCompiledFilter() throws Exception {
+    String[] conditions = {
+        "l_quantity * 2 > 50 AND l_comment LIKE '%ly%'",
+        "l_shipmode IN ('AIR', 'MAIL') OR l_discount BETWEEN 0.02 AND 0.04",
+        "CASE WHEN l_tax > 0.05 THEN l_partkey ELSE l_suppkey END % 3 = 0"};
+    for (String condition : conditions) {
+      String sql = "SELECT count(*) FROM cp.`tpch/lineitem.parquet` WHERE " + condition;
+      long expected = count(sql, false);
+      // compiled again, so that the first batches are filtered by the interpreter
+      cluster.drillbit().getContext().getCompiler().flushCache();
+      assertEquals(condition, expected, count(sql, true));
+    }
+  }
+
+  @Test
+  public void testInterpretedBatchesMetric() throws Exception {
+    String sql = "SELECT l_orderkey FROM cp.`tpch/lineitem.parquet` WHERE l_quantity * 2 > 50";
+    cluster.drillbit().getContext().getCompiler().flushCache();
+    QuerySummary summary;
+    try {
+      client.alterSession(ExecConstants.ASYNC_COMPILE_KEY, true);
+      summary = queryBuilder().sql(sql).run();
+    } finally {
+      client.resetSession(ExecConstants.ASYNC_COMPILE_KEY);
+    }
+    assertTrue(summary.recordCount() > 0);
+
+    ProfileParser profile = client.parseProfile(summary.queryIdString());
+    List<ProfileParser.OperatorProfile> ops = profile.getOpsOfType(Filter.OPERATOR_TYPE);
+    assertFalse(ops.isEmpty());
+    long interpretedBatches = 0;
+    for (ProfileParser.OperatorProfile op : ops) {
+      interpretedBatches += op.getMetric(FilterRecordBatch.Metric.INTERPRETED_BATCHES.metricId());
+    }
+    assertTrue(interpretedBatches > 0);
+  }
+
+  private long count(String sql, boolean async) throws Exception {
+    try {
+      client.alterSession(ExecConstants.ASYNC_COMPILE_KEY, async);
+      return queryBuilder().sql(sql).singletonLong();
+    } finally {
+      client.resetSession(ExecConstants.ASYNC_COMPILE_KEY);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.drill.common.exceptions.UserException;
+import org.apache.drill.exec.exception.ClassTransformationException;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.proto.UserBitShared.DrillPBError;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.TransferPair;
+import org.apache.drill.test.BaseTest;
+import org.junit.Test;
+
+public class TestAsyncFilterer extends BaseTest {
+
+  @Test
+  public void testCompilationFailureAfterInterpretedBatches() throws Exception {
+    CountingFilterer interpreted = new CountingFilterer();
+    CompletableFuture<Filterer> compiled = new CompletableFuture<>();
+    AsyncFilterer filter = new AsyncFilterer(interpreted, null, compiled);
+    filter.setup(null, null, null, null);
+
+    for (int i = 0; i < 3; i++) {
+      filter.filterBatch(10);
+    }
+    assertEquals(3, filter.getInterpretedBatches());
+    assertEquals(3, interpreted.batches);
+    assertTrue(filter.toString().contains("interpretedBatches=3"));
+
+    compiled.completeExceptionally(new ClassTransformationException("Failure generating transformation classes"));
+    try {
+      filter.filterBatch(10);
+      fail();
+    } catch (UserException e) {
+      assertEquals(DrillPBError.ErrorType.INTERNAL_ERROR, e.getErrorType());
+      assertTrue(e.getCause() instanceof ClassTransformationException);
+    }
+    // the failed batch was not filtered by the interpreter either
+    assertEquals(3, interpreted.batches);
+    assertEquals(3, filter.getInterpretedBatches());
+  }
+
+  private static class CountingFilterer implements Filterer {
+    private int batches;
+
+    @Override
+    public void setup(FragmentContext context, RecordBatch incoming,
+        RecordBatch outgoing, TransferPair[] transfers) { }
+
+    @Override
+    public void filterBatch(int recordCount) {
+      batches++;
+    }
+  }
+}
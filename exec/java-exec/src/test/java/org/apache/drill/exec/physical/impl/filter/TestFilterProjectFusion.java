@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterTest;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TestFilterProjectFusion extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    startCluster(ClusterFixture.builder(dirTestWatcher));
+  }
+
+  @Test
+  public void testFusedFilterProject() throws Exception {
+    String[] queries = {
+        "SELECT sum(CAST(l_quantity * 2 AS BIGINT) + l_orderkey) FROM cp.`tpch/lineitem.parquet` WHERE l_discount > 0.05",
+        "SELECT count(DISTINCT concat(l_shipmode, l_returnflag)) FROM cp.`tpch/lineitem.parquet` "
+            + "WHERE l_comment LIKE '%ly%'",
+        "SELECT max(char_length(l_comment) + l_linenumber) FROM cp.`tpch/lineitem.parquet` "
+            + "WHERE l_shipmode IN ('AIR', 'MAIL') OR l_tax IS NULL"};
+    for (String sql : queries) {
+      long expected = query(sql, false);
+      assertEquals(sql, expected, query(sql, true));
+    }
+  }
+
+  @Test
+  public void testFusedPlan() throws Exception {
+    String sql = "SELECT sum(CAST(l_quantity * 2 AS BIGINT)) FROM cp.`tpch/lineitem.parquet` WHERE l_discount > 0.05";
+    try {
+      client.alterSession(PlannerSettings.FILTER_PROJECT_FUSION_KEY, true);
+      String plan = queryBuilder().sql(sql).explainText();
+      assertTrue(plan, plan.contains("FilterProject"));
+      assertTrue(plan, !plan.contains("SelectionVectorRemover"));
+    } finally {
+      client.resetSession(PlannerSettings.FILTER_PROJECT_FUSION_KEY);
+    }
+  }
+
+  @Test
+  public void testFusedFilterProjectOverSelectionVector() throws Exception {
+    // the Limit returns its rows through a selection vector, read as such by the fused operator
+    String sql = "SELECT sum(CAST(l_quantity * 2 AS BIGINT) + l_orderkey) "
+        + "FROM (SELECT * FROM cp.`tpch/lineitem.parquet` LIMIT 20000) WHERE l_discount > 0.05";
+    try {
+      client.alterSession(PlannerSettings.FILTER_PROJECT_FUSION_KEY, true);
+      queryBuilder().sql(sql).planMatcher()
+          .include("FilterProject\\(.*\\n.*Limit\\(")
+          .exclude("SelectionVectorRemover")
+          .match();
+    } finally {
+      client.resetSession(PlannerSettings.FILTER_PROJECT_FUSION_KEY);
+    }
+    long expected = query(sql, false);
+    assertEquals(expected, query(sql, true));
+  }
+
+  private long query(String sql, boolean fused) throws Exception {
+    try {
+      client.alterSession(PlannerSettings.FILTER_PROJECT_FUSION_KEY, fused);
+      return queryBuilder().sql(sql).singletonLong();
+    } finally {
+      client.resetSession(PlannerSettings.FILTER_PROJECT_FUSION_KEY);
+    }
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterTest;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TestPrecompiledKernels extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    startCluster(ClusterFixture.builder(dirTestWatcher));
+    run("CREATE TABLE dfs.tmp.kernels AS SELECT CAST(employee_id AS INT) AS int_col, "
+        + "CAST(CASE WHEN mod(employee_id, 7) = 0 THEN NULL ELSE employee_id END AS INT) AS nullable_int_col, "
+        + "employee_id AS bigint_col, full_name FROM cp.`employee.json`");
+  }
+
+  @AfterClass
+  public static void cleanup() throws Exception {
+    run("DROP TABLE IF EXISTS dfs.tmp.kernels");
+  }
+
+  @Test
+  public void testComparisons() throws Exception {
+    String[] conditions = {
+        "int_col > 100", "int_col >= 100", "int_col < 100", "int_col <= 100",
+        "int_col = 100", "int_col <> 100", "100 > int_col", "100 <= int_col",
+        "nullable_int_col > 300", "nullable_int_col <> 300",
+        "bigint_col > 1000", "2000 >= bigint_col"};
+    for (String condition : conditions) {
+      String sql = "SELECT count(*) FROM dfs.tmp.kernels WHERE " + condition;
+      assertEquals(condition, count(sql, false), count(sql, true));
+    }
+  }
+
+  @Test
+  public void testNoCodeGeneration() throws Exception {
+    assertNoCodeGeneration("bigint_col > 1000");
+  }
+
+  @Test
+  public void testNoCodeGenerationForNullableColumnsAndCastLiterals() throws Exception {
+    assertNoCodeGeneration("nullable_int_col > 300");
+    assertNoCodeGeneration("300 >= nullable_int_col");
+    assertNoCodeGeneration("bigint_col > CAST(1000 AS INT)");
+    assertNoCodeGeneration("nullable_int_col <> CAST(300 AS INT)");
+  }
+
+  private void assertNoCodeGeneration(String condition) throws Exception {
+    String sql = "SELECT int_col, full_name FROM dfs.tmp.kernels WHERE " + condition;
+    try {
+      client.alterSession(ExecConstants.PRECOMPILED_KERNELS_KEY, false);
+      long generated = generatedClasses();
+      long expected = queryBuilder().sql(sql).run().recordCount();
+      assertTrue(condition, generatedClasses() > generated);
+
+      client.alterSession(ExecConstants.PRECOMPILED_KERNELS_KEY, true);
+      generated = generatedClasses();
+      assertEquals(condition, expected, queryBuilder().sql(sql).run().recordCount());
+      assertEquals(condition, generated, generatedClasses());
+    } finally {
+      client.resetSession(ExecConstants.PRECOMPILED_KERNELS_KEY);
+    }
+  }
+
+  private long count(String sql, boolean precompiled) throws Exception {
+    try {
+      client.alterSession(ExecConstants.PRECOMPILED_KERNELS_KEY, precompiled);
+      return queryBuilder().sql(sql).singletonLong();
+    } finally {
+      client.resetSession(ExecConstants.PRECOMPILED_KERNELS_KEY);
+    }
+  }
+
+  private long generatedClasses() throws Exception {
+    return queryBuilder().sql("SELECT generated FROM sys.code_cache").singletonLong();
+  }
+}
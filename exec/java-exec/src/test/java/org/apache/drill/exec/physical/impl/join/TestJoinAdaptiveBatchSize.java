@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.join;
+
+import static org.apache.drill.exec.record.AdaptiveBatchSizer.SAMPLE_BATCHES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.drill.categories.OperatorTest;
+import org.apache.drill.common.expression.ExpressionPosition;
+import org.apache.drill.common.expression.FieldReference;
+import org.apache.drill.common.expression.FunctionCall;
+import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.physical.config.NestedLoopJoinPOP;
+import org.apache.drill.exec.physical.impl.MockRecordBatch;
+import org.apache.drill.exec.physical.rowSet.RowSet;
+import org.apache.drill.exec.physical.rowSet.RowSetBuilder;
+import org.apache.drill.exec.record.RecordBatch.IterOutcome;
+import org.apache.drill.exec.record.metadata.SchemaBuilder;
+import org.apache.drill.exec.record.metadata.TupleMetadata;
+import org.apache.drill.exec.server.options.OptionManager;
+import org.apache.drill.test.SubOperatorTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Checks that join operators follow the output batch size chosen by the
+ * adaptive batch sizer ({@link ExecConstants#ADAPTIVE_BATCH_SIZE}) even when
+ * the row width stays the same.
+ */
+@Category(OperatorTest.class)
+public class TestJoinAdaptiveBatchSize extends SubOperatorTest {
+
+  private static final int OUTPUT_BATCH_SIZE = 1024;
+  private static final int LEFT_BATCHES = 100;
+  private static final int LEFT_BATCH_ROWS = 10;
+
+  @Test
+  public void testNestedLoopJoinFollowsTargetBatchSize() throws Exception {
+    OptionManager options = fixture.getFragmentContext().getOptions();
+    long outputBatchSize = options.getOption(ExecConstants.OUTPUT_BATCH_SIZE_VALIDATOR);
+    long minBatchSize = options.getOption(ExecConstants.ADAPTIVE_BATCH_MIN_SIZE_VALIDATOR);
+    options.setLocalOption(ExecConstants.OUTPUT_BATCH_SIZE, OUTPUT_BATCH_SIZE);
+    options.setLocalOption(ExecConstants.ADAPTIVE_BATCH_MIN_SIZE, 128);
+    options.setLocalOption(ExecConstants.ADAPTIVE_BATCH_SIZE, true);
+
+    // every left row matches the single right row, so each left row gives one output row
+    TupleMetadata leftSchema = new SchemaBuilder()
+      .add("c1", MinorType.INT)
+      .buildSchema();
+    MockRecordBatch.Builder leftBuilder = new MockRecordBatch.Builder();
+    for (int i = 0; i < LEFT_BATCHES; i++) {
+      RowSetBuilder rows = fixture.rowSetBuilder(leftSchema);
+      for (int j = 0; j < LEFT_BATCH_ROWS; j++) {
+        rows.addRow(0);
+      }
+      leftBuilder.sendData(rows.build());
+    }
+    TupleMetadata rightSchema = new SchemaBuilder()
+      .add("c2", MinorType.INT)
+      .buildSchema();
+    RowSet rightRows = fixture.rowSetBuilder(rightSchema)
+      .addRow(0)
+      .build();
+
+    MockRecordBatch left = leftBuilder.build(fixture.getFragmentContext());
+    MockRecordBatch right = new MockRecordBatch.Builder()
+      .sendData(rightRows)
+      .build(fixture.getFragmentContext());
+
+    LogicalExpression condition = new FunctionCall("equal",
+      ImmutableList.of(new FieldReference("c1", ExpressionPosition.UNKNOWN),
+        new FieldReference("c2", ExpressionPosition.UNKNOWN)),
+      ExpressionPosition.UNKNOWN);
+    NestedLoopJoinPOP popConfig = new NestedLoopJoinPOP(null, null, JoinRelType.INNER, condition);
+    NestedLoopJoinBatch join = new NestedLoopJoinBatch(popConfig, fixture.getFragmentContext(), left, right);
+
+    try {
+      assertEquals(IterOutcome.OK_NEW_SCHEMA, join.next());
+      List<Integer> batchRowCounts = new ArrayList<>();
+      // The sizer halves the target after the first sample window; later
+      // adjustments depend on timing, so only look at the next window.
+      for (int i = 0; i < 2 * SAMPLE_BATCHES; i++) {
+        assertEquals(IterOutcome.OK, join.next());
+        batchRowCounts.add(join.getRecordCount());
+      }
+
+      int fullBatchRows = batchRowCounts.get(0);
+      assertTrue(fullBatchRows > LEFT_BATCH_ROWS);
+      for (int i = 0; i < SAMPLE_BATCHES; i++) {
+        assertEquals(fullBatchRows, (int) batchRowCounts.get(i));
+      }
+      for (int i = SAMPLE_BATCHES; i < 2 * SAMPLE_BATCHES; i++) {
+        assertTrue("Batch " + i + " has " + batchRowCounts.get(i) + " rows",
+          batchRowCounts.get(i) <= fullBatchRows / 2 + 1);
+      }
+    } finally {
+      join.close();
+      left.close();
+      right.close();
+      options.setLocalOption(ExecConstants.ADAPTIVE_BATCH_SIZE, false);
+      options.setLocalOption(ExecConstants.ADAPTIVE_BATCH_MIN_SIZE, minBatchSize);
+      options.setLocalOption(ExecConstants.OUTPUT_BATCH_SIZE, outputBatchSize);
+    }
+  }
+}
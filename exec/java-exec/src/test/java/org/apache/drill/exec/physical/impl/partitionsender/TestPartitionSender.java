@@ -32,6 +32,7 @@ import java.util.concurrent.ExecutionException;
 
 import org.apache.drill.categories.OperatorTest;
 import org.apache.drill.PlanTestBase;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.exception.OutOfMemoryException;
 import org.apache.drill.exec.expr.fn.FunctionImplementationRegistry;
 import org.apache.drill.exec.ops.FragmentContextImpl;
@@ -191,6 +192,15 @@ public class TestPartitionSender extends PlanTestBase {
     hashToRandomExchange.setCost(new PrelCostEstimates(14000, 14000));
     testThreadsHelper(hashToRandomExchange, drillbitContext, options,
         incoming, registry, planReader, planningSet, rootFragment, 2);
+
+    // same distribution is expected when rows are scattered per batch
+    options.clear();
+    options.add(OptionValue.create(AccessibleScopes.SESSION, "planner.slice_target", 1, OptionScope.SESSION));
+    options.add(OptionValue.create(AccessibleScopes.SESSION, "planner.partitioner_sender_max_threads", 10, OptionScope.SESSION));
+    options.add(OptionValue.create(AccessibleScopes.SESSION, ExecConstants.PARTITIONER_BATCH_SCATTER_KEY, true, OptionScope.SESSION));
+    hashToRandomExchange.setCost(new PrelCostEstimates(1000, 1000));
+    testThreadsHelper(hashToRandomExchange, drillbitContext, options,
+        incoming, registry, planReader, planningSet, rootFragment, 10);
   }
 
   /**
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.project;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.physical.config.Project;
+import org.apache.drill.exec.physical.rowSet.RowSet;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterTest;
+import org.apache.drill.test.ProfileParser;
+import org.apache.drill.test.QueryBuilder.QuerySummary;
+import org.apache.drill.test.rowSet.RowSetUtilities;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TestNullRunSpecialization extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    startCluster(ClusterFixture.builder(dirTestWatcher).saveProfiles());
+    run("CREATE TABLE dfs.tmp.null_runs AS SELECT employee_id AS no_nulls, "
+        + "CASE WHEN mod(employee_id, 7) = 0 THEN NULL ELSE salary END AS mixed, "
+        + "CAST(NULL AS INT) AS all_nulls, full_name FROM cp.`employee.json`");
+  }
+
+  @AfterClass
+  public static void cleanup() throws Exception {
+    run("DROP TABLE IF EXISTS dfs.tmp.null_runs");
+  }
+
+  @Test
+  public void testNoNulls() throws Exception {
+    verify("SELECT sum(no_nulls * 2 + 1) a, max(concat(upper(full_name), no_nulls)) b, "
+        + "count(CASE WHEN no_nulls > 100 THEN full_name END) c FROM dfs.tmp.null_runs");
+  }
+
+  @Test
+  public void testOnlyNulls() throws Exception {
+    verify("SELECT sum(coalesce(all_nulls, 1) + no_nulls) a, count(all_nulls + no_nulls) b, "
+        + "sum(CASE WHEN all_nulls IS NULL THEN 2 ELSE 3 END) c FROM dfs.tmp.null_runs");
+  }
+
+  @Test
+  public void testMixedNulls() throws Exception {
+    verify("SELECT sum(mixed * 2) a, count(mixed + no_nulls) b, sum(coalesce(mixed, all_nulls, 0)) c "
+        + "FROM dfs.tmp.null_runs");
+  }
+
+  @Test
+  public void testSpecializedClassCompiled() throws Exception {
+    QuerySummary summary;
+    try {
+      client.alterSession(ExecConstants.NULL_RUN_SPECIALIZATION_KEY, true);
+      summary = queryBuilder().sql("SELECT no_nulls * 2 + 1 FROM dfs.tmp.null_runs").run();
+    } finally {
+      client.resetSession(ExecConstants.NULL_RUN_SPECIALIZATION_KEY);
+    }
+
+    ProfileParser profile = client.parseProfile(summary.queryIdString());
+    List<ProfileParser.OperatorProfile> ops = profile.getOpsOfType(Project.OPERATOR_TYPE);
+    assertFalse(ops.isEmpty());
+    long specializations = 0;
+    for (ProfileParser.OperatorProfile op : ops) {
+      specializations += op.getMetric(ProjectRecordBatch.Metric.NULL_RUN_SPECIALIZATIONS.metricId());
+    }
+    assertTrue(specializations > 0);
+  }
+
+  private void verify(String sql) throws Exception {
+    RowSet expected;
+    try {
+      client.alterSession(ExecConstants.NULL_RUN_SPECIALIZATION_KEY, false);
+      expected = queryBuilder().sql(sql).rowSet();
+    } finally {
+      client.resetSession(ExecConstants.NULL_RUN_SPECIALIZATION_KEY);
+    }
+    try {
+      client.alterSession(ExecConstants.NULL_RUN_SPECIALIZATION_KEY, true);
+      RowSetUtilities.verify(expected, queryBuilder().sql(sql).rowSet());
+    } finally {
+      client.resetSession(ExecConstants.NULL_RUN_SPECIALIZATION_KEY);
+    }
+  }
+}
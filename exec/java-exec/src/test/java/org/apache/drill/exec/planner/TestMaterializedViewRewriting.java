@@ -17,11 +17,15 @@
  */
 package org.apache.drill.exec.planner;
 
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
 import java.nio.file.Paths;
 
 import org.apache.drill.PlanTestBase;
 import org.apache.drill.categories.SqlTest;
 import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.dotdrill.DotDrillType;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -521,4 +525,56 @@ public class TestMaterializedViewRewriting extends PlanTestBase {
       test("DROP MATERIALIZED VIEW IF EXISTS dfs.tmp.%s", mvName);
     }
   }
+
+  // ==================== Materialized View Catalog Tests ====================
+
+  @Test
+  public void testDroppedMVRemovedFromCatalog() throws Exception {
+    String mvName = "test_mv_catalog_drop";
+    String query = "SELECT region_id, sales_city FROM cp.`region.json` WHERE region_id = 1";
+    try {
+      test("CREATE MATERIALIZED VIEW dfs.tmp.%s AS %s", mvName, query);
+      test("REFRESH MATERIALIZED VIEW dfs.tmp.%s", mvName);
+      testPlanSubstrPatterns(query, new String[]{"_mv_data"}, new String[]{"region.json"});
+
+      // DROP through this Drillbit updates the cached catalog
+      test("DROP MATERIALIZED VIEW dfs.tmp.%s", mvName);
+      testPlanSubstrPatterns(query, new String[]{"region.json"}, new String[]{"_mv_data"});
+    } finally {
+      test("DROP MATERIALIZED VIEW IF EXISTS dfs.tmp.%s", mvName);
+    }
+  }
+
+  @Test
+  public void testStaleCatalogEntryNotUsed() throws Exception {
+    String mvName = "test_mv_catalog_stale";
+    String query = "SELECT region_id, sales_city FROM cp.`region.json` WHERE region_id = 2";
+    try {
+      test("CREATE MATERIALIZED VIEW dfs.tmp.%s AS %s", mvName, query);
+      test("REFRESH MATERIALIZED VIEW dfs.tmp.%s", mvName);
+      testPlanSubstrPatterns(query, new String[]{"_mv_data"}, new String[]{"region.json"});
+
+      // Remove the definition behind the catalog's back, as a DROP through another Drillbit would
+      File mvFile = new File(dirTestWatcher.getDfsTestTmpDir(), mvName + DotDrillType.MATERIALIZED_VIEW.getEnding());
+      assertTrue(mvFile.delete());
+      testPlanSubstrPatterns(query, new String[]{"region.json"}, new String[]{"_mv_data"});
+    } finally {
+      test("DROP MATERIALIZED VIEW IF EXISTS dfs.tmp.%s", mvName);
+    }
+  }
+
+  @Test
+  public void testRewritingWithCatalogDisabled() throws Exception {
+    String mvName = "test_mv_catalog_disabled";
+    String query = "SELECT region_id, sales_city FROM cp.`region.json` WHERE region_id = 3";
+    try {
+      test("ALTER SESSION SET `%s` = 0", ExecConstants.MATERIALIZED_VIEW_CATALOG_TTL_KEY);
+      test("CREATE MATERIALIZED VIEW dfs.tmp.%s AS %s", mvName, query);
+      test("REFRESH MATERIALIZED VIEW dfs.tmp.%s", mvName);
+      testPlanSubstrPatterns(query, new String[]{"_mv_data"}, new String[]{"region.json"});
+    } finally {
+      test("ALTER SESSION RESET `%s`", ExecConstants.MATERIALIZED_VIEW_CATALOG_TTL_KEY);
+      test("DROP MATERIALIZED VIEW IF EXISTS dfs.tmp.%s", mvName);
+    }
+  }
 }
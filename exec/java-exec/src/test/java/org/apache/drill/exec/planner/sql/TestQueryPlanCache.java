@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.planner.sql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.test.ClusterFixtureBuilder;
+import org.apache.drill.test.ClusterTest;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TestQueryPlanCache extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    ClusterFixtureBuilder builder = new ClusterFixtureBuilder(dirTestWatcher)
+        .systemOption(ExecConstants.QUERY_PLAN_CACHE_ENABLED_KEY, true);
+    startCluster(builder);
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    run("DROP TABLE IF EXISTS dfs.tmp.plan_cache_src");
+  }
+
+  @Test
+  public void testRepeatedQueryUsesCachedPlan() throws Exception {
+    run("CREATE TABLE dfs.tmp.`plan_cache_src/p1` AS SELECT * FROM cp.`employee.json` WHERE employee_id < 100");
+    String sql = "SELECT employee_id FROM dfs.tmp.plan_cache_src WHERE position_id = 2";
+    long expected = queryBuilder().sql(sql).run().recordCount();
+
+    long hits = hits();
+    assertEquals(expected, queryBuilder().sql(sql).run().recordCount());
+    // whitespace and keyword case do not matter
+    assertEquals(expected, queryBuilder()
+        .sql("select employee_id\n  from dfs.tmp.plan_cache_src\n where position_id = 2").run().recordCount());
+    assertEquals(hits + 2, hits());
+
+    // different literals need their own plan
+    queryBuilder().sql("SELECT employee_id FROM dfs.tmp.plan_cache_src WHERE position_id = 3").run();
+    assertEquals(hits + 2, hits());
+  }
+
+  @Test
+  public void testNonDeterministicQueryIsNotCached() throws Exception {
+    // NOW() is folded into a literal while planning, a cached plan would return the same time
+    String sql = "SELECT now()";
+    queryBuilder().sql(sql).run();
+    long hits = hits();
+    queryBuilder().sql(sql).run();
+    assertEquals(hits, hits());
+  }
+
+  @Test
+  public void testNewFileInvalidatesPlan() throws Exception {
+    File tableDir = new File(dirTestWatcher.getDfsTestTmpDir(), "plan_cache_src");
+    assertTrue(tableDir.mkdirs());
+    writeRows(new File(tableDir, "p1.json"), 1, 2, 3);
+    String sql = "SELECT count(*) FROM dfs.tmp.plan_cache_src";
+    assertEquals(3, queryBuilder().sql(sql).singletonLong());
+    assertEquals(3, queryBuilder().sql(sql).singletonLong());
+
+    // a file written outside of Drill is only noticed through the listing of the table
+    writeRows(new File(tableDir, "p2.json"), 4, 5);
+    long stalePlans = queryBuilder().sql("SELECT stale_plans FROM sys.query_plan_cache").singletonLong();
+    assertEquals(5, queryBuilder().sql(sql).singletonLong());
+    assertEquals(stalePlans + 1, queryBuilder().sql("SELECT stale_plans FROM sys.query_plan_cache").singletonLong());
+  }
+
+  @Test
+  public void testSessionOptionsArePartOfKey() throws Exception {
+    run("CREATE TABLE dfs.tmp.`plan_cache_src/p1` AS SELECT * FROM cp.`employee.json` WHERE employee_id < 100");
+    String sql = "SELECT position_id, count(*) FROM dfs.tmp.plan_cache_src GROUP BY position_id";
+    queryBuilder().sql(sql).run();
+    long hits = hits();
+    try {
+      client.alterSession(ExecConstants.SLICE_TARGET, 1);
+      queryBuilder().sql(sql).run();
+      assertEquals(hits, hits());
+    } finally {
+      client.resetSession(ExecConstants.SLICE_TARGET);
+    }
+    queryBuilder().sql(sql).run();
+    assertEquals(hits + 1, hits());
+  }
+
+  private static void writeRows(File file, int... ids) throws Exception {
+    StringBuilder rows = new StringBuilder();
+    for (int id : ids) {
+      rows.append("{\"employee_id\": ").append(id).append("}\n");
+    }
+    Files.write(file.toPath(), rows.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private long hits() throws Exception {
+    return queryBuilder().sql("SELECT hits FROM sys.query_plan_cache").singletonLong();
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.test.SubOperatorTest;
+import org.junit.Test;
+
+public class TestAdaptiveBatchSizer extends SubOperatorTest {
+  private static final int KB = 1024;
+  private static final int MB = 1024 * KB;
+  private static final int ROWS = 1000;
+
+  /**
+   * Feeds one sampling window in which downstream needs the given time per row.
+   */
+  private void consume(AdaptiveBatchSizer sizer, long nanosPerRow) {
+    for (int i = 0; i < AdaptiveBatchSizer.SAMPLE_BATCHES; i++) {
+      sizer.recordDownstreamTime(nanosPerRow * ROWS, ROWS);
+    }
+  }
+
+  @Test
+  public void testStartsAtConfiguredSize() {
+    AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(fixture.allocator(), 256 * KB, 16 * MB);
+    assertEquals(16 * MB, sizer.getTargetBatchSize());
+    assertEquals(0, sizer.getAdjustmentCount());
+  }
+
+  @Test
+  public void testShrinksBelowCacheCliff() {
+    AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(fixture.allocator(), 256 * KB, 16 * MB);
+    // downstream is twice as fast per row once a batch fits in 1 MB
+    int smallest = Integer.MAX_VALUE;
+    for (int i = 0; i < 20; i++) {
+      int size = sizer.getTargetBatchSize();
+      consume(sizer, size > MB ? 20 : 10);
+      if (i >= 5) {
+        // after walking down, the sizer only probes one step past the cliff
+        assertTrue(sizer.getTargetBatchSize() <= 2 * MB);
+      }
+      smallest = Math.min(smallest, sizer.getTargetBatchSize());
+    }
+    assertEquals(256 * KB, smallest);
+    assertTrue(sizer.getAdjustmentCount() >= 5);
+  }
+
+  @Test
+  public void testTurnsAroundWhenCostRises() {
+    AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(fixture.allocator(), 256 * KB, 16 * MB);
+    consume(sizer, 10);
+    assertEquals(8 * MB, sizer.getTargetBatchSize());
+    // smaller batches made downstream slower per row, go back up
+    consume(sizer, 15);
+    assertEquals(16 * MB, sizer.getTargetBatchSize());
+  }
+
+  @Test
+  public void testStaysWithinBounds() {
+    AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(fixture.allocator(), 4 * MB, 8 * MB);
+    for (int i = 0; i < 10; i++) {
+      consume(sizer, 10);
+      int size = sizer.getTargetBatchSize();
+      assertTrue(size >= 4 * MB && size <= 8 * MB);
+    }
+  }
+
+  @Test
+  public void testRowCountFollowsTarget() {
+    RecordBatchMemoryManager memoryManager = new RecordBatchMemoryManager(16 * MB);
+    AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(fixture.allocator(), 256 * KB, 16 * MB);
+    memoryManager.setAdaptiveBatchSizer(sizer);
+    assertTrue(memoryManager.updateIfNeeded(1024));
+    assertEquals(16 * KB - 1, memoryManager.getOutputRowCount());
+
+    // same row width, but a smaller target batch size
+    consume(sizer, 10);
+    assertTrue(memoryManager.updateIfNeeded(1024));
+    assertEquals(8 * KB - 1, memoryManager.getOutputRowCount());
+    assertFalse(memoryManager.updateIfNeeded(1024));
+  }
+
+  @Test
+  public void testCappedByMemoryHeadroom() {
+    try (BufferAllocator allocator = fixture.allocator().newChildAllocator("adaptive", 0, 4 * MB)) {
+      AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(allocator, 256 * KB, 16 * MB);
+      assertEquals(MB, sizer.getTargetBatchSize());
+      assertEquals(MB, sizer.getCurrentBatchSize());
+
+      AdaptiveBatchSizer tinySizer = new AdaptiveBatchSizer(allocator, 2 * MB, 16 * MB);
+      assertEquals(2 * MB, tinySizer.getTargetBatchSize());
+    }
+  }
+}
@@ -393,6 +393,42 @@ public class TestAnalyze extends ClusterTest {
     }
   }
 
+  @Test
+  public void testJoinOrderEnumeration() throws Exception {
+    client.alterSession(ExecConstants.SLICE_TARGET, 1);
+    client.alterSession(ExecConstants.OUTPUT_FORMAT_OPTION, "parquet");
+    try {
+      run("CREATE TABLE dfs.tmp.employeeJoinEnum AS SELECT * from cp.`employee.json`");
+      run("CREATE TABLE dfs.tmp.departmentJoinEnum AS SELECT * from cp.`department.json`");
+      run("ANALYZE TABLE dfs.tmp.employeeJoinEnum COMPUTE STATISTICS");
+      run("ANALYZE TABLE dfs.tmp.departmentJoinEnum COMPUTE STATISTICS");
+      client.alterSession(PlannerSettings.STATISTICS_USE.getOptionName(), true);
+      String query = "select sum(emp.employee_id * 10000 + sup.employee_id) from dfs.tmp.employeeJoinEnum emp"
+          + " join dfs.tmp.employeeJoinEnum sup on emp.supervisor_id = sup.employee_id"
+          + " join dfs.tmp.departmentJoinEnum dept on emp.department_id = dept.department_id"
+          + " where dept.department_id = 5";
+
+      client.alterSession(PlannerSettings.JOIN_ENUMERATION_MAX_INPUTS.getOptionName(), 0);
+      long expected = queryBuilder().sql(query).singletonLong();
+      client.resetSession(PlannerSettings.JOIN_ENUMERATION_MAX_INPUTS.getOptionName());
+      assertEquals(expected, queryBuilder().sql(query).singletonLong());
+      // the filtered department joins the employees first, and each join builds its smaller side
+      queryBuilder().sql(query)
+          .planMatcher()
+          .include("Join\\([^\\n]*\\n.*Scan\\([^\\n]*employeeJoinEnum"
+              + ".*Join\\([^\\n]*\\n.*Scan\\([^\\n]*employeeJoinEnum"
+              + ".*Scan\\([^\\n]*departmentJoinEnum")
+          .match(true);
+    } finally {
+      client.resetSession(ExecConstants.SLICE_TARGET);
+      client.resetSession(ExecConstants.OUTPUT_FORMAT_OPTION);
+      client.resetSession(PlannerSettings.STATISTICS_USE.getOptionName());
+      client.resetSession(PlannerSettings.JOIN_ENUMERATION_MAX_INPUTS.getOptionName());
+      run("DROP TABLE IF EXISTS dfs.tmp.employeeJoinEnum");
+      run("DROP TABLE IF EXISTS dfs.tmp.departmentJoinEnum");
+    }
+  }
+
   @Test
   public void testWithMetadataCaching() throws Exception {
     client.alterSession(ExecConstants.SLICE_TARGET, 1);
@@ -25,12 +25,15 @@ import org.apache.drill.categories.SqlTest;
 import org.apache.drill.common.exceptions.UserRemoteException;
 import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.dotdrill.DotDrillType;
+import org.apache.drill.exec.dotdrill.MaterializedView;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Tests for materialized view support in Drill.
@@ -422,4 +425,147 @@ public class TestMaterializedViewSupport extends PlanTestBase {
       test("DROP MATERIALIZED VIEW IF EXISTS dfs.tmp.%s", mvName);
     }
   }
+
+  @Test
+  public void testIncrementalRefreshAggregate() throws Exception {
+    String mvName = "test_mv_incremental_agg";
+    String source = "mv_incremental_agg_src";
+    String mvQuery = "SELECT sales_country, COUNT(*) AS cnt, SUM(region_id) AS total, MAX(region_id) AS max_id " +
+        "FROM dfs.tmp.`" + source + "` GROUP BY sales_country";
+    try {
+      test("CREATE TABLE dfs.tmp.`%s/p1` AS SELECT region_id, sales_country FROM cp.`region.json` WHERE region_id < 50", source);
+      test("CREATE MATERIALIZED VIEW dfs.tmp.%s AS %s", mvName, mvQuery);
+      test("REFRESH MATERIALIZED VIEW dfs.tmp.%s", mvName);
+
+      // New rows arrive in a new file, the refresh merges them into the view data
+      test("CREATE TABLE dfs.tmp.`%s/p2` AS SELECT region_id, sales_country FROM cp.`region.json` WHERE region_id >= 50", source);
+      test("REFRESH MATERIALIZED VIEW dfs.tmp.%s", mvName);
+      // the merged data is written to a new directory, the refresh did not start over
+      File[] mergedDirs = dirTestWatcher.getDfsTestTmpDir().listFiles(
+          (dir, name) -> name.startsWith(mvName + MaterializedView.DATA_DIR_SUFFIX + "_"));
+      assertEquals(1, mergedDirs.length);
+      assertRefreshStatus(mvName, "COMPLETE");
+      testBuilder()
+          .sqlQuery("SELECT sales_country, cnt, total, max_id FROM dfs.tmp.%s", mvName)
+          .unOrdered()
+          .sqlBaselineQuery(mvQuery)
+          .go();
+
+      // Nothing new to process
+      testBuilder()
+          .sqlQuery("REFRESH MATERIALIZED VIEW dfs.tmp.%s", mvName)
+          .unOrdered()
+          .baselineColumns("ok", "summary")
+          .baselineValues(true, String.format(
+              "Materialized view [%s] in schema [dfs.tmp] is up to date with its source files.", mvName))
+          .go();
+    } finally {
+      test("DROP MATERIALIZED VIEW IF EXISTS dfs.tmp.%s", mvName);
+      test("DROP TABLE IF EXISTS dfs.tmp.`%s`", source);
+    }
+  }
+
+  @Test
+  public void testIncrementalRefreshFilter() throws Exception {
+    String mvName = "test_mv_incremental_filter";
+    String source = "mv_incremental_filter_src";
+    String mvQuery = "SELECT region_id, sales_city FROM dfs.tmp.`" + source + "` WHERE sales_country = 'USA'";
+    try {
+      test("CREATE TABLE dfs.tmp.`%s/p1` AS SELECT region_id, sales_city, sales_country FROM cp.`region.json` WHERE region_id < 50", source);
+      test("CREATE MATERIALIZED VIEW dfs.tmp.%s AS %s", mvName, mvQuery);
+      test("REFRESH MATERIALIZED VIEW dfs.tmp.%s", mvName);
+
+      test("CREATE TABLE dfs.tmp.`%s/p2` AS SELECT region_id, sales_city, sales_country FROM cp.`region.json` WHERE region_id >= 50", source);
+      test("REFRESH MATERIALIZED VIEW dfs.tmp.%s", mvName);
+      // the rows of the new file are added to a sub-directory of the view data
+      assertEquals(1, incrementDirs(mvName).length);
+      testBuilder()
+          .sqlQuery("SELECT region_id, sales_city FROM dfs.tmp.%s", mvName)
+          .unOrdered()
+          .sqlBaselineQuery(mvQuery)
+          .go();
+    } finally {
+      test("DROP MATERIALIZED VIEW IF EXISTS dfs.tmp.%s", mvName);
+      test("DROP TABLE IF EXISTS dfs.tmp.`%s`", source);
+    }
+  }
+
+  @Test
+  public void testRefreshAfterSourceFileDeleted() throws Exception {
+    String mvName = "test_mv_incremental_deleted";
+    String source = "mv_incremental_deleted_src";
+    String mvQuery = "SELECT sales_country, COUNT(*) AS cnt FROM dfs.tmp.`" + source + "` GROUP BY sales_country";
+    try {
+      test("CREATE TABLE dfs.tmp.`%s/p1` AS SELECT region_id, sales_country FROM cp.`region.json` WHERE region_id < 50", source);
+      test("CREATE TABLE dfs.tmp.`%s/p2` AS SELECT region_id, sales_country FROM cp.`region.json` WHERE region_id >= 50", source);
+      test("CREATE MATERIALIZED VIEW dfs.tmp.%s AS %s", mvName, mvQuery);
+      test("REFRESH MATERIALIZED VIEW dfs.tmp.%s", mvName);
+
+      // Removing data cannot be applied incrementally, the view is recomputed
+      test("DROP TABLE dfs.tmp.`%s/p2`", source);
+      test("REFRESH MATERIALIZED VIEW dfs.tmp.%s", mvName);
+      testBuilder()
+          .sqlQuery("SELECT sales_country, cnt FROM dfs.tmp.%s", mvName)
+          .unOrdered()
+          .sqlBaselineQuery(mvQuery)
+          .go();
+    } finally {
+      test("DROP MATERIALIZED VIEW IF EXISTS dfs.tmp.%s", mvName);
+      test("DROP TABLE IF EXISTS dfs.tmp.`%s`", source);
+    }
+  }
+
+  @Test
+  public void testFailedIncrementalRefresh() throws Exception {
+    String mvName = "test_mv_incremental_failed";
+    String source = "mv_incremental_failed_src";
+    String mvQuery = "SELECT region_id, CAST(code AS INT) AS code FROM dfs.tmp.`" + source + "`";
+    try {
+      test("CREATE TABLE dfs.tmp.`%s/p1` AS SELECT region_id, CAST(region_id AS VARCHAR) AS code " +
+          "FROM cp.`region.json` WHERE region_id < 50", source);
+      test("CREATE MATERIALIZED VIEW dfs.tmp.%s AS %s", mvName, mvQuery);
+      test("REFRESH MATERIALIZED VIEW dfs.tmp.%s", mvName);
+
+      // The rows of the new file can't be cast, the write of the refresh fails
+      test("CREATE TABLE dfs.tmp.`%s/p2` AS SELECT region_id, 'x' AS code " +
+          "FROM cp.`region.json` WHERE region_id >= 50", source);
+      try {
+        test("REFRESH MATERIALIZED VIEW dfs.tmp.%s", mvName);
+        fail("Refresh should fail");
+      } catch (UserRemoteException e) {
+        // expected
+      }
+      // the new file is not recorded as processed
+      assertRefreshStatus(mvName, "INCOMPLETE");
+
+      // The next refresh recomputes the view
+      test("DROP TABLE dfs.tmp.`%s/p2`", source);
+      test("REFRESH MATERIALIZED VIEW dfs.tmp.%s", mvName);
+      assertRefreshStatus(mvName, "COMPLETE");
+      assertEquals(0, incrementDirs(mvName).length);
+      testBuilder()
+          .sqlQuery("SELECT region_id, code FROM dfs.tmp.%s", mvName)
+          .unOrdered()
+          .sqlBaselineQuery(mvQuery)
+          .go();
+    } finally {
+      test("DROP MATERIALIZED VIEW IF EXISTS dfs.tmp.%s", mvName);
+      test("DROP TABLE IF EXISTS dfs.tmp.`%s`", source);
+    }
+  }
+
+  private static void assertRefreshStatus(String mvName, String status) throws Exception {
+    testBuilder()
+        .sqlQuery("SELECT REFRESH_STATUS FROM INFORMATION_SCHEMA.MATERIALIZED_VIEWS " +
+            "WHERE TABLE_SCHEMA = 'dfs.tmp' AND TABLE_NAME = '%s'", mvName)
+        .unOrdered()
+        .baselineColumns("REFRESH_STATUS")
+        .baselineValues(status)
+        .go();
+  }
+
+  private static File[] incrementDirs(String mvName) {
+    File dataDir = new File(dirTestWatcher.getDfsTestTmpDir(), mvName + MaterializedView.DATA_DIR_SUFFIX);
+    return dataDir.listFiles((dir, name) -> name.startsWith("refresh_"));
+  }
 }
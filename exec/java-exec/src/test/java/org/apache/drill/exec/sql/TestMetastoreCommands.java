@@ -1998,6 +1998,32 @@ public class TestMetastoreCommands extends ClusterTest {
     }
   }
 
+  @Test
+  public void testRowCountAfterDirPartitionPruning() throws Exception {
+    String tableName = "multilevel/parquetDirRowCount";
+
+    dirTestWatcher.copyResourceToTestTmp(Paths.get("multilevel/parquet"), Paths.get(tableName));
+
+    try {
+      run("analyze table dfs.tmp.`%s` REFRESH METADATA", tableName);
+
+      // row group metadata is loaded for the files of the remaining partitions only
+      String query =
+          "select count(*) from dfs.tmp.`%s`\n" +
+          "where dir0=1994 and dir1 in ('Q1', 'Q2')";
+
+      assertEquals(20, queryBuilder().sql(query, tableName).singletonLong());
+
+      queryBuilder()
+          .sql("select * from dfs.tmp.`%s` where dir0=1994 and dir1 in ('Q1', 'Q2')", tableName)
+          .planMatcher()
+          .include("numFiles=2", "usedMetastore=true")
+          .match();
+    } finally {
+      run("analyze table dfs.tmp.`%s` drop metadata if exists", tableName);
+    }
+  }
+
   @Test
   public void testPartitionPruningRootSegment() throws Exception {
     String tableName = "multilevel/parquetRootSegment";
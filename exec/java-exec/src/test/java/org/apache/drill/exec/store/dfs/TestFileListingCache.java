@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.dfs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.test.ClusterFixtureBuilder;
+import org.apache.drill.test.ClusterTest;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TestFileListingCache extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    ClusterFixtureBuilder builder = new ClusterFixtureBuilder(dirTestWatcher)
+        .configProperty(ExecConstants.FILE_LISTING_CACHE_ENABLED, true)
+        .configProperty(ExecConstants.FILE_LISTING_CACHE_TTL, 3600);
+    startCluster(builder);
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    run("DROP TABLE IF EXISTS dfs.tmp.listing_cache_src");
+    run("DROP TABLE IF EXISTS dfs.tmp.listing_cache_copy");
+  }
+
+  @Test
+  public void testRepeatedQueryUsesCachedListing() throws Exception {
+    File tableDir = new File(dirTestWatcher.getDfsTestTmpDir(), "listing_cache_src");
+    assertTrue(new File(tableDir, "d1").mkdirs());
+    writeRows(new File(tableDir, "d1/p1.json"), 1, 2, 3);
+    String sql = "SELECT sum(employee_id) FROM dfs.tmp.listing_cache_src";
+    assertEquals(6, queryBuilder().sql(sql).singletonLong());
+
+    long hits = stat("hits");
+    long misses = stat("misses");
+    assertEquals(6, queryBuilder().sql(sql).singletonLong());
+    assertTrue(stat("hits") > hits);
+    assertEquals(misses, stat("misses"));
+  }
+
+  @Test
+  public void testDdlInvalidatesListings() throws Exception {
+    File tableDir = new File(dirTestWatcher.getDfsTestTmpDir(), "listing_cache_src");
+    assertTrue(new File(tableDir, "d1").mkdirs());
+    writeRows(new File(tableDir, "d1/p1.json"), 1, 2, 3);
+    String sql = "SELECT sum(employee_id) FROM dfs.tmp.listing_cache_src";
+    assertEquals(6, queryBuilder().sql(sql).singletonLong());
+
+    // a file written outside of Drill is not seen while the listing is cached
+    writeRows(new File(tableDir, "d1/p2.json"), 4, 5);
+    assertEquals(6, queryBuilder().sql(sql).singletonLong());
+
+    long invalidations = stat("invalidations");
+    run("CREATE TABLE dfs.tmp.listing_cache_copy AS SELECT * FROM cp.`employee.json` LIMIT 1");
+    assertTrue(stat("invalidations") > invalidations);
+    assertEquals(15, queryBuilder().sql(sql).singletonLong());
+  }
+
+  private static void writeRows(File file, int... ids) throws Exception {
+    StringBuilder rows = new StringBuilder();
+    for (int id : ids) {
+      rows.append("{\"employee_id\": ").append(id).append("}\n");
+    }
+    Files.write(file.toPath(), rows.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private long stat(String column) throws Exception {
+    return queryBuilder().sql("SELECT %s FROM sys.file_listing_cache", column).singletonLong();
+  }
+}
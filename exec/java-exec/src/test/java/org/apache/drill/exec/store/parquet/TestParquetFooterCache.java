@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.PrivilegedExceptionAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.test.ClusterFixtureBuilder;
+import org.apache.drill.test.ClusterTest;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TestParquetFooterCache extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    ClusterFixtureBuilder builder = new ClusterFixtureBuilder(dirTestWatcher)
+        .configProperty(ExecConstants.PARQUET_FOOTER_CACHE_ENABLED, true)
+        .configProperty(ExecConstants.PARQUET_FOOTER_CACHE_DIRECTORY,
+            new File(dirTestWatcher.getTmpDir(), "footer_cache").getPath());
+    startCluster(builder);
+    run("CREATE TABLE dfs.tmp.footer_cache_src AS SELECT * FROM cp.`employee.json`");
+  }
+
+  @AfterClass
+  public static void cleanup() throws Exception {
+    run("DROP TABLE IF EXISTS dfs.tmp.footer_cache_src");
+  }
+
+  @Test
+  public void testRepeatedQueryUsesCachedFooters() throws Exception {
+    String sql = "SELECT count(*) FROM dfs.tmp.footer_cache_src WHERE position_id = 2";
+    long expected = queryBuilder().sql(sql).singletonLong();
+    assertTrue(stat("entries") > 0);
+
+    long hits = stat("hits");
+    long misses = stat("misses");
+    assertEquals(expected, queryBuilder().sql(sql).singletonLong());
+    assertTrue(stat("hits") > hits);
+    assertEquals(misses, stat("misses"));
+  }
+
+  @Test
+  public void testFootersAreStoredOnDisk() throws Exception {
+    queryBuilder().sql("SELECT count(*) FROM dfs.tmp.footer_cache_src").run();
+    File[] files = footerFiles();
+    assertTrue(files != null && files.length > 0);
+  }
+
+  @Test
+  public void testRewrittenFileReplacesFooter() throws Exception {
+    run("CREATE TABLE dfs.tmp.footer_cache_rewrite AS SELECT * FROM cp.`employee.json`");
+    queryBuilder().sql("SELECT count(*) FROM dfs.tmp.footer_cache_rewrite").run();
+    int footerFiles = footerFiles().length;
+
+    run("DROP TABLE dfs.tmp.footer_cache_rewrite");
+    run("CREATE TABLE dfs.tmp.footer_cache_rewrite AS SELECT * FROM cp.`employee.json` WHERE position_id = 2");
+    long misses = stat("misses");
+    long expected = queryBuilder().sql("SELECT count(*) FROM cp.`employee.json` WHERE position_id = 2").singletonLong();
+    assertEquals(expected, queryBuilder().sql("SELECT count(*) FROM dfs.tmp.footer_cache_rewrite").singletonLong());
+    assertTrue(stat("misses") > misses);
+    // the footer of the new file took the place of the footer of the old one
+    assertEquals(footerFiles, footerFiles().length);
+    run("DROP TABLE dfs.tmp.footer_cache_rewrite");
+  }
+
+  @Test
+  public void testLeastRecentlyUsedFootersAreDeleted() throws Exception {
+    File directory = dirTestWatcher.makeSubDir(Paths.get("footer_cache_bound"));
+    long now = System.currentTimeMillis();
+    for (int i = 0; i < 4; i++) {
+      File file = new File(directory, "footer" + i);
+      Files.write(file.toPath(), new byte[100]);
+      assertTrue(file.setLastModified(now - (4 - i) * 60_000L));
+    }
+
+    assertEquals(400, ParquetFooterCache.cleanDirectory(directory, 400));
+    assertEquals(200, ParquetFooterCache.cleanDirectory(directory, 250));
+    assertFalse(new File(directory, "footer0").exists());
+    assertFalse(new File(directory, "footer1").exists());
+    assertTrue(new File(directory, "footer2").exists());
+    assertTrue(new File(directory, "footer3").exists());
+  }
+
+  @Test
+  public void testFootersAreCachedPerUser() throws Exception {
+    File parquetFile = FileUtils.listFiles(new File(dirTestWatcher.getDfsTestTmpDir(), "footer_cache_src"),
+        new String[] {"parquet"}, true).iterator().next();
+    Configuration conf = new Configuration();
+    FileStatus status = FileSystem.getLocal(conf).getFileStatus(new Path(parquetFile.toURI()));
+    AtomicInteger reads = new AtomicInteger();
+    ParquetFooterCache.FooterReader reader = () -> {
+      reads.incrementAndGet();
+      try (ParquetFileReader fileReader = ParquetFileReader.open(HadoopInputFile.fromStatus(status, conf))) {
+        return fileReader.getFooter();
+      }
+    };
+
+    ParquetMetadata footer = readAs("footer_cache_user1", status, reader);
+    assertEquals(1, reads.get());
+    readAs("footer_cache_user1", status, reader);
+    assertEquals(1, reads.get());
+    // another user does not get the footer read for the first one
+    ParquetMetadata otherFooter = readAs("footer_cache_user2", status, reader);
+    assertEquals(2, reads.get());
+    assertEquals(footer.getBlocks().size(), otherFooter.getBlocks().size());
+  }
+
+  private ParquetMetadata readAs(String user, FileStatus status, ParquetFooterCache.FooterReader reader)
+      throws Exception {
+    return UserGroupInformation.createRemoteUser(user).doAs((PrivilegedExceptionAction<ParquetMetadata>) () ->
+        ParquetFooterCache.readFooter(status, ParquetReaderConfig.getDefaultInstance(), reader));
+  }
+
+  private File[] footerFiles() {
+    return new File(dirTestWatcher.getTmpDir(), "footer_cache").listFiles();
+  }
+
+  private long stat(String column) throws Exception {
+    return queryBuilder().sql("SELECT %s FROM sys.parquet_footer_cache", column).singletonLong();
+  }
+}
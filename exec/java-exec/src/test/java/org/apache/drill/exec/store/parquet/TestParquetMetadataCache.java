@@ -1636,6 +1636,38 @@ public class TestParquetMetadataCache extends ClusterTest {
       .match();
   }
 
+  @Test
+  public void testIncrementalRefresh() throws Exception {
+    String tableName = "orders_incremental_refresh";
+    dirTestWatcher.copyResourceToRoot(Paths.get("multilevel/parquet/1994"), Paths.get(tableName));
+    // files written in the same time unit as the metadata are read again by the next refresh
+    long modificationTime = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(1);
+    for (File tableFile : FileUtils.listFiles(new File(dirTestWatcher.getRootDir(), tableName), null, true)) {
+      assertTrue(tableFile.setLastModified(modificationTime));
+    }
+    run("refresh table metadata dfs.`%s`", tableName);
+    checkForMetadataFile(tableName);
+    String countQuery = String.format("select count(*) from dfs.`%s`", tableName);
+    String nonNullCountQuery = String.format("select count(o_custkey) from dfs.`%s`", tableName);
+    assertEquals(40, client.queryBuilder().sql(countQuery).singletonLong());
+
+    // only the footer of the new file is read, the metadata of the others is taken from the previous refresh
+    File quarterDir = new File(dirTestWatcher.getRootDir(), tableName + "/Q1");
+    File file = quarterDir.listFiles((dir, name) -> name.endsWith(".parquet"))[0];
+    FileUtils.copyFile(file, new File(quarterDir, "copy_" + file.getName()));
+    long footerReads = Metadata.getFooterReadCount();
+    run("refresh table metadata dfs.`%s`", tableName);
+    assertEquals(footerReads + 1, Metadata.getFooterReadCount());
+    assertEquals(50, client.queryBuilder().sql(countQuery).singletonLong());
+    assertEquals(50, client.queryBuilder().sql(nonNullCountQuery).singletonLong());
+
+    client.queryBuilder()
+      .sql("select * from dfs.`%s`", tableName)
+      .planMatcher()
+      .include("numFiles=5", "usedMetadataFile=true")
+      .match();
+  }
+
   private void checkForMetadataFile(String tableName) {
     assertTrue(
       String.format("There is no metadata cache file for the %s table", tableName),
@@ -124,6 +124,21 @@ public class TestAssignment extends BaseTest {
     }
   }
 
+  @Test
+  public void manyChunksAreAssignedDeterministically() throws Exception {
+    // enough chunks for the endpoints of the chunks to be sorted in parallel
+    List<CompleteFileWork> chunks = generateChunks(20_000);
+    List<DrillbitEndpoint> incomingEndpoints = Lists.newArrayList(
+        Iterators.limit(Iterators.cycle(endpoints), widthPerNode * numEndPoints));
+
+    ListMultimap<Integer, CompleteFileWork> mappings = AssignmentCreator.getMappings(incomingEndpoints, chunks);
+    Assert.assertEquals(chunks.size(), mappings.size());
+    Assert.assertEquals(chunks.size(), Sets.newHashSet(mappings.values()).size());
+    for (int i = 0; i < 5; i++) {
+      Assert.assertEquals(mappings, AssignmentCreator.getMappings(incomingEndpoints, chunks));
+    }
+  }
+
   private List<CompleteFileWork> generateChunks(int chunks) {
     List<CompleteFileWork> chunkList = Lists.newArrayList();
     for (int i = 0; i < chunks; i++) {
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.sys;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.proto.SchemaUserBitShared;
+import org.apache.drill.exec.proto.UserBitShared.MajorFragmentProfile;
+import org.apache.drill.exec.proto.UserBitShared.QueryProfile;
+import org.apache.drill.exec.serialization.BinaryProtoSerializer;
+import org.apache.drill.exec.serialization.InstanceSerializer;
+import org.apache.drill.exec.serialization.ProtoSerializer;
+import org.apache.drill.test.ClusterFixtureBuilder;
+import org.apache.drill.test.ClusterTest;
+import org.apache.drill.test.ProfileParser;
+import org.apache.drill.test.QueryBuilder.QuerySummary;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Stores profiles in the binary format, with the summary index and
+ * asynchronous writes enabled.
+ */
+public class TestBinaryProfileStore extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    ClusterFixtureBuilder builder = new ClusterFixtureBuilder(dirTestWatcher)
+        .saveProfiles()
+        .configProperty(ExecConstants.PROFILES_STORE_FORMAT, "binary")
+        .configProperty(ExecConstants.PROFILES_STORE_ASYNC_WRITE, true)
+        .configProperty(ExecConstants.PROFILES_STORE_INDEX, true);
+    startCluster(builder);
+  }
+
+  @Test
+  public void testSerializerRoundTrip() throws Exception {
+    QueryProfile profile = QueryProfile.newBuilder()
+        .setQuery("SELECT 1")
+        .setStart(1)
+        .setEnd(2)
+        .addFragmentProfile(MajorFragmentProfile.newBuilder().setMajorFragmentId(0))
+        .build();
+    InstanceSerializer<QueryProfile> binary =
+        new BinaryProtoSerializer<>(SchemaUserBitShared.QueryProfile.MERGE, SchemaUserBitShared.QueryProfile.WRITE);
+    InstanceSerializer<QueryProfile> json =
+        new ProtoSerializer<>(SchemaUserBitShared.QueryProfile.MERGE, SchemaUserBitShared.QueryProfile.WRITE);
+
+    byte[] binaryBytes = binary.serialize(profile);
+    byte[] jsonBytes = json.serialize(profile);
+    assertTrue(binaryBytes.length < jsonBytes.length);
+    assertEquals(profile, binary.deserialize(binaryBytes));
+    // profiles stored before the switch to the binary format stay readable
+    assertEquals(profile, binary.deserialize(jsonBytes));
+  }
+
+  @Test
+  public void testBinaryStartingWithWhitespace() throws Exception {
+    // end (field 4, varint) is tagged with ' ', followed here by the value '{'
+    QueryProfile profile = QueryProfile.newBuilder()
+        .setEnd('{')
+        .build();
+    InstanceSerializer<QueryProfile> binary =
+        new BinaryProtoSerializer<>(SchemaUserBitShared.QueryProfile.MERGE, SchemaUserBitShared.QueryProfile.WRITE);
+
+    byte[] binaryBytes = binary.serialize(profile);
+    assertEquals(' ', binaryBytes[0]);
+    assertEquals('{', binaryBytes[1]);
+    assertEquals(profile, binary.deserialize(binaryBytes));
+  }
+
+  @Test
+  public void testProfileTables() throws Exception {
+    QuerySummary summary = queryBuilder().sql("SELECT count(*) FROM cp.`employee.json`").run();
+    String queryId = summary.queryIdString();
+
+    ProfileParser profile = client.parseProfile(summary);
+    assertEquals("SELECT count(*) FROM cp.`employee.json`", profile.getQuery());
+
+    String sql = String.format("SELECT count(*) FROM sys.profiles WHERE queryId = '%s'", queryId);
+    assertEquals(1, queryBuilder().sql(sql).singletonLong());
+    sql = String.format("SELECT count(*) FROM sys.profiles_json WHERE queryId = '%s' AND json LIKE '%%fragmentProfile%%'", queryId);
+    assertEquals(1, queryBuilder().sql(sql).singletonLong());
+  }
+}
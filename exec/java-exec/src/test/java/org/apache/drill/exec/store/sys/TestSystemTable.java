@@ -76,6 +76,36 @@ public class TestSystemTable extends PlanTestBase {
     test("select * from sys.threads");
   }
 
+  @Test
+  public void querySharesTable() throws Exception {
+    test("select * from sys.query_shares");
+  }
+
+  @Test
+  public void queryPlanCacheTable() throws Exception {
+    test("select * from sys.query_plan_cache");
+  }
+
+  @Test
+  public void resultCacheTable() throws Exception {
+    test("select * from sys.result_cache");
+  }
+
+  @Test
+  public void parquetFooterCacheTable() throws Exception {
+    test("select * from sys.parquet_footer_cache");
+  }
+
+  @Test
+  public void fileListingCacheTable() throws Exception {
+    test("select * from sys.file_listing_cache");
+  }
+
+  @Test
+  public void codeCacheTable() throws Exception {
+    test("select * from sys.code_cache");
+  }
+
   @Test
   public void memoryTable() throws Exception {
     test("select * from sys.memory");
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.work.fragment;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.test.ClusterFixtureBuilder;
+import org.apache.drill.test.ClusterTest;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Runs multi-fragment queries with fragments driven by the
+ * {@link FragmentScheduler} on a deliberately small pool with a tiny
+ * time slice, so fragments park and resume many times per query.
+ */
+public class TestCooperativeFragmentScheduling extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    ClusterFixtureBuilder builder = new ClusterFixtureBuilder(dirTestWatcher)
+        .clusterSize(2)
+        .configProperty(ExecConstants.FRAGMENT_SCHEDULER_COOPERATIVE, true)
+        .configProperty(ExecConstants.FRAGMENT_SCHEDULER_THREADS, 2)
+        .configProperty(ExecConstants.FRAGMENT_SCHEDULER_TIME_SLICE_MS, 1)
+        .sessionOption(ExecConstants.SLICE_TARGET, 1);
+    startCluster(builder);
+  }
+
+  @Test
+  public void testScan() throws Exception {
+    assertEquals(1155, queryBuilder().sql("SELECT count(*) FROM cp.`employee.json`").singletonLong());
+  }
+
+  @Test
+  public void testHashExchange() throws Exception {
+    String sql = "SELECT count(*) FROM (SELECT position_id, count(*) c FROM cp.`employee.json` GROUP BY position_id)";
+    String expectedSql = "SELECT count(DISTINCT position_id) FROM cp.`employee.json`";
+    assertEquals(queryBuilder().sql(expectedSql).singletonLong(), queryBuilder().sql(sql).singletonLong());
+  }
+
+  @Test
+  public void testLimitCancelsUpstream() throws Exception {
+    String sql = "SELECT count(*) FROM (SELECT * FROM cp.`employee.json` ORDER BY employee_id LIMIT 10)";
+    assertEquals(10, queryBuilder().sql(sql).singletonLong());
+  }
+
+  @Test
+  public void testSchedulingWeight() throws Exception {
+    try {
+      client.alterSession(ExecConstants.QUERY_SCHEDULING_WEIGHT_KEY, 1000);
+      assertEquals(1155, queryBuilder().sql("SELECT count(*) FROM cp.`employee.json`").singletonLong());
+    } finally {
+      client.resetSession(ExecConstants.QUERY_SCHEDULING_WEIGHT_KEY);
+    }
+  }
+
+  @Test
+  public void testQuerySharesTable() throws Exception {
+    try {
+      // the query reading the table is itself scheduled, so every Drillbit reports it
+      client.alterSession(ExecConstants.QUERY_SCHEDULING_WEIGHT_KEY, 7);
+      String sql = "SELECT count(*) FROM sys.query_shares WHERE weight = 7";
+      assertEquals(2, queryBuilder().sql(sql).singletonLong());
+    } finally {
+      client.resetSession(ExecConstants.QUERY_SCHEDULING_WEIGHT_KEY);
+    }
+  }
+}
@@ -21,6 +21,7 @@ import java.sql.Date;
 import java.util.List;
 
 import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.proto.UserBitShared.DrillPBError.ErrorType;
 import org.apache.drill.exec.proto.UserProtos.PreparedStatement;
 import org.junit.Test;
@@ -105,6 +106,37 @@ public class TestPreparedStatementProvider extends PreparedStatementTestBase {
     verifyMetadata(expMetadata, preparedStatement.getColumnsList());
   }
 
+  /**
+   * Executions of a prepared statement after the first one reuse its plan.
+   */
+  @Test
+  public void reusePlan() throws Exception {
+    try {
+      alterSession(ExecConstants.PREPARED_STATEMENT_CACHE_PLAN_KEY, true);
+      test("CREATE TABLE dfs.tmp.prepared_plan_src AS SELECT region_id, sales_city FROM cp.`region.json`");
+      PreparedStatement preparedStatement = createPrepareStmt(
+          "SELECT sales_city FROM dfs.tmp.prepared_plan_src WHERE region_id = 1", false, null);
+
+      for (int i = 0; i < 2; i++) {
+        testBuilder()
+            .unOrdered()
+            .preparedStatement(preparedStatement.getServerHandle())
+            .sqlBaselineQuery("SELECT sales_city FROM cp.`region.json` WHERE region_id = 1")
+            .go();
+      }
+
+      testBuilder()
+          .sqlQuery("SELECT hits > 0 AS reused FROM sys.query_plan_cache")
+          .unOrdered()
+          .baselineColumns("reused")
+          .baselineValues(true)
+          .go();
+    } finally {
+      resetSessionOption(ExecConstants.PREPARED_STATEMENT_CACHE_PLAN_KEY);
+      test("DROP TABLE IF EXISTS dfs.tmp.prepared_plan_src");
+    }
+  }
+
   /**
    * Pass an invalid query to the create prepare statement request and expect a parser failure.
    * @throws Exception
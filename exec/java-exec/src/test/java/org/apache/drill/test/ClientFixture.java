@@ -19,10 +19,12 @@ package org.apache.drill.test;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.ExecutionException;
@@ -31,6 +33,7 @@ import org.apache.drill.common.config.DrillProperties;
 import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.client.DrillClient;
 import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.proto.UserBitShared.QueryProfile;
 import org.apache.drill.exec.proto.UserBitShared.QueryType;
 import org.apache.drill.exec.proto.UserProtos.QueryPlanFragments;
 import org.apache.drill.exec.record.BatchSchema;
@@ -38,6 +41,8 @@ import org.apache.drill.exec.record.metadata.TupleMetadata;
 import org.apache.drill.exec.rpc.DrillRpcFuture;
 import org.apache.drill.exec.rpc.RpcException;
 import org.apache.drill.exec.rpc.user.QueryDataBatch;
+import org.apache.drill.exec.server.Drillbit;
+import org.apache.drill.exec.server.QueryProfileStoreContext;
 import org.apache.drill.exec.testing.ControlsInjectionUtil;
 import org.apache.drill.test.ClusterFixture.FixtureTestServices;
 import org.apache.drill.test.QueryBuilder.QuerySummary;
@@ -276,17 +281,26 @@ public class ClientFixture implements AutoCloseable {
   }
 
   /**
-   * Parse a query profile from the local storage location given the
-   * query ID. Saving of profiles must be turned on. This is a bit of
-   * a hack: the profile should be available directly from the server.
+   * Parse a query profile given the query ID. Saving of profiles must be
+   * turned on. The profile is read through the profile store of the
+   * Drillbit that ran the query, so profiles still queued for an
+   * asynchronous write and profiles stored in the binary format are both
+   * visible.
    *
    * @param queryId query ID
    * @return profile parser
    * @throws IOException if unable to parse the profile
    */
   public ProfileParser parseProfile(String queryId) throws IOException {
-    File file = new File(cluster.getProfileDir(), queryId + ".sys.drill");
-    return new ProfileParser(file);
+    for (Drillbit drillbit : cluster.drillbits()) {
+      QueryProfileStoreContext profileStoreContext = drillbit.getContext().getProfileStoreContext();
+      QueryProfile profile = profileStoreContext.getCompletedProfile(queryId);
+      if (profile != null) {
+        return new ProfileParser(new String(
+            profileStoreContext.getProfileJsonSerializer().serialize(profile), StandardCharsets.UTF_8));
+      }
+    }
+    throw new FileNotFoundException("No profile found for query " + queryId);
   }
 
   /**
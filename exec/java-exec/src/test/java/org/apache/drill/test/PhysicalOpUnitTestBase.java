@@ -40,6 +40,7 @@ import org.apache.drill.exec.store.dfs.DrillFileSystem;
 import org.apache.drill.exec.store.easy.json.JSONRecordReader;
 import org.apache.drill.exec.work.batch.IncomingBuffers;
 import org.apache.drill.exec.work.filter.RuntimeFilterWritable;
+import org.apache.drill.exec.work.fragment.FragmentScheduler;
 import org.apache.drill.common.config.DrillConfig;
 import org.apache.drill.common.exceptions.ExecutionSetupException;
 import org.apache.drill.common.expression.SchemaPath;
@@ -296,6 +297,11 @@ public class PhysicalOpUnitTestBase extends ExecTest {
       return false;
     }
 
+    @Override
+    public FragmentScheduler getFragmentScheduler() {
+      return null;
+    }
+
     @Override
     public void addRuntimeFilter(RuntimeFilterWritable runtimeFilter) {
     }
@@ -20,6 +20,7 @@ package org.apache.drill.test;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -101,6 +102,14 @@ public class ProfileParser {
     parse();
   }
 
+  public ProfileParser(String json) {
+    try (JsonReader reader = Json.createReader(new StringReader(json))) {
+      profile = (JsonObject) reader.read();
+    }
+
+    parse();
+  }
+
   private void parse() {
     parseQuery();
     parsePlans();